@@ -2,16 +2,19 @@ package org.araymond.joal.core;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.config.SocketConfig;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
 import org.araymond.joal.core.bandwith.BandwidthDispatcher;
+import org.araymond.joal.core.bandwith.CoalescingSpeedChangedListener;
 import org.araymond.joal.core.bandwith.RandomSpeedProvider;
 import org.araymond.joal.core.bandwith.Speed;
-import org.araymond.joal.core.bandwith.SpeedChangedListener;
+import org.araymond.joal.core.bandwith.weight.PeersAwareWeightCalculator;
 import org.araymond.joal.core.client.emulated.BitTorrentClient;
 import org.araymond.joal.core.client.emulated.BitTorrentClientProvider;
 import org.araymond.joal.core.config.AppConfiguration;
@@ -19,11 +22,11 @@ import org.araymond.joal.core.config.JoalConfigProvider;
 import org.araymond.joal.core.events.config.ListOfClientFilesEvent;
 import org.araymond.joal.core.events.global.state.GlobalSeedStartedEvent;
 import org.araymond.joal.core.events.global.state.GlobalSeedStoppedEvent;
-import org.araymond.joal.core.events.speed.SeedingSpeedsHasChangedEvent;
 import org.araymond.joal.core.events.torrent.files.FailedToAddTorrentFileEvent;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 import org.araymond.joal.core.torrent.torrent.MockedTorrent;
 import org.araymond.joal.core.torrent.watcher.TorrentFileProvider;
+import org.araymond.joal.core.torrent.watcher.TorrentFileUpload;
 import org.araymond.joal.core.ttorrent.client.ClientBuilder;
 import org.araymond.joal.core.ttorrent.client.ClientFacade;
 import org.araymond.joal.core.ttorrent.client.ConnectionHandler;
@@ -31,13 +34,14 @@ import org.araymond.joal.core.ttorrent.client.DelayQueue;
 import org.araymond.joal.core.ttorrent.client.announcer.AnnouncerFacade;
 import org.araymond.joal.core.ttorrent.client.announcer.AnnouncerFactory;
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnounceDataAccessor;
+import org.araymond.joal.core.ttorrent.client.announcer.tracker.TrackerScraper;
+import org.araymond.joal.core.ttorrent.client.announcer.tracker.UdpTrackerSocket;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
@@ -48,7 +52,12 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class SeedManager {
 
+    private static final long DEFAULT_SPEED_EVENTS_WINDOW_MS = TimeUnit.SECONDS.toMillis(1);
+    private static final long SPEED_EVENTS_KEYFRAME_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);
+
     private final CloseableHttpClient httpClient;
+    private final CloseableHttpAsyncClient asyncHttpClient;
+    private UdpTrackerSocket udpTrackerSocket;
     @Getter
     private boolean seeding;
     private final JoalFoldersPath joalFoldersPath;
@@ -58,6 +67,7 @@ public class SeedManager {
     private final ApplicationEventPublisher publisher;
     private final ConnectionHandler connectionHandler;
     private BandwidthDispatcher bandwidthDispatcher;
+    private CoalescingSpeedChangedListener speedChangedListener;
     private ClientFacade client;
 
     public SeedManager(final String joalConfFolder, final ObjectMapper mapper, final ApplicationEventPublisher publisher) throws IOException {
@@ -81,9 +91,23 @@ public class SeedManager {
                 .setConnectionManager(connManager)
                 .setConnectionManagerShared(true)
                 .build();
+
+        // A couple of I/O threads are enough to keep thousands of announces in flight.
+        final IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(2)
+                .setConnectTimeout(30_000)
+                .setSoTimeout(30_000)
+                .build();
+        this.asyncHttpClient = HttpAsyncClients.custom()
+                .setDefaultIOReactorConfig(ioReactorConfig)
+                .setMaxConnPerRoute(500)
+                .setMaxConnTotal(2000)
+                .build();
     }
 
     public void init() throws IOException {
+        this.asyncHttpClient.start();
+        this.udpTrackerSocket = new UdpTrackerSocket();
         this.connectionHandler.start();
         this.torrentFileProvider.start();
     }
@@ -94,6 +118,18 @@ public class SeedManager {
         if (this.client != null) {
             this.client.stop();
         }
+        try {
+            this.asyncHttpClient.close();
+        } catch (final IOException e) {
+            log.warn("Failed to close async http client", e);
+        }
+        if (this.udpTrackerSocket != null) {
+            try {
+                this.udpTrackerSocket.close();
+            } catch (final IOException e) {
+                log.warn("Failed to close UDP tracker socket", e);
+            }
+        }
     }
 
     public void startSeeding() throws IOException {
@@ -110,17 +146,28 @@ public class SeedManager {
         final BitTorrentClient bitTorrentClient = bitTorrentClientProvider.get();
 
         final RandomSpeedProvider randomSpeedProvider = new RandomSpeedProvider(appConfiguration);
-        this.bandwidthDispatcher = new BandwidthDispatcher(5000, randomSpeedProvider);
-        this.bandwidthDispatcher.setSpeedListener(new SeedManagerSpeedChangeListener(this.publisher));
+        this.bandwidthDispatcher = new BandwidthDispatcher(
+                randomSpeedProvider,
+                Optional.ofNullable(appConfiguration.getWeightCalculator()).orElseGet(PeersAwareWeightCalculator::new)
+        );
+        this.speedChangedListener = new CoalescingSpeedChangedListener(
+                this.publisher,
+                Optional.ofNullable(appConfiguration.getSpeedEventsWindowMs()).map(Integer::longValue).orElse(DEFAULT_SPEED_EVENTS_WINDOW_MS),
+                SPEED_EVENTS_KEYFRAME_INTERVAL_MS
+        );
+        this.speedChangedListener.start();
+        this.bandwidthDispatcher.setSpeedListener(this.speedChangedListener);
         this.bandwidthDispatcher.start();
 
         final AnnounceDataAccessor announceDataAccessor = new AnnounceDataAccessor(bitTorrentClient, bandwidthDispatcher, this.connectionHandler);
 
+        final boolean nonBlocking = this.asyncHttpClient.isRunning();
         this.client = ClientBuilder.builder()
                 .withAppConfiguration(appConfiguration)
                 .withTorrentFileProvider(this.torrentFileProvider)
                 .withBandwidthDispatcher(this.bandwidthDispatcher)
-                .withAnnouncerFactory(new AnnouncerFactory(announceDataAccessor, httpClient))
+                .withAnnouncerFactory(new AnnouncerFactory(announceDataAccessor, httpClient, nonBlocking ? asyncHttpClient : null, udpTrackerSocket))
+                .withTrackerScraper(nonBlocking ? new TrackerScraper(announceDataAccessor, asyncHttpClient, udpTrackerSocket) : null)
                 .withEventPublisher(this.publisher)
                 .withDelayQueue(new DelayQueue<>())
                 .build();
@@ -135,11 +182,9 @@ public class SeedManager {
 
     public void saveTorrentToDisk(final String name, final byte[] bytes) {
         try {
-            // test if torrent file is valid or not.
-            MockedTorrent.fromBytes(bytes);
-
             final String torrentName = name.endsWith(".torrent") ? name : name + ".torrent";
-            Files.write(this.joalFoldersPath.getTorrentFilesPath().resolve(torrentName), bytes, StandardOpenOption.CREATE);
+            // Validated and registered at once, the watcher won't parse it again
+            this.torrentFileProvider.addTorrentFile(torrentName, bytes);
         } catch (final Exception e) {
             log.warn("Failed to save torrent file", e);
             // If NullPointerException occurs (when the file is an empty file) there is no message.
@@ -148,6 +193,13 @@ public class SeedManager {
         }
     }
 
+    /**
+     * Starts adding many torrent files at once, see {@link TorrentFileUpload}.
+     */
+    public TorrentFileUpload newTorrentFileUpload() {
+        return this.torrentFileProvider.newUpload();
+    }
+
     public void deleteTorrent(final InfoHash torrentInfoHash) {
         this.torrentFileProvider.moveToArchiveFolder(torrentInfoHash);
     }
@@ -201,6 +253,10 @@ public class SeedManager {
             this.bandwidthDispatcher.setSpeedListener(null);
             this.bandwidthDispatcher = null;
         }
+        if (this.speedChangedListener != null) {
+            this.speedChangedListener.stop();
+            this.speedChangedListener = null;
+        }
     }
 
 
@@ -210,6 +266,7 @@ public class SeedManager {
         private final Path torrentFilesPath;
         private final Path torrentArchivedPath;
         private final Path clientsFilesPath;
+        private final Path torrentIndexPath;
 
         /**
          * Resolves, stores & exposes location to various configuration file-paths.
@@ -219,6 +276,7 @@ public class SeedManager {
             this.torrentFilesPath = this.confPath.resolve("torrents");
             this.torrentArchivedPath = this.torrentFilesPath.resolve("archived");
             this.clientsFilesPath = this.confPath.resolve("clients");
+            this.torrentIndexPath = this.confPath.resolve("torrents.index");
 
             if (!Files.isDirectory(confPath)) {
                 log.warn("No such directory: {}", this.confPath);
@@ -231,14 +289,4 @@ public class SeedManager {
             }
         }
     }
-
-    @RequiredArgsConstructor
-    private static final class SeedManagerSpeedChangeListener implements SpeedChangedListener {
-        private final ApplicationEventPublisher publisher;
-
-        @Override
-        public void speedsHasChanged(final Map<InfoHash, Speed> speeds) {
-            this.publisher.publishEvent(new SeedingSpeedsHasChangedEvent(speeds));
-        }
-    }
 }
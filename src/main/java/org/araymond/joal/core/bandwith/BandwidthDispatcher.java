@@ -4,42 +4,87 @@ import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.araymond.joal.core.bandwith.weight.PeersAwareWeightCalculator;
+import org.araymond.joal.core.bandwith.weight.WeightCalculator;
 import org.araymond.joal.core.bandwith.weight.WeightHolder;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
 
-import static java.util.Optional.ofNullable;
 import static java.util.concurrent.TimeUnit.MINUTES;
-import static org.apache.commons.lang3.ObjectUtils.getIfNull;
 
+/**
+ * Shares the global upload speed among the seeded torrents, in proportion of their weight.
+ * <p>
+ * The speed of a torrent is {@code weight * bytesPerSecondPerWeight}, with {@code bytesPerSecondPerWeight =
+ * globalSpeed / totalWeight}. When the peers of a single torrent change, the total weight changes and so does the
+ * speed of every torrent with a non-zero weight: speeds are therefore never stored, only the weights and that single
+ * scale factor, and the speeds are computed when asked for. A peers update costs the same whatever the number of
+ * torrents. The listener is handed the weights that changed and the new scale factor, see
+ * {@link SpeedChangedListener}.
+ * <p>
+ * The uploaded bytes are not accumulated on a timer either: {@code uploadedPerWeight} is what a torrent of weight 1
+ * would have uploaded since the start, it only moves forward when the scale factor changes. Each torrent keeps what it
+ * uploaded until its last weight change and {@code uploadedPerWeight} at that time, its uploaded bytes are computed
+ * when asked for and are exact whatever the thread scheduling. The dispatcher thread only refreshes the global speed
+ * every 20 minutes.
+ * <p>
+ * Each registered torrent gets a dense slot from {@link TorrentSlots}, its state lives in primitive arrays indexed by
+ * that slot (here and in the {@link WeightHolder}): a million torrents cost a few arrays rather than millions of map
+ * entries and boxed values.
+ */
 @Slf4j
 public class BandwidthDispatcher implements BandwidthDispatcherFacade, Runnable {
     private final ReentrantReadWriteLock lock;
-    private final WeightHolder<InfoHash> weightHolder;
+    // Fair, so listener notifications are delivered in the order the changes were made
+    private final ReentrantLock notificationLock;
+    private final WeightHolder weightHolder;
     private final RandomSpeedProvider randomSpeedProvider;
-    private final Map<InfoHash, TorrentSeedStats> torrentsSeedStats;
-    private final Map<InfoHash, Speed> speedMap;
+    private final TorrentSlots slots;
+    // Upload of each torrent by slot, until its last weight change
+    private double[] uploadedAtLastChange;
+    private double[] uploadedPerWeightAtLastChange;
+    private final LongSupplier nanoTime;
+    private double bytesPerSecondPerWeight;
+    private double uploadedPerWeight;
+    private long uploadedPerWeightNanos;
     private SpeedChangedListener speedChangedListener;
-    private final int threadPauseIntervalMs;
-    private int threadLoopCounter;
     private volatile boolean stop;
     private Thread thread;
 
     private static final long TWENTY_MINS_MS = MINUTES.toMillis(20);
 
 
-    public BandwidthDispatcher(final int threadPauseIntervalMs, final RandomSpeedProvider randomSpeedProvider) {
-        this.threadPauseIntervalMs = threadPauseIntervalMs;
-        this.torrentsSeedStats = new HashMap<>();
-        this.speedMap = new HashMap<>();
+    public BandwidthDispatcher(final RandomSpeedProvider randomSpeedProvider) {
+        this(randomSpeedProvider, new PeersAwareWeightCalculator());
+    }
+
+    public BandwidthDispatcher(final RandomSpeedProvider randomSpeedProvider, final WeightCalculator weightCalculator) {
+        this(randomSpeedProvider, weightCalculator, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    BandwidthDispatcher(final RandomSpeedProvider randomSpeedProvider, final LongSupplier nanoTime) {
+        this(randomSpeedProvider, new PeersAwareWeightCalculator(), nanoTime);
+    }
+
+    @VisibleForTesting
+    BandwidthDispatcher(final RandomSpeedProvider randomSpeedProvider, final WeightCalculator weightCalculator, final LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.slots = new TorrentSlots();
+        this.uploadedAtLastChange = new double[16];
+        this.uploadedPerWeightAtLastChange = new double[16];
+        this.uploadedPerWeightNanos = nanoTime.getAsLong();
         this.lock = new ReentrantReadWriteLock();
+        this.notificationLock = new ReentrantLock(true);
 
-        this.weightHolder = new WeightHolder<>(new PeersAwareWeightCalculator());
+        this.weightHolder = new WeightHolder(weightCalculator);
         this.randomSpeedProvider = randomSpeedProvider;
     }
 
@@ -48,17 +93,33 @@ public class BandwidthDispatcher implements BandwidthDispatcherFacade, Runnable
     }
 
     /**
-     * This method does not benefit from the lock, because the value will never be accessed in a ambiguous way.
-     * And even if it happens, we return 0 by default.
+     * @return the stats of the torrent as of now, all zero if the torrent is not registered
      */
     public TorrentSeedStats getSeedStatForTorrent(final InfoHash infoHash) {
-        return getIfNull(this.torrentsSeedStats.get(infoHash), TorrentSeedStats::new);
+        final TorrentSeedStats stats = new TorrentSeedStats();
+        this.lock.readLock().lock();
+        try {
+            final int slot = this.slots.slotOf(infoHash);
+            if (slot != -1) {
+                stats.addUploaded(this.uploadedAt(slot, this.nanoTime.getAsLong()));
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return stats;
     }
 
     public Map<InfoHash, Speed> getSpeedMap() {
+        this.lock.readLock().lock();
         try {
-            this.lock.readLock().lock();
-            return new HashMap<>(speedMap);
+            final Map<InfoHash, Speed> speeds = new HashMap<>(this.slots.size() * 4 / 3 + 1);
+            for (int slot = 0; slot < this.slots.capacity(); ++slot) {
+                final InfoHash infoHash = this.slots.infoHashAt(slot);
+                if (infoHash != null) {
+                    speeds.put(infoHash, new Speed(speedOf(this.weightHolder.getWeightFor(slot), this.bytesPerSecondPerWeight)));
+                }
+            }
+            return speeds;
         } finally {
             this.lock.readLock().unlock();
         }
@@ -84,30 +145,8 @@ public class BandwidthDispatcher implements BandwidthDispatcherFacade, Runnable
     public void run() {
         try {
             while (!this.stop) {
-                Thread.sleep(this.threadPauseIntervalMs);
-                ++this.threadLoopCounter;
-
-                // refresh bandwidth every 20 minutes:
-                if (this.threadLoopCounter == TWENTY_MINS_MS / this.threadPauseIntervalMs) {
-                    this.refreshCurrentBandwidth();
-                    this.threadLoopCounter = 0;
-                }
-
-                // This method as to run as fast as possible to avoid blocking other ones. Because we want this loop
-                //  to be scheduled as precise as we can. Locking too much will delay the Thread.sleep and cause stats
-                //  to be undervalued
-                this.lock.readLock().lock();
-                final Set<Map.Entry<InfoHash, TorrentSeedStats>> entrySet = new HashSet<>(this.torrentsSeedStats.entrySet());
-                this.lock.readLock().unlock();
-
-                for (final Map.Entry<InfoHash, TorrentSeedStats> entry : entrySet) {
-                    final long speedInBytesPerSecond = ofNullable(this.speedMap.get(entry.getKey()))
-                            .map(Speed::getBytesPerSecond)
-                            .orElse(0L);
-                    // Divide by 1000 because of the thread pause interval being in milliseconds
-                    // The multiplication HAS to be done before the division, otherwise we're going to have trailing zeroes
-                    entry.getValue().addUploaded((speedInBytesPerSecond * this.threadPauseIntervalMs) / 1000);
-                }
+                Thread.sleep(TWENTY_MINS_MS);
+                this.refreshCurrentBandwidth();
             }
         } catch (final InterruptedException ignore) {
         }
@@ -115,12 +154,54 @@ public class BandwidthDispatcher implements BandwidthDispatcherFacade, Runnable
 
     public void updateTorrentPeers(final InfoHash infoHash, final int seeders, final int leechers) {
         log.debug("Updating Peers stats for {}", infoHash.getHumanReadable());
+        PendingNotification notification = null;
         this.lock.writeLock().lock();
         try {
-            this.weightHolder.addOrUpdate(infoHash, new Peers(seeders, leechers));
-            this.recomputeSpeeds();
+            final int slot = this.slots.slotOf(infoHash);
+            if (slot != -1) {
+                this.settleUpload(slot, this.nanoTime.getAsLong());
+                this.weightHolder.addOrUpdate(slot, new Peers(seeders, leechers));
+                notification = this.recomputeSpeeds(new int[]{slot}, Collections.emptySet());
+            }
         } finally {
             this.lock.writeLock().unlock();
+            this.notifyListener(notification);
+        }
+    }
+
+    /**
+     * Bulk update from a tracker scrape. Torrents that are not registered are ignored, registered torrents are the
+     * ones we are seeding, so one seeder is subtracted since we are one of them. Speeds are recomputed only once.
+     */
+    public void updateTorrentsPeers(final Map<InfoHash, Peers> scrapedPeers) {
+        PendingNotification notification = null;
+        this.lock.writeLock().lock();
+        try {
+            final int[] updatedSlots = new int[scrapedPeers.size()];
+            final int[] seeders = new int[scrapedPeers.size()];
+            final int[] leechers = new int[scrapedPeers.size()];
+            int updatedCount = 0;
+            for (final Map.Entry<InfoHash, Peers> entry : scrapedPeers.entrySet()) {
+                final int slot = this.slots.slotOf(entry.getKey());
+                if (slot == -1) {
+                    continue;
+                }
+                updatedSlots[updatedCount] = slot;
+                seeders[updatedCount] = Math.max(0, entry.getValue().getSeeders() - 1);
+                leechers[updatedCount] = entry.getValue().getLeechers();
+                ++updatedCount;
+            }
+            if (updatedCount > 0) {
+                final long now = this.nanoTime.getAsLong();
+                for (int i = 0; i < updatedCount; ++i) {
+                    this.settleUpload(updatedSlots[i], now);
+                }
+                this.weightHolder.addOrUpdateAll(updatedSlots, seeders, leechers, updatedCount);
+                notification = this.recomputeSpeeds(Arrays.copyOf(updatedSlots, updatedCount), Collections.emptySet());
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+            this.notifyListener(notification);
         }
     }
 
@@ -128,8 +209,14 @@ public class BandwidthDispatcher implements BandwidthDispatcherFacade, Runnable
         log.debug("{} has been added to bandwidth dispatcher.", infoHash.getHumanReadable());
         this.lock.writeLock().lock();
         try {
-            this.torrentsSeedStats.put(infoHash, new TorrentSeedStats());
-            this.speedMap.put(infoHash, new Speed(0));
+            final int slot = this.slots.register(infoHash);
+            if (slot >= this.uploadedAtLastChange.length) {
+                final int newLength = Math.max(slot + 1, this.uploadedAtLastChange.length * 2);
+                this.uploadedAtLastChange = Arrays.copyOf(this.uploadedAtLastChange, newLength);
+                this.uploadedPerWeightAtLastChange = Arrays.copyOf(this.uploadedPerWeightAtLastChange, newLength);
+            }
+            this.uploadedAtLastChange[slot] = 0;
+            this.uploadedPerWeightAtLastChange[slot] = this.uploadedPerWeightAt(this.nanoTime.getAsLong());
         } finally {
             this.lock.writeLock().unlock();
         }
@@ -137,77 +224,155 @@ public class BandwidthDispatcher implements BandwidthDispatcherFacade, Runnable
 
     public void unregisterTorrent(final InfoHash infoHash) {
         log.debug("{} has been removed from bandwidth dispatcher.", infoHash.getHumanReadable());
+        PendingNotification notification = null;
         this.lock.writeLock().lock();
         try {
-            this.weightHolder.remove(infoHash);
-            this.torrentsSeedStats.remove(infoHash);
-            this.speedMap.remove(infoHash);
-            this.recomputeSpeeds();
+            final int slot = this.slots.unregister(infoHash);
+            if (slot != -1) {
+                this.weightHolder.remove(slot);
+                notification = this.recomputeSpeeds(new int[0], Collections.singleton(infoHash));
+            }
         } finally {
             this.lock.writeLock().unlock();
+            this.notifyListener(notification);
         }
     }
 
     @VisibleForTesting
     void refreshCurrentBandwidth() {
         log.debug("Refreshing global bandwidth");
+        PendingNotification notification = null;
         this.lock.writeLock().lock();
         try {
             this.randomSpeedProvider.refresh();
-            this.recomputeSpeeds();
+            notification = this.recomputeSpeeds(new int[0], Collections.emptySet());
             if (log.isDebugEnabled()) {
                 log.debug("Global bandwidth refreshed, new value is {}", FileUtils.byteCountToDisplaySize(this.randomSpeedProvider.getCurrentSpeed()));
             }
         } finally {
             this.lock.writeLock().unlock();
+            this.notifyListener(notification);
         }
     }
 
+    /**
+     * Recomputes the scale factor once weights or the global speed have changed, the uploaded bytes of the torrents
+     * whose weight is about to change must have been settled beforehand (see {@link #settleUpload(int, long)}). Must be
+     * called with the write lock held, the returned notification is delivered by
+     * {@link #notifyListener(PendingNotification)} once it is released.
+     *
+     * @param updatedSlots    slots of the torrents whose weight has been updated, they are handed to the listener even
+     *                        if their weight did not change, so it knows about newly registered torrents
+     * @param removedTorrents torrents which have been unregistered
+     * @return the notification to deliver to the listener, null if there is nothing to notify
+     */
     @VisibleForTesting
-    void recomputeSpeeds() {
-        log.debug("Refreshing all torrents speeds");
-        for (final InfoHash infohash : this.torrentsSeedStats.keySet()) {
-            this.speedMap.compute(infohash, (hash, speed) -> {
-                if (speed == null) {
-                    return new Speed(0);
-                }
-                double percentOfSpeedAssigned = this.weightHolder.getTotalWeight() == 0.0
-                        ? 0.0
-                        : this.weightHolder.getWeightFor(infohash) / this.weightHolder.getTotalWeight();
-                speed.setBytesPerSecond((long) (this.randomSpeedProvider.getCurrentSpeed() * percentOfSpeedAssigned));
+    PendingNotification recomputeSpeeds(final int[] updatedSlots, final Set<InfoHash> removedTorrents) {
+        final long now = this.nanoTime.getAsLong();
+        final double previousBytesPerSecondPerWeight = this.bytesPerSecondPerWeight;
+        this.uploadedPerWeight = this.uploadedPerWeightAt(now);
+        this.uploadedPerWeightNanos = now;
+        final double totalWeight = this.weightHolder.getTotalWeight();
+        this.bytesPerSecondPerWeight = totalWeight > 0.0 ? this.randomSpeedProvider.getCurrentSpeed() / totalWeight : 0.0;
 
-                return speed;
-            });
+        final Map<InfoHash, Double> changedWeights = new HashMap<>(updatedSlots.length * 4 / 3 + 1);
+        for (final int slot : updatedSlots) {
+            changedWeights.put(this.slots.infoHashAt(slot), this.weightHolder.getWeightFor(slot));
+        }
+
+        if (log.isDebugEnabled()) {
+            this.logSpeeds(changedWeights, totalWeight, now);
+        }
+
+        if (this.speedChangedListener == null
+                || (changedWeights.isEmpty() && removedTorrents.isEmpty() && this.bytesPerSecondPerWeight == previousBytesPerSecondPerWeight)) {
+            return null;
         }
+        // Taken before the write lock is released, so the next change waits for this one to be delivered
+        this.notificationLock.lock();
+        return new PendingNotification(this.speedChangedListener, changedWeights, removedTorrents, this.bytesPerSecondPerWeight);
+    }
+
+    /**
+     * @return the speed of a torrent of this weight, in bytes per second
+     */
+    static long speedOf(final double weight, final double bytesPerSecondPerWeight) {
+        return Math.round(weight * bytesPerSecondPerWeight);
+    }
+
+    private double uploadedPerWeightAt(final long now) {
+        final long elapsedNanos = Math.max(0, now - this.uploadedPerWeightNanos);
+        return this.uploadedPerWeight + this.bytesPerSecondPerWeight * (elapsedNanos / 1_000_000_000.0);
+    }
+
+    private long uploadedAt(final int slot, final long now) {
+        final double uploadedPerWeightSinceLastChange = this.uploadedPerWeightAt(now) - this.uploadedPerWeightAtLastChange[slot];
+        return Math.round(this.uploadedAtLastChange[slot] + this.weightHolder.getWeightFor(slot) * uploadedPerWeightSinceLastChange);
+    }
+
+    /**
+     * Records what the torrent has uploaded with its current weight, must be called before changing it.
+     */
+    private void settleUpload(final int slot, final long now) {
+        final double uploadedPerWeightNow = this.uploadedPerWeightAt(now);
+        this.uploadedAtLastChange[slot] += this.weightHolder.getWeightFor(slot) * (uploadedPerWeightNow - this.uploadedPerWeightAtLastChange[slot]);
+        this.uploadedPerWeightAtLastChange[slot] = uploadedPerWeightNow;
+    }
 
-        if (speedChangedListener != null) {
-            this.speedChangedListener.speedsHasChanged(new HashMap<>(this.speedMap));
+    /**
+     * Delivers the notification returned by {@link #recomputeSpeeds(int[], Set)}, if any. Must be called right after
+     * the write lock has been released, by the same thread.
+     */
+    private void notifyListener(final PendingNotification notification) {
+        if (notification == null) {
+            return;
         }
+        try {
+            notification.listener.speedsHasChanged(notification.changedWeights, notification.removedTorrents, notification.bytesPerSecondPerWeight);
+        } finally {
+            this.notificationLock.unlock();
+        }
+    }
 
+    private void logSpeeds(final Map<InfoHash, Double> changedWeights, final double totalWeight, final long now) {
         try {
-            if (log.isDebugEnabled()) {
-                final StringBuilder sb = new StringBuilder("All torrents speeds has been refreshed:\n");
-                final double totalWeight = this.weightHolder.getTotalWeight();
-                this.speedMap.forEach((infoHash, speed) -> {
-                    final String humanReadableSpeed = FileUtils.byteCountToDisplaySize(speed.getBytesPerSecond());
-                    final double torrentWeight = this.weightHolder.getWeightFor(infoHash);
-                    final double weightInPercent = torrentWeight > 0.0
-                            ? totalWeight / torrentWeight * 100
-                            : 0;
-                    sb.append("      ")
-                            .append(infoHash.getHumanReadable())
-                            .append(":")
-                            .append("\n          ").append("current speed: ").append(humanReadableSpeed).append("/s")
-                            .append("\n          ").append("overall upload: ").append(FileUtils.byteCountToDisplaySize(this.torrentsSeedStats.get(infoHash).getUploaded()))
-                            .append("\n          ").append("weight: ").append(weightInPercent).append("% (").append(torrentWeight).append(" out of ").append(totalWeight).append(")")
-                            .append("\n");
-                });
-                sb.setLength(sb.length() - 1); // remove last \n
-                log.debug(sb.toString());
+            if (changedWeights.isEmpty()) {
+                return;
             }
+            final StringBuilder sb = new StringBuilder("Torrents speeds has been refreshed:\n");
+            changedWeights.forEach((infoHash, torrentWeight) -> {
+                final String humanReadableSpeed = FileUtils.byteCountToDisplaySize(speedOf(torrentWeight, this.bytesPerSecondPerWeight));
+                final int slot = this.slots.slotOf(infoHash);
+                final double weightInPercent = totalWeight > 0.0
+                        ? torrentWeight / totalWeight * 100
+                        : 0;
+                sb.append("      ")
+                        .append(infoHash.getHumanReadable())
+                        .append(":")
+                        .append("\n          ").append("current speed: ").append(humanReadableSpeed).append("/s")
+                        .append("\n          ").append("overall upload: ").append(FileUtils.byteCountToDisplaySize(this.uploadedAt(slot, now)))
+                        .append("\n          ").append("weight: ").append(weightInPercent).append("% (").append(torrentWeight).append(" out of ").append(totalWeight).append(")")
+                        .append("\n");
+            });
+            sb.setLength(sb.length() - 1); // remove last \n
+            log.debug(sb.toString());
         } catch (final Exception e) {
             log.debug("Error while printing debug message for speed.", e);
         }
     }
 
+    static final class PendingNotification {
+        private final SpeedChangedListener listener;
+        private final Map<InfoHash, Double> changedWeights;
+        private final Set<InfoHash> removedTorrents;
+        private final double bytesPerSecondPerWeight;
+
+        private PendingNotification(final SpeedChangedListener listener, final Map<InfoHash, Double> changedWeights, final Set<InfoHash> removedTorrents, final double bytesPerSecondPerWeight) {
+            this.listener = listener;
+            this.changedWeights = changedWeights;
+            this.removedTorrents = removedTorrents;
+            this.bytesPerSecondPerWeight = bytesPerSecondPerWeight;
+        }
+    }
+
 }
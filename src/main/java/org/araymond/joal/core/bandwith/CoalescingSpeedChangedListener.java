@@ -0,0 +1,171 @@
+package org.araymond.joal.core.bandwith;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import lombok.extern.slf4j.Slf4j;
+import org.araymond.joal.core.events.speed.SeedingSpeedsHasChangedEvent;
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Publishes the speed changes as {@link SeedingSpeedsHasChangedEvent}, at most once per window: the changes made
+ * during a window are merged into a single delta, holding only the torrents whose speed has changed (or which are
+ * gone) since the previous event. Nothing is published for a window without change.
+ * <p>
+ * Every {@code keyframeIntervalMs}, a keyframe holding all the speeds is published instead, for the listeners that
+ * came in late or lost track. The first event is always a keyframe.
+ * <p>
+ * The speeds are computed from the weights and the scale factor handed by the {@link BandwidthDispatcher}: a change
+ * of the scale factor changes the speed of every torrent with a non-zero weight, they are only computed again once
+ * per window rather than on each change.
+ * <p>
+ * With a window of 0 every change is published right away, still as a delta, and a change of the scale factor costs
+ * as many speeds to compute as there are torrents with a non-zero weight.
+ */
+@Slf4j
+public class CoalescingSpeedChangedListener implements SpeedChangedListener, Runnable {
+    private final ApplicationEventPublisher publisher;
+    private final long windowMs;
+    private final long keyframeIntervalNanos;
+    private final LongSupplier nanoTime;
+    // Last published speed of every torrent
+    private final Map<InfoHash, Speed> speeds = new HashMap<>();
+    // Torrents with a non-zero weight only, the others don't upload
+    private final Map<InfoHash, Double> weights = new HashMap<>();
+    private double bytesPerSecondPerWeight;
+    private double publishedBytesPerSecondPerWeight;
+    private final Set<InfoHash> pendingUpdates = new HashSet<>();
+    private final Set<InfoHash> pendingRemovals = new HashSet<>();
+    private boolean keyframeSent;
+    private long lastKeyframeNanos;
+    private volatile boolean stop;
+    private Thread thread;
+
+    public CoalescingSpeedChangedListener(final ApplicationEventPublisher publisher, final long windowMs, final long keyframeIntervalMs) {
+        this(publisher, windowMs, keyframeIntervalMs, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    CoalescingSpeedChangedListener(final ApplicationEventPublisher publisher, final long windowMs, final long keyframeIntervalMs, final LongSupplier nanoTime) {
+        Preconditions.checkArgument(windowMs >= 0, "windowMs must be at least 0");
+        Preconditions.checkArgument(keyframeIntervalMs > 0, "keyframeIntervalMs must be greater than 0");
+        this.publisher = publisher;
+        this.windowMs = windowMs;
+        this.keyframeIntervalNanos = keyframeIntervalMs * 1_000_000L;
+        this.nanoTime = nanoTime;
+    }
+
+    public void start() {
+        if (this.windowMs == 0) {
+            return;
+        }
+        this.stop = false;
+        this.thread = new Thread(this);
+        this.thread.setName("speed-events-coalescer");
+        this.thread.start();
+    }
+
+    public void stop() {
+        this.stop = true;
+        if (this.thread == null) {
+            return;
+        }
+        this.thread.interrupt();
+        try {
+            this.thread.join();
+        } catch (final InterruptedException ignored) {
+        }
+        this.thread = null;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!this.stop) {
+                Thread.sleep(this.windowMs);
+                this.flush();
+            }
+        } catch (final InterruptedException ignore) {
+        }
+    }
+
+    @Override
+    public synchronized void speedsHasChanged(final Map<InfoHash, Double> changedWeights, final Set<InfoHash> removedTorrents, final double bytesPerSecondPerWeight) {
+        changedWeights.forEach((infoHash, weight) -> {
+            if (weight > 0.0) {
+                this.weights.put(infoHash, weight);
+            } else {
+                this.weights.remove(infoHash);
+            }
+        });
+        this.weights.keySet().removeAll(removedTorrents);
+        this.bytesPerSecondPerWeight = bytesPerSecondPerWeight;
+
+        this.pendingUpdates.addAll(changedWeights.keySet());
+        this.pendingUpdates.removeAll(removedTorrents);
+        this.pendingRemovals.removeAll(changedWeights.keySet());
+        this.pendingRemovals.addAll(removedTorrents);
+
+        if (this.windowMs == 0) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Publishes what has changed since the last call, if anything, or a keyframe if one is due.
+     */
+    @VisibleForTesting
+    synchronized void flush() {
+        final Map<InfoHash, Speed> changedSpeeds = this.applyPendingChanges();
+        final long now = this.nanoTime.getAsLong();
+        final boolean hasChanges = !changedSpeeds.isEmpty() || !this.pendingRemovals.isEmpty();
+        final SeedingSpeedsHasChangedEvent event;
+        if (!this.keyframeSent || now - this.lastKeyframeNanos >= this.keyframeIntervalNanos) {
+            if (!hasChanges && this.speeds.isEmpty()) {
+                return;
+            }
+            event = new SeedingSpeedsHasChangedEvent(this.speeds);
+            this.keyframeSent = true;
+            this.lastKeyframeNanos = now;
+        } else if (hasChanges) {
+            event = new SeedingSpeedsHasChangedEvent(changedSpeeds, this.pendingRemovals);
+        } else {
+            return;
+        }
+        this.pendingRemovals.clear();
+        log.debug("Publishing {} with {} speeds.", event.isKeyframe() ? "keyframe" : "delta", event.getSpeeds().size());
+        this.publisher.publishEvent(event);
+    }
+
+    /**
+     * Computes the speed of the updated torrents, and of all the weighted ones if the scale factor has changed.
+     *
+     * @return the speed of the updated torrents, and the other speeds that have changed
+     */
+    private Map<InfoHash, Speed> applyPendingChanges() {
+        final Map<InfoHash, Speed> changedSpeeds = new HashMap<>();
+        for (final InfoHash infoHash : this.pendingUpdates) {
+            final Speed speed = new Speed(BandwidthDispatcher.speedOf(this.weights.getOrDefault(infoHash, 0.0), this.bytesPerSecondPerWeight));
+            this.speeds.put(infoHash, speed);
+            changedSpeeds.put(infoHash, speed);
+        }
+        this.pendingUpdates.clear();
+        if (this.bytesPerSecondPerWeight != this.publishedBytesPerSecondPerWeight) {
+            this.weights.forEach((infoHash, weight) -> {
+                final Speed speed = new Speed(BandwidthDispatcher.speedOf(weight, this.bytesPerSecondPerWeight));
+                if (!speed.equals(this.speeds.put(infoHash, speed))) {
+                    changedSpeeds.put(infoHash, speed);
+                }
+            });
+            this.publishedBytesPerSecondPerWeight = this.bytesPerSecondPerWeight;
+        }
+        this.speeds.keySet().removeAll(this.pendingRemovals);
+        return changedSpeeds;
+    }
+}
@@ -3,7 +3,20 @@ package org.araymond.joal.core.bandwith;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 
 import java.util.Map;
+import java.util.Set;
 
 public interface SpeedChangedListener {
-    void speedsHasChanged(Map<InfoHash, Speed> speeds);
+    /**
+     * Called with what changed since the previous call only, in the order the changes happened. Must not call back
+     * the {@link BandwidthDispatcher}.
+     * <p>
+     * The speed of a torrent is its weight times bytesPerSecondPerWeight (see
+     * {@link BandwidthDispatcher#speedOf(double, double)}): when bytesPerSecondPerWeight changes, the speed of every
+     * torrent with a non-zero weight changes, although their weights are not part of the call.
+     *
+     * @param changedWeights          the new weight of the torrents whose peers have been updated
+     * @param removedTorrents         the torrents which are no longer seeded
+     * @param bytesPerSecondPerWeight the current scale factor of the speeds
+     */
+    void speedsHasChanged(Map<InfoHash, Double> changedWeights, Set<InfoHash> removedTorrents, double bytesPerSecondPerWeight);
 }
@@ -0,0 +1,86 @@
+package org.araymond.joal.core.bandwith;
+
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gives each registered torrent a dense slot number, so its state can be kept in primitive arrays indexed by slot.
+ * Slots of unregistered torrents are recycled, the slots in use always stay below {@link #capacity()} which never
+ * exceeds the highest number of torrents registered at once.
+ * <p>
+ * Not thread safe.
+ */
+final class TorrentSlots {
+    private final Map<InfoHash, Integer> slots = new HashMap<>();
+    private InfoHash[] infoHashes = new InfoHash[16];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int capacity;
+
+    /**
+     * @return the slot of the torrent, a new one if it was not registered yet
+     */
+    int register(final InfoHash infoHash) {
+        final Integer existing = this.slots.get(infoHash);
+        if (existing != null) {
+            return existing;
+        }
+        final int slot;
+        if (this.freeCount > 0) {
+            slot = this.freeSlots[--this.freeCount];
+        } else {
+            slot = this.capacity++;
+            if (slot == this.infoHashes.length) {
+                this.infoHashes = Arrays.copyOf(this.infoHashes, slot * 2);
+            }
+        }
+        this.infoHashes[slot] = infoHash;
+        this.slots.put(infoHash, slot);
+        return slot;
+    }
+
+    /**
+     * @return the slot the torrent had, -1 if it was not registered
+     */
+    int unregister(final InfoHash infoHash) {
+        final Integer slot = this.slots.remove(infoHash);
+        if (slot == null) {
+            return -1;
+        }
+        this.infoHashes[slot] = null;
+        if (this.freeCount == this.freeSlots.length) {
+            this.freeSlots = Arrays.copyOf(this.freeSlots, this.freeCount * 2);
+        }
+        this.freeSlots[this.freeCount++] = slot;
+        return slot;
+    }
+
+    /**
+     * @return the slot of the torrent, -1 if it is not registered
+     */
+    int slotOf(final InfoHash infoHash) {
+        final Integer slot = this.slots.get(infoHash);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * @return the torrent in this slot, null if the slot is free
+     */
+    InfoHash infoHashAt(final int slot) {
+        return this.infoHashes[slot];
+    }
+
+    /**
+     * @return the upper bound (exclusive) of the slots in use
+     */
+    int capacity() {
+        return this.capacity;
+    }
+
+    int size() {
+        return this.slots.size();
+    }
+}
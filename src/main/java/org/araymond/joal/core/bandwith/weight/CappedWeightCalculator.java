@@ -0,0 +1,40 @@
+package org.araymond.joal.core.bandwith.weight;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.araymond.joal.core.config.AppConfigurationIntegrityException;
+
+/**
+ * Same weight as {@link PeersAwareWeightCalculator}, but never above {@code maxWeight}: a single huge swarm can not
+ * take almost all the bandwidth, torrents over the cap share it evenly.
+ */
+@EqualsAndHashCode(callSuper = false)
+@Getter
+public class CappedWeightCalculator extends WeightCalculator {
+
+    @JsonProperty("maxWeight")
+    private final Double maxWeight;
+
+    @JsonCreator
+    public CappedWeightCalculator(@JsonProperty(value = "maxWeight", required = true) final Double maxWeight) {
+        if (maxWeight == null || maxWeight <= 0.0) {
+            throw new AppConfigurationIntegrityException("maxWeight must be greater than 0.");
+        }
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public double calculate(final int seeders, final int leechers) {
+        return Math.min(PeersAwareWeightCalculator.weightOf(seeders, leechers), this.maxWeight);
+    }
+
+    @Override
+    public void calculateAll(final int[] seeders, final int[] leechers, final double[] weights, final int length) {
+        final double cap = this.maxWeight;
+        for (int i = 0; i < length; ++i) {
+            weights[i] = Math.min(PeersAwareWeightCalculator.weightOf(seeders[i], leechers[i]), cap);
+        }
+    }
+}
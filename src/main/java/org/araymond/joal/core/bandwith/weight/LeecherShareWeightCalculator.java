@@ -0,0 +1,28 @@
+package org.araymond.joal.core.bandwith.weight;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.EqualsAndHashCode;
+
+/**
+ * The weight is the number of leechers: each torrent gets its share of all the leechers of the seeded torrents,
+ * whatever the number of seeders (as long as there is at least one).
+ */
+@EqualsAndHashCode(callSuper = false)
+public class LeecherShareWeightCalculator extends WeightCalculator {
+
+    @JsonCreator
+    public LeecherShareWeightCalculator() {
+    }
+
+    @Override
+    public double calculate(final int seeders, final int leechers) {
+        return seeders == 0 ? 0.0 : leechers;
+    }
+
+    @Override
+    public void calculateAll(final int[] seeders, final int[] leechers, final double[] weights, final int length) {
+        for (int i = 0; i < length; ++i) {
+            weights[i] = seeders[i] == 0 ? 0.0 : leechers[i];
+        }
+    }
+}
@@ -1,12 +1,37 @@
 package org.araymond.joal.core.bandwith.weight;
 
-import org.araymond.joal.core.bandwith.Peers;
-
-public class PeersAwareWeightCalculator {
-    public double calculate(final Peers peers) {
-        final double leechersRatio = peers.getLeechersRatio();
-        return (peers.getSeeders() == 0 || leechersRatio == 0)
-                ? 0.0
-                : leechersRatio * 100 * leechersRatio * peers.getLeechers();
+import com.fasterxml.jackson.annotation.JsonCreator;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Favors the torrents where leechers outnumber seeders: the weight is the squared leechers ratio times the number of
+ * leechers (times 100).
+ */
+@EqualsAndHashCode(callSuper = false)
+public class PeersAwareWeightCalculator extends WeightCalculator {
+
+    @JsonCreator
+    public PeersAwareWeightCalculator() {
+    }
+
+    @Override
+    public double calculate(final int seeders, final int leechers) {
+        return weightOf(seeders, leechers);
+    }
+
+    @Override
+    public void calculateAll(final int[] seeders, final int[] leechers, final double[] weights, final int length) {
+        for (int i = 0; i < length; ++i) {
+            weights[i] = weightOf(seeders[i], leechers[i]);
+        }
+    }
+
+    static double weightOf(final int seeders, final int leechers) {
+        if (seeders == 0 || leechers == 0) {
+            return 0.0;
+        }
+        // Ratio computed in float, as Peers#getLeechersRatio, for the same weights as before
+        final double leechersRatio = ((float) leechers) / (seeders + leechers);
+        return leechersRatio * 100 * leechersRatio * leechers;
     }
 }
@@ -0,0 +1,42 @@
+package org.araymond.joal.core.bandwith.weight;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import org.araymond.joal.core.bandwith.Peers;
+
+/**
+ * Defines how much of the global upload speed a torrent deserves, given the peers of its swarm. Each torrent gets the
+ * global speed in proportion of its weight out of the total weight.
+ * <p>
+ * A torrent without seeders must weigh 0: we would be the only one seeding it, which is not believable. Free slots
+ * of the {@link WeightHolder} have no peers at all and rely on it.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = PeersAwareWeightCalculator.class, name = "PEERS_AWARE"),
+        @JsonSubTypes.Type(value = LeecherShareWeightCalculator.class, name = "LEECHER_SHARE"),
+        @JsonSubTypes.Type(value = CappedWeightCalculator.class, name = "CAPPED")
+})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public abstract class WeightCalculator {
+
+    public double calculate(final Peers peers) {
+        return this.calculate(peers.getSeeders(), peers.getLeechers());
+    }
+
+    public abstract double calculate(int seeders, int leechers);
+
+    /**
+     * Computes the weights of many torrents at once, {@code weights[i]} is the weight of
+     * {@code seeders[i]}/{@code leechers[i]}, for i from 0 to length (exclusive).
+     * <p>
+     * Implementations are expected to override it with a tight loop over the arrays, without virtual call nor
+     * allocation per torrent, so the JIT can unroll (and where possible vectorise) it.
+     */
+    public void calculateAll(final int[] seeders, final int[] leechers, final double[] weights, final int length) {
+        for (int i = 0; i < length; ++i) {
+            weights[i] = this.calculate(seeders[i], leechers[i]);
+        }
+    }
+}
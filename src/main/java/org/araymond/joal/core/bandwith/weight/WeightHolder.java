@@ -3,45 +3,79 @@ package org.araymond.joal.core.bandwith.weight;
 import lombok.Getter;
 import org.araymond.joal.core.bandwith.Peers;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
-import static java.util.Optional.ofNullable;
-
-public class WeightHolder<E> {
+/**
+ * The weight of each torrent. Torrents are identified by a dense slot number rather than by a key, the weights are
+ * kept in a primitive array indexed by slot (no boxing, no hashing).
+ */
+public class WeightHolder {
 
     private final Lock lock;
-    private final PeersAwareWeightCalculator weightCalculator;
-    private final Map<E, Double> weightMap;
+    private final WeightCalculator weightCalculator;
+    private double[] weights;
 
     @Getter
     private double totalWeight;
 
-    public WeightHolder(final PeersAwareWeightCalculator weightCalculator) {
+    public WeightHolder(final WeightCalculator weightCalculator) {
         this.weightCalculator = weightCalculator;
-        this.weightMap = new HashMap<>();
+        this.weights = new double[16];
         this.lock = new ReentrantLock();
     }
 
-    public void addOrUpdate(final E item, final Peers peers) {
+    public void addOrUpdate(final int slot, final Peers peers) {
         final double weight = this.weightCalculator.calculate(peers);
         lock.lock();
         try {
-            ofNullable(this.weightMap.put(item, weight)).ifPresentOrElse(
-                    previousWeight -> this.totalWeight = this.totalWeight - previousWeight + weight,
-                    () -> this.totalWeight += weight);
+            this.ensureCapacity(slot + 1);
+            this.totalWeight = this.totalWeight - this.weights[slot] + weight;
+            this.weights[slot] = weight;
         } finally {
             lock.unlock();
         }
     }
 
-    public void remove(final E item) {
+    /**
+     * Same as calling {@link #addOrUpdate(int, Peers)} for each torrent, but the weights are computed in one batch
+     * (see {@link WeightCalculator#calculateAll(int[], int[], double[], int)}) and the lock is taken only once.
+     *
+     * @param slots    slots of the torrents to update, each slot at most once
+     * @param seeders  seeders of each torrent, in the same order as slots
+     * @param leechers leechers of each torrent, in the same order as slots
+     * @param count    number of torrents to update, the arrays may be longer
+     */
+    public void addOrUpdateAll(final int[] slots, final int[] seeders, final int[] leechers, final int count) {
+        final double[] newWeights = new double[count];
+        this.weightCalculator.calculateAll(seeders, leechers, newWeights, count);
         lock.lock();
         try {
-            ofNullable(this.weightMap.remove(item))
-                    .ifPresent(w -> this.totalWeight -= w);
+            int maxSlot = -1;
+            for (int i = 0; i < count; ++i) {
+                maxSlot = Math.max(maxSlot, slots[i]);
+            }
+            this.ensureCapacity(maxSlot + 1);
+            double totalWeight = this.totalWeight;
+            for (int i = 0; i < count; ++i) {
+                final int slot = slots[i];
+                totalWeight = totalWeight - this.weights[slot] + newWeights[i];
+                this.weights[slot] = newWeights[i];
+            }
+            this.totalWeight = totalWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(final int slot) {
+        lock.lock();
+        try {
+            if (slot < this.weights.length) {
+                this.totalWeight -= this.weights[slot];
+                this.weights[slot] = 0.0;
+            }
         } finally {
             lock.unlock();
         }
@@ -53,8 +87,15 @@ public class WeightHolder<E> {
      * - if a value is not yet added it will return 0.0.
      * - if a value is still present it will return the previous value.
      */
-    public double getWeightFor(final E item) {
-        return ofNullable(weightMap.get(item))
-                .orElse(0.0);
+    public double getWeightFor(final int slot) {
+        final double[] currentWeights = this.weights;
+        return slot < currentWeights.length ? currentWeights[slot] : 0.0;
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity <= this.weights.length) {
+            return;
+        }
+        this.weights = Arrays.copyOf(this.weights, Math.max(capacity, this.weights.length * 2));
     }
 }
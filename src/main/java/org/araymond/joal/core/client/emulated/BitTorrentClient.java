@@ -12,15 +12,12 @@ import org.araymond.joal.core.client.emulated.generator.UrlEncoder;
 import org.araymond.joal.core.client.emulated.generator.key.KeyGenerator;
 import org.araymond.joal.core.client.emulated.generator.numwant.NumwantProvider;
 import org.araymond.joal.core.client.emulated.generator.peerid.PeerIdGenerator;
-import org.araymond.joal.core.exception.UnrecognizedClientPlaceholder;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 import org.araymond.joal.core.ttorrent.client.ConnectionHandler;
 
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static java.util.Optional.ofNullable;
@@ -29,7 +26,7 @@ import static org.araymond.joal.core.client.emulated.BitTorrentClientConfig.Http
 /**
  * Created by raymo on 26/01/2017.
  */
-@EqualsAndHashCode(exclude = "urlEncoder")
+@EqualsAndHashCode(exclude = {"urlEncoder", "queryTemplate", "headerTemplates"})
 public class BitTorrentClient {
     private final PeerIdGenerator peerIdGenerator;
     private final KeyGenerator keyGenerator;
@@ -37,6 +34,8 @@ public class BitTorrentClient {
     @Getter private final String query;
     private final List<Map.Entry<String, String>> headers;
     private final NumwantProvider numwantProvider;
+    private final PlaceholderTemplate<QueryPlaceholder> queryTemplate;
+    private final List<Map.Entry<String, PlaceholderTemplate<HeaderPlaceholder>>> headerTemplates;
 
     BitTorrentClient(final PeerIdGenerator peerIdGenerator, final KeyGenerator keyGenerator, final UrlEncoder urlEncoder, final String query, final Collection<HttpHeader> headers, final NumwantProvider numwantProvider) {
         Preconditions.checkNotNull(peerIdGenerator, "peerIdGenerator cannot be null or empty");
@@ -50,6 +49,24 @@ public class BitTorrentClient {
         this.headers = headers.stream().map(h -> new AbstractMap.SimpleImmutableEntry<>(h.getName(), h.getValue())).collect(Collectors.toList());
         this.keyGenerator = keyGenerator;
         this.numwantProvider = numwantProvider;
+
+        // Compiled once, unknown placeholders are rejected right away rather than on each announce
+        this.queryTemplate = PlaceholderTemplate.compile(
+                normalizeAmpersands(query),
+                QueryPlaceholder.class,
+                EnumSet.of(QueryPlaceholder.IP, QueryPlaceholder.IPV6, QueryPlaceholder.EVENT),
+                "announce query"
+        );
+        this.headerTemplates = this.headers.stream()
+                .map(h -> new AbstractMap.SimpleImmutableEntry<>(
+                        h.getKey(),
+                        PlaceholderTemplate.compile(h.getValue(), HeaderPlaceholder.class, EnumSet.noneOf(HeaderPlaceholder.class), "header " + h.getKey())
+                ))
+                .collect(Collectors.toList());
+    }
+
+    private static String normalizeAmpersands(final String query) {
+        return StringUtils.strip(query.replaceAll("&{2,}", "&"), "&");
     }
 
     public String getPeerId(final InfoHash infoHash, final RequestEvent event) {
@@ -72,75 +89,79 @@ public class BitTorrentClient {
     }
 
     public String createRequestQuery(final RequestEvent event, final InfoHash torrentInfoHash, final TorrentSeedStats stats, final ConnectionHandler connectionHandler) {
-        String emulatedClientQuery = this.getQuery()
-                .replaceAll("\\{infohash}", urlEncoder.encode(torrentInfoHash.value()))
-                .replaceAll("\\{uploaded}", String.valueOf(stats.getUploaded()))
-                .replaceAll("\\{downloaded}", String.valueOf(stats.getDownloaded()))
-                .replaceAll("\\{left}", String.valueOf(stats.getLeft()))
-                .replaceAll("\\{port}", String.valueOf(connectionHandler.getPort()))
-                .replaceAll("\\{numwant}", String.valueOf(this.getNumwant(event)));
-
-        final String peerId = this.peerIdGenerator.isShouldUrlEncode()
-                ? urlEncoder.encode(this.getPeerId(torrentInfoHash, event))
-                : this.getPeerId(torrentInfoHash, event);
-        emulatedClientQuery = emulatedClientQuery.replaceAll("\\{peerid}", peerId);
-
-        // set ip or ipv6 then remove placeholders that were left empty
-        if (connectionHandler.getIpAddress() instanceof Inet4Address) {
-            emulatedClientQuery = emulatedClientQuery.replaceAll("\\{ip}", connectionHandler.getIpAddress().getHostAddress());
-        } else if(connectionHandler.getIpAddress() instanceof Inet6Address) {
-            emulatedClientQuery = emulatedClientQuery.replaceAll("\\{ipv6}", urlEncoder.encode(connectionHandler.getIpAddress().getHostAddress()));
-        }
-        emulatedClientQuery = emulatedClientQuery.replaceAll("[&]*[a-zA-Z0-9]+=\\{ipv6}", "");
-        emulatedClientQuery = emulatedClientQuery.replaceAll("[&]*[a-zA-Z0-9]+=\\{ip}", "");
-
-        if (event == null || event == RequestEvent.NONE) {
-            // if event was NONE, remove the event from the query string
-            emulatedClientQuery = emulatedClientQuery.replaceAll("([&]*[a-zA-Z0-9]+=\\{event})", "");
-        } else {
-            emulatedClientQuery = emulatedClientQuery.replaceAll("\\{event}", event.getEventName());
-        }
-
-        if (emulatedClientQuery.contains("{key}")) {
-            final String key = this.getKey(torrentInfoHash, event).orElseThrow(() -> new IllegalStateException("Client request query contains 'key' but BitTorrentClient does not have a key."));
-            emulatedClientQuery = emulatedClientQuery.replaceAll("\\{key}", urlEncoder.encode(key));
-        }
-
-        final Matcher matcher = Pattern.compile("(.*?\\{.*?})").matcher(emulatedClientQuery);
-        if (matcher.find()) {
-            final String unrecognizedPlaceHolder = matcher.group();
-            throw new UnrecognizedClientPlaceholder("Placeholder " + unrecognizedPlaceHolder + " were not recognized while building announce URL.");
-        }
+        return this.queryTemplate.render(placeholder -> {
+            switch (placeholder) {
+                case INFOHASH:
+                    return torrentInfoHash.getUrlEncoded(urlEncoder);
+                case PEERID:
+                    final String peerId = this.getPeerId(torrentInfoHash, event);
+                    return this.peerIdGenerator.isShouldUrlEncode() ? urlEncoder.encode(peerId) : peerId;
+                case UPLOADED:
+                    return String.valueOf(stats.getUploaded());
+                case DOWNLOADED:
+                    return String.valueOf(stats.getDownloaded());
+                case LEFT:
+                    return String.valueOf(stats.getLeft());
+                case PORT:
+                    return String.valueOf(connectionHandler.getPort());
+                case NUMWANT:
+                    return String.valueOf(this.getNumwant(event));
+                case KEY:
+                    return this.getKey(torrentInfoHash, event)
+                            .map(urlEncoder::encode)
+                            .orElseThrow(() -> new IllegalStateException("Client request query contains 'key' but BitTorrentClient does not have a key."));
+                // ip, ipv6 and event are left out of the query when null
+                case IP:
+                    return connectionHandler.getIpAddress() instanceof Inet4Address ? connectionHandler.getIpAddress().getHostAddress() : null;
+                case IPV6:
+                    return connectionHandler.getIpAddress() instanceof Inet6Address ? urlEncoder.encode(connectionHandler.getIpAddress().getHostAddress()) : null;
+                case EVENT:
+                    return event == null || event == RequestEvent.NONE ? null : event.getEventName();
+                default:
+                    throw new IllegalStateException("Unhandled query placeholder " + placeholder);
+            }
+        });
+    }
 
-        // we might have removed event, ipv6 or ipv6, some '&' might have remains, lets remove them.
-        if (emulatedClientQuery.endsWith("&")) {
-            emulatedClientQuery = emulatedClientQuery.substring(0, emulatedClientQuery.length() - 1);
-        }
-        if (emulatedClientQuery.startsWith("&")) {
-            emulatedClientQuery = emulatedClientQuery.substring(1, emulatedClientQuery.length());
+    /**
+     * Scrape requests only carry the info hashes, encoded the same way as in announces.
+     */
+    public String createScrapeQuery(final Collection<InfoHash> torrentInfoHashes) {
+        final StringBuilder sb = new StringBuilder(torrentInfoHashes.size() * 72);
+        for (final InfoHash infoHash : torrentInfoHashes) {
+            if (sb.length() > 0) {
+                sb.append('&');
+            }
+            sb.append("info_hash=").append(infoHash.getUrlEncoded(urlEncoder));
         }
-        emulatedClientQuery = emulatedClientQuery.replaceAll("&{2,}", "&");
-        return emulatedClientQuery;
+        return sb.toString();
     }
 
     public List<Map.Entry<String, String>> createRequestHeaders() {
-        final List<Map.Entry<String, String>> headers = new ArrayList<>(this.headers.size() + 1);
-
-        for (final Map.Entry<String, String> header : this.headers) {
-            final String name = header.getKey();
-            final String value = header.getValue()
-                    .replaceAll("\\{java}", System.getProperty("java.version"))
-                    .replaceAll("\\{os}", System.getProperty("os.name"))
-                    .replaceAll("\\{locale}", Locale.getDefault().toLanguageTag());
-
-            final Matcher matcher = Pattern.compile("(\\{.*?})").matcher(value);
-            if (matcher.find()) {
-                final String unrecognizedPlaceHolder = matcher.group();
-                throw new UnrecognizedClientPlaceholder("Placeholder " + unrecognizedPlaceHolder + " were not recognized while building client Headers.");
-            }
-
-            headers.add(new AbstractMap.SimpleImmutableEntry<>(name, value));
+        final List<Map.Entry<String, String>> headers = new ArrayList<>(this.headerTemplates.size() + 1);
+        for (final Map.Entry<String, PlaceholderTemplate<HeaderPlaceholder>> header : this.headerTemplates) {
+            final String value = header.getValue().render(placeholder -> {
+                switch (placeholder) {
+                    case JAVA:
+                        return System.getProperty("java.version");
+                    case OS:
+                        return System.getProperty("os.name");
+                    case LOCALE:
+                        return Locale.getDefault().toLanguageTag();
+                    default:
+                        throw new IllegalStateException("Unhandled header placeholder " + placeholder);
+                }
+            });
+            headers.add(new AbstractMap.SimpleImmutableEntry<>(header.getKey(), value));
         }
         return headers;
     }
+
+    enum QueryPlaceholder {
+        INFOHASH, PEERID, UPLOADED, DOWNLOADED, LEFT, PORT, NUMWANT, KEY, IP, IPV6, EVENT
+    }
+
+    enum HeaderPlaceholder {
+        JAVA, OS, LOCALE
+    }
 }
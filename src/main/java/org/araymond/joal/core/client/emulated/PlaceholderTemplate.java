@@ -0,0 +1,161 @@
+package org.araymond.joal.core.client.emulated;
+
+import org.araymond.joal.core.exception.UnrecognizedClientPlaceholder;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A query string or header value of a .client file, parsed once into literal segments and placeholder slots so it
+ * can be rendered for each announce in a single pass, without any regex.
+ * <p>
+ * Placeholders are written <code>{name}</code>, name being the lower-cased name of a constant of P. Omittable
+ * placeholders have to be the value of a query parameter, the whole parameter is left out when they resolve to null.
+ */
+final class PlaceholderTemplate<P extends Enum<P>> {
+    private final List<Segment<P>> segments;
+    private final Set<P> placeholders;
+    private final int placeholderTypeCount;
+    private final int literalLength;
+
+    private PlaceholderTemplate(final List<Segment<P>> segments, final Set<P> placeholders, final int placeholderTypeCount) {
+        this.segments = segments;
+        this.placeholders = placeholders;
+        this.placeholderTypeCount = placeholderTypeCount;
+        this.literalLength = segments.stream().mapToInt(segment -> segment.text.length()).sum();
+    }
+
+    /**
+     * @param location describes where the template comes from, used in error messages
+     * @throws UnrecognizedClientPlaceholder if the template contains a placeholder that is not part of P
+     * @throws TorrentClientConfigIntegrityException if an omittable placeholder is not the value of a query parameter
+     */
+    static <P extends Enum<P>> PlaceholderTemplate<P> compile(final String template, final Class<P> placeholderType, final Set<P> omittables, final String location) {
+        final Map<String, P> placeholdersByName = new HashMap<>();
+        for (final P placeholder : placeholderType.getEnumConstants()) {
+            placeholdersByName.put(placeholder.name().toLowerCase(Locale.ROOT), placeholder);
+        }
+
+        final List<Segment<P>> segments = new ArrayList<>();
+        final Set<P> placeholders = EnumSet.noneOf(placeholderType);
+        int literalStart = 0;
+        int openingBrace;
+        int closingBrace;
+        while ((openingBrace = template.indexOf('{', literalStart)) != -1 && (closingBrace = template.indexOf('}', openingBrace)) != -1) {
+            final String name = template.substring(openingBrace + 1, closingBrace);
+            final P placeholder = placeholdersByName.get(name);
+            if (placeholder == null) {
+                throw new UnrecognizedClientPlaceholder("Placeholder {" + name + "} is not recognized in " + location + ".");
+            }
+            placeholders.add(placeholder);
+
+            if (omittables.contains(placeholder)) {
+                // the "&name=" in front of the placeholder goes away with it
+                final int parameterStart = findParameterStart(template, literalStart, openingBrace);
+                if (parameterStart == -1) {
+                    throw new TorrentClientConfigIntegrityException("Placeholder {" + name + "} must be the value of a query parameter in " + location + ".");
+                }
+                if (parameterStart > literalStart) {
+                    segments.add(new Segment<>(template.substring(literalStart, parameterStart), null, false));
+                }
+                segments.add(new Segment<>(template.substring(parameterStart, openingBrace), placeholder, true));
+            } else {
+                segments.add(new Segment<>(template.substring(literalStart, openingBrace), placeholder, false));
+            }
+            literalStart = closingBrace + 1;
+        }
+        if (literalStart < template.length()) {
+            segments.add(new Segment<>(template.substring(literalStart), null, false));
+        }
+        return new PlaceholderTemplate<>(segments, placeholders, placeholderType.getEnumConstants().length);
+    }
+
+    /**
+     * @return the index of the '&amp;' preceding "name=", or of the name if there is none. -1 if the placeholder at
+     * valueStart is not preceded by "name="
+     */
+    private static int findParameterStart(final String template, final int from, final int valueStart) {
+        int index = valueStart - 1;
+        if (index < from || template.charAt(index) != '=') {
+            return -1;
+        }
+        final int nameEnd = index;
+        while (index > from && isAsciiLetterOrDigit(template.charAt(index - 1))) {
+            --index;
+        }
+        if (index == nameEnd) {
+            return -1;
+        }
+        while (index > from && template.charAt(index - 1) == '&') {
+            --index;
+        }
+        return index;
+    }
+
+    private static boolean isAsciiLetterOrDigit(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * @return the placeholders used at least once in the template
+     */
+    Set<P> getPlaceholders() {
+        return Collections.unmodifiableSet(this.placeholders);
+    }
+
+    /**
+     * @param resolver called once per placeholder used in the template. May only return null for omittable ones
+     */
+    String render(final Function<P, String> resolver) {
+        final String[] values = new String[this.placeholderTypeCount];
+        int valuesLength = 0;
+        for (final P placeholder : this.placeholders) {
+            final String value = resolver.apply(placeholder);
+            values[placeholder.ordinal()] = value;
+            valuesLength += value == null ? 0 : value.length();
+        }
+
+        final StringBuilder sb = new StringBuilder(this.literalLength + valuesLength);
+        boolean omittedFirstParameter = false;
+        for (final Segment<P> segment : this.segments) {
+            if (segment.placeholder == null) {
+                sb.append(segment.text);
+                continue;
+            }
+            final String value = values[segment.placeholder.ordinal()];
+            if (value == null) {
+                if (!segment.omittable) {
+                    throw new IllegalStateException("No value for placeholder {" + segment.placeholder.name().toLowerCase(Locale.ROOT) + "}");
+                }
+                omittedFirstParameter |= sb.length() == 0;
+                continue;
+            }
+            sb.append(segment.text).append(value);
+        }
+
+        // the parameter following an omitted first one brings its '&' along
+        if (omittedFirstParameter) {
+            int leadingAmpersands = 0;
+            while (leadingAmpersands < sb.length() && sb.charAt(leadingAmpersands) == '&') {
+                ++leadingAmpersands;
+            }
+            sb.delete(0, leadingAmpersands);
+        }
+        return sb.toString();
+    }
+
+    private static final class Segment<P> {
+        /**
+         * The literal in front of the placeholder, or the whole "&amp;name=" for omittable placeholders
+         */
+        private final String text;
+        private final P placeholder;
+        private final boolean omittable;
+
+        private Segment(final String text, final P placeholder, final boolean omittable) {
+            this.text = text;
+            this.placeholder = placeholder;
+            this.omittable = omittable;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.annotations.VisibleForTesting;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.araymond.joal.core.client.emulated.utils.Casing;
@@ -16,6 +17,7 @@ import static java.lang.String.valueOf;
 @EqualsAndHashCode(of = {"encodingExclusionPattern", "encodedHexCase"})
 @Getter
 public class UrlEncoder {
+    private static final int TABLE_SIZE = 256;
 
     @JsonProperty("encodingExclusionPattern")
     private final String encodingExclusionPattern;
@@ -23,6 +25,15 @@ public class UrlEncoder {
     private final Casing encodedHexCase;
     @JsonIgnore
     private final Pattern pattern;
+    /**
+     * Whether each of the 256 first chars matches the exclusion pattern, so it is left as is.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final boolean[] excludedChars;
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final char[] hexDigits;
 
     @JsonCreator
     public UrlEncoder(
@@ -32,6 +43,12 @@ public class UrlEncoder {
         this.encodingExclusionPattern = encodingExclusionPattern;
         this.pattern = Pattern.compile(this.encodingExclusionPattern);
         this.encodedHexCase = encodedHexCase;
+
+        this.excludedChars = new boolean[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; ++i) {
+            this.excludedChars[i] = this.pattern.matcher(valueOf((char) i)).matches();
+        }
+        this.hexDigits = encodedHexCase.toCase("0123456789abcdef").toCharArray();
     }
 
     /**
@@ -40,20 +57,53 @@ public class UrlEncoder {
      * @return encoded string
      */
     public String encode(final String toBeEncoded) {
-        final StringBuilder sb = new StringBuilder();
-        for (final char ch : toBeEncoded.toCharArray()) {
-            sb.append(this.urlEncodeChar(ch));
-        }
+        final StringBuilder sb = new StringBuilder(toBeEncoded.length() * 3);
+        this.encodeTo(sb, toBeEncoded);
         return sb.toString();
     }
 
+    /**
+     * Same as {@link #encode(String)}, appending straight to sb.
+     */
+    public void encodeTo(final StringBuilder sb, final CharSequence toBeEncoded) {
+        final int length = toBeEncoded.length();
+        for (int i = 0; i < length; ++i) {
+            this.appendEncodedChar(sb, toBeEncoded.charAt(i));
+        }
+    }
+
+    /**
+     * Encodes each byte as the char of the same unsigned value, as an ISO-8859-1 decoded string would be.
+     */
+    public void encodeTo(final StringBuilder sb, final byte[] toBeEncoded) {
+        for (final byte b : toBeEncoded) {
+            this.appendEncodedChar(sb, (char) (b & 0xFF));
+        }
+    }
+
     @VisibleForTesting
     String urlEncodeChar(final char character) {
-        if (pattern.matcher(valueOf(character)).matches()) {
-            return valueOf(character);
-        }
+        final StringBuilder sb = new StringBuilder(3);
+        this.appendEncodedChar(sb, character);
+        return sb.toString();
+    }
 
-        final String hex = character == 0 ? "%00" : format("%%%02x", (int) character);
-        return encodedHexCase.toCase(hex);
+    private void appendEncodedChar(final StringBuilder sb, final char character) {
+        if (character >= TABLE_SIZE) {
+            // never seen in info hashes and peer ids, not worth a bigger table
+            if (this.pattern.matcher(valueOf(character)).matches()) {
+                sb.append(character);
+            } else {
+                sb.append(this.encodedHexCase.toCase(format("%%%02x", (int) character)));
+            }
+            return;
+        }
+        if (this.excludedChars[character]) {
+            sb.append(character);
+            return;
+        }
+        sb.append('%')
+                .append(this.hexDigits[character >>> 4])
+                .append(this.hexDigits[character & 0xF]);
     }
 }
@@ -2,10 +2,13 @@ package org.araymond.joal.core.config;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
+import org.araymond.joal.core.bandwith.weight.WeightCalculator;
+import org.araymond.joal.core.ttorrent.client.rampup.AnnounceRampUp;
 
 /**
  * Created by raymo on 24/01/2017.
@@ -22,6 +25,45 @@ public class AppConfiguration {
     private final String client;
     @JsonProperty("keepTorrentWithZeroLeechers")
     private final boolean keepTorrentWithZeroLeechers;
+    /**
+     * Optional, may be null when no ramp-up is configured.
+     */
+    @JsonProperty("announceRampUp")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final AnnounceRampUp announceRampUp;
+    /**
+     * Optional, may be null in which case torrents are weighted with the peers aware formula.
+     */
+    @JsonProperty("weightCalculator")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final WeightCalculator weightCalculator;
+    /**
+     * Optional, may be null in which case speed changes are published at most once per second.
+     */
+    @JsonProperty("speedEventsWindowMs")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Integer speedEventsWindowMs;
+
+    public AppConfiguration(
+            final Long minUploadRate,
+            final Long maxUploadRate,
+            final Integer simultaneousSeed,
+            final String client,
+            final boolean keepTorrentWithZeroLeechers
+    ) {
+        this(minUploadRate, maxUploadRate, simultaneousSeed, client, keepTorrentWithZeroLeechers, null);
+    }
+
+    public AppConfiguration(
+            final Long minUploadRate,
+            final Long maxUploadRate,
+            final Integer simultaneousSeed,
+            final String client,
+            final boolean keepTorrentWithZeroLeechers,
+            final AnnounceRampUp announceRampUp
+    ) {
+        this(minUploadRate, maxUploadRate, simultaneousSeed, client, keepTorrentWithZeroLeechers, announceRampUp, null, null);
+    }
 
     @JsonCreator
     public AppConfiguration(
@@ -29,13 +71,19 @@ public class AppConfiguration {
             @JsonProperty(value = "maxUploadRate", required = true) final Long maxUploadRate,
             @JsonProperty(value = "simultaneousSeed", required = true) final Integer simultaneousSeed,
             @JsonProperty(value = "client", required = true) final String client,
-            @JsonProperty(value = "keepTorrentWithZeroLeechers", required = true) final boolean keepTorrentWithZeroLeechers
+            @JsonProperty(value = "keepTorrentWithZeroLeechers", required = true) final boolean keepTorrentWithZeroLeechers,
+            @JsonProperty(value = "announceRampUp") final AnnounceRampUp announceRampUp,
+            @JsonProperty(value = "weightCalculator") final WeightCalculator weightCalculator,
+            @JsonProperty(value = "speedEventsWindowMs") final Integer speedEventsWindowMs
     ) {
         this.minUploadRate = minUploadRate;
         this.maxUploadRate = maxUploadRate;
         this.simultaneousSeed = simultaneousSeed;
         this.client = client;
         this.keepTorrentWithZeroLeechers = keepTorrentWithZeroLeechers;
+        this.announceRampUp = announceRampUp;
+        this.weightCalculator = weightCalculator;
+        this.speedEventsWindowMs = speedEventsWindowMs;
 
         validate();
     }
@@ -64,5 +112,9 @@ public class AppConfiguration {
         if (StringUtils.isBlank(client)) {
             throw new AppConfigurationIntegrityException("client is required, no file name given.");
         }
+
+        if (speedEventsWindowMs != null && speedEventsWindowMs < 0) {
+            throw new AppConfigurationIntegrityException("speedEventsWindowMs must be at least 0.");
+        }
     }
 }
@@ -6,7 +6,7 @@ package org.araymond.joal.core.config;
 public class AppConfigurationIntegrityException extends RuntimeException {
     private static final long serialVersionUID = 2653545407314227748L;
 
-    AppConfigurationIntegrityException(final String message) {
+    public AppConfigurationIntegrityException(final String message) {
         super(message);
     }
 }
@@ -3,6 +3,7 @@ package org.araymond.joal.core.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ObjectUtils;
 import org.araymond.joal.core.SeedManager;
 import org.araymond.joal.core.events.config.ConfigHasBeenLoadedEvent;
 import org.araymond.joal.core.events.config.ConfigurationIsInDirtyStateEvent;
@@ -68,7 +69,8 @@ public class JoalConfigProvider implements Provider<AppConfiguration> {
         return configuration;
     }
 
-    public void saveNewConf(final AppConfiguration conf) {
+    public void saveNewConf(final AppConfiguration newConf) {
+        final AppConfiguration conf = this.keepSettingsUnknownToTheUi(newConf);
         try {
             objectMapper.writerWithDefaultPrettyPrinter().writeValue(joalConfPath.toFile(), conf);
             publisher.publishEvent(new ConfigurationIsInDirtyStateEvent(conf));
@@ -77,4 +79,24 @@ public class JoalConfigProvider implements Provider<AppConfiguration> {
             throw new IllegalStateException(e);
         }
     }
+
+    /**
+     * The web UI only sends the settings it knows about, optional settings that were set by hand in the config file
+     * are carried over instead of being wiped out.
+     */
+    private AppConfiguration keepSettingsUnknownToTheUi(final AppConfiguration newConf) {
+        if (this.config == null) {
+            return newConf;
+        }
+        return new AppConfiguration(
+                newConf.getMinUploadRate(),
+                newConf.getMaxUploadRate(),
+                newConf.getSimultaneousSeed(),
+                newConf.getClient(),
+                newConf.isKeepTorrentWithZeroLeechers(),
+                ObjectUtils.firstNonNull(newConf.getAnnounceRampUp(), this.config.getAnnounceRampUp()),
+                ObjectUtils.firstNonNull(newConf.getWeightCalculator(), this.config.getWeightCalculator()),
+                ObjectUtils.firstNonNull(newConf.getSpeedEventsWindowMs(), this.config.getSpeedEventsWindowMs())
+        );
+    }
 }
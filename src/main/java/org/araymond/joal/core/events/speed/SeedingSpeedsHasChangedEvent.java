@@ -4,14 +4,38 @@ import lombok.Getter;
 import org.araymond.joal.core.bandwith.Speed;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
+/**
+ * Either a keyframe, which holds the speed of every seeded torrent, or a delta, which only holds the speeds that
+ * have changed and the torrents that are not seeded anymore since the previous event. Deltas are to be applied on
+ * top of the last keyframe.
+ */
 @Getter
 public class SeedingSpeedsHasChangedEvent {
     private final Map<InfoHash, Speed> speeds;
+    private final Set<InfoHash> removedTorrents;
+    private final boolean keyframe;
 
+    /**
+     * Builds a keyframe.
+     */
     public SeedingSpeedsHasChangedEvent(final Map<InfoHash, Speed> speeds) {
         this.speeds = new HashMap<>(speeds);
+        this.removedTorrents = Collections.emptySet();
+        this.keyframe = true;
+    }
+
+    /**
+     * Builds a delta.
+     */
+    public SeedingSpeedsHasChangedEvent(final Map<InfoHash, Speed> changedSpeeds, final Set<InfoHash> removedTorrents) {
+        this.speeds = new HashMap<>(changedSpeeds);
+        this.removedTorrents = new HashSet<>(removedTorrents);
+        this.keyframe = false;
     }
 }
@@ -0,0 +1,21 @@
+package org.araymond.joal.core.events.torrent.files;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import lombok.Getter;
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
+
+import java.util.List;
+
+/**
+ * Published once for all the torrent files added together, rather than one {@link TorrentFileAddedEvent} each.
+ */
+@Getter
+public class TorrentFilesAddedEvent {
+    private final List<MockedTorrent> torrents;
+
+    public TorrentFilesAddedEvent(final List<MockedTorrent> torrents) {
+        Preconditions.checkNotNull(torrents, "List of MockedTorrent cannot be null.");
+        this.torrents = ImmutableList.copyOf(torrents);
+    }
+}
@@ -1,22 +1,118 @@
 package org.araymond.joal.core.torrent.torrent;
 
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.ToString;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.io.BaseEncoding;
+import org.araymond.joal.core.client.emulated.generator.UrlEncoder;
 
-@ToString
-@EqualsAndHashCode(of = "infoHash")
-@Getter
+import java.util.Arrays;
+
+/**
+ * Raw info hash bytes with a precomputed hash code, since it is the key of most maps on the announce path.
+ * <p>
+ * The derived forms (ISO-8859-1 string, hex, human readable and url encoded) are computed on first use and cached.
+ * Their lazy initialization is racy on purpose: they are immutable, the worst case is to compute one twice.
+ */
 public class InfoHash {
-    private final String infoHash;
-    private final String humanReadable;
+    private static final Interner<InfoHash> INTERNER = Interners.newWeakInterner();
+
+    private final byte[] bytes;
+    private final int hash;
+    private String value;
+    private String hex;
+    private String humanReadable;
+    private UrlEncoded urlEncoded;
 
     public InfoHash(final byte[] bytes) {
-        this.infoHash = new String(bytes, MockedTorrent.BYTE_ENCODING);
-        this.humanReadable = infoHash.replaceAll("\\p{C}", "");
+        this.bytes = bytes.clone();
+        this.hash = Arrays.hashCode(this.bytes);
+    }
+
+    /**
+     * @return the canonical instance equal to this one, so the torrents loaded many times share a single instance
+     */
+    public InfoHash intern() {
+        return INTERNER.intern(this);
     }
 
     public String value() {
-        return infoHash;
+        String result = this.value;
+        if (result == null) {
+            result = new String(this.bytes, MockedTorrent.BYTE_ENCODING);
+            this.value = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return a copy of the raw bytes
+     */
+    public byte[] getBytes() {
+        return this.bytes.clone();
+    }
+
+    public String getHex() {
+        String result = this.hex;
+        if (result == null) {
+            result = BaseEncoding.base16().lowerCase().encode(this.bytes);
+            this.hex = result;
+        }
+        return result;
+    }
+
+    public String getHumanReadable() {
+        String result = this.humanReadable;
+        if (result == null) {
+            result = this.value().replaceAll("\\p{C}", "");
+            this.humanReadable = result;
+        }
+        return result;
+    }
+
+    /**
+     * Only the last encoding is cached, a single {@link UrlEncoder} is in use at a time.
+     */
+    public String getUrlEncoded(final UrlEncoder urlEncoder) {
+        final UrlEncoded cached = this.urlEncoded;
+        if (cached != null && cached.urlEncoder.equals(urlEncoder)) {
+            return cached.value;
+        }
+        final StringBuilder sb = new StringBuilder(this.bytes.length * 3);
+        urlEncoder.encodeTo(sb, this.bytes);
+        final String result = sb.toString();
+        this.urlEncoded = new UrlEncoded(urlEncoder, result);
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InfoHash)) {
+            return false;
+        }
+        final InfoHash other = (InfoHash) o;
+        return this.hash == other.hash && Arrays.equals(this.bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return "InfoHash(" + this.getHex() + ")";
+    }
+
+    private static final class UrlEncoded {
+        private final UrlEncoder urlEncoder;
+        private final String value;
+
+        private UrlEncoded(final UrlEncoder urlEncoder, final String value) {
+            this.urlEncoder = urlEncoder;
+            this.value = value;
+        }
     }
 }
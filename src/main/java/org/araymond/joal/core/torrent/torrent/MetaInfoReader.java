@@ -0,0 +1,317 @@
+package org.araymond.joal.core.torrent.torrent;
+
+import com.turn.ttorrent.bcodec.InvalidBEncodingException;
+import com.turn.ttorrent.common.Torrent;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Scans the bencoded meta-info of a torrent file in place, in the buffer it has been read into.
+ * <p>
+ * Only the fields of {@link MockedTorrent} are materialized, everything else (pieces hashes in the first place) is
+ * skipped. The info hash is the SHA-1 of the info dictionary bytes as they are in the file, hashed straight from the
+ * buffer.
+ */
+final class MetaInfoReader {
+    private static final byte[] ANNOUNCE = ascii("announce");
+    private static final byte[] ANNOUNCE_LIST = ascii("announce-list");
+    private static final byte[] INFO = ascii("info");
+    private static final byte[] NAME = ascii("name");
+    private static final byte[] LENGTH = ascii("length");
+    private static final byte[] FILES = ascii("files");
+    private static final byte[] PIECE_LENGTH = ascii("piece length");
+    private static final byte[] PIECES = ascii("pieces");
+
+    private final ByteBuffer buffer;
+    private int position;
+
+    private MetaInfoReader(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+    }
+
+    private static byte[] ascii(final String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static MockedTorrent read(final ByteBuffer buffer) throws IOException, NoSuchAlgorithmException {
+        if (!buffer.hasRemaining()) {
+            throw new InvalidBEncodingException("Empty torrent file");
+        }
+        return new MetaInfoReader(buffer).readTorrent();
+    }
+
+    private MockedTorrent readTorrent() throws IOException, NoSuchAlgorithmException {
+        String announce = null;
+        List<List<URI>> announceList = null;
+        InfoHash infoHash = null;
+        Info info = null;
+
+        this.expect('d');
+        while (!this.endOfContainer()) {
+            final int keyLength = this.readStringLength();
+            final int keyStart = this.position;
+            this.skip(keyLength);
+            if (this.isKey(keyStart, keyLength, INFO) && this.peek() == 'd') {
+                final int infoStart = this.position;
+                info = this.readInfo();
+                infoHash = new InfoHash(this.sha1(infoStart, this.position)).intern();
+            } else if (this.isKey(keyStart, keyLength, ANNOUNCE_LIST) && this.peek() == 'l') {
+                announceList = this.readAnnounceList();
+            } else if (this.isKey(keyStart, keyLength, ANNOUNCE) && Character.isDigit(this.peek())) {
+                announce = this.readString();
+            } else {
+                this.skipValue();
+            }
+        }
+
+        if (info == null) {
+            throw new InvalidBEncodingException("Torrent has no info dictionary");
+        }
+        if (info.name == null) {
+            throw new InvalidBEncodingException("Torrent has no name");
+        }
+        if (info.size < 0) {
+            throw new InvalidBEncodingException("Torrent has neither length nor files");
+        }
+        // Torrent validity tests
+        if (info.pieceLength < 0 || info.piecesLength < 0) {
+            throw new IllegalArgumentException("Error reading torrent meta-info fields!");
+        }
+        if (info.piecesLength / Torrent.PIECE_HASH_SIZE * info.pieceLength < info.size) {
+            throw new IllegalArgumentException("Torrent size does not match the number of pieces and the piece size!");
+        }
+
+        // Same rules as ttorrent: "announce" is only used if there is no "announce-list"
+        final List<List<URI>> tiers;
+        if (announceList != null) {
+            tiers = announceList;
+        } else if (announce != null) {
+            tiers = Collections.singletonList(Collections.singletonList(toUri(announce)));
+        } else {
+            tiers = Collections.emptyList();
+        }
+        return new MockedTorrent(infoHash, info.name, info.size, tiers);
+    }
+
+    private Info readInfo() throws IOException {
+        final Info info = new Info();
+        long length = -1;
+        long filesLength = -1;
+
+        this.expect('d');
+        while (!this.endOfContainer()) {
+            final int keyLength = this.readStringLength();
+            final int keyStart = this.position;
+            this.skip(keyLength);
+            final int next = this.peek();
+            if (this.isKey(keyStart, keyLength, NAME) && Character.isDigit(next)) {
+                info.name = this.readString();
+            } else if (this.isKey(keyStart, keyLength, LENGTH) && next == 'i') {
+                length = this.readInteger();
+            } else if (this.isKey(keyStart, keyLength, FILES) && next == 'l') {
+                filesLength = this.readFilesLength();
+            } else if (this.isKey(keyStart, keyLength, PIECE_LENGTH) && next == 'i') {
+                info.pieceLength = this.readInteger();
+            } else if (this.isKey(keyStart, keyLength, PIECES) && Character.isDigit(next)) {
+                info.piecesLength = this.readStringLength();
+                this.skip(info.piecesLength);
+            } else {
+                this.skipValue();
+            }
+        }
+        // As for ttorrent, "files" wins over "length"
+        info.size = filesLength >= 0 ? filesLength : length;
+        return info;
+    }
+
+    private long readFilesLength() throws IOException {
+        long total = 0;
+        this.expect('l');
+        while (!this.endOfContainer()) {
+            long fileLength = -1;
+            this.expect('d');
+            while (!this.endOfContainer()) {
+                final int keyLength = this.readStringLength();
+                final int keyStart = this.position;
+                this.skip(keyLength);
+                if (this.isKey(keyStart, keyLength, LENGTH) && this.peek() == 'i') {
+                    fileLength = this.readInteger();
+                } else {
+                    this.skipValue();
+                }
+            }
+            if (fileLength < 0) {
+                throw new InvalidBEncodingException("Torrent file entry has no length");
+            }
+            total += fileLength;
+        }
+        return total;
+    }
+
+    /**
+     * Trackers are only kept in the first tier they appear in, and empty tiers are dropped.
+     */
+    private List<List<URI>> readAnnounceList() throws IOException {
+        final List<List<URI>> tiers = new ArrayList<>();
+        final Set<URI> allTrackers = new HashSet<>();
+        this.expect('l');
+        while (!this.endOfContainer()) {
+            final List<URI> tier = new ArrayList<>();
+            this.expect('l');
+            while (!this.endOfContainer()) {
+                final URI uri = toUri(this.readString());
+                if (allTrackers.add(uri)) {
+                    tier.add(uri);
+                }
+            }
+            if (!tier.isEmpty()) {
+                tiers.add(tier);
+            }
+        }
+        return tiers;
+    }
+
+    private static URI toUri(final String value) throws IOException {
+        try {
+            return new URI(value);
+        } catch (final URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private byte[] sha1(final int from, final int to) throws NoSuchAlgorithmException {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        final ByteBuffer range = this.buffer.duplicate();
+        range.limit(to).position(from);
+        digest.update(range);
+        return digest.digest();
+    }
+
+    private boolean isKey(final int keyStart, final int keyLength, final byte[] expected) {
+        if (keyLength != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < keyLength; ++i) {
+            if (this.buffer.get(keyStart + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int peek() throws InvalidBEncodingException {
+        if (this.position >= this.buffer.limit()) {
+            throw new InvalidBEncodingException("Unexpected end of torrent file");
+        }
+        return this.buffer.get(this.position);
+    }
+
+    private void expect(final char token) throws InvalidBEncodingException {
+        final int next = this.peek();
+        if (next != token) {
+            throw new InvalidBEncodingException("Expected '" + token + "' but found '" + (char) next + "'");
+        }
+        ++this.position;
+    }
+
+    private boolean endOfContainer() throws InvalidBEncodingException {
+        if (this.peek() == 'e') {
+            ++this.position;
+            return true;
+        }
+        return false;
+    }
+
+    private void skip(final long count) throws InvalidBEncodingException {
+        if (count > this.buffer.limit() - this.position) {
+            throw new InvalidBEncodingException("Unexpected end of torrent file");
+        }
+        this.position += (int) count;
+    }
+
+    private long readInteger() throws InvalidBEncodingException {
+        this.expect('i');
+        return this.readNumber('e');
+    }
+
+    private int readStringLength() throws InvalidBEncodingException {
+        final int next = this.peek();
+        if (next < '0' || next > '9') {
+            throw new InvalidBEncodingException("Unexpected bencode token '" + (char) next + "'");
+        }
+        final long length = this.readNumber(':');
+        if (length > this.buffer.limit() - this.position) {
+            throw new InvalidBEncodingException("Unexpected end of torrent file");
+        }
+        return (int) length;
+    }
+
+    private String readString() throws InvalidBEncodingException {
+        final int length = this.readStringLength();
+        final byte[] bytes = new byte[length];
+        final ByteBuffer source = this.buffer.duplicate();
+        source.position(this.position);
+        source.get(bytes);
+        this.position += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readNumber(final char terminator) throws InvalidBEncodingException {
+        boolean negative = false;
+        if (this.peek() == '-') {
+            negative = true;
+            ++this.position;
+        }
+        long value = 0;
+        int digits = 0;
+        int next;
+        while ((next = this.peek()) != terminator) {
+            if (next < '0' || next > '9' || ++digits > 18) {
+                throw new InvalidBEncodingException("Invalid bencoded number");
+            }
+            value = value * 10 + (next - '0');
+            ++this.position;
+        }
+        ++this.position;
+        if (digits == 0) {
+            throw new InvalidBEncodingException("Invalid bencoded number");
+        }
+        return negative ? -value : value;
+    }
+
+    private void skipValue() throws InvalidBEncodingException {
+        int depth = 0;
+        do {
+            final int next = this.peek();
+            if (next == 'd' || next == 'l') {
+                ++this.position;
+                ++depth;
+            } else if (next == 'e') {
+                if (depth == 0) {
+                    throw new InvalidBEncodingException("Unexpected end of container");
+                }
+                ++this.position;
+                --depth;
+            } else if (next == 'i') {
+                this.readInteger();
+            } else {
+                this.skip(this.readStringLength());
+            }
+        } while (depth > 0);
+    }
+
+    private static final class Info {
+        private String name;
+        private long size = -1;
+        private long pieceLength = -1;
+        private long piecesLength = -1;
+    }
+}
@@ -1,64 +1,81 @@
 package org.araymond.joal.core.torrent.torrent;
 
 import com.google.common.base.Charsets;
-import com.turn.ttorrent.bcodec.InvalidBEncodingException;
-import com.turn.ttorrent.common.Torrent;
+import com.google.common.collect.ImmutableList;
 import lombok.EqualsAndHashCode;
-import org.apache.commons.io.FileUtils;
+import lombok.Getter;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
 
 /**
+ * What we need to know of a torrent file: its info hash, name, total size and announce tiers.
+ * <p>
+ * The meta-info is scanned in place by {@link MetaInfoReader} and never decoded as a whole, a torrent costs the same
+ * whatever the size of its content.
+ * <p>
  * Created by raymo on 23/01/2017.
  */
-@SuppressWarnings("ClassWithOnlyPrivateConstructors")
-@EqualsAndHashCode
-public class MockedTorrent extends Torrent {
+@EqualsAndHashCode(of = "infoHash")
+public class MockedTorrent {
     public static final Charset BYTE_ENCODING = Charsets.ISO_8859_1;
 
     private final InfoHash infoHash;
-    /**
-     * Create a new torrent from meta-info binary data.
-     * <p>
-     * Parses the meta-info data (which should be B-encoded as described in the
-     * BitTorrent specification) and create a Torrent object from it.
-     *
-     * @param torrent The meta-info byte data.
-     * @param seeder  Whether we'll be seeding for this torrent or not.
-     * @throws IOException When the info dictionary can't be read or
-     *                     encoded and hashed back to create the torrent's SHA-1 hash.
-     */
-    private MockedTorrent(final byte[] torrent, final boolean seeder) throws IOException, NoSuchAlgorithmException {
-        super(torrent, seeder);
+    @Getter
+    private final String name;
+    @Getter
+    private final long size;
+    private final List<List<URI>> announceList;
 
-        try {
-            // Torrent validity tests
-            final int pieceLength = this.decoded_info.get("piece length").getInt();
-            final ByteBuffer piecesHashes = ByteBuffer.wrap(this.decoded_info.get("pieces").getBytes());
-
-            if (piecesHashes.capacity() / Torrent.PIECE_HASH_SIZE * (long) pieceLength < this.getSize()) {
-                throw new IllegalArgumentException("Torrent size does not match the number of pieces and the piece size!");
-            }
-        } catch (final InvalidBEncodingException ex) {
-            throw new IllegalArgumentException("Error reading torrent meta-info fields!", ex);
-        }
-        this.infoHash = new InfoHash(this.getInfoHash());
+    public MockedTorrent(final InfoHash infoHash, final String name, final long size, final List<List<URI>> announceList) {
+        this.infoHash = infoHash;
+        this.name = name;
+        this.size = size;
+        this.announceList = announceList.stream()
+                .map(ImmutableList::copyOf)
+                .collect(ImmutableList.toImmutableList());
     }
 
     public InfoHash getTorrentInfoHash() {
         return this.infoHash;
     }
 
+    public List<List<URI>> getAnnounceList() {
+        return this.announceList;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+
+    /**
+     * The file is read in a heap buffer and closed before returning, never memory mapped: a mapping would keep the
+     * file locked on Windows until garbage collected, it could not be renamed nor archived.
+     */
     public static MockedTorrent fromFile(final File torrent) throws IOException, NoSuchAlgorithmException {
-        final byte[] data = FileUtils.readFileToByteArray(torrent);
-        return new MockedTorrent(data, true);
+        try (final FileChannel channel = FileChannel.open(torrent.toPath(), StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Torrent file [" + torrent + "] is too large");
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate((int) fileSize);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read until full or end of file
+            }
+            buffer.flip();
+            return MetaInfoReader.read(buffer);
+        }
     }
 
     public static MockedTorrent fromBytes(final byte[] bytes) throws IOException, NoSuchAlgorithmException {
-        return new MockedTorrent(bytes, false);
+        return MetaInfoReader.read(ByteBuffer.wrap(bytes));
     }
 }
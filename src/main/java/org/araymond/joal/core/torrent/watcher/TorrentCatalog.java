@@ -0,0 +1,151 @@
+package org.araymond.joal.core.torrent.watcher;
+
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The loaded torrents, indexed by file and by info hash.
+ * <p>
+ * Torrents are also kept in a dense array (removal swaps the last one in the hole) so a random torrent is picked in
+ * constant time. Several files with the same info hash are a single torrent.
+ * <p>
+ * Every operation is constant time (apart from the listing ones) and holds the catalog lock only for its own
+ * duration, so listeners can add and remove torrents concurrently.
+ */
+final class TorrentCatalog {
+    /**
+     * Random picks rejected because the torrent is unwanted before falling back to a full scan, which only happens
+     * when most of the torrents are unwanted.
+     */
+    private static final int MAX_RANDOM_PICKS = 16;
+
+    private final Map<File, Entry> byFile = new HashMap<>();
+    private final Map<InfoHash, Entry> byInfoHash = new HashMap<>();
+    private Entry[] entries = new Entry[16];
+    private int size;
+
+    /**
+     * @return the torrent previously registered for this file, if any
+     */
+    synchronized Optional<MockedTorrent> add(final File file, final MockedTorrent torrent) {
+        final Optional<MockedTorrent> previous = this.remove(file);
+
+        Entry entry = this.byInfoHash.get(torrent.getTorrentInfoHash());
+        if (entry == null) {
+            entry = new Entry(torrent);
+            if (this.size == this.entries.length) {
+                this.entries = Arrays.copyOf(this.entries, this.size * 2);
+            }
+            entry.index = this.size;
+            this.entries[this.size++] = entry;
+            this.byInfoHash.put(torrent.getTorrentInfoHash(), entry);
+        }
+        entry.files.add(file);
+        this.byFile.put(file, entry);
+        return previous;
+    }
+
+    /**
+     * @return the torrent that was registered for this file, if any
+     */
+    synchronized Optional<MockedTorrent> remove(final File file) {
+        final Entry entry = this.byFile.remove(file);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        entry.files.remove(file);
+        if (entry.files.isEmpty()) {
+            this.byInfoHash.remove(entry.torrent.getTorrentInfoHash());
+            final Entry last = this.entries[--this.size];
+            this.entries[entry.index] = last;
+            last.index = entry.index;
+            this.entries[this.size] = null;
+        }
+        return Optional.of(entry.torrent);
+    }
+
+    synchronized Optional<MockedTorrent> get(final File file) {
+        final Entry entry = this.byFile.get(file);
+        return entry == null ? Optional.empty() : Optional.of(entry.torrent);
+    }
+
+    /**
+     * Swaps the registered torrent with the same info hash for this one, for all of its files.
+     *
+     * @return false if no torrent with this info hash is registered
+     */
+    synchronized boolean replace(final MockedTorrent torrent) {
+        final Entry entry = this.byInfoHash.get(torrent.getTorrentInfoHash());
+        if (entry == null) {
+            return false;
+        }
+        entry.torrent = torrent;
+        return true;
+    }
+
+    synchronized List<File> getFiles(final InfoHash infoHash) {
+        final Entry entry = this.byInfoHash.get(infoHash);
+        return entry == null ? Collections.emptyList() : new ArrayList<>(entry.files);
+    }
+
+    /**
+     * @return a torrent picked uniformly at random among the ones that are not unwanted
+     */
+    synchronized Optional<MockedTorrent> pickRandomNotIn(final Set<InfoHash> unwanted) {
+        if (this.size == 0) {
+            return Optional.empty();
+        }
+        final Random random = ThreadLocalRandom.current();
+        if (unwanted.size() < this.size) {
+            for (int i = 0; i < MAX_RANDOM_PICKS; ++i) {
+                final Entry entry = this.entries[random.nextInt(this.size)];
+                if (!unwanted.contains(entry.torrent.getTorrentInfoHash())) {
+                    return Optional.of(entry.torrent);
+                }
+            }
+        }
+        final List<MockedTorrent> candidates = new ArrayList<>();
+        for (int i = 0; i < this.size; ++i) {
+            if (!unwanted.contains(this.entries[i].torrent.getTorrentInfoHash())) {
+                candidates.add(this.entries[i].torrent);
+            }
+        }
+        return candidates.isEmpty()
+                ? Optional.empty()
+                : Optional.of(candidates.get(random.nextInt(candidates.size())));
+    }
+
+    synchronized int getFileCount() {
+        return this.byFile.size();
+    }
+
+    synchronized List<MockedTorrent> getTorrents() {
+        final List<MockedTorrent> torrents = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; ++i) {
+            torrents.add(this.entries[i].torrent);
+        }
+        return torrents;
+    }
+
+    synchronized void clear() {
+        this.byFile.clear();
+        this.byInfoHash.clear();
+        Arrays.fill(this.entries, 0, this.size, null);
+        this.size = 0;
+    }
+
+    private static final class Entry {
+        private MockedTorrent torrent;
+        // Nearly always a single file
+        private final List<File> files = new ArrayList<>(1);
+        private int index;
+
+        private Entry(final MockedTorrent torrent) {
+            this.torrent = torrent;
+        }
+    }
+}
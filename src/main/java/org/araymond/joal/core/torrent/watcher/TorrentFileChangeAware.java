@@ -2,6 +2,8 @@ package org.araymond.joal.core.torrent.watcher;
 
 import org.araymond.joal.core.torrent.torrent.MockedTorrent;
 
+import java.util.List;
+
 /**
  * Created by raymo on 23/05/2017.
  */
@@ -9,6 +11,20 @@ public interface TorrentFileChangeAware {
 
     void onTorrentFileAdded(MockedTorrent torrent);
 
+    /**
+     * Called once for all the torrent files found in the same pass over the torrent folder, in path order.
+     */
+    default void onTorrentFilesAdded(final List<MockedTorrent> torrents) {
+        torrents.forEach(this::onTorrentFileAdded);
+    }
+
     void onTorrentFileRemoved(MockedTorrent torrent);
 
+    /**
+     * Called when a torrent file has been rewritten with the same info hash but another announce list. The torrent
+     * stays the same one, only its trackers changed.
+     */
+    default void onTorrentFileUpdated(final MockedTorrent torrent) {
+    }
+
 }
@@ -2,8 +2,10 @@ package org.araymond.joal.core.torrent.watcher;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.monitor.FileAlterationListenerAdaptor;
+import org.apache.commons.io.monitor.FileAlterationObserver;
 import org.araymond.joal.core.SeedManager;
 import org.araymond.joal.core.exception.NoMoreTorrentsFileAvailableException;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
@@ -14,12 +16,15 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
-import static java.util.Optional.ofNullable;
 
 /**
  * Created by raymo on 28/01/2017.
@@ -28,9 +33,13 @@ import static java.util.Optional.ofNullable;
 public class TorrentFileProvider extends FileAlterationListenerAdaptor {
 
     private final TorrentFileWatcher watcher;
-    private final Map<File, MockedTorrent> torrentFiles = Collections.synchronizedMap(new HashMap<>());
+    private final Path torrentFolder;
+    private final TorrentCatalog torrentFiles = new TorrentCatalog();
     private final Set<TorrentFileChangeAware> torrentFileChangeListener;
     private final Path archiveFolder;
+    private final TorrentMetadataIndex index;
+    private final ThreadLocal<List<File>> pendingCreations = new ThreadLocal<>();
+    private volatile ForkJoinPool parsingPool;
 
     public TorrentFileProvider(final SeedManager.JoalFoldersPath joalFoldersPath) throws FileNotFoundException {
         Path torrentFolder = joalFoldersPath.getTorrentFilesPath();
@@ -40,9 +49,11 @@ public class TorrentFileProvider extends FileAlterationListenerAdaptor {
             throw new FileNotFoundException(format("Torrent folder [%s] not found", torrentFolder.toAbsolutePath()));
         }
 
+        this.torrentFolder = torrentFolder;
         this.archiveFolder = joalFoldersPath.getTorrentArchivedPath();
-        this.watcher = new TorrentFileWatcher(this, torrentFolder);
-        this.torrentFileChangeListener = new HashSet<>();
+        this.index = new TorrentMetadataIndex(joalFoldersPath.getTorrentIndexPath());
+        this.watcher = new TorrentFileWatcher(this, torrentFolder, TorrentFileWatcher.DEFAULT_QUIET_PERIOD_MS, Collections.singleton(this.archiveFolder));
+        this.torrentFileChangeListener = new CopyOnWriteArraySet<>();
     }
 
     @VisibleForTesting
@@ -66,45 +77,307 @@ public class TorrentFileProvider extends FileAlterationListenerAdaptor {
 
     public void start() {
         this.init();
+        this.index.load();
+        this.parsingPool = createParsingPool();
         this.watcher.start();
+        this.index.save();
     }
 
     public void stop() {
         this.watcher.stop();
+        final ForkJoinPool pool = this.parsingPool;
+        if (pool != null) {
+            pool.shutdown();
+            this.parsingPool = null;
+        }
+        this.index.save();
         this.torrentFiles.clear();
     }
 
+    private static ForkJoinPool createParsingPool() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("torrent-file-parser-" + threadCount.getAndIncrement());
+            return thread;
+        }, null, false);
+    }
+
     @Override
     public void onFileDelete(final File file) {
-        ofNullable(this.torrentFiles.remove(file))
+        this.index.remove(file);
+        this.torrentFiles.remove(file)
                 .ifPresent(removedTorrent -> {
                     log.info("Torrent file deleting detected, hot deleted file [{}]", file.getAbsolutePath());
                     this.torrentFileChangeListener.forEach(listener -> listener.onTorrentFileRemoved(removedTorrent));
                 });
     }
 
+    /**
+     * Files created during an observer pass are only collected, they are parsed all at once when the pass ends.
+     */
+    @Override
+    public void onStart(final FileAlterationObserver observer) {
+        this.pendingCreations.set(new ArrayList<>());
+    }
+
+    @Override
+    public void onStop(final FileAlterationObserver observer) {
+        final List<File> pending = this.pendingCreations.get();
+        this.pendingCreations.remove();
+        if (pending != null && !pending.isEmpty()) {
+            this.createAll(pending);
+        }
+    }
+
     @Override
     public void onFileCreate(final File file) {
         log.info("Torrent file addition detected, hot creating file [{}]", file.getAbsolutePath());
+        final List<File> pending = this.pendingCreations.get();
+        if (pending != null) {
+            pending.add(file);
+            return;
+        }
+        this.createAll(Collections.singletonList(file));
+    }
+
+    /**
+     * Parses the files on the parsing pool, then registers them on the calling thread, in path order whatever order
+     * the parsing completed in. Files that fail to parse are moved to the archive folder.
+     * <p>
+     * Listeners are notified once with all the torrents of the batch, a folder of thousands of files does not end up
+     * in as many notifications.
+     */
+    private void createAll(final List<File> files) {
+        final List<File> sorted = new ArrayList<>(files);
+        sorted.sort(Comparator.naturalOrder());
+
+        final List<Future<MockedTorrent>> parsed;
         try {
-            final MockedTorrent torrent = MockedTorrent.fromFile(file);
-            this.torrentFiles.put(file, torrent);
-            this.torrentFileChangeListener.forEach(listener -> listener.onTorrentFileAdded(torrent));
-        } catch (final IOException | NoSuchAlgorithmException e) {
-            log.warn("Failed to read file [{}], moved to archive folder", file.getAbsolutePath(), e);
+            parsed = this.parseAll(sorted.stream()
+                    .<Callable<MockedTorrent>>map(file -> () -> this.index.read(file))
+                    .collect(Collectors.toList()), this.parsingPool);
+        } catch (final RejectedExecutionException e) {
+            log.warn("Torrent files parsing pool is stopped, [{}] files won't be loaded", sorted.size());
+            return;
+        }
+
+        final List<MockedTorrent> added = new ArrayList<>(sorted.size());
+        for (int i = 0; i < sorted.size(); ++i) {
+            this.register(sorted.get(i), parsed.get(i)).ifPresent(added::add);
+        }
+        this.notifyAdded(added);
+    }
+
+    /**
+     * Runs the parsing tasks on the pool, or on the calling thread if there is a single one or no pool.
+     *
+     * @throws RejectedExecutionException if the pool has been shut down meanwhile
+     */
+    private List<Future<MockedTorrent>> parseAll(final List<Callable<MockedTorrent>> tasks, final ForkJoinPool pool) {
+        if (tasks.size() > 1 && pool != null && !pool.isShutdown()) {
+            return pool.invokeAll(tasks);
+        }
+        return tasks.stream()
+                .map(callable -> {
+                    final FutureTask<MockedTorrent> task = new FutureTask<>(callable);
+                    task.run();
+                    return task;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private void notifyAdded(final List<MockedTorrent> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        if (added.size() == 1) {
+            this.torrentFileChangeListener.forEach(listener -> listener.onTorrentFileAdded(added.get(0)));
+        } else {
+            this.torrentFileChangeListener.forEach(listener -> listener.onTorrentFilesAdded(added));
+        }
+    }
+
+    private Optional<MockedTorrent> register(final File file, final Future<MockedTorrent> parsed) {
+        try {
+            final MockedTorrent torrent = Futures.getDone(parsed);
+            this.torrentFiles.add(file, torrent);
+            return Optional.of(torrent);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException || e.getCause() instanceof NoSuchAlgorithmException) {
+                log.warn("Failed to read file [{}], moved to archive folder", file.getAbsolutePath(), e.getCause());
+            } else {
+                log.warn("Unexpected exception was caught for file [{}], moved to archive folder", file.getAbsolutePath(), e.getCause());
+            }
             this.moveToArchiveFolder(file);
         } catch (final Exception e) {
             // This thread MUST NOT crash. we need handle any other exception
             log.warn("Unexpected exception was caught for file [{}], moved to archive folder", file.getAbsolutePath(), e);
             this.moveToArchiveFolder(file);
         }
+        return Optional.empty();
+    }
+
+    /**
+     * Writes a torrent file to the torrent folder and registers it right away, without waiting for the watcher to
+     * notice it and parse it again. The file is written aside then renamed, so it never shows up half-written.
+     *
+     * @throws IOException if the bytes are not a valid torrent file or the file cannot be written
+     */
+    public MockedTorrent addTorrentFile(final String fileName, final byte[] bytes) throws IOException, NoSuchAlgorithmException {
+        final MockedTorrent torrent = MockedTorrent.fromBytes(bytes);
+        final Path tempFile = this.createTempFile();
+        try {
+            Files.write(tempFile, bytes);
+            this.install(tempFile, fileName, torrent)
+                    .ifPresent(added -> this.notifyAdded(Collections.singletonList(added)));
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return torrent;
+    }
+
+    /**
+     * Starts adding many torrent files at once, see {@link TorrentFileUpload}.
+     */
+    public TorrentFileUpload newUpload() {
+        return new TorrentFileUpload(this);
+    }
+
+    /**
+     * @return a new temporary file in the torrent folder, which the watcher does not care about since it is not a
+     * .torrent file
+     */
+    Path createTempFile() throws IOException {
+        return Files.createTempFile(this.torrentFolder, ".upload-", ".tmp");
+    }
+
+    /**
+     * Parses the staged files in parallel, then installs the valid ones in order. Listeners are notified once for the
+     * whole batch, in which several files of the same torrent are a single one.
+     *
+     * @return the result of each staged file, in the same order
+     */
+    List<TorrentFileUpload.Result> installAll(final List<TorrentFileUpload.StagedFile> stagedFiles) {
+        final List<Callable<MockedTorrent>> tasks = stagedFiles.stream()
+                .<Callable<MockedTorrent>>map(staged -> () -> MockedTorrent.fromFile(staged.getTempFile().toFile()))
+                .collect(Collectors.toList());
+        List<Future<MockedTorrent>> parsed;
+        try {
+            parsed = this.parseAll(tasks, this.parsingPool);
+        } catch (final RejectedExecutionException e) {
+            // Stopped meanwhile, files are still written for the next start
+            parsed = this.parseAll(tasks, null);
+        }
+
+        final List<TorrentFileUpload.Result> results = new ArrayList<>(stagedFiles.size());
+        final List<MockedTorrent> added = new ArrayList<>(stagedFiles.size());
+        final Set<InfoHash> addedInfoHashes = new HashSet<>();
+        for (int i = 0; i < stagedFiles.size(); ++i) {
+            final TorrentFileUpload.StagedFile staged = stagedFiles.get(i);
+            try {
+                final MockedTorrent torrent = Futures.getDone(parsed.get(i));
+                this.install(staged.getTempFile(), staged.getFileName(), torrent)
+                        .filter(installed -> addedInfoHashes.add(installed.getTorrentInfoHash()))
+                        .ifPresent(added::add);
+                results.add(TorrentFileUpload.Result.added(staged.getFileName(), torrent));
+            } catch (final ExecutionException e) {
+                log.warn("Uploaded torrent file [{}] is not valid", staged.getFileName(), e.getCause());
+                results.add(TorrentFileUpload.Result.failed(staged.getFileName(), e.getCause()));
+            } catch (final IOException | RuntimeException e) {
+                log.warn("Failed to add uploaded torrent file [{}]", staged.getFileName(), e);
+                results.add(TorrentFileUpload.Result.failed(staged.getFileName(), e));
+            }
+        }
+        this.notifyAdded(added);
+        return results;
+    }
+
+    /**
+     * Renames a temporary file of the torrent folder to its final name and registers its torrent, listeners are not
+     * notified of the addition. Nothing is registered if not started, the watcher will list the file on start.
+     * <p>
+     * A file overwritten with another torrent is notified as removed. Overwritten with the same torrent, it is not
+     * added again: it keeps seeding, only a new announce list is swapped in, as on {@link #onFileChange(File)}.
+     *
+     * @return the torrent if it has been registered as a new one
+     */
+    private Optional<MockedTorrent> install(final Path tempFile, final String fileName, final MockedTorrent torrent) throws IOException {
+        final Path target = this.torrentFolder.resolve(fileName);
+        final BasicFileAttributes attributes = Files.readAttributes(tempFile, BasicFileAttributes.class);
+        final boolean register = this.parsingPool != null;
+        if (register) {
+            this.watcher.ignoreOwnWrite(target, attributes);
+        }
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException e) {
+            this.watcher.cancelOwnWrite(target);
+            throw e;
+        }
+        if (!register) {
+            return Optional.empty();
+        }
+        final File file = target.toFile();
+        this.index.put(file, attributes, torrent);
+        final Optional<MockedTorrent> replaced = this.torrentFiles.add(file, torrent);
+        if (!replaced.isPresent() || !replaced.get().getTorrentInfoHash().equals(torrent.getTorrentInfoHash())) {
+            replaced.ifPresent(previous -> this.torrentFileChangeListener.forEach(listener -> listener.onTorrentFileRemoved(previous)));
+            log.info("Torrent file [{}] has been added", file.getAbsolutePath());
+            return Optional.of(torrent);
+        }
+        if (replaced.get().getAnnounceList().equals(torrent.getAnnounceList())) {
+            log.debug("Torrent file [{}] has been rewritten without change", file.getAbsolutePath());
+        } else if (this.torrentFiles.replace(torrent)) {
+            log.info("Torrent file [{}] announce list has changed, trackers updated", file.getAbsolutePath());
+            this.torrentFileChangeListener.forEach(listener -> listener.onTorrentFileUpdated(torrent));
+        }
+        return Optional.empty();
     }
 
+    /**
+     * Sync tools and editors rewrite files without changing them, so the file is parsed again and compared with the
+     * registered torrent before doing anything: the torrent is only replaced if its info hash changed. A new announce
+     * list is swapped in place, the torrent keeps seeding without being stopped and started again.
+     */
     @Override
     public void onFileChange(final File file) {
-        log.info("Torrent file change detected, hot reloading file [{}]", file.getAbsolutePath());
-        this.onFileDelete(file);
-        this.onFileCreate(file);
+        final Optional<MockedTorrent> registered = this.torrentFiles.get(file);
+        if (!registered.isPresent()) {
+            this.onFileCreate(file);
+            return;
+        }
+
+        final MockedTorrent torrent;
+        try {
+            torrent = this.index.read(file);
+        } catch (final IOException | NoSuchAlgorithmException e) {
+            log.warn("Failed to read changed file [{}], moved to archive folder", file.getAbsolutePath(), e);
+            this.moveToArchiveFolder(file);
+            return;
+        } catch (final Exception e) {
+            // This thread MUST NOT crash. we need handle any other exception
+            log.warn("Unexpected exception was caught for changed file [{}], moved to archive folder", file.getAbsolutePath(), e);
+            this.moveToArchiveFolder(file);
+            return;
+        }
+
+        if (!torrent.getTorrentInfoHash().equals(registered.get().getTorrentInfoHash())) {
+            log.info("Torrent file change detected, hot reloading file [{}]", file.getAbsolutePath());
+            this.torrentFiles.remove(file)
+                    .ifPresent(removedTorrent -> this.torrentFileChangeListener.forEach(listener -> listener.onTorrentFileRemoved(removedTorrent)));
+            // The index already holds the new torrent, the file is not parsed again
+            this.onFileCreate(file);
+            return;
+        }
+        if (torrent.getAnnounceList().equals(registered.get().getAnnounceList())) {
+            log.debug("Torrent file [{}] has been rewritten without change", file.getAbsolutePath());
+            return;
+        }
+        if (this.torrentFiles.replace(torrent)) {
+            log.info("Torrent file [{}] announce list has changed, trackers updated", file.getAbsolutePath());
+            this.torrentFileChangeListener.forEach(listener -> listener.onTorrentFileUpdated(torrent));
+        }
     }
 
     public void registerListener(final TorrentFileChangeAware listener) {
@@ -117,14 +390,9 @@ public class TorrentFileProvider extends FileAlterationListenerAdaptor {
 
     public MockedTorrent getTorrentNotIn(final List<InfoHash> unwantedTorrents) throws NoMoreTorrentsFileAvailableException {
         Preconditions.checkNotNull(unwantedTorrents, "List of unwantedTorrents cannot be null.");
+        final Set<InfoHash> unwanted = new HashSet<>(unwantedTorrents);
 
-        return this.torrentFiles.values().stream()
-                .filter(torrent -> !unwantedTorrents.contains(torrent.getTorrentInfoHash()))
-                .collect(Collectors.collectingAndThen(Collectors.toList(), collected -> {
-                    Collections.shuffle(collected);
-                    return collected.stream();
-                }))
-                .findAny()
+        return this.torrentFiles.pickRandomNotIn(unwanted)
                 .orElseThrow(() -> new NoMoreTorrentsFileAvailableException("No more torrent file available."));
     }
 
@@ -145,19 +413,19 @@ public class TorrentFileProvider extends FileAlterationListenerAdaptor {
     }
 
     public void moveToArchiveFolder(final InfoHash infoHash) {
-        this.torrentFiles.entrySet().stream()
-                .filter(entry -> entry.getValue().getTorrentInfoHash().equals(infoHash))
-                .map(Map.Entry::getKey)
-                .findAny()
-                .ifPresentOrElse(this::moveToArchiveFolder,
-                        () -> log.warn("Cannot move torrent [{}] to archive folder. Torrent file seems not to be registered in TorrentFileProvider", infoHash));
+        final List<File> files = this.torrentFiles.getFiles(infoHash);
+        if (files.isEmpty()) {
+            log.warn("Cannot move torrent [{}] to archive folder. Torrent file seems not to be registered in TorrentFileProvider", infoHash);
+        }
+        // Copies of the same torrent file are archived together, otherwise the torrent would stay in use
+        files.forEach(this::moveToArchiveFolder);
     }
 
     public int getTorrentCount() {
-        return this.torrentFiles.size();
+        return this.torrentFiles.getFileCount();
     }
 
     public List<MockedTorrent> getTorrentFiles() {
-        return new ArrayList<>(this.torrentFiles.values());
+        return this.torrentFiles.getTorrents();
     }
 }
@@ -0,0 +1,187 @@
+package org.araymond.joal.core.torrent.watcher;
+
+import com.google.common.base.Preconditions;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Adds many torrent files at once.
+ * <p>
+ * Each file is streamed to a temporary file of the torrent folder as soon as it is added, so an upload is never held
+ * in memory. {@link #commit()} then parses them all in parallel and registers the valid ones as a single batch.
+ * Temporary files that are left (upload aborted before commit) are deleted on {@link #close()}.
+ * <p>
+ * Not thread safe, files are expected to be added by the thread reading the upload.
+ */
+@Slf4j
+public final class TorrentFileUpload implements Closeable {
+    /**
+     * Torrent files of huge torrents are a few MB, anything bigger is not a torrent file.
+     */
+    static final long MAX_TORRENT_FILE_SIZE = 10 * 1024 * 1024;
+    private static final String TORRENT_FILE_EXTENSION = ".torrent";
+
+    private final TorrentFileProvider provider;
+    private final List<StagedFile> files = new ArrayList<>();
+    // Lower cased, the torrent folder may be on a case insensitive file system
+    private final Set<String> fileNames = new HashSet<>();
+    private boolean committed;
+
+    TorrentFileUpload(final TorrentFileProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Copies the file to the torrent folder. The stream is not closed, and not read further once the file is known to be
+     * too large.
+     * <p>
+     * Only the last segment of the name is kept, and the .torrent extension is added if missing. Archives hold files
+     * of the same name in different folders: a name already used by this upload gets a number, {@code name (2).torrent},
+     * instead of overwriting the other file. A file that cannot be a torrent file is reported as failed on commit.
+     *
+     * @throws IOException if the stream cannot be read or the file cannot be written
+     */
+    public void add(final String fileName, final InputStream in) throws IOException {
+        Preconditions.checkState(!this.committed, "Upload has already been committed");
+        final Optional<String> torrentFileName = toTorrentFileName(fileName);
+        if (!torrentFileName.isPresent()) {
+            this.files.add(new StagedFile(String.valueOf(fileName), null, "Invalid file name"));
+            return;
+        }
+
+        final Path tempFile = this.provider.createTempFile();
+        final StagedFile staged = new StagedFile(this.uniqueFileName(torrentFileName.get()), tempFile, null);
+        this.files.add(staged);
+        final byte[] buffer = new byte[64 * 1024];
+        long size = 0;
+        try (final OutputStream out = Files.newOutputStream(tempFile)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                size += read;
+                if (size > MAX_TORRENT_FILE_SIZE) {
+                    break;
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        if (size > MAX_TORRENT_FILE_SIZE) {
+            Files.deleteIfExists(tempFile);
+            this.files.set(this.files.size() - 1, new StagedFile(staged.getFileName(), null, "File is larger than " + MAX_TORRENT_FILE_SIZE / (1024 * 1024) + "MB"));
+        }
+    }
+
+    /**
+     * Parses all the added files and registers the valid ones in the {@link TorrentFileProvider}.
+     *
+     * @return the result of each added file, in the order they were added
+     */
+    public List<Result> commit() {
+        Preconditions.checkState(!this.committed, "Upload has already been committed");
+        this.committed = true;
+
+        final List<StagedFile> valid = new ArrayList<>(this.files.size());
+        for (final StagedFile staged : this.files) {
+            if (staged.getTempFile() != null) {
+                valid.add(staged);
+            }
+        }
+        final Iterator<Result> installed = this.provider.installAll(valid).iterator();
+
+        final List<Result> results = new ArrayList<>(this.files.size());
+        for (final StagedFile staged : this.files) {
+            results.add(staged.getTempFile() == null
+                    ? Result.failed(staged.getFileName(), staged.getError())
+                    : installed.next());
+        }
+        return results;
+    }
+
+    /**
+     * Deletes the temporary files that have not been moved to their final name.
+     */
+    @Override
+    public void close() {
+        for (final StagedFile staged : this.files) {
+            if (staged.getTempFile() != null) {
+                try {
+                    Files.deleteIfExists(staged.getTempFile());
+                } catch (final IOException e) {
+                    log.warn("Failed to delete temporary file [{}]", staged.getTempFile(), e);
+                }
+            }
+        }
+        this.files.clear();
+    }
+
+    private String uniqueFileName(final String torrentFileName) {
+        final String baseName = torrentFileName.substring(0, torrentFileName.length() - TORRENT_FILE_EXTENSION.length());
+        String fileName = torrentFileName;
+        for (int i = 2; !this.fileNames.add(fileName.toLowerCase(Locale.ROOT)); ++i) {
+            fileName = baseName + " (" + i + ")" + TORRENT_FILE_EXTENSION;
+        }
+        return fileName;
+    }
+
+    private static Optional<String> toTorrentFileName(final String fileName) {
+        if (fileName == null) {
+            return Optional.empty();
+        }
+        // Archive entries and some browsers send the whole path, never write outside of the torrent folder
+        final String name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+        if (StringUtils.isBlank(name) || ".".equals(name) || "..".equals(name) || name.indexOf('\0') != -1) {
+            return Optional.empty();
+        }
+        return Optional.of(name.endsWith(TORRENT_FILE_EXTENSION) ? name : name + TORRENT_FILE_EXTENSION);
+    }
+
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    @Getter
+    static final class StagedFile {
+        private final String fileName;
+        private final Path tempFile;
+        private final String error;
+    }
+
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    @Getter
+    public static final class Result {
+        private final String fileName;
+        private final MockedTorrent torrent;
+        private final String error;
+
+        static Result added(final String fileName, final MockedTorrent torrent) {
+            return new Result(fileName, torrent, null);
+        }
+
+        static Result failed(final String fileName, final Throwable cause) {
+            // If NullPointerException occurs (when the file is an empty file) there is no message.
+            return failed(fileName, Optional.ofNullable(cause.getMessage()).orElse("Empty file"));
+        }
+
+        static Result failed(final String fileName, final String error) {
+            return new Result(fileName, null, error);
+        }
+
+        public boolean isAdded() {
+            return this.torrent != null;
+        }
+    }
+}
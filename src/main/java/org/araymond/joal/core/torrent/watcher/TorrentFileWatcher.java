@@ -1,77 +1,394 @@
 package org.araymond.joal.core.torrent.watcher;
 
 import com.google.common.base.Preconditions;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.collect.ImmutableSet;
+import lombok.EqualsAndHashCode;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.filefilter.FileFilterUtils;
-import org.apache.commons.io.filefilter.IOFileFilter;
 import org.apache.commons.io.monitor.FileAlterationListener;
-import org.apache.commons.io.monitor.FileAlterationMonitor;
-import org.apache.commons.io.monitor.FileAlterationObserver;
 
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
 
 /**
  * Hooks up a directory listener to detect torrent file additions,
  * deletions, changes.
+ * <p>
+ * Relies on the OS file notifications ({@link WatchService}), so an idle folder costs nothing whatever the number of
+ * files it holds. Sub-folders are watched as well, except the excluded ones (the archive folder).
+ * <p>
+ * Created or changed files are only notified once the folder has been left untouched for the quiet period, so a file
+ * that is still being written is not read half-way. Files notified within the same round are reported between
+ * {@link FileAlterationListener#onStart} and {@link FileAlterationListener#onStop} calls, with a {@code null} observer.
+ * <p>
+ * The whole folder is only scanned again when the OS dropped notifications (overflow), or periodically if the file
+ * system does not support notifications at all.
+ * <p>
+ * Files written by JOAL itself and already registered can be flagged with {@link #ignoreOwnWrite}, they are then
+ * not notified as long as they are left as written.
  *
  * Created by raymo on 01/05/2017.
  */
 @Slf4j
 class TorrentFileWatcher {
-    // TODO : get back to a bigger value as soon as https://issues.apache.org/jira/browse/IO-535 is fixed
-    private static final Integer DEFAULT_SCAN_INTERVAL_MS = 2 * 1000;
-    private static final IOFileFilter TORRENT_FILE_FILTER = FileFilterUtils.suffixFileFilter(".torrent");
+    static final Integer DEFAULT_QUIET_PERIOD_MS = 1000;
+    private static final long FALLBACK_SCAN_INTERVAL_MS = 2 * 1000;
+    private static final int MAX_PENDING_QUIET_PERIODS = 10;
+    private static final String TORRENT_FILE_EXTENSION = ".torrent";
 
-    private final FileAlterationObserver observer;
     private final FileAlterationListener listener;
-    private final File monitoredFolder;
-    private final FileAlterationMonitor monitor;
+    private final Path monitoredFolder;
+    private final Set<Path> excludedFolders;
+    private final long quietPeriodMs;
+    // Written by the threads writing files into the folder
+    private final Map<Path, FileState> ownWrites = new ConcurrentHashMap<>();
+
+    // Only accessed by the thread calling start() until the watching thread is started, then by the watching thread
+    private final Map<WatchKey, Path> watchedFolders = new HashMap<>();
+    private final Map<Path, FileState> knownFiles = new HashMap<>();
+    private final Map<Path, FileState> pendingFiles = new HashMap<>();
+    private long lastPendingEvent;
+    private long firstPendingEvent;
+    private WatchService watchService;
+    private long nextFallbackScan;
+
+    private volatile boolean running;
+    private Thread thread;
 
     TorrentFileWatcher(final FileAlterationListener listener, final Path monitoredFolder) {
-        this(listener, monitoredFolder, DEFAULT_SCAN_INTERVAL_MS);
+        this(listener, monitoredFolder, DEFAULT_QUIET_PERIOD_MS);
     }
 
     TorrentFileWatcher(final FileAlterationListener listener, final Path monitoredFolder, final Integer intervalMs) {
+        this(listener, monitoredFolder, intervalMs, Collections.emptySet());
+    }
+
+    /**
+     * @param intervalMs      the quiet period before a created or changed file is notified, also the scan interval if
+     *                        the file system does not support notifications
+     * @param excludedFolders sub-folders that are not watched
+     */
+    TorrentFileWatcher(final FileAlterationListener listener, final Path monitoredFolder, final Integer intervalMs, final Set<Path> excludedFolders) {
         Preconditions.checkNotNull(listener, "listener cannot be null");
         Preconditions.checkNotNull(monitoredFolder, "monitoredFolder cannot be null");
         Preconditions.checkArgument(Files.exists(monitoredFolder), "Folder [" + monitoredFolder.toAbsolutePath() + "] does not exists.");
         Preconditions.checkNotNull(intervalMs, "intervalMs cannot be null");
         Preconditions.checkArgument(intervalMs > 0, "intervalMs cannot be less than 1");
+        Preconditions.checkNotNull(excludedFolders, "excludedFolders cannot be null");
         this.listener = listener;
-
-        this.monitoredFolder = monitoredFolder.toFile();
-        this.observer = new FileAlterationObserver(this.monitoredFolder, TORRENT_FILE_FILTER);
-        this.observer.addListener(this.listener);
-
-        this.monitor = new FileAlterationMonitor(intervalMs);
-        this.monitor.setThreadFactory(new ThreadFactoryBuilder().setNameFormat("torrent-file-watcher-%d").build());
-        this.monitor.addObserver(this.observer);
+        this.monitoredFolder = monitoredFolder;
+        this.excludedFolders = excludedFolders.stream()
+                .map(folder -> folder.toAbsolutePath().normalize())
+                .collect(ImmutableSet.toImmutableSet());
+        this.quietPeriodMs = intervalMs;
     }
 
     void start() {
         try {
-            this.monitor.start();
-            // Trigger event for already present file
-            FileUtils.listFiles(this.monitoredFolder, TorrentFileWatcher.TORRENT_FILE_FILTER, null)
-                    .forEach(this.listener::onFileCreate);
+            try {
+                this.watchService = this.monitoredFolder.getFileSystem().newWatchService();
+            } catch (final IOException | UnsupportedOperationException e) {
+                log.warn("File system notifications are not available, torrent folder will be scanned every {} ms", FALLBACK_SCAN_INTERVAL_MS, e);
+                this.watchService = null;
+                this.nextFallbackScan = System.currentTimeMillis() + FALLBACK_SCAN_INTERVAL_MS;
+            }
+            // Folders are registered before being listed, so no file can slip in between
+            final Map<Path, FileState> presentFiles = this.registerAndList(this.monitoredFolder);
+
+            // Trigger event for already present file, as a single pass so the listener can process them at once
+            this.listener.onStart(null);
+            try {
+                presentFiles.keySet().stream().sorted().forEach(file -> {
+                    this.knownFiles.put(file, presentFiles.get(file));
+                    this.listener.onFileCreate(file.toFile());
+                });
+            } finally {
+                this.listener.onStop(null);
+            }
         } catch (final Exception e) {
+            this.closeWatchService();
             log.error("Failed to start torrent file monitoring", e);
             throw new IllegalStateException("Failed to start torrent file monitoring", e);
         }
+
+        this.running = true;
+        this.thread = new Thread(this::watch, "torrent-file-watcher-0");
+        this.thread.setDaemon(true);
+        this.thread.start();
     }
 
     void stop() {
         log.trace("Stopping TorrentFileProvider");
-        this.observer.getListeners().forEach(observer::removeListener);
-        try {
-            this.monitor.stop(10);
-        } catch (final Exception ignored) {
+        this.running = false;
+        this.closeWatchService();
+        if (this.thread != null) {
+            this.thread.interrupt();
+            try {
+                this.thread.join(10);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.thread = null;
         }
 
         log.trace("TorrentFileProvider stopped");
     }
+
+    /**
+     * The next creation or change of the file is not notified if the file has these attributes. Must be called before
+     * the file is written (or renamed) into the folder.
+     */
+    void ignoreOwnWrite(final Path file, final BasicFileAttributes attributes) {
+        this.ownWrites.put(file, new FileState(attributes));
+    }
+
+    void cancelOwnWrite(final Path file) {
+        this.ownWrites.remove(file);
+    }
+
+    private void closeWatchService() {
+        final WatchService service = this.watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (final IOException ignored) {
+            }
+        }
+    }
+
+    private void watch() {
+        while (this.running) {
+            try {
+                final long now = System.currentTimeMillis();
+                long waitMs = this.pendingFiles.isEmpty() ? Long.MAX_VALUE : this.pendingDeadline() - now;
+                if (this.watchService == null) {
+                    waitMs = Math.min(waitMs, this.nextFallbackScan - now);
+                    if (waitMs > 0) {
+                        Thread.sleep(waitMs);
+                    }
+                    if (System.currentTimeMillis() >= this.nextFallbackScan) {
+                        this.rescan();
+                        this.nextFallbackScan = System.currentTimeMillis() + FALLBACK_SCAN_INTERVAL_MS;
+                    }
+                } else {
+                    final WatchKey key = waitMs == Long.MAX_VALUE
+                            ? this.watchService.take()
+                            : this.watchService.poll(Math.max(waitMs, 0), TimeUnit.MILLISECONDS);
+                    if (key != null) {
+                        this.handleEvents(key);
+                    }
+                }
+                this.notifyQuietFiles();
+            } catch (final InterruptedException | ClosedWatchServiceException e) {
+                if (this.running) {
+                    log.warn("Torrent file monitoring has been interrupted", e);
+                    this.running = false;
+                }
+            } catch (final Exception e) {
+                // This thread MUST NOT crash, or the folder won't be monitored anymore
+                log.warn("Unexpected exception while monitoring torrent folder", e);
+            }
+        }
+    }
+
+    private void handleEvents(final WatchKey key) throws IOException {
+        final Path folder = this.watchedFolders.get(key);
+        if (folder == null || !this.running) {
+            key.cancel();
+            return;
+        }
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                log.info("Torrent folder notifications overflowed, scanning the whole folder");
+                this.rescan();
+                continue;
+            }
+            final Path path = folder.resolve((Path) event.context());
+            if (event.kind() == ENTRY_DELETE) {
+                this.onDeleted(path);
+            } else if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                if (event.kind() == ENTRY_CREATE) {
+                    this.registerAndList(path).forEach(this::schedule);
+                }
+            } else if (isTorrentFile(path)) {
+                this.schedule(path, readState(path));
+            }
+        }
+        if (!key.reset()) {
+            this.watchedFolders.remove(key);
+        }
+    }
+
+    private void onDeleted(final Path path) {
+        this.pendingFiles.keySet().removeIf(file -> file.startsWith(path));
+        final List<Path> deleted = new ArrayList<>();
+        for (final Path file : this.knownFiles.keySet()) {
+            if (file.startsWith(path)) {
+                deleted.add(file);
+            }
+        }
+        deleted.sort(Comparator.naturalOrder());
+        for (final Path file : deleted) {
+            this.knownFiles.remove(file);
+            this.listener.onFileDelete(file.toFile());
+        }
+    }
+
+    /**
+     * Diffs the whole folder with the known files, used when notifications have been lost.
+     */
+    private void rescan() throws IOException {
+        final Map<Path, FileState> presentFiles = this.registerAndList(this.monitoredFolder);
+        final List<Path> deleted = new ArrayList<>();
+        for (final Path file : this.knownFiles.keySet()) {
+            if (!presentFiles.containsKey(file)) {
+                deleted.add(file);
+            }
+        }
+        deleted.forEach(this::onDeleted);
+        presentFiles.forEach((file, state) -> {
+            if (!state.equals(this.knownFiles.get(file))) {
+                this.schedule(file, state);
+            }
+        });
+    }
+
+    private void schedule(final Path file, final FileState state) {
+        if (state == null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        if (this.pendingFiles.isEmpty()) {
+            this.firstPendingEvent = now;
+        }
+        this.lastPendingEvent = now;
+        this.pendingFiles.put(file, state);
+    }
+
+    /**
+     * Pending files are notified together once the folder has been quiet for the quiet period, so a bulk copy is
+     * reported as a single round. A folder that never gets quiet is still reported after a few quiet periods.
+     */
+    private long pendingDeadline() {
+        return Math.min(this.lastPendingEvent + this.quietPeriodMs, this.firstPendingEvent + MAX_PENDING_QUIET_PERIODS * this.quietPeriodMs);
+    }
+
+    /**
+     * Notifies the files that have not been touched for the quiet period.
+     */
+    private void notifyQuietFiles() {
+        final long now = System.currentTimeMillis();
+        if (this.pendingFiles.isEmpty() || this.pendingDeadline() > now) {
+            return;
+        }
+        final List<Path> quietFiles = new ArrayList<>();
+        for (final Iterator<Map.Entry<Path, FileState>> it = this.pendingFiles.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<Path, FileState> entry = it.next();
+            final FileState state = readState(entry.getKey());
+            if (state == null) {
+                it.remove();
+            } else if (!state.equals(entry.getValue())) {
+                // Still being written without notification
+                entry.setValue(state);
+            } else {
+                it.remove();
+                quietFiles.add(entry.getKey());
+            }
+        }
+        if (!this.pendingFiles.isEmpty()) {
+            this.firstPendingEvent = now;
+            this.lastPendingEvent = now;
+        }
+        if (quietFiles.isEmpty() || !this.running) {
+            return;
+        }
+
+        quietFiles.sort(Comparator.naturalOrder());
+        this.listener.onStart(null);
+        try {
+            for (final Path file : quietFiles) {
+                final FileState state = readState(file);
+                final FileState previous = state == null ? null : this.knownFiles.put(file, state);
+                if (state == null) {
+                    continue;
+                }
+                if (state.equals(this.ownWrites.remove(file))) {
+                    continue;
+                }
+                if (previous == null) {
+                    this.listener.onFileCreate(file.toFile());
+                } else if (!previous.equals(state)) {
+                    this.listener.onFileChange(file.toFile());
+                }
+            }
+        } finally {
+            this.listener.onStop(null);
+        }
+    }
+
+    /**
+     * Watches the folder and its sub-folders, and lists the torrent files they contain.
+     */
+    private Map<Path, FileState> registerAndList(final Path folder) throws IOException {
+        final Map<Path, FileState> files = new HashMap<>();
+        Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) throws IOException {
+                if (excludedFolders.contains(dir.toAbsolutePath().normalize())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                if (watchService != null) {
+                    watchedFolders.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && isTorrentFile(file)) {
+                    files.put(file, new FileState(attrs));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(final Path file, final IOException e) throws IOException {
+                if (file.equals(folder)) {
+                    throw e;
+                }
+                // Deleted while walking
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+
+    private static boolean isTorrentFile(final Path path) {
+        return path.getFileName().toString().endsWith(TORRENT_FILE_EXTENSION);
+    }
+
+    private static FileState readState(final Path file) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            return attributes.isRegularFile() ? new FileState(attributes) : null;
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    @EqualsAndHashCode
+    private static final class FileState {
+        private final long size;
+        private final long lastModified;
+
+        private FileState(final BasicFileAttributes attributes) {
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+        }
+    }
 }
@@ -0,0 +1,266 @@
+package org.araymond.joal.core.torrent.watcher;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
+
+import java.io.*;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk cache of the torrent files meta-info, keyed by path, size and last modification time, so unchanged files
+ * are not parsed again on startup.
+ * <p>
+ * The index is only a cache: an entry that does not match the file on disk is parsed again, records failing their
+ * checksum are dropped, and an unreadable index is rebuilt from scratch. Entries of files that are not loaded again
+ * are pruned on the next save.
+ */
+@Slf4j
+class TorrentMetadataIndex {
+    private static final int MAGIC = 0x4A4F414C;
+    private static final int VERSION = 1;
+    private static final int MAX_RECORD_LENGTH = 1024 * 1024;
+
+    private final Path indexFile;
+    private final Map<String, Entry> previousEntries = new ConcurrentHashMap<>();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    TorrentMetadataIndex(final Path indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Loads the index from disk, replacing whatever was in memory.
+     */
+    void load() {
+        this.previousEntries.clear();
+        this.entries.clear();
+        this.dirty = false;
+        if (!Files.isRegularFile(this.indexFile)) {
+            return;
+        }
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.indexFile), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("Torrent index [{}] has an unknown format, it will be rebuilt", this.indexFile);
+                this.dirty = true;
+                return;
+            }
+            final int count = in.readInt();
+            final CRC32 crc = new CRC32();
+            // Most torrents share the same few trackers, parse each of them once
+            final Map<String, URI> trackers = new HashMap<>();
+            for (int i = 0; i < count; ++i) {
+                final int length = in.readInt();
+                final long checksum = in.readLong();
+                if (length <= 0 || length > MAX_RECORD_LENGTH) {
+                    throw new IOException("Invalid record length " + length);
+                }
+                final byte[] record = new byte[length];
+                in.readFully(record);
+                crc.reset();
+                crc.update(record, 0, length);
+                if (crc.getValue() != checksum) {
+                    log.warn("Dropping corrupted record from torrent index [{}]", this.indexFile);
+                    this.dirty = true;
+                    continue;
+                }
+                final Entry entry = readRecord(record, trackers);
+                this.previousEntries.put(entry.path, entry);
+            }
+            log.info("Loaded {} entries from torrent index [{}]", this.previousEntries.size(), this.indexFile);
+        } catch (final IOException | URISyntaxException | RuntimeException e) {
+            log.warn("Failed to read torrent index [{}], unreadable entries will be rebuilt", this.indexFile, e);
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Returns the indexed meta-info of the file if it did not change since it was indexed, parses and indexes it
+     * otherwise.
+     */
+    MockedTorrent read(final File file) throws IOException, NoSuchAlgorithmException {
+        final String path = file.getAbsolutePath();
+        // Attributes are read before parsing: a file modified while being parsed won't match on next startup
+        final BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        final long size = attributes.size();
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+
+        final Entry previous = this.previousEntries.remove(path);
+        if (previous != null && previous.matches(size, lastModified)) {
+            this.entries.put(path, previous);
+            return previous.torrent;
+        }
+        final Entry current = this.entries.get(path);
+        if (current != null && current.matches(size, lastModified)) {
+            return current.torrent;
+        }
+
+        final MockedTorrent torrent = MockedTorrent.fromFile(file);
+        this.entries.put(path, new Entry(path, size, lastModified, torrent));
+        this.dirty = true;
+        return torrent;
+    }
+
+    /**
+     * Indexes meta-info that has already been parsed, for a file with the given attributes.
+     */
+    void put(final File file, final BasicFileAttributes attributes, final MockedTorrent torrent) {
+        final String path = file.getAbsolutePath();
+        this.previousEntries.remove(path);
+        this.entries.put(path, new Entry(path, attributes.size(), attributes.lastModifiedTime().toMillis(), torrent));
+        this.dirty = true;
+    }
+
+    void remove(final File file) {
+        if (this.entries.remove(file.getAbsolutePath()) != null) {
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Writes the index if anything changed since it was loaded. Failures are logged, the index is only a cache.
+     */
+    void save() {
+        if (!this.dirty && this.previousEntries.isEmpty()) {
+            return;
+        }
+        this.dirty = false;
+        final List<Entry> snapshot = new ArrayList<>(this.entries.values());
+        final Path tempFile = this.indexFile.resolveSibling(this.indexFile.getFileName() + ".tmp");
+        try {
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(snapshot.size());
+                final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+                final CRC32 crc = new CRC32();
+                for (final Entry entry : snapshot) {
+                    record.reset();
+                    writeRecord(new DataOutputStream(record), entry);
+                    final byte[] bytes = record.toByteArray();
+                    crc.reset();
+                    crc.update(bytes, 0, bytes.length);
+                    out.writeInt(bytes.length);
+                    out.writeLong(crc.getValue());
+                    out.write(bytes);
+                }
+            }
+            Files.move(tempFile, this.indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // Entries of files that are gone have been pruned
+            this.previousEntries.clear();
+            log.debug("Saved {} entries to torrent index [{}]", snapshot.size(), this.indexFile);
+        } catch (final IOException e) {
+            this.dirty = true;
+            log.warn("Failed to save torrent index [{}]", this.indexFile, e);
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (final IOException ignored) {
+            }
+        }
+    }
+
+    @VisibleForTesting
+    int size() {
+        return this.entries.size();
+    }
+
+    private static void writeRecord(final DataOutputStream out, final Entry entry) throws IOException {
+        writeString(out, entry.path);
+        out.writeLong(entry.size);
+        out.writeLong(entry.lastModified);
+
+        final MockedTorrent torrent = entry.torrent;
+        final byte[] infoHash = torrent.getTorrentInfoHash().getBytes();
+        out.writeShort(infoHash.length);
+        out.write(infoHash);
+        writeString(out, torrent.getName());
+        out.writeLong(torrent.getSize());
+        out.writeInt(torrent.getAnnounceList().size());
+        for (final List<URI> tier : torrent.getAnnounceList()) {
+            out.writeInt(tier.size());
+            for (final URI uri : tier) {
+                writeString(out, uri.toString());
+            }
+        }
+    }
+
+    private static Entry readRecord(final byte[] record, final Map<String, URI> trackers) throws IOException, URISyntaxException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        final String path = readString(in);
+        final long size = in.readLong();
+        final long lastModified = in.readLong();
+
+        final byte[] infoHash = new byte[in.readUnsignedShort()];
+        in.readFully(infoHash);
+        final String name = readString(in);
+        final long torrentSize = in.readLong();
+        final int tierCount = in.readInt();
+        final List<List<URI>> announceList = new ArrayList<>(tierCount);
+        for (int i = 0; i < tierCount; ++i) {
+            final int trackerCount = in.readInt();
+            final List<URI> tier = new ArrayList<>(trackerCount);
+            for (int j = 0; j < trackerCount; ++j) {
+                final String tracker = readString(in);
+                URI uri = trackers.get(tracker);
+                if (uri == null) {
+                    uri = new URI(tracker);
+                    trackers.put(tracker, uri);
+                }
+                tier.add(uri);
+            }
+            announceList.add(tier);
+        }
+        final MockedTorrent torrent = new MockedTorrent(new InfoHash(infoHash).intern(), name, torrentSize, announceList);
+        return new Entry(path, size, lastModified, torrent);
+    }
+
+    // DataOutput#writeUTF is limited to 64KB
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new EOFException("Invalid string length " + length);
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Entry {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final MockedTorrent torrent;
+
+        private Entry(final String path, final long size, final long lastModified, final MockedTorrent torrent) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.torrent = torrent;
+        }
+
+        private boolean matches(final long size, final long lastModified) {
+            return this.size == size && this.lastModified == lastModified;
+        }
+    }
+}
@@ -3,9 +3,10 @@ package org.araymond.joal.core.ttorrent.client;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.turn.ttorrent.common.protocol.TrackerMessage.AnnounceRequestMessage.RequestEvent;
+import lombok.extern.slf4j.Slf4j;
 import org.araymond.joal.core.config.AppConfiguration;
-import org.araymond.joal.core.events.torrent.files.TorrentFileAddedEvent;
 import org.araymond.joal.core.events.torrent.files.TorrentFileDeletedEvent;
+import org.araymond.joal.core.events.torrent.files.TorrentFilesAddedEvent;
 import org.araymond.joal.core.exception.NoMoreTorrentsFileAvailableException;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 import org.araymond.joal.core.torrent.torrent.MockedTorrent;
@@ -16,16 +17,29 @@ import org.araymond.joal.core.ttorrent.client.announcer.AnnouncerFacade;
 import org.araymond.joal.core.ttorrent.client.announcer.AnnouncerFactory;
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnounceRequest;
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnouncerExecutor;
+import org.araymond.joal.core.ttorrent.client.rampup.AnnounceRampUpScheduler;
+import org.araymond.joal.core.ttorrent.client.rampup.AnnounceRateMeter;
+import org.araymond.joal.core.ttorrent.client.rampup.AnnounceRateMeter.AnnounceRate;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
 
+@Slf4j
 public class Client implements TorrentFileChangeAware, ClientFacade {
+    private static final long ANNOUNCE_RATE_LOG_INTERVAL_SECONDS = TimeUnit.MINUTES.toSeconds(1);
+
     private final AppConfiguration appConfiguration;
     private final TorrentFileProvider torrentFileProvider;
     private final ApplicationEventPublisher eventPublisher;
@@ -33,21 +47,29 @@ public class Client implements TorrentFileChangeAware, ClientFacade {
     private final List<Announcer> currentlySeedingAnnouncer;
     private final DelayQueue<AnnounceRequest> delayQueue;
     private final AnnouncerFactory announcerFactory;
+    private final AnnounceRampUpScheduler rampUpScheduler;
+    private final AnnounceRateMeter announceRateMeter;
+    private ScheduledExecutorService announceRateReporter;
+    private final SwarmScraper swarmScraper;
     private final ReentrantReadWriteLock lock;
     private Thread thread;
     private volatile boolean stop = true;
 
-    Client(final AppConfiguration appConfiguration, final TorrentFileProvider torrentFileProvider, final AnnouncerExecutor announcerExecutor, final DelayQueue<AnnounceRequest> delayQueue, final AnnouncerFactory announcerFactory, final ApplicationEventPublisher eventPublisher) {
+    Client(final AppConfiguration appConfiguration, final TorrentFileProvider torrentFileProvider, final AnnouncerExecutor announcerExecutor, final DelayQueue<AnnounceRequest> delayQueue, final AnnouncerFactory announcerFactory, final AnnounceRampUpScheduler rampUpScheduler, final SwarmScraper swarmScraper, final ApplicationEventPublisher eventPublisher) {
         Preconditions.checkNotNull(appConfiguration, "AppConfiguration must not be null");
         Preconditions.checkNotNull(torrentFileProvider, "TorrentFileProvider must not be null");
         Preconditions.checkNotNull(delayQueue, "DelayQueue must not be null");
         Preconditions.checkNotNull(announcerFactory, "AnnouncerFactory must not be null");
+        Preconditions.checkNotNull(rampUpScheduler, "AnnounceRampUpScheduler must not be null");
         this.eventPublisher = eventPublisher;
         this.appConfiguration = appConfiguration;
         this.torrentFileProvider = torrentFileProvider;
         this.announcerExecutor = announcerExecutor;
         this.delayQueue = delayQueue;
         this.announcerFactory = announcerFactory;
+        this.rampUpScheduler = rampUpScheduler;
+        this.swarmScraper = swarmScraper;
+        this.announceRateMeter = new AnnounceRateMeter();
         this.currentlySeedingAnnouncer = new ArrayList<>();
         this.lock = new ReentrantReadWriteLock();
     }
@@ -63,50 +85,74 @@ public class Client implements TorrentFileChangeAware, ClientFacade {
 
         this.thread = new Thread(() -> {
             while (!this.stop) {
-                for (final AnnounceRequest req : this.delayQueue.getAvailables()) {
+                final List<AnnounceRequest> requests;
+                try {
+                    // Parks until the earliest announce is due, an earlier enqueue wakes the thread up.
+                    requests = this.delayQueue.awaitAvailables();
+                } catch (final InterruptedException ignored) {
+                    continue;
+                }
+
+                for (final AnnounceRequest req : requests) {
                     this.announcerExecutor.execute(req);
-                    try {
-                        this.lock.writeLock().lock();
+                }
+                this.announceRateMeter.record(requests.size());
+                try {
+                    this.lock.writeLock().lock();
+                    for (final AnnounceRequest req : requests) {
                         this.currentlySeedingAnnouncer.removeIf(an -> an.equals(req.getAnnouncer())); // remove the last recorded event
                         this.currentlySeedingAnnouncer.add(req.getAnnouncer());
-                    } finally {
-                        this.lock.writeLock().unlock();
                     }
-                }
-
-                try {
-                    Thread.sleep(1000);
-                } catch (final InterruptedException ignored) {
+                } finally {
+                    this.lock.writeLock().unlock();
                 }
             }
         });
 
-        for (int i = 0; i < this.appConfiguration.getSimultaneousSeed(); i++) {
-            try {
-                this.lock.writeLock().lock();
-                this.addTorrent();
-            } catch (final NoMoreTorrentsFileAvailableException ignored) {
-                break;
-            } finally {
-                this.lock.writeLock().unlock();
-            }
+        this.fillEmptySeedingSlots();
+        if (this.swarmScraper != null) {
+            // Don't hold the seeding back for the first scrape, its results only filter the torrents picked afterward.
+            this.swarmScraper.start(this::fillEmptySeedingSlots);
         }
 
         this.thread.setName("client-orchestrator-thread");
 
         this.thread.start();
+        this.startAnnounceRateReporter();
         this.torrentFileProvider.registerListener(this);
     }
 
+    /**
+     * Starts seeding new torrents until simultaneousSeed is reached or no more torrent is eligible.
+     */
+    @VisibleForTesting
+    void fillEmptySeedingSlots() {
+        if (this.stop) {
+            return;
+        }
+        try {
+            this.lock.writeLock().lock();
+            while (this.currentlySeedingAnnouncer.size() < this.appConfiguration.getSimultaneousSeed()) {
+                this.addTorrent();
+            }
+        } catch (final NoMoreTorrentsFileAvailableException ignored) {
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
     private void addTorrent() throws NoMoreTorrentsFileAvailableException {
-        final MockedTorrent torrent = this.torrentFileProvider.getTorrentNotIn(
-                this.currentlySeedingAnnouncer.stream()
-                        .map(Announcer::getTorrentInfoHash)
-                        .collect(toList())
-        );
+        final List<InfoHash> unwantedTorrents = this.currentlySeedingAnnouncer.stream()
+                .map(Announcer::getTorrentInfoHash)
+                .collect(toList());
+        if (this.swarmScraper != null) {
+            // Nobody to seed to, starting them would only cost a STARTED and a STOPPED announce.
+            unwantedTorrents.addAll(this.swarmScraper.getTorrentsWithoutLeechers());
+        }
+        final MockedTorrent torrent = this.torrentFileProvider.getTorrentNotIn(unwantedTorrents);
         final Announcer announcer = this.announcerFactory.create(torrent);
         this.currentlySeedingAnnouncer.add(announcer);
-        this.delayQueue.addOrReplace(AnnounceRequest.createStart(announcer), 0, ChronoUnit.SECONDS);
+        this.delayQueue.addOrReplace(AnnounceRequest.createStart(announcer), (int) this.rampUpScheduler.nextStartDelayMs(), ChronoUnit.MILLIS);
     }
 
     @Override
@@ -115,6 +161,13 @@ public class Client implements TorrentFileChangeAware, ClientFacade {
             this.lock.writeLock().lock();
             this.stop = true;
             this.torrentFileProvider.unRegisterListener(this);
+            if (this.swarmScraper != null) {
+                this.swarmScraper.stop();
+            }
+            if (this.announceRateReporter != null) {
+                this.announceRateReporter.shutdownNow();
+                this.announceRateReporter = null;
+            }
             if (this.thread != null) {
                 this.thread.interrupt();
                 try {
@@ -176,18 +229,45 @@ public class Client implements TorrentFileChangeAware, ClientFacade {
 
     @Override
     public void onTorrentFileAdded(final MockedTorrent torrent) {
-        this.eventPublisher.publishEvent(new TorrentFileAddedEvent(torrent));
+        this.onTorrentFilesAdded(Collections.singletonList(torrent));
+    }
+
+    /**
+     * Starts seeding as many of the added torrents as there are empty seeding slots, under a single lock acquisition.
+     * The other ones stay idle in the {@link TorrentFileProvider} until a slot frees up.
+     */
+    @Override
+    public void onTorrentFilesAdded(final List<MockedTorrent> torrents) {
+        this.eventPublisher.publishEvent(new TorrentFilesAddedEvent(torrents));
         if (this.stop) {
             return;
         }
         try {
             this.lock.writeLock().lock();
-            if (this.currentlySeedingAnnouncer.size() >= this.appConfiguration.getSimultaneousSeed()) {
+            int emptySlots = this.appConfiguration.getSimultaneousSeed() - this.currentlySeedingAnnouncer.size();
+            if (emptySlots <= 0) {
                 return;
             }
-            final Announcer announcer = this.announcerFactory.create(torrent);
-            this.currentlySeedingAnnouncer.add(announcer);
-            this.delayQueue.addOrReplace(AnnounceRequest.createStart(announcer), 1, ChronoUnit.SECONDS);
+            final Set<InfoHash> unwantedTorrents = this.currentlySeedingAnnouncer.stream()
+                    .map(Announcer::getTorrentInfoHash)
+                    .collect(toCollection(HashSet::new));
+            if (this.swarmScraper != null) {
+                unwantedTorrents.addAll(this.swarmScraper.getTorrentsWithoutLeechers());
+            }
+            for (final MockedTorrent torrent : torrents) {
+                if (emptySlots == 0) {
+                    break;
+                }
+                // Skips copies of the same torrent in the batch as well
+                if (!unwantedTorrents.add(torrent.getTorrentInfoHash())) {
+                    continue;
+                }
+                final Announcer announcer = this.announcerFactory.create(torrent);
+                this.currentlySeedingAnnouncer.add(announcer);
+                final long delayMs = Math.max(1000, this.rampUpScheduler.nextStartDelayMs());
+                this.delayQueue.addOrReplace(AnnounceRequest.createStart(announcer), (int) delayMs, ChronoUnit.MILLIS);
+                --emptySlots;
+            }
         } finally {
             this.lock.writeLock().unlock();
         }
@@ -209,6 +289,19 @@ public class Client implements TorrentFileChangeAware, ClientFacade {
         }
     }
 
+    @Override
+    public void onTorrentFileUpdated(final MockedTorrent torrent) {
+        try {
+            this.lock.writeLock().lock();
+            this.currentlySeedingAnnouncer.stream()
+                    .filter(announcer -> announcer.getTorrentInfoHash().equals(torrent.getTorrentInfoHash()))
+                    .findFirst()
+                    .ifPresent(announcer -> announcer.updateTorrent(torrent));
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
     @Override
     public List<AnnouncerFacade> getCurrentlySeedingAnnouncer() {
         try {
@@ -218,4 +311,31 @@ public class Client implements TorrentFileChangeAware, ClientFacade {
             this.lock.readLock().unlock();
         }
     }
+
+    @Override
+    public AnnounceRate getAnnounceRate() {
+        return this.announceRateMeter.getRate();
+    }
+
+    /**
+     * Logs the smoothed rate of announces sent to the trackers once a minute, on its own thread, so that a ramp-up
+     * that stalls shows up as a decaying rate instead of an absence of logs.
+     */
+    private void startAnnounceRateReporter() {
+        this.announceRateReporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "announce-rate-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.announceRateReporter.scheduleAtFixedRate(this::logAnnounceRate, ANNOUNCE_RATE_LOG_INTERVAL_SECONDS, ANNOUNCE_RATE_LOG_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void logAnnounceRate() {
+        final AnnounceRate rate = this.announceRateMeter.getRate();
+        log.info("Announces per second: {} over 10 seconds, {} over 1 minute, {} over 5 minutes",
+                String.format("%.2f", rate.getLastTenSeconds()),
+                String.format("%.2f", rate.getLastMinute()),
+                String.format("%.2f", rate.getLastFiveMinutes())
+        );
+    }
 }
@@ -7,8 +7,13 @@ import org.araymond.joal.core.ttorrent.client.announcer.AnnouncerFactory;
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnounceRequest;
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnouncerExecutor;
 import org.araymond.joal.core.ttorrent.client.announcer.response.*;
+import org.araymond.joal.core.ttorrent.client.announcer.tracker.TrackerScraper;
+import org.araymond.joal.core.ttorrent.client.rampup.AnnounceRampUpScheduler;
+import org.araymond.joal.core.ttorrent.client.rampup.NoRampUp;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.Optional;
+
 public final class ClientBuilder {
     private AppConfiguration appConfiguration;
     private TorrentFileProvider torrentFileProvider;
@@ -16,6 +21,7 @@ public final class ClientBuilder {
     private AnnouncerFactory announcerFactory;
     private ApplicationEventPublisher eventPublisher;
     private DelayQueue<AnnounceRequest> delayQueue;
+    private TrackerScraper trackerScraper;
 
     private ClientBuilder() {
         // private
@@ -55,17 +61,34 @@ public final class ClientBuilder {
         return this;
     }
 
+    /**
+     * Optional, without it torrents are picked regardless of their leechers count.
+     */
+    public ClientBuilder withTrackerScraper(final TrackerScraper trackerScraper) {
+        this.trackerScraper = trackerScraper;
+        return this;
+    }
+
     public ClientFacade build() {
+        final AnnounceRampUpScheduler rampUpScheduler = new AnnounceRampUpScheduler(
+                Optional.ofNullable(this.appConfiguration.getAnnounceRampUp()).orElseGet(NoRampUp::new),
+                this.appConfiguration.getSimultaneousSeed()
+        );
+
         final AnnounceResponseHandlerChain announceResponseCallback = new AnnounceResponseHandlerChain();
         announceResponseCallback.appendHandler(new AnnounceEventPublisher(this.eventPublisher));
-        announceResponseCallback.appendHandler(new AnnounceReEnqueuer(this.delayQueue));
+        announceResponseCallback.appendHandler(new AnnounceReEnqueuer(this.delayQueue, rampUpScheduler));
         announceResponseCallback.appendHandler(new BandwidthDispatcherNotifier(bandwidthDispatcher));
         final ClientNotifier clientNotifier = new ClientNotifier();
         announceResponseCallback.appendHandler(clientNotifier);
 
         final AnnouncerExecutor announcerExecutor = new AnnouncerExecutor(announceResponseCallback);
 
-        final Client client = new Client(this.appConfiguration, this.torrentFileProvider, announcerExecutor, this.delayQueue, this.announcerFactory, this.eventPublisher);
+        final SwarmScraper swarmScraper = this.trackerScraper == null
+                ? null
+                : new SwarmScraper(this.trackerScraper, this.torrentFileProvider, this.bandwidthDispatcher, SwarmScraper.DEFAULT_SCRAPE_INTERVAL_MS);
+
+        final Client client = new Client(this.appConfiguration, this.torrentFileProvider, announcerExecutor, this.delayQueue, this.announcerFactory, rampUpScheduler, swarmScraper, this.eventPublisher);
         clientNotifier.setClient(client);
 
         return client;
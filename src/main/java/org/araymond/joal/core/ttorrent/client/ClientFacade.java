@@ -1,6 +1,7 @@
 package org.araymond.joal.core.ttorrent.client;
 
 import org.araymond.joal.core.ttorrent.client.announcer.AnnouncerFacade;
+import org.araymond.joal.core.ttorrent.client.rampup.AnnounceRateMeter.AnnounceRate;
 
 import java.util.List;
 
@@ -8,4 +9,5 @@ public interface ClientFacade {
     void start();
     void stop();
     List<AnnouncerFacade> getCurrentlySeedingAnnouncer();
+    AnnounceRate getAnnounceRate();
 }
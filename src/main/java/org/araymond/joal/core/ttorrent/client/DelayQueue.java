@@ -1,18 +1,34 @@
 package org.araymond.joal.core.ttorrent.client;
 
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 
-import java.time.LocalDateTime;
 import java.time.temporal.TemporalUnit;
 import java.util.*;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Queue of items released once their delay has elapsed. There can be at most one item per {@link InfoHash} in the queue.
+ * <p>
+ * Backed by an indexed 4-ary min-heap ordered on a {@link System#nanoTime()} deadline, the {@link InfoHash} to
+ * heap-slot index makes {@link #addOrReplace(InfoHashAble, int, TemporalUnit)} and {@link #remove(InfoHashAble)}
+ * run in O(log n) instead of scanning the whole queue.
+ * <p>
+ * Consumers can either poll with {@link #getAvailables()} or park in {@link #awaitAvailables()} until the earliest
+ * deadline is reached, any insertion that becomes the new head of the queue wakes them up.
+ */
 public class DelayQueue<T extends DelayQueue.InfoHashAble> {
+    private static final int ARITY = 4;
+    private static final int DEFAULT_CAPACITY = 16;
+
     private final Lock lock = new ReentrantLock();
-    private final Queue<IntervalAware<T>> queue = new PriorityQueue<>();
+    private final Condition headChanged = this.lock.newCondition();
+    private final Map<InfoHash, Slot<T>> index = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    private Slot<T>[] heap = new Slot[DEFAULT_CAPACITY];
+    private int size;
+    private long sequence;
 
     /**
      * Add to item to the queue, and ensure item uniqueness into the queue.
@@ -22,14 +38,30 @@ public class DelayQueue<T extends DelayQueue.InfoHashAble> {
      * @param unit
      */
     public void addOrReplace(final T item, final int interval, final TemporalUnit unit) {
-        final IntervalAware<T> intervalAware = new IntervalAware<>(
-                item,
-                LocalDateTime.now().plus(interval, unit)
-        );
+        final long releaseAt = System.nanoTime() + unit.getDuration().multipliedBy(interval).toNanos();
         this.lock.lock();
         try {
-            this.queue.removeIf(i -> i.getItem().getInfoHash().equals(item.getInfoHash())); // Ensure no double will be present in the queue (don't ant to have two announce type for a torrent)
-            this.queue.add(intervalAware);
+            // Ensure no double will be present in the queue (don't ant to have two announce type for a torrent)
+            final Slot<T> existing = this.index.get(item.getInfoHash());
+            if (existing != null) {
+                existing.item = item;
+                existing.releaseAt = releaseAt;
+                existing.sequence = this.sequence++;
+                this.siftUp(existing.position);
+                this.siftDown(existing.position);
+                this.signalIfHead(existing);
+                return;
+            }
+
+            final Slot<T> slot = new Slot<>(item, releaseAt, this.sequence++);
+            if (this.size == this.heap.length) {
+                this.heap = Arrays.copyOf(this.heap, this.size * 2);
+            }
+            slot.position = this.size;
+            this.heap[this.size++] = slot;
+            this.index.put(item.getInfoHash(), slot);
+            this.siftUp(slot.position);
+            this.signalIfHead(slot);
         } finally {
             this.lock.unlock();
         }
@@ -38,18 +70,34 @@ public class DelayQueue<T extends DelayQueue.InfoHashAble> {
     public List<T> getAvailables() {
         this.lock.lock();
         try {
-            final IntervalAware<T> first = queue.peek();
-            final LocalDateTime now = LocalDateTime.now();
-            if (first == null || first.releaseAt.isAfter(now)) {
-                return Collections.emptyList();
-            }
-
-            final List<T> timedOutItems = new ArrayList<>();
-            do {
-                timedOutItems.add(this.queue.poll().getItem());
-            } while (this.queue.size() > 0 && !this.queue.peek().releaseAt.isAfter(now));
+            return this.pollAvailables(System.nanoTime());
+        } finally {
+            this.lock.unlock();
+        }
+    }
 
-            return timedOutItems;
+    /**
+     * Wait until at least one item is available and return all the available ones. The calling thread is parked
+     * until the earliest deadline, and woken up earlier if an item is inserted at the head of the queue.
+     *
+     * @return the available items, never empty
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public List<T> awaitAvailables() throws InterruptedException {
+        this.lock.lockInterruptibly();
+        try {
+            while (true) {
+                if (this.size == 0) {
+                    this.headChanged.await();
+                    continue;
+                }
+                final long now = System.nanoTime();
+                final long delay = this.heap[0].releaseAt - now;
+                if (delay <= 0) {
+                    return this.pollAvailables(now);
+                }
+                this.headChanged.awaitNanos(delay);
+            }
         } finally {
             this.lock.unlock();
         }
@@ -58,7 +106,10 @@ public class DelayQueue<T extends DelayQueue.InfoHashAble> {
     public void remove(final T itemToRemove) {
         this.lock.lock();
         try {
-            this.queue.removeIf(item -> item.getItem().getInfoHash().equals(itemToRemove.getInfoHash()));
+            final Slot<T> slot = this.index.get(itemToRemove.getInfoHash());
+            if (slot != null) {
+                this.removeAt(slot.position);
+            }
         } finally {
             this.lock.unlock();
         }
@@ -67,9 +118,9 @@ public class DelayQueue<T extends DelayQueue.InfoHashAble> {
     public List<T> drainAll() {
         this.lock.lock();
         try {
-            final List<T> items = new ArrayList<>(queue.size());
-            while (queue.size() > 0) {
-                items.add(queue.poll().getItem());
+            final List<T> items = new ArrayList<>(this.size);
+            while (this.size > 0) {
+                items.add(this.removeAt(0).item);
             }
             return items;
         } finally {
@@ -77,16 +128,100 @@ public class DelayQueue<T extends DelayQueue.InfoHashAble> {
         }
     }
 
+    private List<T> pollAvailables(final long now) {
+        if (this.size == 0 || this.heap[0].releaseAt - now > 0) {
+            return Collections.emptyList();
+        }
+
+        final List<T> timedOutItems = new ArrayList<>();
+        do {
+            timedOutItems.add(this.removeAt(0).item);
+        } while (this.size > 0 && this.heap[0].releaseAt - now <= 0);
+
+        return timedOutItems;
+    }
 
-    @RequiredArgsConstructor
-    private static final class IntervalAware<T> implements Comparable<IntervalAware> {
-        @Getter
-        private final T item;
-        private final LocalDateTime releaseAt;
+    private void signalIfHead(final Slot<T> slot) {
+        if (slot.position == 0) {
+            this.headChanged.signalAll();
+        }
+    }
+
+    private Slot<T> removeAt(final int position) {
+        final Slot<T> removed = this.heap[position];
+        this.index.remove(removed.item.getInfoHash());
+
+        final int last = --this.size;
+        final Slot<T> moved = this.heap[last];
+        this.heap[last] = null;
+        if (position != last) {
+            this.heap[position] = moved;
+            moved.position = position;
+            this.siftUp(position);
+            this.siftDown(moved.position);
+        }
+        return removed;
+    }
+
+    private void siftUp(int position) {
+        final Slot<T> slot = this.heap[position];
+        while (position > 0) {
+            final int parent = (position - 1) / ARITY;
+            if (!slot.isBefore(this.heap[parent])) {
+                break;
+            }
+            this.heap[position] = this.heap[parent];
+            this.heap[position].position = position;
+            position = parent;
+        }
+        this.heap[position] = slot;
+        slot.position = position;
+    }
+
+    private void siftDown(int position) {
+        final Slot<T> slot = this.heap[position];
+        while (true) {
+            final int firstChild = position * ARITY + 1;
+            if (firstChild >= this.size) {
+                break;
+            }
+            int smallest = firstChild;
+            final int lastChild = Math.min(firstChild + ARITY, this.size);
+            for (int child = firstChild + 1; child < lastChild; ++child) {
+                if (this.heap[child].isBefore(this.heap[smallest])) {
+                    smallest = child;
+                }
+            }
+            if (!this.heap[smallest].isBefore(slot)) {
+                break;
+            }
+            this.heap[position] = this.heap[smallest];
+            this.heap[position].position = position;
+            position = smallest;
+        }
+        this.heap[position] = slot;
+        slot.position = position;
+    }
+
+    private static final class Slot<T> {
+        private T item;
+        private long releaseAt;
+        private long sequence;
+        private int position;
+
+        private Slot(final T item, final long releaseAt, final long sequence) {
+            this.item = item;
+            this.releaseAt = releaseAt;
+            this.sequence = sequence;
+        }
 
-        @Override
-        public int compareTo(final IntervalAware o) {
-            return this.releaseAt.compareTo(o.releaseAt);
+        /**
+         * nanoTime values must be compared by subtraction to stay correct across numerical overflow. Items sharing
+         * the same deadline are released in insertion order.
+         */
+        private boolean isBefore(final Slot<?> other) {
+            final long diff = this.releaseAt - other.releaseAt;
+            return diff < 0 || (diff == 0 && this.sequence < other.sequence);
         }
     }
 
@@ -0,0 +1,101 @@
+package org.araymond.joal.core.ttorrent.client;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import lombok.extern.slf4j.Slf4j;
+import org.araymond.joal.core.bandwith.BandwidthDispatcher;
+import org.araymond.joal.core.bandwith.Peers;
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.araymond.joal.core.torrent.watcher.TorrentFileProvider;
+import org.araymond.joal.core.ttorrent.client.announcer.tracker.TrackerScraper;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically scrapes all the torrent files at once. The peers count of the seeding torrents are pushed to the
+ * {@link BandwidthDispatcher} between two announces, and the torrents known to have no leechers are kept away from
+ * the seeding slots so we don't waste a STARTED/STOPPED announce pair on them.
+ */
+@Slf4j
+public class SwarmScraper {
+    public static final long DEFAULT_SCRAPE_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long SCRAPE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(2);
+
+    private final TrackerScraper trackerScraper;
+    private final TorrentFileProvider torrentFileProvider;
+    private final BandwidthDispatcher bandwidthDispatcher;
+    private final long scrapeIntervalMs;
+    private volatile Map<InfoHash, Peers> lastScrape = Collections.emptyMap();
+    private ScheduledExecutorService executor;
+
+    public SwarmScraper(final TrackerScraper trackerScraper, final TorrentFileProvider torrentFileProvider, final BandwidthDispatcher bandwidthDispatcher, final long scrapeIntervalMs) {
+        Preconditions.checkNotNull(trackerScraper, "TrackerScraper must not be null");
+        Preconditions.checkNotNull(torrentFileProvider, "TorrentFileProvider must not be null");
+        Preconditions.checkArgument(scrapeIntervalMs > 0, "scrapeIntervalMs must be greater than 0");
+        this.trackerScraper = trackerScraper;
+        this.torrentFileProvider = torrentFileProvider;
+        this.bandwidthDispatcher = bandwidthDispatcher;
+        this.scrapeIntervalMs = scrapeIntervalMs;
+    }
+
+    /**
+     * Scrapes right away, then every scrapeIntervalMs.
+     *
+     * @param onScraped called on the scraper thread once each scrape is done
+     */
+    public void start(final Runnable onScraped) {
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "swarm-scraper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(() -> {
+            try {
+                this.scrapeNow();
+                onScraped.run();
+            } catch (final Exception e) {
+                // The executor would silently stop scheduling if we let it throw
+                log.warn("Failed to scrape torrents", e);
+            }
+        }, 0, this.scrapeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+        this.lastScrape = Collections.emptyMap();
+    }
+
+    @VisibleForTesting
+    void scrapeNow() throws InterruptedException {
+        final Map<InfoHash, Peers> scraped;
+        try {
+            scraped = this.trackerScraper.scrape(this.torrentFileProvider.getTorrentFiles()).get(SCRAPE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (final ExecutionException | TimeoutException e) {
+            log.warn("Failed to scrape torrents", e);
+            return;
+        }
+        log.debug("Scraped {} torrents", scraped.size());
+        this.lastScrape = scraped;
+        if (this.bandwidthDispatcher != null) {
+            this.bandwidthDispatcher.updateTorrentsPeers(scraped);
+        }
+    }
+
+    /**
+     * @return the torrents for which the last scrape reported no leechers. Torrents that could not be scraped are
+     * not part of it
+     */
+    public Set<InfoHash> getTorrentsWithoutLeechers() {
+        return this.lastScrape.entrySet().stream()
+                .filter(entry -> entry.getValue().getLeechers() == 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+}
@@ -2,25 +2,33 @@ package org.araymond.joal.core.ttorrent.client.announcer;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
 import com.turn.ttorrent.client.announce.AnnounceException;
 import com.turn.ttorrent.common.protocol.TrackerMessage.AnnounceRequestMessage.RequestEvent;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.client.HttpClient;
+import org.apache.http.nio.client.HttpAsyncClient;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 import org.araymond.joal.core.torrent.torrent.MockedTorrent;
 import org.araymond.joal.core.ttorrent.client.announcer.exceptions.TooMuchAnnouncesFailedInARawException;
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnounceDataAccessor;
 import org.araymond.joal.core.ttorrent.client.announcer.request.SuccessAnnounceResponse;
+import org.araymond.joal.core.ttorrent.client.announcer.tracker.AnnounceTransport;
+import org.araymond.joal.core.ttorrent.client.announcer.tracker.AsyncTrackerClient;
 import org.araymond.joal.core.ttorrent.client.announcer.tracker.TrackerClient;
 import org.araymond.joal.core.ttorrent.client.announcer.tracker.TrackerClientUriProvider;
 import org.araymond.joal.core.ttorrent.client.announcer.tracker.TrackerResponseHandler;
+import org.araymond.joal.core.ttorrent.client.announcer.tracker.UdpTrackerSocket;
 
 import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,29 +41,63 @@ public class Announcer implements AnnouncerFacade {
     private Integer lastKnownSeeders = null;
     private LocalDateTime lastAnnouncedAt = null;
     @Getter
-    private final MockedTorrent torrent;
-    private TrackerClient trackerClient;
+    private volatile MockedTorrent torrent;
+    private volatile AnnounceTransport trackerClient;
     private final AnnounceDataAccessor announceDataAccessor;
+    private final HttpClient httpClient;
+    private final HttpAsyncClient asyncHttpClient;
+    private final UdpTrackerSocket udpTrackerSocket;
 
     Announcer(final MockedTorrent torrent, final AnnounceDataAccessor announceDataAccessor, final HttpClient httpClient) {
+        this(torrent, announceDataAccessor, httpClient, null, null);
+    }
+
+    /**
+     * @param asyncHttpClient  may be null, in which case the announces are sent with the blocking httpClient
+     * @param udpTrackerSocket may be null, in which case udp:// trackers are skipped. Only used along with asyncHttpClient
+     */
+    Announcer(final MockedTorrent torrent, final AnnounceDataAccessor announceDataAccessor, final HttpClient httpClient, final HttpAsyncClient asyncHttpClient, final UdpTrackerSocket udpTrackerSocket) {
         this.torrent = torrent;
-        this.trackerClient = this.buildTrackerClient(torrent, httpClient);
+        this.trackerClient = this.buildTrackerClient(torrent, httpClient, asyncHttpClient, udpTrackerSocket);
         this.announceDataAccessor = announceDataAccessor;
+        this.httpClient = httpClient;
+        this.asyncHttpClient = asyncHttpClient;
+        this.udpTrackerSocket = udpTrackerSocket;
+    }
+
+    /**
+     * Swaps the torrent for the same one with another announce list. Announces go to the new trackers from now on,
+     * the announce state (interval, peers, uploaded bytes) is kept.
+     */
+    public void updateTorrent(final MockedTorrent torrent) {
+        Preconditions.checkArgument(torrent.getTorrentInfoHash().equals(this.torrent.getTorrentInfoHash()), "Torrent must have the same info hash");
+        this.trackerClient = this.buildTrackerClient(torrent, this.httpClient, this.asyncHttpClient, this.udpTrackerSocket);
+        this.torrent = torrent;
     }
 
-    private TrackerClient buildTrackerClient(final MockedTorrent torrent, HttpClient httpClient) {
+    private AnnounceTransport buildTrackerClient(final MockedTorrent torrent, final HttpClient httpClient, final HttpAsyncClient asyncHttpClient, final UdpTrackerSocket udpTrackerSocket) {
         final List<URI> trackerURIs = torrent.getAnnounceList().stream()  // Use a list to keep it ordered
                 .sequential()
                 .flatMap(Collection::stream)
                 .collect(Collectors.toList());
+        if (asyncHttpClient != null) {
+            return new AsyncTrackerClient(new TrackerClientUriProvider(trackerURIs), new TrackerResponseHandler(), asyncHttpClient, udpTrackerSocket);
+        }
         return new TrackerClient(new TrackerClientUriProvider(trackerURIs), new TrackerResponseHandler(), httpClient);
     }
 
     @VisibleForTesting
-    void setTrackerClient(final TrackerClient trackerClient) {
+    void setTrackerClient(final AnnounceTransport trackerClient) {
         this.trackerClient = trackerClient;
     }
 
+    /**
+     * @return true if {@link #announceAsync(RequestEvent)} does not hold the calling thread while waiting for the tracker
+     */
+    public boolean supportsNonBlockingAnnounce() {
+        return this.trackerClient.isNonBlocking();
+    }
+
     public SuccessAnnounceResponse announce(final RequestEvent event) throws AnnounceException, TooMuchAnnouncesFailedInARawException {
         if (log.isDebugEnabled()) {
             log.debug("Attempt to announce {} for {}", event.getEventName(), this.torrent.getTorrentInfoHash().getHumanReadable());
@@ -67,29 +109,85 @@ public class Announcer implements AnnouncerFacade {
                     this.announceDataAccessor.getHttpRequestQueryForTorrent(this.torrent.getTorrentInfoHash(), event),
                     this.announceDataAccessor.getHttpHeadersForTorrent()
             );
-            if (log.isInfoEnabled()) {
-                log.info("{} has announced successfully. Response: {} seeders, {} leechers, {}s interval", this.torrent.getTorrentInfoHash().getHumanReadable(), responseMessage.getSeeders(), responseMessage.getLeechers(), responseMessage.getInterval());
-            }
-
-            this.lastKnownInterval = responseMessage.getInterval();
-            this.lastKnownLeechers = responseMessage.getLeechers();
-            this.lastKnownSeeders = responseMessage.getSeeders();
-            this.consecutiveFails = 0;
-
+            this.onAnnounceSucceeded(responseMessage);
             return responseMessage;
         } catch (final Exception e) {
-            if (log.isWarnEnabled()) {
-                log.warn("{} has failed to announce", this.torrent.getTorrentInfoHash().getHumanReadable(), e);
+            this.onAnnounceFailed(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Same as {@link #announce(RequestEvent)}, the returned future is completed exceptionally with the exception that
+     * {@link #announce(RequestEvent)} would have thrown.
+     */
+    public CompletableFuture<SuccessAnnounceResponse> announceAsync(final RequestEvent event) {
+        if (log.isDebugEnabled()) {
+            log.debug("Attempt to announce {} for {}", event.getEventName(), this.torrent.getTorrentInfoHash().getHumanReadable());
+        }
+
+        this.lastAnnouncedAt = LocalDateTime.now();
+        final CompletableFuture<SuccessAnnounceResponse> future;
+        try {
+            future = this.trackerClient.announceAsync(
+                    this.announceDataAccessor.getHttpRequestQueryForTorrent(this.torrent.getTorrentInfoHash(), event),
+                    this.announceDataAccessor.getHttpHeadersForTorrent()
+            );
+        } catch (final RuntimeException e) {
+            final CompletableFuture<SuccessAnnounceResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed.handle(this::onAnnounceCompleted);
+        }
+        final CompletableFuture<SuccessAnnounceResponse> result = future.handle(this::onAnnounceCompleted);
+        // Cancelling the announce cancels the tracker request
+        result.whenComplete((ignored, throwable) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
             }
+        });
+        return result;
+    }
+
+    private SuccessAnnounceResponse onAnnounceCompleted(final SuccessAnnounceResponse responseMessage, final Throwable throwable) {
+        if (throwable == null) {
+            this.onAnnounceSucceeded(responseMessage);
+            return responseMessage;
+        }
+        final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        if (cause instanceof CancellationException) {
+            // The announce has been denied, the tracker has nothing to do with it
+            throw new CompletionException(cause);
+        }
+        try {
+            this.onAnnounceFailed(cause);
+        } catch (final TooMuchAnnouncesFailedInARawException e) {
+            throw new CompletionException(e);
+        }
+        throw new CompletionException(cause);
+    }
+
+    private void onAnnounceSucceeded(final SuccessAnnounceResponse responseMessage) {
+        if (log.isInfoEnabled()) {
+            log.info("{} has announced successfully. Response: {} seeders, {} leechers, {}s interval", this.torrent.getTorrentInfoHash().getHumanReadable(), responseMessage.getSeeders(), responseMessage.getLeechers(), responseMessage.getInterval());
+        }
+
+        this.lastKnownInterval = responseMessage.getInterval();
+        this.lastKnownLeechers = responseMessage.getLeechers();
+        this.lastKnownSeeders = responseMessage.getSeeders();
+        this.consecutiveFails = 0;
+    }
+
+    private void onAnnounceFailed(final Throwable e) throws TooMuchAnnouncesFailedInARawException {
+        if (log.isWarnEnabled()) {
+            log.warn("{} has failed to announce", this.torrent.getTorrentInfoHash().getHumanReadable(), e);
+        }
 
-            ++this.consecutiveFails;
-            if (this.consecutiveFails >= 5) {
-                if (log.isInfoEnabled()) {
-                    log.info("{} has failed to announce 5 times in a raw", this.torrent.getTorrentInfoHash().getHumanReadable());
-                }
-                throw new TooMuchAnnouncesFailedInARawException(torrent);
+        ++this.consecutiveFails;
+        if (this.consecutiveFails >= 5) {
+            if (log.isInfoEnabled()) {
+                log.info("{} has failed to announce 5 times in a raw", this.torrent.getTorrentInfoHash().getHumanReadable());
             }
-            throw e;
+            throw new TooMuchAnnouncesFailedInARawException(torrent);
         }
     }
 
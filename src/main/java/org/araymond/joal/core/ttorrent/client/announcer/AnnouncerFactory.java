@@ -1,16 +1,33 @@
 package org.araymond.joal.core.ttorrent.client.announcer;
 
-import lombok.RequiredArgsConstructor;
 import org.apache.http.client.HttpClient;
+import org.apache.http.nio.client.HttpAsyncClient;
 import org.araymond.joal.core.torrent.torrent.MockedTorrent;
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnounceDataAccessor;
+import org.araymond.joal.core.ttorrent.client.announcer.tracker.UdpTrackerSocket;
 
-@RequiredArgsConstructor
 public class AnnouncerFactory {
     private final AnnounceDataAccessor announceDataAccessor;
     private final HttpClient httpClient;
+    private final HttpAsyncClient asyncHttpClient;
+    private final UdpTrackerSocket udpTrackerSocket;
+
+    public AnnouncerFactory(final AnnounceDataAccessor announceDataAccessor, final HttpClient httpClient) {
+        this(announceDataAccessor, httpClient, null, null);
+    }
+
+    /**
+     * @param asyncHttpClient  may be null, in which case announcers fall back to the blocking httpClient
+     * @param udpTrackerSocket may be null, in which case udp:// trackers are skipped. Only used along with asyncHttpClient
+     */
+    public AnnouncerFactory(final AnnounceDataAccessor announceDataAccessor, final HttpClient httpClient, final HttpAsyncClient asyncHttpClient, final UdpTrackerSocket udpTrackerSocket) {
+        this.announceDataAccessor = announceDataAccessor;
+        this.httpClient = httpClient;
+        this.asyncHttpClient = asyncHttpClient;
+        this.udpTrackerSocket = udpTrackerSocket;
+    }
 
     public Announcer create(final MockedTorrent torrent) {
-        return new Announcer(torrent, this.announceDataAccessor, httpClient);
+        return new Announcer(torrent, this.announceDataAccessor, this.httpClient, this.asyncHttpClient, this.udpTrackerSocket);
     }
 }
@@ -7,6 +7,7 @@ import org.araymond.joal.core.client.emulated.BitTorrentClient;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 import org.araymond.joal.core.ttorrent.client.ConnectionHandler;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -21,6 +22,10 @@ public class AnnounceDataAccessor {
         return this.bitTorrentClient.createRequestQuery(event, infoHash, this.bandwidthDispatcher.getSeedStatForTorrent(infoHash), this.connectionHandler);
     }
 
+    public String getHttpScrapeQueryForTorrents(final Collection<InfoHash> infoHashes) {
+        return this.bitTorrentClient.createScrapeQuery(infoHashes);
+    }
+
     public List<Map.Entry<String, String>> getHttpHeadersForTorrent() {
         return this.bitTorrentClient.createRequestHeaders();
     }
@@ -11,6 +11,7 @@ import org.araymond.joal.core.ttorrent.client.announcer.response.AnnounceRespons
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 public class AnnouncerExecutor {
@@ -29,10 +30,15 @@ public class AnnouncerExecutor {
         final int corePoolSize = 3;
         final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("annnouncer-%d").build();
         this.executorService = new ThreadPoolExecutor(corePoolSize, 3, 40, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), threadFactory);
-        this.currentlyRunning = new HashMap<>(corePoolSize);
+        this.currentlyRunning = new ConcurrentHashMap<>();
     }
 
     public void execute(final AnnounceRequest request) {
+        if (request.getAnnouncer().supportsNonBlockingAnnounce()) {
+            this.executeNonBlocking(request);
+            return;
+        }
+
         final Callable<Void> callable = () -> {
             try {
                 announceResponseCallback.onAnnounceWillAnnounce(request.getEvent(), request.getAnnouncer());
@@ -59,12 +65,51 @@ public class AnnouncerExecutor {
         );
     }
 
+    /**
+     * The announce is sent and its callbacks are run on the executor threads, but no thread is held while waiting for
+     * the tracker response.
+     */
+    private void executeNonBlocking(final AnnounceRequest request) {
+        final Announcer announcer = request.getAnnouncer();
+        final InfoHash infoHash = announcer.getTorrentInfoHash();
+
+        // Registered before the announce is sent, so it can not complete (and be unregistered) before being registered.
+        final CompletableFuture<Void> registered = new CompletableFuture<>();
+        final AtomicReference<AnnouncerWithFuture> running = new AtomicReference<>();
+        final CompletableFuture<Void> future = registered
+                .thenComposeAsync(ignored -> {
+                    announceResponseCallback.onAnnounceWillAnnounce(request.getEvent(), announcer);
+                    final CompletableFuture<SuccessAnnounceResponse> transport = announcer.announceAsync(request.getEvent());
+                    // Cancelling the stages below would not reach the tracker request, it has to be cancelled itself
+                    running.get().setTransportFuture(transport);
+                    return transport;
+                }, this.executorService)
+                .handleAsync((result, throwable) -> {
+                    if (throwable == null) {
+                        announceResponseCallback.onAnnounceSuccess(request.getEvent(), announcer, result);
+                        return null;
+                    }
+                    final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                    if (cause instanceof TooMuchAnnouncesFailedInARawException) {
+                        announceResponseCallback.onTooManyAnnounceFailedInARaw(request.getEvent(), announcer, (TooMuchAnnouncesFailedInARawException) cause);
+                    } else {
+                        announceResponseCallback.onAnnounceFailure(request.getEvent(), announcer, cause);
+                    }
+                    return null;
+                }, this.executorService);
+
+        running.set(new AnnouncerWithFuture(announcer, future));
+        this.currentlyRunning.put(infoHash, running.get());
+        future.whenComplete((ignored, throwable) -> this.currentlyRunning.remove(infoHash, running.get()));
+        registered.complete(null);
+    }
+
     public Optional<Announcer> deny(final InfoHash infoHash) {
         final AnnouncerWithFuture announcerWithFuture = this.currentlyRunning.get(infoHash);
         if (announcerWithFuture == null) {
             return Optional.empty();
         }
-        announcerWithFuture.getFuture().cancel(true);
+        announcerWithFuture.cancel();
         this.currentlyRunning.remove(infoHash);
 
         return Optional.of(announcerWithFuture.getAnnouncer());
@@ -77,7 +122,7 @@ public class AnnouncerExecutor {
         for (final InfoHash infoHash: infoHashes) {
             final AnnouncerWithFuture announcerWithFuture = this.currentlyRunning.get(infoHash);
             if (announcerWithFuture != null) {
-                announcerWithFuture.getFuture().cancel(true);
+                announcerWithFuture.cancel();
                 this.currentlyRunning.remove(infoHash);
                 announcersCanceled.add(announcerWithFuture.getAnnouncer());
             }
@@ -87,9 +132,21 @@ public class AnnouncerExecutor {
     }
 
     public void awaitForRunningTasks() {
+        // Non blocking announces do not occupy the executor while waiting for the tracker, wait for them before shutting it down.
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (final AnnouncerWithFuture running : new ArrayList<>(this.currentlyRunning.values())) {
+            try {
+                running.getFuture().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (final ExecutionException | CancellationException | TimeoutException ignored) {
+            }
+        }
+
         this.executorService.shutdown();
         try {
-            this.executorService.awaitTermination(10, TimeUnit.SECONDS);
+            this.executorService.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
         } catch (final InterruptedException e) {
             log.warn("AnnouncerExecutor has ended with timeout, some torrents was still trying to announce after 10s", e);
         }
@@ -100,5 +157,23 @@ public class AnnouncerExecutor {
     private static final class AnnouncerWithFuture {
         private final Announcer announcer;
         private final Future<?> future;
+        // The tracker request of a non blocking announce, once it is sent
+        private Future<?> transportFuture;
+        private boolean cancelled;
+
+        private synchronized void setTransportFuture(final Future<?> transportFuture) {
+            this.transportFuture = transportFuture;
+            if (this.cancelled) {
+                transportFuture.cancel(true);
+            }
+        }
+
+        private synchronized void cancel() {
+            this.cancelled = true;
+            this.future.cancel(true);
+            if (this.transportFuture != null) {
+                this.transportFuture.cancel(true);
+            }
+        }
     }
 }
@@ -1,20 +1,29 @@
 package org.araymond.joal.core.ttorrent.client.announcer.response;
 
 import com.turn.ttorrent.common.protocol.TrackerMessage.AnnounceRequestMessage.RequestEvent;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.araymond.joal.core.ttorrent.client.DelayQueue;
 import org.araymond.joal.core.ttorrent.client.announcer.Announcer;
 import org.araymond.joal.core.ttorrent.client.announcer.exceptions.TooMuchAnnouncesFailedInARawException;
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnounceRequest;
 import org.araymond.joal.core.ttorrent.client.announcer.request.SuccessAnnounceResponse;
+import org.araymond.joal.core.ttorrent.client.rampup.AnnounceRampUpScheduler;
 
 import java.time.temporal.ChronoUnit;
 
-@RequiredArgsConstructor
 @Slf4j
 public class AnnounceReEnqueuer implements AnnounceResponseHandlerChainElement {
     private final DelayQueue<AnnounceRequest> delayQueue;
+    private final AnnounceRampUpScheduler rampUpScheduler;
+
+    public AnnounceReEnqueuer(final DelayQueue<AnnounceRequest> delayQueue) {
+        this(delayQueue, AnnounceRampUpScheduler.noRampUp());
+    }
+
+    public AnnounceReEnqueuer(final DelayQueue<AnnounceRequest> delayQueue, final AnnounceRampUpScheduler rampUpScheduler) {
+        this.delayQueue = delayQueue;
+        this.rampUpScheduler = rampUpScheduler;
+    }
 
     @Override
     public void onAnnouncerWillAnnounce(final Announcer announcer, final RequestEvent event) {
@@ -23,7 +32,7 @@ public class AnnounceReEnqueuer implements AnnounceResponseHandlerChainElement {
     @Override
     public void onAnnounceStartSuccess(final Announcer announcer, final SuccessAnnounceResponse result) {
         log.debug("Enqueue torrent {} in regular queue.", announcer.getTorrentInfoHash().getHumanReadable());
-        this.delayQueue.addOrReplace(AnnounceRequest.createRegular(announcer), result.getInterval(), ChronoUnit.SECONDS);
+        this.enqueueRegular(announcer, result.getInterval());
     }
 
     @Override
@@ -35,7 +44,7 @@ public class AnnounceReEnqueuer implements AnnounceResponseHandlerChainElement {
     @Override
     public void onAnnounceRegularSuccess(final Announcer announcer, final SuccessAnnounceResponse result) {
         log.debug("Enqueue torrent {} in regular queue.", announcer.getTorrentInfoHash().getHumanReadable());
-        this.delayQueue.addOrReplace(AnnounceRequest.createRegular(announcer), result.getInterval(), ChronoUnit.SECONDS);
+        this.enqueueRegular(announcer, result.getInterval());
     }
 
     @Override
@@ -54,6 +63,14 @@ public class AnnounceReEnqueuer implements AnnounceResponseHandlerChainElement {
         this.delayQueue.addOrReplace(AnnounceRequest.createStop(announcer), 0, ChronoUnit.SECONDS);
     }
 
+    private void enqueueRegular(final Announcer announcer, final int interval) {
+        final int shift = this.rampUpScheduler.regularAnnounceShiftInSeconds(interval);
+        if (shift > 0) {
+            log.debug("Regular announce of torrent {} delayed by {}s to avoid colliding with other announces.", announcer.getTorrentInfoHash().getHumanReadable(), shift);
+        }
+        this.delayQueue.addOrReplace(AnnounceRequest.createRegular(announcer), interval + shift, ChronoUnit.SECONDS);
+    }
+
     @Override
     public void onTooManyAnnounceFailedInARaw(final Announcer announcer, final TooMuchAnnouncesFailedInARawException e) {
     }
@@ -0,0 +1,26 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.turn.ttorrent.client.announce.AnnounceException;
+import org.araymond.joal.core.ttorrent.client.announcer.request.SuccessAnnounceResponse;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the announces of a torrent to its trackers, moving to the next tracker of the announce-list when one fails.
+ */
+public interface AnnounceTransport {
+
+    SuccessAnnounceResponse announce(String requestQuery, Iterable<Map.Entry<String, String>> headers) throws AnnounceException;
+
+    /**
+     * @return a future completed with the tracker response, or completed exceptionally with an {@link AnnounceException}
+     */
+    CompletableFuture<SuccessAnnounceResponse> announceAsync(String requestQuery, Iterable<Map.Entry<String, String>> headers);
+
+    /**
+     * @return true if {@link #announceAsync(String, Iterable)} returns without waiting for the tracker response,
+     * false if it blocks the calling thread until the response is received.
+     */
+    boolean isNonBlocking();
+}
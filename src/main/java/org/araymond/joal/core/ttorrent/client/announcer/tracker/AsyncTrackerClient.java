@@ -0,0 +1,162 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.turn.ttorrent.client.announce.AnnounceException;
+import com.turn.ttorrent.common.protocol.TrackerMessage;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.araymond.joal.core.ttorrent.client.announcer.request.SuccessAnnounceResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Announces through a non-blocking {@link HttpAsyncClient}, and through a {@link UdpTrackerSocket} for udp:// trackers
+ * if one is given. No thread is held while waiting for the tracker, the response is parsed and the returned future
+ * is completed on one of the client I/O threads.
+ */
+public class AsyncTrackerClient implements AnnounceTransport {
+    private final TrackerClientUriProvider trackerClientUriProvider;
+    private final HttpAsyncClient httpClient;
+    private final UdpTrackerSocket udpTrackerSocket;
+    private final ResponseHandler<TrackerMessage> trackerResponseHandler;
+
+    public AsyncTrackerClient(final TrackerClientUriProvider trackerClientUriProvider, final ResponseHandler<TrackerMessage> trackerResponseHandler, final HttpAsyncClient httpClient) {
+        this(trackerClientUriProvider, trackerResponseHandler, httpClient, null);
+    }
+
+    /**
+     * @param udpTrackerSocket may be null, in which case udp:// trackers are skipped
+     */
+    public AsyncTrackerClient(final TrackerClientUriProvider trackerClientUriProvider, final ResponseHandler<TrackerMessage> trackerResponseHandler, final HttpAsyncClient httpClient, final UdpTrackerSocket udpTrackerSocket) {
+        this.trackerResponseHandler = trackerResponseHandler;
+        this.trackerClientUriProvider = trackerClientUriProvider;
+        this.httpClient = httpClient;
+        this.udpTrackerSocket = udpTrackerSocket;
+    }
+
+    /**
+     * Blocks the calling thread until the tracker has answered.
+     */
+    @Override
+    public SuccessAnnounceResponse announce(final String requestQuery, final Iterable<Map.Entry<String, String>> headers) throws AnnounceException {
+        try {
+            return this.announceAsync(requestQuery, headers).get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnnounceException("Interrupted while waiting for tracker response.", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof AnnounceException) {
+                throw (AnnounceException) e.getCause();
+            }
+            throw new AnnounceException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<SuccessAnnounceResponse> announceAsync(final String requestQuery, final Iterable<Map.Entry<String, String>> headers) {
+        final CompletableFuture<SuccessAnnounceResponse> future = new CompletableFuture<>();
+
+        final URI baseUri;
+        try {
+            baseUri = TrackerClient.selectUri(this.trackerClientUriProvider, this::isSupported);
+        } catch (final AnnounceException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        if ("udp".equals(baseUri.getScheme())) {
+            return this.announceUdp(baseUri, requestQuery);
+        }
+
+        final Future<HttpResponse> request = this.httpClient.execute(TrackerClient.createAnnounceRequest(baseUri, requestQuery, headers), new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(final HttpResponse response) {
+                final TrackerMessage responseMessage;
+                try {
+                    try {
+                        responseMessage = trackerResponseHandler.handleResponse(response);
+                    } catch (final IOException e) {
+                        throw new AnnounceException("Failed to handle tracker response: " + e.getMessage(), e);
+                    }
+                    TrackerClient.failIfErrorMessage(baseUri, responseMessage);
+                } catch (final AnnounceException e) {
+                    // If the request has failed we need to move to the next tracker.
+                    future.completeExceptionally(TrackerClient.moveToNextUri(trackerClientUriProvider, e));
+                    return;
+                }
+
+                try {
+                    future.complete(TrackerClient.toSuccessAnnounceResponse(responseMessage));
+                } catch (final AnnounceException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(final Exception e) {
+                final AnnounceException announceException = new AnnounceException("Failed to announce: error or connection aborted.", e);
+                future.completeExceptionally(TrackerClient.moveToNextUri(trackerClientUriProvider, announceException));
+            }
+
+            @Override
+            public void cancelled() {
+                future.completeExceptionally(new CancellationException("Announce has been cancelled."));
+            }
+        });
+        // Aborts the request and frees its connection when the announce is cancelled
+        future.whenComplete((ignored, throwable) -> {
+            if (future.isCancelled()) {
+                request.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<SuccessAnnounceResponse> announceUdp(final URI baseUri, final String requestQuery) {
+        final CompletableFuture<UdpTrackerSocket.AnnounceResponse> response;
+        try {
+            final UdpAnnounceRequest request = UdpAnnounceRequest.fromHttpQuery(requestQuery);
+            response = this.udpTrackerSocket.resolve(baseUri.getHost(), baseUri.getPort())
+                    .thenCompose(tracker -> this.udpTrackerSocket.announce(tracker, request));
+        } catch (final IllegalArgumentException e) {
+            final CompletableFuture<SuccessAnnounceResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(TrackerClient.moveToNextUri(this.trackerClientUriProvider, new AnnounceException(e.getMessage(), e)));
+            return failed;
+        }
+
+        final CompletableFuture<SuccessAnnounceResponse> future = new CompletableFuture<>();
+        response.whenComplete((message, throwable) -> {
+            if (throwable != null) {
+                final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                // If the request has failed we need to move to the next tracker.
+                future.completeExceptionally(TrackerClient.moveToNextUri(this.trackerClientUriProvider, new AnnounceException(cause.getMessage(), cause)));
+                return;
+            }
+            final int seeders = message.getSeeders() == 0 ? 0 : message.getSeeders() - 1;  // Subtract one to seeders since we are one of them
+            future.complete(new SuccessAnnounceResponse(message.getInterval(), seeders, message.getLeechers()));
+        });
+        future.whenComplete((ignored, throwable) -> {
+            if (future.isCancelled()) {
+                response.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    private boolean isSupported(final URI uri) {
+        return uri.getScheme().startsWith("http") || (this.udpTrackerSocket != null && "udp".equals(uri.getScheme()) && uri.getPort() != -1);
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return true;
+    }
+}
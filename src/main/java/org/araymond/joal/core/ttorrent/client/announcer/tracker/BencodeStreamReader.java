@@ -0,0 +1,172 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Pull reader of bencoded data, reading straight from a stream.
+ * <p>
+ * Tracker responses are mostly made of peer lists we never use, values that are not asked for are skipped without
+ * being materialized. The read buffer is reused per thread, so a thread must be done with a reader before creating
+ * another one.
+ */
+final class BencodeStreamReader {
+    private static final int BUFFER_SIZE = 8192;
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    BencodeStreamReader(final InputStream in) {
+        this.in = in;
+        this.buffer = BUFFERS.get();
+    }
+
+    /**
+     * @return the next byte without consuming it
+     */
+    int peek() throws IOException {
+        if (this.position == this.limit && !this.fill()) {
+            throw new EOFException("Unexpected end of bencoded data");
+        }
+        return this.buffer[this.position];
+    }
+
+    void expect(final char token) throws IOException {
+        final int next = this.peek();
+        if (next != token) {
+            throw new IOException("Expected '" + token + "' but found '" + (char) next + "'");
+        }
+        ++this.position;
+    }
+
+    /**
+     * @return true if the current list or dictionary has no more element, in which case the end is consumed
+     */
+    boolean endOfContainer() throws IOException {
+        if (this.peek() == 'e') {
+            ++this.position;
+            return true;
+        }
+        return false;
+    }
+
+    long readInteger() throws IOException {
+        this.expect('i');
+        return this.readNumber('e');
+    }
+
+    /**
+     * Copies the next string into target.
+     *
+     * @return the length of the string, or -1 if it does not fit in target, in which case it has been skipped
+     */
+    int readString(final byte[] target) throws IOException {
+        final long length = this.readStringLength();
+        if (length > target.length) {
+            this.skipBytes(length);
+            return -1;
+        }
+        int copied = 0;
+        while (copied < length) {
+            if (this.position == this.limit && !this.fill()) {
+                throw new EOFException("Unexpected end of bencoded data");
+            }
+            final int chunk = (int) Math.min(length - copied, this.limit - this.position);
+            System.arraycopy(this.buffer, this.position, target, copied, chunk);
+            this.position += chunk;
+            copied += chunk;
+        }
+        return (int) length;
+    }
+
+    String readString(final Charset charset, final int maxLength) throws IOException {
+        final byte[] bytes = new byte[maxLength];
+        final int length = this.readString(bytes);
+        if (length == -1) {
+            throw new IOException("Bencoded string is longer than " + maxLength + " bytes");
+        }
+        return new String(bytes, 0, length, charset);
+    }
+
+    /**
+     * Skips the next value, whatever its type and size.
+     */
+    void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            final int next = this.peek();
+            if (next == 'd' || next == 'l') {
+                ++this.position;
+                ++depth;
+            } else if (next == 'e') {
+                if (depth == 0) {
+                    throw new IOException("Unexpected end of container");
+                }
+                ++this.position;
+                --depth;
+            } else if (next == 'i') {
+                this.readInteger();
+            } else {
+                this.skipBytes(this.readStringLength());
+            }
+        } while (depth > 0);
+    }
+
+    private long readStringLength() throws IOException {
+        final int next = this.peek();
+        if (next < '0' || next > '9') {
+            throw new IOException("Unexpected bencode token '" + (char) next + "'");
+        }
+        return this.readNumber(':');
+    }
+
+    private long readNumber(final char terminator) throws IOException {
+        boolean negative = false;
+        if (this.peek() == '-') {
+            negative = true;
+            ++this.position;
+        }
+        long value = 0;
+        int digits = 0;
+        int next;
+        while ((next = this.peek()) != terminator) {
+            if (next < '0' || next > '9' || ++digits > 18) {
+                throw new IOException("Invalid bencoded number");
+            }
+            value = value * 10 + (next - '0');
+            ++this.position;
+        }
+        ++this.position;
+        if (digits == 0) {
+            throw new IOException("Invalid bencoded number");
+        }
+        return negative ? -value : value;
+    }
+
+    private void skipBytes(final long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            if (this.position == this.limit && !this.fill()) {
+                throw new EOFException("Unexpected end of bencoded data");
+            }
+            final int chunk = (int) Math.min(remaining, this.limit - this.position);
+            this.position += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        final int read = this.in.read(this.buffer, 0, this.buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        this.position = 0;
+        this.limit = read;
+        return true;
+    }
+}
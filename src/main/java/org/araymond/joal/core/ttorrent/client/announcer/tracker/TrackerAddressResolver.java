@@ -0,0 +1,87 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.turn.ttorrent.client.announce.AnnounceException;
+import lombok.RequiredArgsConstructor;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Resolves the host names of UDP trackers on its own threads, so a slow DNS never holds the announcer or scraper
+ * threads. Resolved addresses are kept for a few minutes, concurrent lookups of the same host share the same one.
+ * Failed lookups are not kept, the next request tries again.
+ */
+public class TrackerAddressResolver implements Closeable {
+    private final HostLookup lookup;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final ExecutorService executor;
+    private final Map<String, CachedAddress> cache = new ConcurrentHashMap<>();
+
+    public TrackerAddressResolver() {
+        this(InetAddress::getByName, Duration.ofMinutes(5), System::nanoTime);
+    }
+
+    @VisibleForTesting
+    TrackerAddressResolver(final HostLookup lookup, final Duration ttl, final LongSupplier nanoTime) {
+        this.lookup = lookup;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+        this.executor = Executors.newFixedThreadPool(2, new ThreadFactoryBuilder().setNameFormat("tracker-resolver-%d").setDaemon(true).build());
+    }
+
+    public CompletableFuture<InetSocketAddress> resolve(final String host, final int port) {
+        final long now = this.nanoTime.getAsLong();
+        final CachedAddress cached = this.cache.compute(host, (key, existing) ->
+                existing != null && now - existing.resolvedAt < this.ttlNanos ? existing : new CachedAddress(this.lookupAsync(key), now)
+        );
+        return cached.address.thenApply(address -> new InetSocketAddress(address, port));
+    }
+
+    private CompletableFuture<InetAddress> lookupAsync(final String host) {
+        final CompletableFuture<InetAddress> future = new CompletableFuture<>();
+        try {
+            this.executor.execute(() -> {
+                try {
+                    future.complete(this.lookup.lookup(host));
+                } catch (final UnknownHostException | RuntimeException e) {
+                    // forgotten before anyone sees the failure, so that a retry does a new lookup
+                    this.cache.computeIfPresent(host, (key, cached) -> cached.address == future ? null : cached);
+                    future.completeExceptionally(new AnnounceException("Failed to resolve tracker " + host, e));
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            // called from within compute(), the entry is not in the map yet: the failure is kept, the resolver is closed anyway
+            future.completeExceptionally(new AnnounceException("Tracker resolver is closed", e));
+        }
+        return future;
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    interface HostLookup {
+        InetAddress lookup(String host) throws UnknownHostException;
+    }
+
+    @RequiredArgsConstructor
+    private static final class CachedAddress {
+        private final CompletableFuture<InetAddress> address;
+        private final long resolvedAt;
+    }
+}
@@ -18,8 +18,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
-public class TrackerClient {
+public class TrackerClient implements AnnounceTransport {
     private final TrackerClientUriProvider trackerClientUriProvider;
     private final HttpClient httpClient;
     private final ResponseHandler<TrackerMessage> trackerResponseHandler;
@@ -30,49 +32,93 @@ public class TrackerClient {
         this.httpClient = httpClient;
     }
 
+    @Override
     public SuccessAnnounceResponse announce(final String requestQuery, final Iterable<Map.Entry<String, String>> headers) throws AnnounceException {
-        final URI baseUri;
-        try {
-            while (!this.trackerClientUriProvider.get().getScheme().startsWith("http")) {
-                this.trackerClientUriProvider.deleteCurrentAndMoveToNext();
-            }
-            baseUri = this.trackerClientUriProvider.get();
-        } catch (final NoMoreUriAvailableException e) {
-            throw new AnnounceException("No more valid tracker URI", e);
-        }
+        final URI baseUri = selectHttpUri(this.trackerClientUriProvider);
 
         final TrackerMessage responseMessage;
         try {
             responseMessage = this.makeCallAndGetResponseAsByteBuffer(baseUri, requestQuery, headers);
-
-            if (responseMessage instanceof ErrorMessage) {
-                final ErrorMessage error = (ErrorMessage) responseMessage;
-                throw new AnnounceException(baseUri + ": " + error.getReason());
-            }
+            failIfErrorMessage(baseUri, responseMessage);
         } catch (final AnnounceException e) {
             // If the request has failed we need to move to the next tracker.
-            try {
-                this.trackerClientUriProvider.moveToNext();
-            } catch (final NoMoreUriAvailableException e1) {
-                throw new AnnounceException("No more valid tracker for torrent.", e1);
+            throw moveToNextUri(this.trackerClientUriProvider, e);
+        }
+
+        return toSuccessAnnounceResponse(responseMessage);
+    }
+
+    /**
+     * Blocks the calling thread until the tracker has answered.
+     */
+    @Override
+    public CompletableFuture<SuccessAnnounceResponse> announceAsync(final String requestQuery, final Iterable<Map.Entry<String, String>> headers) {
+        final CompletableFuture<SuccessAnnounceResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(this.announce(requestQuery, headers));
+        } catch (final Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return false;
+    }
+
+    static URI selectHttpUri(final TrackerClientUriProvider trackerClientUriProvider) throws AnnounceException {
+        return selectUri(trackerClientUriProvider, uri -> uri.getScheme().startsWith("http"));
+    }
+
+    /**
+     * Unsupported URIs are removed from the provider.
+     */
+    static URI selectUri(final TrackerClientUriProvider trackerClientUriProvider, final Predicate<URI> isSupported) throws AnnounceException {
+        try {
+            while (!isSupported.test(trackerClientUriProvider.get())) {
+                trackerClientUriProvider.deleteCurrentAndMoveToNext();
             }
-            throw new AnnounceException(e.getMessage(), e);
+            return trackerClientUriProvider.get();
+        } catch (final NoMoreUriAvailableException e) {
+            throw new AnnounceException("No more valid tracker URI", e);
+        }
+    }
+
+    static void failIfErrorMessage(final URI baseUri, final TrackerMessage responseMessage) throws AnnounceException {
+        if (responseMessage instanceof ErrorMessage) {
+            final ErrorMessage error = (ErrorMessage) responseMessage;
+            throw new AnnounceException(baseUri + ": " + error.getReason());
         }
+    }
 
+    static AnnounceException moveToNextUri(final TrackerClientUriProvider trackerClientUriProvider, final AnnounceException e) {
+        try {
+            trackerClientUriProvider.moveToNext();
+        } catch (final NoMoreUriAvailableException e1) {
+            return new AnnounceException("No more valid tracker for torrent.", e1);
+        }
+        return new AnnounceException(e.getMessage(), e);
+    }
+
+    static SuccessAnnounceResponse toSuccessAnnounceResponse(final TrackerMessage responseMessage) throws AnnounceException {
         if (!(responseMessage instanceof AnnounceResponseMessage)) {
             throw new AnnounceException("Unexpected tracker message type " + responseMessage.getType().name() + "!");
         }
 
         final AnnounceResponseMessage announceResponseMessage = (AnnounceResponseMessage) responseMessage;
 
-        final int interval = announceResponseMessage.getInterval();
+        int interval = announceResponseMessage.getInterval();
+        if (responseMessage instanceof TrackerResponseHandler.AnnounceResponse) {
+            // Some trackers ask not to be re-announced before "min interval", even if "interval" is lower
+            interval = Math.max(interval, ((TrackerResponseHandler.AnnounceResponse) responseMessage).getMinInterval());
+        }
         final int seeders = announceResponseMessage.getComplete() == 0 ? 0 : announceResponseMessage.getComplete() - 1;  // Subtract one to seeders since we are one of them
         final int leechers = announceResponseMessage.getIncomplete();
         return new SuccessAnnounceResponse(interval, seeders, leechers);
     }
 
-    @VisibleForTesting
-    TrackerMessage makeCallAndGetResponseAsByteBuffer(final URI announceUri, final String requestQuery, final Iterable<Map.Entry<String, String>> headers) throws AnnounceException {
+    static HttpUriRequest createAnnounceRequest(final URI announceUri, final String requestQuery, final Iterable<Map.Entry<String, String>> headers) {
         final String base = announceUri + (announceUri.toString().contains("?") ? "&": "?");
         final HttpUriRequest request = new HttpGet(base + requestQuery);
 
@@ -84,6 +130,12 @@ public class TrackerClient {
         for (final Map.Entry<String, String> entry : headers) {
             request.addHeader(entry.getKey(), entry.getValue());
         }
+        return request;
+    }
+
+    @VisibleForTesting
+    TrackerMessage makeCallAndGetResponseAsByteBuffer(final URI announceUri, final String requestQuery, final Iterable<Map.Entry<String, String>> headers) throws AnnounceException {
+        final HttpUriRequest request = createAnnounceRequest(announceUri, requestQuery, headers);
 
         final HttpResponse response;
         try {
@@ -1,19 +1,37 @@
 package org.araymond.joal.core.ttorrent.client.announcer.tracker;
 
 import com.turn.ttorrent.client.announce.AnnounceException;
+import com.turn.ttorrent.common.Peer;
 import com.turn.ttorrent.common.protocol.TrackerMessage;
-import com.turn.ttorrent.common.protocol.http.HTTPTrackerMessage;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.ResponseHandler;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
 
+/**
+ * Reads the tracker response straight from the entity stream, only the fields we use are decoded: "failure reason",
+ * "interval", "min interval", "complete" and "incomplete". Everything else, "peers" and "peers6" in the first place,
+ * is skipped without being allocated.
+ */
 @Slf4j
 public class TrackerResponseHandler implements ResponseHandler<TrackerMessage> {
+    private static final byte[] FAILURE_REASON = "failure reason".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INTERVAL = "interval".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MIN_INTERVAL = "min interval".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] COMPLETE = "complete".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INCOMPLETE = "incomplete".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_KEY_LENGTH = 32;
+    private static final int MAX_FAILURE_REASON_LENGTH = 4096;
+    private static final ByteBuffer NO_DATA = ByteBuffer.allocate(0);
+
     @Override
     public TrackerMessage handleResponse(final HttpResponse response) throws IOException {
         final HttpEntity entity = response.getEntity();
@@ -22,29 +40,112 @@ public class TrackerResponseHandler implements ResponseHandler<TrackerMessage> {
             throw new IOException(message, new AnnounceException(message));
         }
 
-        final int contentLength = entity.getContentLength() < 1 ? 1024 : (int) entity.getContentLength();
-        try (final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(contentLength)) {
-            if (response.getStatusLine().getStatusCode() >= 300) {
-                log.warn("Tracker response is an error.");
-            }
+        if (response.getStatusLine().getStatusCode() >= 300) {
+            log.warn("Tracker response is an error.");
+        }
 
-            try {
-                entity.writeTo(outputStream);
-            } catch (final IOException e) {
-                final String message = "Failed to read tracker http response";
-                throw new IOException(message, new AnnounceException(message, e));
+        final InputStream content;
+        try {
+            content = entity.getContent();
+        } catch (final IOException e) {
+            final String message = "Failed to read tracker http response";
+            throw new IOException(message, new AnnounceException(message, e));
+        }
+
+        try (final InputStream in = content) {
+            return parse(in);
+        } catch (final IOException ioe) {
+            final String message = "Error reading tracker response!";
+            throw new IOException(message, new AnnounceException(message, ioe));
+        } catch (final TrackerMessage.MessageValidationException mve) {
+            final String message = "Tracker message violates expected protocol (" + mve.getMessage() + ")";
+            throw new IOException(message, new AnnounceException(message, mve));
+        }
+    }
+
+    static TrackerMessage parse(final InputStream in) throws IOException, TrackerMessage.MessageValidationException {
+        final BencodeStreamReader reader = new BencodeStreamReader(in);
+        final byte[] key = new byte[MAX_KEY_LENGTH];
+
+        String failureReason = null;
+        Long interval = null;
+        long minInterval = -1;
+        long complete = 0;
+        long incomplete = 0;
+
+        reader.expect('d');
+        while (!reader.endOfContainer()) {
+            final int keyLength = reader.readString(key);
+            if (isKey(key, keyLength, FAILURE_REASON)) {
+                failureReason = reader.readString(StandardCharsets.UTF_8, MAX_FAILURE_REASON_LENGTH);
+            } else if (isKey(key, keyLength, INTERVAL) && reader.peek() == 'i') {
+                interval = reader.readInteger();
+            } else if (isKey(key, keyLength, MIN_INTERVAL) && reader.peek() == 'i') {
+                minInterval = reader.readInteger();
+            } else if (isKey(key, keyLength, COMPLETE) && reader.peek() == 'i') {
+                complete = reader.readInteger();
+            } else if (isKey(key, keyLength, INCOMPLETE) && reader.peek() == 'i') {
+                incomplete = reader.readInteger();
+            } else {
+                reader.skipValue();
             }
+        }
+
+        if (failureReason != null) {
+            return new ErrorResponse(failureReason);
+        }
+        if (interval == null) {
+            throw new TrackerMessage.MessageValidationException("Unknown HTTP tracker message!");
+        }
+        return new AnnounceResponse(interval.intValue(), (int) minInterval, (int) complete, (int) incomplete);
+    }
 
-            try {
-                // Parse and handle the response
-                return HTTPTrackerMessage.parse(ByteBuffer.wrap(outputStream.toByteArray()));
-            } catch (final IOException ioe) {
-                final String message = "Error reading tracker response!";
-                throw new IOException(message, new AnnounceException(message, ioe));
-            } catch (final TrackerMessage.MessageValidationException mve) {
-                final String message = "Tracker message violates expected protocol (" + mve.getMessage() + ")";
-                throw new IOException(message, new AnnounceException(message, mve));
+    private static boolean isKey(final byte[] key, final int keyLength, final byte[] expected) {
+        if (keyLength != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < keyLength; ++i) {
+            if (key[i] != expected[i]) {
+                return false;
             }
         }
+        return true;
+    }
+
+    /**
+     * Peers are not read, the list is always empty.
+     */
+    @Getter
+    public static final class AnnounceResponse extends TrackerMessage implements TrackerMessage.AnnounceResponseMessage {
+        private final int interval;
+        /**
+         * -1 if the tracker did not send it
+         */
+        private final int minInterval;
+        private final int complete;
+        private final int incomplete;
+
+        AnnounceResponse(final int interval, final int minInterval, final int complete, final int incomplete) {
+            super(Type.ANNOUNCE_RESPONSE, NO_DATA);
+            this.interval = interval;
+            this.minInterval = minInterval;
+            this.complete = complete;
+            this.incomplete = incomplete;
+        }
+
+        @Override
+        public List<Peer> getPeers() {
+            return Collections.emptyList();
+        }
+    }
+
+    @Getter
+    public static final class ErrorResponse extends TrackerMessage implements TrackerMessage.ErrorMessage {
+        private final String reason;
+
+        ErrorResponse(final String reason) {
+            super(Type.ERROR, NO_DATA);
+            this.reason = reason;
+        }
     }
 }
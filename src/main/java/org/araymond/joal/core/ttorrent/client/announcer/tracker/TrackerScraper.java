@@ -0,0 +1,241 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.turn.ttorrent.client.announce.AnnounceException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.araymond.joal.core.bandwith.Peers;
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
+import org.araymond.joal.core.ttorrent.client.announcer.request.AnnounceDataAccessor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches the peers count of many torrents at once with tracker scrapes, to keep them up to date between announces
+ * without sending one announce per torrent.
+ * <p>
+ * Torrents are grouped by the scrape URL of their first scrapable tracker, each group is then split in batches of
+ * {@link #MAX_HTTP_BATCH_SIZE} info hashes per HTTP request, or {@link UdpTrackerSocket#MAX_SCRAPE_BATCH_SIZE} per
+ * UDP packet.
+ */
+@Slf4j
+public class TrackerScraper {
+    /**
+     * Most trackers cap the number of info_hash per scrape, and long URLs tend to be rejected.
+     */
+    @VisibleForTesting
+    static final int MAX_HTTP_BATCH_SIZE = 50;
+
+    private final AnnounceDataAccessor announceDataAccessor;
+    private final HttpAsyncClient httpClient;
+    private final UdpTrackerSocket udpTrackerSocket;
+
+    /**
+     * @param udpTrackerSocket may be null, in which case udp:// trackers are not scraped
+     */
+    public TrackerScraper(final AnnounceDataAccessor announceDataAccessor, final HttpAsyncClient httpClient, final UdpTrackerSocket udpTrackerSocket) {
+        this.announceDataAccessor = announceDataAccessor;
+        this.httpClient = httpClient;
+        this.udpTrackerSocket = udpTrackerSocket;
+    }
+
+    /**
+     * Never completes exceptionally, torrents that could not be scraped are simply missing from the result.
+     * Seeders are the raw count of the tracker.
+     */
+    public CompletableFuture<Map<InfoHash, Peers>> scrape(final Collection<MockedTorrent> torrents) {
+        final Map<URI, List<InfoHash>> torrentsByScrapeUri = new LinkedHashMap<>();
+        for (final MockedTorrent torrent : torrents) {
+            torrent.getAnnounceList().stream()
+                    .flatMap(Collection::stream)
+                    .map(this::toSupportedScrapeUri)
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .findFirst()
+                    .ifPresent(scrapeUri -> torrentsByScrapeUri.computeIfAbsent(scrapeUri, uri -> new ArrayList<>()).add(torrent.getTorrentInfoHash()));
+        }
+
+        final List<CompletableFuture<Map<InfoHash, Peers>>> batches = new ArrayList<>();
+        torrentsByScrapeUri.forEach((scrapeUri, infoHashes) -> {
+            final boolean udp = "udp".equals(scrapeUri.getScheme());
+            for (final List<InfoHash> batch : Lists.partition(infoHashes, udp ? UdpTrackerSocket.MAX_SCRAPE_BATCH_SIZE : MAX_HTTP_BATCH_SIZE)) {
+                final CompletableFuture<Map<InfoHash, Peers>> future = udp ? this.scrapeUdp(scrapeUri, batch) : this.scrapeHttp(scrapeUri, batch);
+                batches.add(future.exceptionally(throwable -> {
+                    log.debug("Failed to scrape {} torrents from {}", batch.size(), scrapeUri, throwable);
+                    return Collections.emptyMap();
+                }));
+            }
+        });
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    final Map<InfoHash, Peers> peers = new HashMap<>();
+                    batches.forEach(batch -> peers.putAll(batch.join()));
+                    return peers;
+                });
+    }
+
+    private Optional<URI> toSupportedScrapeUri(final URI announceUri) {
+        if ("udp".equals(announceUri.getScheme()) && this.udpTrackerSocket == null) {
+            return Optional.empty();
+        }
+        return toScrapeUri(announceUri);
+    }
+
+    /**
+     * Derives the scrape URL from an announce URL as per BEP 48: the last path segment has to start with
+     * "announce", which is replaced with "scrape". UDP trackers are scraped on the same address.
+     */
+    @VisibleForTesting
+    static Optional<URI> toScrapeUri(final URI announceUri) {
+        final String scheme = announceUri.getScheme();
+        if ("udp".equals(scheme)) {
+            return announceUri.getPort() == -1 ? Optional.empty() : Optional.of(announceUri);
+        }
+        if (scheme == null || !scheme.startsWith("http") || announceUri.getRawPath() == null) {
+            return Optional.empty();
+        }
+        final String path = announceUri.getRawPath();
+        final int lastSegmentStart = path.lastIndexOf('/') + 1;
+        if (!path.startsWith("announce", lastSegmentStart)) {
+            return Optional.empty();
+        }
+        final String scrapePath = path.substring(0, lastSegmentStart) + "scrape" + path.substring(lastSegmentStart + "announce".length());
+        final String query = announceUri.getRawQuery() == null ? "" : "?" + announceUri.getRawQuery();
+        try {
+            return Optional.of(new URI(scheme + "://" + announceUri.getRawAuthority() + scrapePath + query));
+        } catch (final URISyntaxException e) {
+            return Optional.empty();
+        }
+    }
+
+    private CompletableFuture<Map<InfoHash, Peers>> scrapeHttp(final URI scrapeUri, final List<InfoHash> infoHashes) {
+        final CompletableFuture<Map<InfoHash, Peers>> future = new CompletableFuture<>();
+        final HttpUriRequest request = TrackerClient.createAnnounceRequest(
+                scrapeUri,
+                this.announceDataAccessor.getHttpScrapeQueryForTorrents(infoHashes),
+                this.announceDataAccessor.getHttpHeadersForTorrent()
+        );
+        this.httpClient.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(final HttpResponse response) {
+                try {
+                    if (response.getStatusLine().getStatusCode() >= 300) {
+                        throw new AnnounceException(scrapeUri + ": scrape answered with status " + response.getStatusLine().getStatusCode());
+                    }
+                    if (response.getEntity() == null) {
+                        throw new AnnounceException(scrapeUri + ": empty scrape response");
+                    }
+                    try (final InputStream content = response.getEntity().getContent()) {
+                        future.complete(parseHttpScrapeResponse(content, infoHashes));
+                    }
+                } catch (final Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(final Exception e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                future.completeExceptionally(new CancellationException("Scrape has been cancelled."));
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<Map<InfoHash, Peers>> scrapeUdp(final URI scrapeUri, final List<InfoHash> infoHashes) {
+        final List<byte[]> rawInfoHashes = infoHashes.stream()
+                .map(InfoHash::getBytes)
+                .collect(Collectors.toList());
+        return this.udpTrackerSocket.resolve(scrapeUri.getHost(), scrapeUri.getPort())
+                .thenCompose(tracker -> this.udpTrackerSocket.scrape(tracker, rawInfoHashes))
+                .thenApply(responses -> {
+                    final Map<InfoHash, Peers> peers = new HashMap<>();
+                    for (int i = 0; i < infoHashes.size(); ++i) {
+                        peers.put(infoHashes.get(i), new Peers(responses.get(i).getSeeders(), responses.get(i).getLeechers()));
+                    }
+                    return peers;
+                });
+    }
+
+    /**
+     * The scrape response is a dictionary whose "files" entry maps each raw info hash to a dictionary holding the
+     * "complete" and "incomplete" counts. Info hashes that were not requested are ignored.
+     */
+    @VisibleForTesting
+    static Map<InfoHash, Peers> parseHttpScrapeResponse(final InputStream in, final Collection<InfoHash> requested) throws IOException {
+        final BencodeStreamReader reader = new BencodeStreamReader(in);
+        final Set<InfoHash> wanted = new HashSet<>(requested);
+        final Map<InfoHash, Peers> peers = new HashMap<>();
+        final byte[] key = new byte[32];
+        boolean hasFiles = false;
+
+        reader.expect('d');
+        while (!reader.endOfContainer()) {
+            final int keyLength = reader.readString(key);
+            if (isKey(key, keyLength, "failure reason")) {
+                throw new IOException("Scrape failed: " + reader.readString(StandardCharsets.UTF_8, 4096));
+            }
+            if (!isKey(key, keyLength, "files") || reader.peek() != 'd') {
+                reader.skipValue();
+                continue;
+            }
+            hasFiles = true;
+            reader.expect('d');
+            while (!reader.endOfContainer()) {
+                final int infoHashLength = reader.readString(key);
+                final InfoHash infoHash = infoHashLength == -1 ? null : new InfoHash(Arrays.copyOf(key, infoHashLength));
+                if (infoHash == null || !wanted.contains(infoHash) || reader.peek() != 'd') {
+                    reader.skipValue();
+                    continue;
+                }
+                final Peers torrentPeers = readTorrentStats(reader, key);
+                if (torrentPeers != null) {
+                    peers.put(infoHash, torrentPeers);
+                }
+            }
+        }
+        if (!hasFiles) {
+            throw new IOException("Scrape response does not contain files");
+        }
+        return peers;
+    }
+
+    private static Peers readTorrentStats(final BencodeStreamReader reader, final byte[] key) throws IOException {
+        long complete = -1;
+        long incomplete = -1;
+        reader.expect('d');
+        while (!reader.endOfContainer()) {
+            final int keyLength = reader.readString(key);
+            if (isKey(key, keyLength, "complete") && reader.peek() == 'i') {
+                complete = reader.readInteger();
+            } else if (isKey(key, keyLength, "incomplete") && reader.peek() == 'i') {
+                incomplete = reader.readInteger();
+            } else {
+                reader.skipValue();
+            }
+        }
+        return complete < 0 || incomplete < 0 ? null : new Peers((int) complete, (int) incomplete);
+    }
+
+    private static boolean isKey(final byte[] key, final int keyLength, final String expected) {
+        return keyLength == expected.length() && expected.equals(new String(key, 0, keyLength, StandardCharsets.ISO_8859_1));
+    }
+}
@@ -0,0 +1,145 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.google.common.base.Preconditions;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Announce request of the UDP tracker protocol (BEP 15).
+ * <p>
+ * Built from the query string generated for HTTP trackers, so UDP trackers see the same peer_id, key and numwant as
+ * HTTP trackers of the emulated client.
+ */
+@EqualsAndHashCode
+@Getter
+public class UdpAnnounceRequest {
+    static final int PACKET_SIZE = 98;
+
+    private static final int EVENT_NONE = 0;
+    private static final int EVENT_COMPLETED = 1;
+    private static final int EVENT_STARTED = 2;
+    private static final int EVENT_STOPPED = 3;
+
+    private final byte[] infoHash;
+    private final byte[] peerId;
+    private final long downloaded;
+    private final long left;
+    private final long uploaded;
+    private final int event;
+    private final int key;
+    private final int numWant;
+    private final int port;
+
+    UdpAnnounceRequest(final byte[] infoHash, final byte[] peerId, final long downloaded, final long left, final long uploaded, final int event, final int key, final int numWant, final int port) {
+        Preconditions.checkArgument(infoHash.length == 20, "info_hash must be 20 bytes long");
+        Preconditions.checkArgument(peerId.length == 20, "peer_id must be 20 bytes long");
+        this.infoHash = infoHash;
+        this.peerId = peerId;
+        this.downloaded = downloaded;
+        this.left = left;
+        this.uploaded = uploaded;
+        this.event = event;
+        this.key = key;
+        this.numWant = numWant;
+        this.port = port;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the query does not contain a valid info_hash, peer_id and port
+     */
+    public static UdpAnnounceRequest fromHttpQuery(final String query) {
+        final Map<String, String> params = new HashMap<>();
+        for (final String param : query.split("&")) {
+            final int separator = param.indexOf('=');
+            if (separator > 0) {
+                params.put(param.substring(0, separator), param.substring(separator + 1));
+            }
+        }
+        Preconditions.checkArgument(params.containsKey("info_hash"), "query does not contain info_hash");
+        Preconditions.checkArgument(params.containsKey("peer_id"), "query does not contain peer_id");
+        Preconditions.checkArgument(params.containsKey("port"), "query does not contain port");
+
+        return new UdpAnnounceRequest(
+                percentDecode(params.get("info_hash")),
+                percentDecode(params.get("peer_id")),
+                Long.parseLong(params.getOrDefault("downloaded", "0")),
+                Long.parseLong(params.getOrDefault("left", "0")),
+                Long.parseLong(params.getOrDefault("uploaded", "0")),
+                toUdpEvent(params.get("event")),
+                toUdpKey(params.get("key")),
+                Integer.parseInt(params.getOrDefault("numwant", "-1")),
+                Integer.parseInt(params.get("port"))
+        );
+    }
+
+    ByteBuffer toPacket(final long connectionId) {
+        final ByteBuffer packet = ByteBuffer.allocate(PACKET_SIZE);
+        packet.putLong(connectionId);
+        packet.putInt(UdpTrackerSocket.ACTION_ANNOUNCE);
+        packet.putInt(0); // transaction id, set by the socket
+        packet.put(this.infoHash);
+        packet.put(this.peerId);
+        packet.putLong(this.downloaded);
+        packet.putLong(this.left);
+        packet.putLong(this.uploaded);
+        packet.putInt(this.event);
+        packet.putInt(0); // let the tracker use the sender address
+        packet.putInt(this.key);
+        packet.putInt(this.numWant);
+        packet.putShort((short) this.port);
+        packet.flip();
+        return packet;
+    }
+
+    private static int toUdpEvent(final String event) {
+        if (event == null) {
+            return EVENT_NONE;
+        }
+        switch (event) {
+            case "started":
+                return EVENT_STARTED;
+            case "stopped":
+                return EVENT_STOPPED;
+            case "completed":
+                return EVENT_COMPLETED;
+            default:
+                return EVENT_NONE;
+        }
+    }
+
+    /**
+     * HTTP keys are usually up to 8 hex digits, which fits the 32 bits UDP key. Other keys are hashed.
+     */
+    private static int toUdpKey(final String key) {
+        if (key == null) {
+            return 0;
+        }
+        final String decoded = new String(percentDecode(key), StandardCharsets.ISO_8859_1);
+        if (decoded.matches("[0-9a-fA-F]{1,8}")) {
+            return (int) Long.parseLong(decoded, 16);
+        }
+        return decoded.hashCode();
+    }
+
+    private static byte[] percentDecode(final String value) {
+        final ByteBuffer decoded = ByteBuffer.allocate(value.length());
+        for (int i = 0; i < value.length(); ++i) {
+            final char c = value.charAt(i);
+            if (c == '%' && i + 2 < value.length()) {
+                decoded.put((byte) Integer.parseInt(value.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else {
+                decoded.put((byte) c);
+            }
+        }
+        final byte[] bytes = new byte[decoded.position()];
+        decoded.flip();
+        decoded.get(bytes);
+        return bytes;
+    }
+}
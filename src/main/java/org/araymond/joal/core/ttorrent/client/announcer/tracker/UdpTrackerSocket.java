@@ -0,0 +1,354 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.turn.ttorrent.client.announce.AnnounceException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Client side of the UDP tracker protocol (BEP 15), announce and scrape.
+ * <p>
+ * All UDP trackers are reached through a single {@link DatagramChannel}, requests are told apart by their transaction
+ * id so any number of torrents can announce concurrently from the one I/O thread. Connection ids are cached per
+ * tracker for their one minute lifetime and concurrent connects to the same tracker share the same exchange.
+ * <p>
+ * A request that is not answered is sent again after 15 * 2^n seconds, n being the number of retransmissions. The
+ * spec allows up to 8 of them (more than an hour), which is more than an announce is worth before moving to the next
+ * tracker, hence the configurable limit.
+ */
+@Slf4j
+public class UdpTrackerSocket implements Closeable {
+    static final long PROTOCOL_ID = 0x41727101980L;
+    static final int ACTION_CONNECT = 0;
+    static final int ACTION_ANNOUNCE = 1;
+    static final int ACTION_SCRAPE = 2;
+    static final int ACTION_ERROR = 3;
+    public static final int MAX_SCRAPE_BATCH_SIZE = 74; // as per BEP 15
+
+    private static final int MAX_PACKET_SIZE = 2048; // peers are not needed, bigger responses are truncated
+    private static final int TRANSACTION_ID_OFFSET = 12;
+
+    private final long baseTimeoutNanos;
+    private final int maxRetransmissions;
+    private final long connectionIdLifetimeNanos;
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final Thread thread;
+    private volatile boolean closed = false;
+
+    private final Queue<Exchange> submitted = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, Exchange> pending = new HashMap<>(); // only accessed by the I/O thread
+    private final Map<InetSocketAddress, ConnectionId> connectionIds = new ConcurrentHashMap<>();
+    private final Map<InetSocketAddress, CompletableFuture<Long>> connecting = new ConcurrentHashMap<>();
+    private final TrackerAddressResolver resolver = new TrackerAddressResolver();
+
+    public UdpTrackerSocket() throws IOException {
+        this(Duration.ofSeconds(15), 1, Duration.ofMinutes(1));
+    }
+
+    @VisibleForTesting
+    UdpTrackerSocket(final Duration baseTimeout, final int maxRetransmissions, final Duration connectionIdLifetime) throws IOException {
+        this.baseTimeoutNanos = baseTimeout.toNanos();
+        this.maxRetransmissions = maxRetransmissions;
+        this.connectionIdLifetimeNanos = connectionIdLifetime.toNanos();
+
+        this.selector = Selector.open();
+        this.channel = DatagramChannel.open();
+        this.channel.configureBlocking(false);
+        this.channel.bind(null);
+        this.channel.register(this.selector, SelectionKey.OP_READ);
+
+        this.thread = new Thread(this::run, "udp-tracker-socket");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Resolves the tracker host off the calling thread, see {@link TrackerAddressResolver}.
+     */
+    public CompletableFuture<InetSocketAddress> resolve(final String host, final int port) {
+        return this.resolver.resolve(host, port);
+    }
+
+    public CompletableFuture<AnnounceResponse> announce(final InetSocketAddress tracker, final UdpAnnounceRequest request) {
+        return this.request(tracker, request::toPacket, ACTION_ANNOUNCE, 20)
+                .thenApply(response -> new AnnounceResponse(response.getInt(8), response.getInt(12), response.getInt(16)));
+    }
+
+    /**
+     * Scrapes up to {@link #MAX_SCRAPE_BATCH_SIZE} torrents in a single packet.
+     *
+     * @return the stats of each torrent, in the same order as the given info hashes
+     */
+    public CompletableFuture<List<ScrapeResponse>> scrape(final InetSocketAddress tracker, final List<byte[]> infoHashes) {
+        Preconditions.checkArgument(!infoHashes.isEmpty() && infoHashes.size() <= MAX_SCRAPE_BATCH_SIZE, "Can scrape from 1 to " + MAX_SCRAPE_BATCH_SIZE + " torrents at once");
+        final Function<Long, ByteBuffer> packetBuilder = connectionId -> {
+            final ByteBuffer packet = ByteBuffer.allocate(16 + 20 * infoHashes.size());
+            packet.putLong(connectionId).putInt(ACTION_SCRAPE).putInt(0);
+            infoHashes.forEach(packet::put);
+            packet.flip();
+            return packet;
+        };
+        return this.request(tracker, packetBuilder, ACTION_SCRAPE, 8 + 12 * infoHashes.size())
+                .thenApply(response -> {
+                    final List<ScrapeResponse> stats = new ArrayList<>(infoHashes.size());
+                    for (int offset = 8; stats.size() < infoHashes.size(); offset += 12) {
+                        stats.add(new ScrapeResponse(response.getInt(offset), response.getInt(offset + 4), response.getInt(offset + 8)));
+                    }
+                    return stats;
+                });
+    }
+
+    private CompletableFuture<ByteBuffer> request(final InetSocketAddress tracker, final Function<Long, ByteBuffer> packetBuilder, final int expectedAction, final int minResponseSize) {
+        return this.connect(tracker)
+                .thenCompose(connectionId -> this.exchange(tracker, packetBuilder.apply(connectionId)))
+                .thenApply(response -> {
+                    final int action = response.getInt(0);
+                    if (action == ACTION_ERROR) {
+                        // The tracker may have rejected our connection id, do not use it again.
+                        this.connectionIds.remove(tracker);
+                        throw new CompletionException(new AnnounceException(tracker + ": " + readErrorMessage(response)));
+                    }
+                    if (action != expectedAction || response.remaining() < minResponseSize) {
+                        throw new CompletionException(new AnnounceException(tracker + ": unexpected response to action " + expectedAction));
+                    }
+                    return response;
+                });
+    }
+
+    @VisibleForTesting
+    CompletableFuture<Long> connect(final InetSocketAddress tracker) {
+        final Long cached = this.getCachedConnectionId(tracker);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        // The cache is checked again, a connect may have completed since the first look
+        final CompletableFuture<Long> future = this.connecting.computeIfAbsent(tracker, address -> {
+            final Long connectionId = this.getCachedConnectionId(address);
+            return connectionId == null ? this.sendConnect(address) : CompletableFuture.completedFuture(connectionId);
+        });
+        future.whenComplete((id, throwable) -> this.connecting.remove(tracker, future));
+        return future;
+    }
+
+    private Long getCachedConnectionId(final InetSocketAddress tracker) {
+        final ConnectionId cached = this.connectionIds.get(tracker);
+        return cached != null && cached.expiresAt - System.nanoTime() > 0 ? cached.id : null;
+    }
+
+    private CompletableFuture<Long> sendConnect(final InetSocketAddress tracker) {
+        final ByteBuffer packet = ByteBuffer.allocate(16);
+        packet.putLong(PROTOCOL_ID).putInt(ACTION_CONNECT).putInt(0).flip();
+
+        return this.exchange(tracker, packet).thenApply(response -> {
+            final int action = response.getInt(0);
+            if (action == ACTION_ERROR) {
+                throw new CompletionException(new AnnounceException(tracker + ": " + readErrorMessage(response)));
+            }
+            if (action != ACTION_CONNECT || response.remaining() < 16) {
+                throw new CompletionException(new AnnounceException(tracker + ": unexpected connect response"));
+            }
+            final long connectionId = response.getLong(8);
+            this.connectionIds.put(tracker, new ConnectionId(connectionId, System.nanoTime() + this.connectionIdLifetimeNanos));
+            return connectionId;
+        });
+    }
+
+    private CompletableFuture<ByteBuffer> exchange(final InetSocketAddress target, final ByteBuffer packet) {
+        final Exchange exchange = new Exchange(target, packet);
+        if (this.closed) {
+            exchange.future.completeExceptionally(new AnnounceException("UDP tracker socket is closed"));
+            return exchange.future;
+        }
+        this.submitted.add(exchange);
+        this.selector.wakeup();
+        return exchange.future;
+    }
+
+    private void run() {
+        final ByteBuffer buffer = ByteBuffer.allocate(MAX_PACKET_SIZE);
+        while (!this.closed) {
+            try {
+                this.selector.select(this.millisUntilNextDeadline());
+                this.selector.selectedKeys().clear();
+                this.sendSubmitted();
+                this.receive(buffer);
+                this.retransmitOrFailExpired();
+            } catch (final IOException e) {
+                if (!this.closed) {
+                    log.warn("UDP tracker socket I/O failure", e);
+                }
+            }
+        }
+        final AnnounceException closedException = new AnnounceException("UDP tracker socket is closed");
+        this.pending.values().forEach(exchange -> exchange.future.completeExceptionally(closedException));
+        this.pending.clear();
+        Exchange exchange;
+        while ((exchange = this.submitted.poll()) != null) {
+            exchange.future.completeExceptionally(closedException);
+        }
+    }
+
+    private long millisUntilNextDeadline() {
+        if (this.pending.isEmpty()) {
+            return 0; // wait until woken up
+        }
+        final long now = System.nanoTime();
+        long nearest = Long.MAX_VALUE;
+        for (final Exchange exchange : this.pending.values()) {
+            nearest = Math.min(nearest, exchange.deadline - now);
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nearest) + 1);
+    }
+
+    private void sendSubmitted() {
+        Exchange exchange;
+        while ((exchange = this.submitted.poll()) != null) {
+            int transactionId;
+            do {
+                transactionId = ThreadLocalRandom.current().nextInt();
+            } while (this.pending.containsKey(transactionId));
+            exchange.transactionId = transactionId;
+            exchange.packet.putInt(TRANSACTION_ID_OFFSET, transactionId);
+            this.pending.put(transactionId, exchange);
+            this.send(exchange);
+        }
+    }
+
+    private void send(final Exchange exchange) {
+        exchange.deadline = System.nanoTime() + (this.baseTimeoutNanos << exchange.retransmissions);
+        try {
+            this.channel.send(exchange.packet.duplicate(), exchange.target);
+        } catch (final IOException e) {
+            // Handled as a lost packet, the exchange will be retransmitted or failed on timeout.
+            log.debug("Failed to send UDP packet to {}", exchange.target, e);
+        }
+    }
+
+    private void receive(final ByteBuffer buffer) throws IOException {
+        while (true) {
+            buffer.clear();
+            final SocketAddress from = this.channel.receive(buffer);
+            if (from == null) {
+                return;
+            }
+            buffer.flip();
+            if (buffer.remaining() < 8) {
+                continue;
+            }
+            final Exchange exchange = this.pending.get(buffer.getInt(4));
+            if (exchange == null || !exchange.target.equals(from)) {
+                continue;
+            }
+            this.pending.remove(exchange.transactionId);
+            final ByteBuffer response = ByteBuffer.allocate(buffer.remaining());
+            response.put(buffer).flip();
+            exchange.future.complete(response);
+        }
+    }
+
+    private void retransmitOrFailExpired() {
+        final long now = System.nanoTime();
+        final Iterator<Exchange> iterator = this.pending.values().iterator();
+        while (iterator.hasNext()) {
+            final Exchange exchange = iterator.next();
+            if (exchange.deadline - now > 0) {
+                continue;
+            }
+            if (exchange.retransmissions >= this.maxRetransmissions) {
+                iterator.remove();
+                exchange.future.completeExceptionally(new AnnounceException("UDP tracker " + exchange.target + " did not answer."));
+                continue;
+            }
+            ++exchange.retransmissions;
+            this.send(exchange);
+        }
+    }
+
+    private static String readErrorMessage(final ByteBuffer response) {
+        if (response.remaining() <= 8) {
+            return "unknown error";
+        }
+        final byte[] message = new byte[response.remaining() - 8];
+        ((ByteBuffer) response.duplicate().position(8)).get(message);
+        return new String(message, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        this.resolver.close();
+        this.selector.wakeup();
+        try {
+            this.thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.channel.close();
+        this.selector.close();
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    public static final class AnnounceResponse {
+        private final int interval;
+        private final int leechers;
+        private final int seeders;
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    public static final class ScrapeResponse {
+        private final int seeders;
+        private final int completed;
+        private final int leechers;
+    }
+
+    @RequiredArgsConstructor
+    private static final class ConnectionId {
+        private final long id;
+        private final long expiresAt;
+    }
+
+    private static final class Exchange {
+        private final InetSocketAddress target;
+        private final ByteBuffer packet;
+        private final CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        private int transactionId;
+        private int retransmissions;
+        private long deadline;
+
+        private Exchange(final InetSocketAddress target, final ByteBuffer packet) {
+            this.target = target;
+            this.packet = packet;
+        }
+    }
+}
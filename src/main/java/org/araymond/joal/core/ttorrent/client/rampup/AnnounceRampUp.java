@@ -0,0 +1,52 @@
+package org.araymond.joal.core.ttorrent.client.rampup;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.araymond.joal.core.config.AppConfigurationIntegrityException;
+
+/**
+ * Defines how STARTED announces are spaced out when many torrents are started at once, so trackers do not receive
+ * all of them within the same second.
+ * <p>
+ * Optionally caps how many regular announces may be scheduled within the same second, see
+ * {@link #getMaxRegularAnnouncesPerSecond()}.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = NoRampUp.class, name = "NONE"),
+        @JsonSubTypes.Type(value = LinearRampUp.class, name = "LINEAR"),
+        @JsonSubTypes.Type(value = ExponentialRampUp.class, name = "EXPONENTIAL"),
+        @JsonSubTypes.Type(value = WindowRampUp.class, name = "WINDOW")
+})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@EqualsAndHashCode
+public abstract class AnnounceRampUp {
+
+    /**
+     * Regular announces whose deadline falls in a second that already holds this many announces are pushed to the
+     * next second. May be null, in which case regular announces are never moved.
+     */
+    @JsonProperty("maxRegularAnnouncesPerSecond")
+    private final Integer maxRegularAnnouncesPerSecond;
+
+    protected AnnounceRampUp(final Integer maxRegularAnnouncesPerSecond) {
+        if (maxRegularAnnouncesPerSecond != null && maxRegularAnnouncesPerSecond < 1) {
+            throw new AppConfigurationIntegrityException("maxRegularAnnouncesPerSecond must be greater than 0.");
+        }
+        this.maxRegularAnnouncesPerSecond = maxRegularAnnouncesPerSecond;
+    }
+
+    /**
+     * @param index         position of the STARTED announce in the current burst (0 for the first one)
+     * @param expectedBurst how many torrents are expected to start in a burst (the simultaneousSeed)
+     * @return delay in milliseconds, relative to the beginning of the burst
+     */
+    @JsonIgnore
+    public abstract long getStartDelayMs(int index, int expectedBurst);
+}
@@ -0,0 +1,93 @@
+package org.araymond.joal.core.ttorrent.client.rampup;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Applies an {@link AnnounceRampUp} policy to the announces scheduled by the client.
+ * <p>
+ * STARTED announces requested close to each other belong to the same burst and are spaced according to their index in
+ * that burst, a new burst begins once every announce of the previous one is due.
+ * <p>
+ * Regular announces are counted per second of deadline, when a second is full the announce is pushed to the next
+ * second with room left, but never by more than a tenth of its interval. Counts are not decremented when an announce
+ * is replaced or removed from the queue, they are only forgotten once their second is over.
+ */
+public class AnnounceRampUpScheduler {
+    private final AnnounceRampUp rampUp;
+    private final int expectedBurst;
+    private final LongSupplier nanoTime;
+
+    private long burstStartedAt;
+    private long lastStartDueAt;
+    private int burstIndex;
+    private final TreeMap<Long, Integer> regularAnnouncesPerSecond = new TreeMap<>();
+
+    public AnnounceRampUpScheduler(final AnnounceRampUp rampUp, final int expectedBurst) {
+        this(rampUp, expectedBurst, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    AnnounceRampUpScheduler(final AnnounceRampUp rampUp, final int expectedBurst, final LongSupplier nanoTime) {
+        Preconditions.checkNotNull(rampUp, "AnnounceRampUp must not be null.");
+        this.rampUp = rampUp;
+        this.expectedBurst = Math.max(1, expectedBurst);
+        this.nanoTime = nanoTime;
+    }
+
+    public static AnnounceRampUpScheduler noRampUp() {
+        return new AnnounceRampUpScheduler(new NoRampUp(), 1);
+    }
+
+    /**
+     * @return how many milliseconds the next STARTED announce has to wait to respect the ramp-up
+     */
+    public synchronized long nextStartDelayMs() {
+        final long now = this.nanoTime.getAsLong();
+        if (this.burstIndex == 0 || now - this.lastStartDueAt > 0) {
+            this.burstStartedAt = now;
+            this.burstIndex = 0;
+        }
+        final long dueAt = this.burstStartedAt + TimeUnit.MILLISECONDS.toNanos(
+                this.rampUp.getStartDelayMs(this.burstIndex, this.expectedBurst)
+        );
+        ++this.burstIndex;
+        if (dueAt - this.lastStartDueAt > 0 || this.burstIndex == 1) {
+            this.lastStartDueAt = dueAt;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(dueAt - now));
+    }
+
+    /**
+     * Reserves a slot for a regular announce due in {@code intervalInSeconds}.
+     *
+     * @return how many seconds must be added to the interval, 0 if the announce does not need to be moved
+     */
+    public synchronized int regularAnnounceShiftInSeconds(final int intervalInSeconds) {
+        final Integer maxPerSecond = this.rampUp.getMaxRegularAnnouncesPerSecond();
+        if (maxPerSecond == null) {
+            return 0;
+        }
+        final long nowSecond = TimeUnit.NANOSECONDS.toSeconds(this.nanoTime.getAsLong());
+        this.regularAnnouncesPerSecond.headMap(nowSecond).clear();
+
+        final int maxShift = Math.max(1, intervalInSeconds / 10);
+        final long dueSecond = nowSecond + intervalInSeconds;
+        int shift = 0;
+        while (shift < maxShift && this.regularAnnouncesPerSecond.getOrDefault(dueSecond + shift, 0) >= maxPerSecond) {
+            ++shift;
+        }
+        this.regularAnnouncesPerSecond.merge(dueSecond + shift, 1, Integer::sum);
+        return shift;
+    }
+
+    @VisibleForTesting
+    synchronized Map<Long, Integer> getRegularAnnouncesPerSecond() {
+        return new TreeMap<>(this.regularAnnouncesPerSecond);
+    }
+}
@@ -0,0 +1,66 @@
+package org.araymond.joal.core.ttorrent.client.rampup;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Exponentially weighted moving averages of the announces sent per second, over 10 seconds, 1 minute and 5 minutes
+ * (in the way of unix load averages). Averages are decayed lazily on each read or write, no ticking thread is involved.
+ */
+public class AnnounceRateMeter {
+    private static final double[] WINDOWS_IN_SECONDS = {10, 60, 300};
+
+    private final LongSupplier nanoTime;
+    private final double[] rates = new double[WINDOWS_IN_SECONDS.length];
+    private long lastUpdate;
+
+    public AnnounceRateMeter() {
+        this(System::nanoTime);
+    }
+
+    @VisibleForTesting
+    AnnounceRateMeter(final LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.lastUpdate = nanoTime.getAsLong();
+    }
+
+    public synchronized void record(final int announceCount) {
+        this.decay();
+        for (int i = 0; i < this.rates.length; ++i) {
+            this.rates[i] += announceCount / WINDOWS_IN_SECONDS[i];
+        }
+    }
+
+    public synchronized AnnounceRate getRate() {
+        this.decay();
+        return new AnnounceRate(this.rates[0], this.rates[1], this.rates[2]);
+    }
+
+    private void decay() {
+        final long now = this.nanoTime.getAsLong();
+        final double elapsedSeconds = (now - this.lastUpdate) / (double) TimeUnit.SECONDS.toNanos(1);
+        this.lastUpdate = now;
+        if (elapsedSeconds <= 0) {
+            return;
+        }
+        for (int i = 0; i < this.rates.length; ++i) {
+            this.rates[i] *= Math.exp(-elapsedSeconds / WINDOWS_IN_SECONDS[i]);
+        }
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static final class AnnounceRate {
+        private final double lastTenSeconds;
+        private final double lastMinute;
+        private final double lastFiveMinutes;
+    }
+}
@@ -0,0 +1,59 @@
+package org.araymond.joal.core.ttorrent.client.rampup;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.araymond.joal.core.config.AppConfigurationIntegrityException;
+
+/**
+ * STARTED announces are sent in batches, one batch every {@code stepMs} milliseconds. The first batch contains
+ * {@code initialBatchSize} announces and each following batch is {@code growthFactor} times bigger than the previous
+ * one, the same way a TCP slow-start does.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Getter
+public class ExponentialRampUp extends AnnounceRampUp {
+
+    @JsonProperty("stepMs")
+    private final Integer stepMs;
+    @JsonProperty("initialBatchSize")
+    private final Integer initialBatchSize;
+    @JsonProperty("growthFactor")
+    private final Double growthFactor;
+
+    @JsonCreator
+    ExponentialRampUp(
+            @JsonProperty(value = "stepMs", required = true) final Integer stepMs,
+            @JsonProperty(value = "initialBatchSize", required = true) final Integer initialBatchSize,
+            @JsonProperty(value = "growthFactor", required = true) final Double growthFactor,
+            @JsonProperty(value = "maxRegularAnnouncesPerSecond") final Integer maxRegularAnnouncesPerSecond
+    ) {
+        super(maxRegularAnnouncesPerSecond);
+        if (stepMs == null || stepMs < 0) {
+            throw new AppConfigurationIntegrityException("stepMs must be at least 0.");
+        }
+        if (initialBatchSize == null || initialBatchSize < 1) {
+            throw new AppConfigurationIntegrityException("initialBatchSize must be greater than 0.");
+        }
+        if (growthFactor == null || growthFactor < 1.0) {
+            throw new AppConfigurationIntegrityException("growthFactor must be greater or equal to 1.");
+        }
+        this.stepMs = stepMs;
+        this.initialBatchSize = initialBatchSize;
+        this.growthFactor = growthFactor;
+    }
+
+    @Override
+    public long getStartDelayMs(final int index, final int expectedBurst) {
+        double batchSize = this.initialBatchSize;
+        long firstIndexOfNextBatch = this.initialBatchSize;
+        long batch = 0;
+        while (index >= firstIndexOfNextBatch) {
+            batchSize *= this.growthFactor;
+            firstIndexOfNextBatch += Math.max(1, (long) batchSize);
+            ++batch;
+        }
+        return batch * this.stepMs;
+    }
+}
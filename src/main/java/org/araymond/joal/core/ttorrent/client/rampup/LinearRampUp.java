@@ -0,0 +1,35 @@
+package org.araymond.joal.core.ttorrent.client.rampup;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.araymond.joal.core.config.AppConfigurationIntegrityException;
+
+/**
+ * STARTED announces are sent one after another, every {@code stepMs} milliseconds.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Getter
+public class LinearRampUp extends AnnounceRampUp {
+
+    @JsonProperty("stepMs")
+    private final Integer stepMs;
+
+    @JsonCreator
+    LinearRampUp(
+            @JsonProperty(value = "stepMs", required = true) final Integer stepMs,
+            @JsonProperty(value = "maxRegularAnnouncesPerSecond") final Integer maxRegularAnnouncesPerSecond
+    ) {
+        super(maxRegularAnnouncesPerSecond);
+        if (stepMs == null || stepMs < 0) {
+            throw new AppConfigurationIntegrityException("stepMs must be at least 0.");
+        }
+        this.stepMs = stepMs;
+    }
+
+    @Override
+    public long getStartDelayMs(final int index, final int expectedBurst) {
+        return (long) index * this.stepMs;
+    }
+}
@@ -0,0 +1,24 @@
+package org.araymond.joal.core.ttorrent.client.rampup;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * All STARTED announces are sent right away.
+ */
+public class NoRampUp extends AnnounceRampUp {
+
+    public NoRampUp() {
+        this(null);
+    }
+
+    @JsonCreator
+    NoRampUp(@JsonProperty(value = "maxRegularAnnouncesPerSecond") final Integer maxRegularAnnouncesPerSecond) {
+        super(maxRegularAnnouncesPerSecond);
+    }
+
+    @Override
+    public long getStartDelayMs(final int index, final int expectedBurst) {
+        return 0;
+    }
+}
@@ -0,0 +1,48 @@
+package org.araymond.joal.core.ttorrent.client.rampup;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.araymond.joal.core.config.AppConfigurationIntegrityException;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * STARTED announces of a burst are evenly spread over {@code windowSeconds}. Each announce gets its own slot of the
+ * window, and is randomly moved within {@code jitterPercent} of that slot so the announces do not look scheduled.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Getter
+public class WindowRampUp extends AnnounceRampUp {
+
+    @JsonProperty("windowSeconds")
+    private final Integer windowSeconds;
+    @JsonProperty("jitterPercent")
+    private final Integer jitterPercent;
+
+    @JsonCreator
+    WindowRampUp(
+            @JsonProperty(value = "windowSeconds", required = true) final Integer windowSeconds,
+            @JsonProperty(value = "jitterPercent", required = true) final Integer jitterPercent,
+            @JsonProperty(value = "maxRegularAnnouncesPerSecond") final Integer maxRegularAnnouncesPerSecond
+    ) {
+        super(maxRegularAnnouncesPerSecond);
+        if (windowSeconds == null || windowSeconds < 0) {
+            throw new AppConfigurationIntegrityException("windowSeconds must be at least 0.");
+        }
+        if (jitterPercent == null || jitterPercent < 0 || jitterPercent > 100) {
+            throw new AppConfigurationIntegrityException("jitterPercent must be between 0 and 100.");
+        }
+        this.windowSeconds = windowSeconds;
+        this.jitterPercent = jitterPercent;
+    }
+
+    @Override
+    public long getStartDelayMs(final int index, final int expectedBurst) {
+        final double slotMs = this.windowSeconds * 1000.0 / Math.max(1, expectedBurst);
+        final double jitterMs = slotMs * this.jitterPercent / 100.0;
+        final double jitter = jitterMs == 0.0 ? 0.0 : ThreadLocalRandom.current().nextDouble(jitterMs);
+        return (long) (index * slotMs + jitter);
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
 import org.springframework.web.servlet.DispatcherServlet;
 
+import javax.servlet.MultipartConfigElement;
+
 /**
  * Created by raymo on 25/07/2017.
  */
@@ -31,6 +33,8 @@ public class EndpointObfuscatorConfiguration {
 
         final ServletRegistrationBean servletRegistrationBean = new ServletRegistrationBean(dispatcherServlet, "/" + this.pathPrefix + "/*");
         servletRegistrationBean.setName("joal");
+        // Uploaded parts go straight to disk as they arrive, torrent files uploads are only bounded by the disk space
+        servletRegistrationBean.setMultipartConfig(new MultipartConfigElement("", -1, -1, 0));
         return servletRegistrationBean;
     }
 }
@@ -0,0 +1,45 @@
+package org.araymond.joal.web.config.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.araymond.joal.web.config.security.websocket.services.WebSocketAuthenticatorService;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Authenticates plain HTTP requests with the same credentials as the websocket connection, sent as request headers.
+ * Requests without valid credentials go on unauthenticated, and are rejected by the authorization rules.
+ * <p>
+ * Not a bean, otherwise spring would also register it as a servlet filter outside of the security chain.
+ */
+@Slf4j
+class HttpTokenAuthenticationFilter extends OncePerRequestFilter {
+    static final String USERNAME_HEADER = "X-Joal-Username";
+    static final String TOKEN_HEADER = "X-Joal-Auth-Token";
+
+    private final WebSocketAuthenticatorService authenticatorService;
+
+    HttpTokenAuthenticationFilter(final WebSocketAuthenticatorService authenticatorService) {
+        this.authenticatorService = authenticatorService;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain) throws ServletException, IOException {
+        final String username = request.getHeader(USERNAME_HEADER);
+        final String authToken = request.getHeader(TOKEN_HEADER);
+        if (username != null || authToken != null) {
+            try {
+                SecurityContextHolder.getContext().setAuthentication(this.authenticatorService.getAuthenticatedOrFail(username, authToken));
+            } catch (final AuthenticationException e) {
+                log.warn("Failed to authenticate request to [{}]: {}", request.getRequestURI(), e.getMessage());
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
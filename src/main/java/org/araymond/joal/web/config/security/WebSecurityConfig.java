@@ -1,6 +1,7 @@
 package org.araymond.joal.web.config.security;
 
 import org.araymond.joal.web.annotations.ConditionalOnWebUi;
+import org.araymond.joal.web.config.security.websocket.services.WebSocketAuthenticatorService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,6 +10,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.security.web.DefaultSecurityFilterChain;
 import org.springframework.security.web.SecurityFilterChain;
 
@@ -21,13 +23,16 @@ import org.springframework.security.web.SecurityFilterChain;
 public class WebSecurityConfig {
     private final String pathPrefix;
     private final boolean shouldDisableFrameOptions;
+    private final WebSocketAuthenticatorService authenticatorService;
 
     public WebSecurityConfig(
             @Value("${joal.ui.path.prefix}") final String pathPrefix,
-            @Value("${joal.iframe.enabled:false}") final boolean shouldDisableFrameOptions
+            @Value("${joal.iframe.enabled:false}") final boolean shouldDisableFrameOptions,
+            final WebSocketAuthenticatorService authenticatorService
     ) {
         this.pathPrefix = pathPrefix;
         this.shouldDisableFrameOptions = shouldDisableFrameOptions;
+        this.authenticatorService = authenticatorService;
     }
 
     @Bean
@@ -40,9 +45,13 @@ public class WebSecurityConfig {
                 .httpBasic().disable()
                 .formLogin().disable()
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
+                // The api is authenticated by headers on each request, there is no session cookie to forge requests with
+                .csrf().ignoringAntMatchers("/" + this.pathPrefix + "/api/**").and()
+                .addFilterBefore(new HttpTokenAuthenticationFilter(this.authenticatorService), AnonymousAuthenticationFilter.class)
                 .authorizeRequests()
                 .antMatchers("/" + this.pathPrefix).permitAll()
                 .antMatchers("/" + this.pathPrefix + "/ui/**").permitAll()
+                .antMatchers("/" + this.pathPrefix + "/api/**").authenticated()
                 .anyRequest().denyAll()
                 .and().build();
     }
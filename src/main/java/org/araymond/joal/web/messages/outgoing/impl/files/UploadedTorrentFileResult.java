@@ -0,0 +1,28 @@
+package org.araymond.joal.web.messages.outgoing.impl.files;
+
+import lombok.Getter;
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.araymond.joal.core.torrent.watcher.TorrentFileUpload;
+
+/**
+ * Outcome of one file of an HTTP upload. Torrent fields are null when the file has not been added, error is null when
+ * it has.
+ */
+@Getter
+public class UploadedTorrentFileResult {
+    private final String fileName;
+    private final boolean added;
+    private final InfoHash infoHash;
+    private final String name;
+    private final Long size;
+    private final String error;
+
+    public UploadedTorrentFileResult(final TorrentFileUpload.Result result) {
+        this.fileName = result.getFileName();
+        this.added = result.isAdded();
+        this.infoHash = result.isAdded() ? result.getTorrent().getTorrentInfoHash() : null;
+        this.name = result.isAdded() ? result.getTorrent().getName() : null;
+        this.size = result.isAdded() ? result.getTorrent().getSize() : null;
+        this.error = result.getError();
+    }
+}
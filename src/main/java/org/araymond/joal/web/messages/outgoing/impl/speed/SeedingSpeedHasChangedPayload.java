@@ -6,18 +6,27 @@ import org.araymond.joal.core.events.speed.SeedingSpeedsHasChangedEvent;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 import org.araymond.joal.web.messages.outgoing.MessagePayload;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.stream.Collectors.toList;
 
+/**
+ * Mirrors {@link SeedingSpeedsHasChangedEvent}: a keyframe replaces all the speeds known by the web UI, a delta only
+ * updates the given speeds and drops the removed torrents.
+ */
 @Getter
 public class SeedingSpeedHasChangedPayload implements MessagePayload {
     private final List<SpeedPayload> speeds;
+    private final List<InfoHash> removedTorrents;
+    private final boolean keyframe;
 
     public SeedingSpeedHasChangedPayload(final SeedingSpeedsHasChangedEvent event) {
         this.speeds = event.getSpeeds().entrySet().stream()
                 .map(entry -> new SpeedPayload(entry.getKey(), entry.getValue().getBytesPerSecond()))
                 .collect(toList());
+        this.removedTorrents = new ArrayList<>(event.getRemovedTorrents());
+        this.keyframe = event.isKeyframe();
     }
 
     @Getter
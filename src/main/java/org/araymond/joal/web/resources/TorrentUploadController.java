@@ -0,0 +1,91 @@
+package org.araymond.joal.web.resources;
+
+import lombok.extern.slf4j.Slf4j;
+import org.araymond.joal.core.SeedManager;
+import org.araymond.joal.core.torrent.watcher.TorrentFileUpload;
+import org.araymond.joal.web.annotations.ConditionalOnWebUi;
+import org.araymond.joal.web.messages.outgoing.impl.files.UploadedTorrentFileResult;
+import org.araymond.joal.web.services.upload.TorrentUploadReader;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.inject.Inject;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.Part;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Adds torrent files in bulk over plain HTTP, the websocket upload being limited to one small file per message.
+ * <p>
+ * Served under the obfuscated path prefix, and authenticated with the same headers as the websocket connection.
+ */
+@ConditionalOnWebUi
+@RestController
+@Slf4j
+public class TorrentUploadController {
+    private final SeedManager seedManager;
+
+    @Inject
+    public TorrentUploadController(final SeedManager seedManager) {
+        this.seedManager = seedManager;
+    }
+
+    /**
+     * Accepts a multipart form with any number of files, or a single file as the request body (then named by the
+     * {@code name} parameter). Each file is either a torrent file, or a zip, tar or gzipped tar archive of torrent
+     * files.
+     * <p>
+     * Files are streamed to the torrent folder as they are read, then parsed in parallel and added as a single batch.
+     *
+     * @return the outcome of each torrent file, in upload order
+     */
+    @PostMapping(path = "/api/torrents/upload", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<UploadedTorrentFileResult> upload(
+            final HttpServletRequest request,
+            @RequestParam(name = "name", required = false) final String name
+    ) throws IOException, ServletException {
+        try (final TorrentFileUpload upload = this.seedManager.newTorrentFileUpload()) {
+            if (isMultipart(request)) {
+                for (final Part part : request.getParts()) {
+                    // Parts without file name are regular form fields
+                    if (part.getSubmittedFileName() == null) {
+                        continue;
+                    }
+                    try (final InputStream in = part.getInputStream()) {
+                        TorrentUploadReader.read(part.getSubmittedFileName(), part.getContentType(), in, upload);
+                    }
+                }
+            } else {
+                TorrentUploadReader.read(name, request.getContentType(), request.getInputStream(), upload);
+            }
+
+            final List<TorrentFileUpload.Result> results = upload.commit();
+            log.info("Uploaded {} torrent files, {} added", results.size(), results.stream().filter(TorrentFileUpload.Result::isAdded).count());
+            return results.stream()
+                    .map(UploadedTorrentFileResult::new)
+                    .collect(toList());
+        }
+    }
+
+    @ExceptionHandler(IOException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleUnreadableUpload(final IOException e) {
+        log.warn("Failed to read torrent files upload", e);
+        return e.getMessage();
+    }
+
+    private static boolean isMultipart(final HttpServletRequest request) {
+        final String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+    }
+}
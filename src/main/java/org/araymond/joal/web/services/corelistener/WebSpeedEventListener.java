@@ -14,6 +14,9 @@ import javax.inject.Inject;
 
 /**
  * Created by raymo on 25/06/2017.
+ * <p>
+ * Deltas are forwarded as is, the web UI applies them on top of the last keyframe it received (either one of the
+ * events or the initial state sent on connection).
  */
 @ConditionalOnWebUi
 @Service
@@ -26,7 +29,7 @@ public class WebSpeedEventListener extends WebEventListener {
 
     @Order(Ordered.LOWEST_PRECEDENCE)
     @EventListener
-    public void failedToAnnounce(final SeedingSpeedsHasChangedEvent event) {
+    public void seedingSpeedsHasChanged(final SeedingSpeedsHasChangedEvent event) {
         log.debug("Send SeedingSpeedHasChangedPayload to clients.");
 
         this.messagingTemplate.convertAndSend("/speed", new SeedingSpeedHasChangedPayload(event));
@@ -4,6 +4,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.araymond.joal.core.events.torrent.files.FailedToAddTorrentFileEvent;
 import org.araymond.joal.core.events.torrent.files.TorrentFileAddedEvent;
 import org.araymond.joal.core.events.torrent.files.TorrentFileDeletedEvent;
+import org.araymond.joal.core.events.torrent.files.TorrentFilesAddedEvent;
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
 import org.araymond.joal.web.annotations.ConditionalOnWebUi;
 import org.araymond.joal.web.messages.outgoing.impl.files.FailedToAddTorrentFilePayload;
 import org.araymond.joal.web.messages.outgoing.impl.files.TorrentFileAddedPayload;
@@ -36,6 +38,19 @@ public class WebTorrentFileEventListener extends WebEventListener {
         this.messagingTemplate.convertAndSend("/torrents", new TorrentFileAddedPayload(event));
     }
 
+    /**
+     * The web UI only knows about single file payloads, the batch is unrolled here.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener
+    public void torrentFilesAdded(final TorrentFilesAddedEvent event) {
+        log.debug("Send [{}] TorrentFileAddedPayload to clients.", event.getTorrents().size());
+
+        for (final MockedTorrent torrent : event.getTorrents()) {
+            this.messagingTemplate.convertAndSend("/torrents", new TorrentFileAddedPayload(new TorrentFileAddedEvent(torrent)));
+        }
+    }
+
     @Order(Ordered.LOWEST_PRECEDENCE)
     @EventListener
     public void torrentFileDeleted(final TorrentFileDeletedEvent event) {
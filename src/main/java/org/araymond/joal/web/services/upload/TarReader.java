@@ -0,0 +1,204 @@
+package org.araymond.joal.web.services.upload;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the regular files of a tar archive as a stream, without buffering them.
+ * <p>
+ * Handles ustar, GNU long names and pax path headers, which is what common tools write. Other entries (folders, links,
+ * devices) are skipped.
+ */
+final class TarReader {
+    private static final int BLOCK_SIZE = 512;
+    private static final int MAX_EXTENDED_HEADER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] header = new byte[BLOCK_SIZE];
+    private long remaining;
+    private long padding;
+
+    TarReader(final InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Moves to the next regular file, {@link #entryStream()} then reads its content.
+     *
+     * @return the path of the file in the archive, null once the end of the archive is reached
+     * @throws IOException if the stream is not a tar archive or is truncated
+     */
+    String nextFile() throws IOException {
+        String extendedName = null;
+        while (true) {
+            ByteStreams.skipFully(this.in, this.remaining + this.padding);
+            this.remaining = 0;
+            this.padding = 0;
+            if (!this.readHeader()) {
+                return null;
+            }
+
+            final long size = parseOctal(this.header, 124, 12);
+            this.remaining = size;
+            this.padding = (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+            final byte type = this.header[156];
+            if (type == 'L') {
+                final byte[] name = this.readExtendedHeader();
+                extendedName = parseString(name, 0, name.length);
+            } else if (type == 'x') {
+                final String path = parsePaxPath(this.readExtendedHeader());
+                extendedName = path == null ? extendedName : path;
+            } else if (type == '0' || type == 0 || type == '7') {
+                return extendedName == null ? this.headerName() : extendedName;
+            } else {
+                // Not a regular file, any extended name was for this entry
+                extendedName = null;
+            }
+        }
+    }
+
+    /**
+     * @return the content of the current file, the stream ends with the file and closing it does nothing
+     */
+    InputStream entryStream() {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                final int read = in.read();
+                if (read == -1) {
+                    throw new EOFException("Truncated tar archive");
+                }
+                --remaining;
+                return read;
+            }
+
+            @Override
+            public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                final int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+                if (read == -1) {
+                    throw new EOFException("Truncated tar archive");
+                }
+                remaining -= read;
+                return read;
+            }
+        };
+    }
+
+    /**
+     * @return false at the end of the archive, which is marked by an empty block or simply the end of the stream
+     */
+    private boolean readHeader() throws IOException {
+        final int read = ByteStreams.read(this.in, this.header, 0, BLOCK_SIZE);
+        if (read == 0) {
+            return false;
+        }
+        if (read < BLOCK_SIZE) {
+            throw new EOFException("Truncated tar archive");
+        }
+        long sum = 0;
+        boolean empty = true;
+        for (int i = 0; i < BLOCK_SIZE; ++i) {
+            // The checksum is computed with its own field filled with spaces
+            final int value = i >= 148 && i < 156 ? ' ' : this.header[i] & 0xFF;
+            sum += value;
+            empty &= this.header[i] == 0;
+        }
+        if (empty) {
+            return false;
+        }
+        if (sum != parseOctal(this.header, 148, 8)) {
+            throw new IOException("Not a tar archive, or corrupted");
+        }
+        return true;
+    }
+
+    private String headerName() {
+        final String name = parseString(this.header, 0, 100);
+        // ustar splits long paths in a prefix and a name
+        if ("ustar".equals(parseString(this.header, 257, 5))) {
+            final String prefix = parseString(this.header, 345, 155);
+            if (!prefix.isEmpty()) {
+                return prefix + '/' + name;
+            }
+        }
+        return name;
+    }
+
+    private byte[] readExtendedHeader() throws IOException {
+        if (this.remaining > MAX_EXTENDED_HEADER_SIZE) {
+            throw new IOException("Tar extended header is too large");
+        }
+        final byte[] bytes = new byte[(int) this.remaining];
+        ByteStreams.readFully(this.in, bytes);
+        this.remaining = 0;
+        return bytes;
+    }
+
+    /**
+     * Pax records are "length key=value\n", the length being the byte count of the whole record.
+     */
+    private static String parsePaxPath(final byte[] records) throws IOException {
+        String path = null;
+        int offset = 0;
+        while (offset < records.length && records[offset] != 0) {
+            int length = 0;
+            int position = offset;
+            while (position < records.length && records[position] >= '0' && records[position] <= '9') {
+                length = length * 10 + (records[position++] - '0');
+                if (length > records.length) {
+                    throw new IOException("Invalid tar pax header");
+                }
+            }
+            if (position == offset || position >= records.length || records[position] != ' '
+                    || offset + length > records.length || offset + length <= position + 1) {
+                throw new IOException("Invalid tar pax header");
+            }
+            final String record = new String(records, position + 1, offset + length - position - 2, StandardCharsets.UTF_8);
+            if (record.startsWith("path=")) {
+                path = record.substring("path=".length());
+            }
+            offset += length;
+        }
+        return path;
+    }
+
+    private static String parseString(final byte[] bytes, final int offset, final int length) {
+        int end = offset;
+        while (end < offset + length && bytes[end] != 0) {
+            ++end;
+        }
+        return new String(bytes, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static long parseOctal(final byte[] bytes, final int offset, final int length) throws IOException {
+        if ((bytes[offset] & 0x80) != 0) {
+            throw new IOException("Tar entries larger than 8GB are not supported");
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; ++i) {
+            final byte b = bytes[i];
+            if (b == 0 || b == ' ') {
+                if (value != 0) {
+                    break;
+                }
+                // leading padding
+                continue;
+            }
+            if (b < '0' || b > '7') {
+                throw new IOException("Not a tar archive, or corrupted");
+            }
+            value = (value << 3) + (b - '0');
+        }
+        return value;
+    }
+}
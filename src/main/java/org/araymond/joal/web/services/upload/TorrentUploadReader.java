@@ -0,0 +1,91 @@
+package org.araymond.joal.web.services.upload;
+
+import org.araymond.joal.core.torrent.watcher.TorrentFileUpload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Feeds an uploaded file to a {@link TorrentFileUpload}, as it is read. The file is either a single torrent file, or a
+ * zip, tar or gzipped tar archive of torrent files, told apart by its name or content type. Archive entries that are
+ * not .torrent files are ignored.
+ */
+public final class TorrentUploadReader {
+    private static final String TORRENT_FILE_EXTENSION = ".torrent";
+
+    private TorrentUploadReader() {
+    }
+
+    enum Format {
+        TORRENT, ZIP, TAR, TAR_GZIP
+    }
+
+    /**
+     * Reads the whole stream, but does not close it.
+     *
+     * @param fileName    may be null, then the file cannot be a single torrent file
+     * @param contentType may be null
+     * @throws IOException if the stream cannot be read or is not a valid archive
+     */
+    public static void read(final String fileName, final String contentType, final InputStream in, final TorrentFileUpload upload) throws IOException {
+        switch (formatOf(fileName, contentType)) {
+            case ZIP:
+                readZip(in, upload);
+                break;
+            case TAR:
+                readTar(in, upload);
+                break;
+            case TAR_GZIP:
+                // Not closed, it would close the underlying stream
+                readTar(new GZIPInputStream(in, 64 * 1024), upload);
+                break;
+            default:
+                upload.add(fileName, in);
+        }
+    }
+
+    static Format formatOf(final String fileName, final String contentType) {
+        final String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        final String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".zip") || type.startsWith("application/zip") || type.startsWith("application/x-zip-compressed")) {
+            return Format.ZIP;
+        }
+        if (name.endsWith(".tar") || type.startsWith("application/x-tar")) {
+            return Format.TAR;
+        }
+        if (name.endsWith(".tar.gz") || name.endsWith(".tgz") || type.startsWith("application/gzip")
+                || type.startsWith("application/x-gzip") || type.startsWith("application/x-compressed-tar")) {
+            return Format.TAR_GZIP;
+        }
+        return Format.TORRENT;
+    }
+
+    private static void readZip(final InputStream in, final TorrentFileUpload upload) throws IOException {
+        // Not closed, it would close the underlying stream
+        final ZipInputStream zip = new ZipInputStream(in);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (!entry.isDirectory() && isTorrentFile(entry.getName())) {
+                upload.add(entry.getName(), zip);
+            }
+        }
+    }
+
+    private static void readTar(final InputStream in, final TorrentFileUpload upload) throws IOException {
+        final TarReader tar = new TarReader(in);
+        String name;
+        while ((name = tar.nextFile()) != null) {
+            if (isTorrentFile(name)) {
+                upload.add(name, tar.entryStream());
+            }
+        }
+    }
+
+    private static boolean isTorrentFile(final String name) {
+        return name.toLowerCase(Locale.ROOT).endsWith(TORRENT_FILE_EXTENSION);
+    }
+}
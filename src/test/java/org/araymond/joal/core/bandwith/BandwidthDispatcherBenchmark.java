@@ -0,0 +1,99 @@
+package org.araymond.joal.core.bandwith;
+
+import org.apache.logging.log4j.core.config.Configurator;
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a peers update (one per announce) with many registered torrents, of which only some have
+ * leechers and therefore a non-zero weight.
+ * <p>
+ * Not a unit test, run it manually:
+ * <pre>
+ *     mvn test-compile
+ *     java -cp "target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *         org.araymond.joal.core.bandwith.BandwidthDispatcherBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BandwidthDispatcherBenchmark {
+
+    @Param({"100000"})
+    public int torrentCount;
+
+    @Param({"1", "90"})
+    public int weightedPercent;
+
+    private BandwidthDispatcher dispatcher;
+    private InfoHash[] infoHashes;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        Configurator.setAllLevels("org.araymond", org.apache.logging.log4j.Level.WARN);
+        this.random = new Random(42);
+        this.dispatcher = new BandwidthDispatcher(new FixedSpeedProvider(10_000_000L));
+        this.dispatcher.setSpeedListener((changedWeights, removedTorrents, bytesPerSecondPerWeight) -> { });
+        this.infoHashes = new InfoHash[this.torrentCount];
+        for (int i = 0; i < this.torrentCount; ++i) {
+            this.infoHashes[i] = infoHashOf(i);
+            this.dispatcher.registerTorrent(this.infoHashes[i]);
+            this.dispatcher.updateTorrentPeers(this.infoHashes[i], 10, this.isWeighted(i) ? 5 : 0);
+        }
+    }
+
+    @Benchmark
+    public BandwidthDispatcher updateTorrentPeers() {
+        final int index = this.random.nextInt(this.infoHashes.length);
+        final int leechers = this.isWeighted(index) ? 1 + this.random.nextInt(20) : 0;
+        this.dispatcher.updateTorrentPeers(this.infoHashes[index], 10, leechers);
+        return this.dispatcher;
+    }
+
+    private boolean isWeighted(final int index) {
+        return index % 100 < this.weightedPercent;
+    }
+
+    private static InfoHash infoHashOf(final int i) {
+        return new InfoHash(ByteBuffer.allocate(20).putInt(i).array());
+    }
+
+    private static final class FixedSpeedProvider extends RandomSpeedProvider {
+        private final long speed;
+
+        private FixedSpeedProvider(final long speed) {
+            super(null);
+            this.speed = speed;
+        }
+
+        @Override
+        public void refresh() {
+        }
+
+        @Override
+        public long getCurrentSpeed() {
+            return this.speed;
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(BandwidthDispatcherBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
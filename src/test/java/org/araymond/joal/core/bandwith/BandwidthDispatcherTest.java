@@ -6,14 +6,25 @@ import org.mockito.Mockito;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 
@@ -25,12 +36,12 @@ public class BandwidthDispatcherTest {
         final RandomSpeedProvider speedProvider = Mockito.mock(RandomSpeedProvider.class);
         Mockito.doReturn(1000_000L).when(speedProvider).getCurrentSpeed();
 
-        final BandwidthDispatcher bandwidthDispatcher = spy(new BandwidthDispatcher(2, speedProvider));
+        final BandwidthDispatcher bandwidthDispatcher = spy(new BandwidthDispatcher(speedProvider));
 
         bandwidthDispatcher.refreshCurrentBandwidth();
 
         Mockito.verify(speedProvider, Mockito.times(1)).refresh();
-        Mockito.verify(bandwidthDispatcher, times(1)).recomputeSpeeds();
+        Mockito.verify(bandwidthDispatcher, times(1)).recomputeSpeeds(any(int[].class), anySet());
     }
 
     @SuppressWarnings("ResultOfMethodCallIgnored")
@@ -39,7 +50,7 @@ public class BandwidthDispatcherTest {
         final RandomSpeedProvider speedProvider = Mockito.mock(RandomSpeedProvider.class);
         Mockito.doReturn(1000_000L).when(speedProvider).getCurrentSpeed();
 
-        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(2, speedProvider);
+        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(speedProvider);
         bandwidthDispatcher.start();
         Thread.sleep(10);
         final TorrentSeedStats seedStats = bandwidthDispatcher.getSeedStatForTorrent(new InfoHash(new byte[]{12}));
@@ -58,7 +69,7 @@ public class BandwidthDispatcherTest {
         Mockito.doReturn(1000_000L).when(speedProvider).getCurrentSpeed();
 
         final InfoHash infoHash = new InfoHash(new byte[]{12});
-        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(2, speedProvider);
+        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(speedProvider);
 
         bandwidthDispatcher.registerTorrent(infoHash);
         bandwidthDispatcher.start();
@@ -79,7 +90,7 @@ public class BandwidthDispatcherTest {
         Mockito.doReturn(1000_000L).when(speedProvider).getCurrentSpeed();
 
         final InfoHash infoHash = new InfoHash(new byte[]{12});
-        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(2, speedProvider);
+        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(speedProvider);
 
         bandwidthDispatcher.registerTorrent(infoHash);
         bandwidthDispatcher.updateTorrentPeers(infoHash, 0, 100);
@@ -101,7 +112,7 @@ public class BandwidthDispatcherTest {
         Mockito.doReturn(1000_000L).when(speedProvider).getCurrentSpeed();
 
         final InfoHash infoHash = new InfoHash(new byte[]{12});
-        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(2, speedProvider);
+        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(speedProvider);
 
         bandwidthDispatcher.registerTorrent(infoHash);
         bandwidthDispatcher.updateTorrentPeers(infoHash, 100, 0);
@@ -123,7 +134,7 @@ public class BandwidthDispatcherTest {
         Mockito.doReturn(1000_000L).when(speedProvider).getCurrentSpeed();
 
         final InfoHash infoHash = new InfoHash(new byte[]{12});
-        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(2, speedProvider);
+        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(speedProvider);
 
         bandwidthDispatcher.registerTorrent(infoHash);
         bandwidthDispatcher.updateTorrentPeers(infoHash, 10, 10);
@@ -148,7 +159,7 @@ public class BandwidthDispatcherTest {
 
         final InfoHash infoHash = new InfoHash(new byte[]{12});
         final InfoHash infoHash2 = new InfoHash(new byte[]{100});
-        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(2, speedProvider);
+        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(speedProvider);
 
         bandwidthDispatcher.registerTorrent(infoHash);
         bandwidthDispatcher.updateTorrentPeers(infoHash, 10, 10);
@@ -171,7 +182,7 @@ public class BandwidthDispatcherTest {
         final RandomSpeedProvider speedProvider = Mockito.mock(RandomSpeedProvider.class);
         Mockito.doReturn(1000_000L).when(speedProvider).getCurrentSpeed();
 
-        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(1, speedProvider);
+        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(speedProvider);
 
         bandwidthDispatcher.start();
 
@@ -197,7 +208,7 @@ public class BandwidthDispatcherTest {
         final RandomSpeedProvider speedProvider = Mockito.mock(RandomSpeedProvider.class);
         Mockito.doReturn(10_000L).when(speedProvider).getCurrentSpeed();
 
-        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(2, speedProvider);
+        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(speedProvider);
         bandwidthDispatcher.start();
 
         final SpeedChangedListener speedListener = spy(new VoidSpeedChangedListener());
@@ -210,13 +221,141 @@ public class BandwidthDispatcherTest {
 
         bandwidthDispatcher.stop();
 
-        Mockito.verify(speedListener, Mockito.times(1)).speedsHasChanged(anyMap());
+        Mockito.verify(speedListener, Mockito.times(1)).speedsHasChanged(anyMap(), anySet(), anyDouble());
     }
 
     private static class VoidSpeedChangedListener implements SpeedChangedListener {
         @Override
-        public void speedsHasChanged(final Map<InfoHash, Speed> speeds) {
+        public void speedsHasChanged(final Map<InfoHash, Double> changedWeights, final Set<InfoHash> removedTorrents, final double bytesPerSecondPerWeight) {
         }
     }
 
+    @Test
+    public void shouldComputeUploadedBytesFromSpeedsAndElapsedTime() {
+        final RandomSpeedProvider speedProvider = Mockito.mock(RandomSpeedProvider.class);
+        Mockito.doReturn(1000_000L).when(speedProvider).getCurrentSpeed();
+        final AtomicLong nanoTime = new AtomicLong(0);
+
+        final InfoHash infoHash = new InfoHash(new byte[]{12});
+        final InfoHash infoHash2 = new InfoHash(new byte[]{13});
+        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(speedProvider, nanoTime::get);
+        bandwidthDispatcher.registerTorrent(infoHash);
+        bandwidthDispatcher.registerTorrent(infoHash2);
+        bandwidthDispatcher.updateTorrentPeers(infoHash, 10, 10);
+
+        // Alone for 2 seconds at 1MB/s
+        nanoTime.addAndGet(SECONDS.toNanos(2));
+        assertThat(bandwidthDispatcher.getSeedStatForTorrent(infoHash).getUploaded()).isEqualTo(2000_000L);
+
+        // Then sharing the speed equally for 3 seconds and a half
+        bandwidthDispatcher.updateTorrentPeers(infoHash2, 10, 10);
+        nanoTime.addAndGet(MILLISECONDS.toNanos(3500));
+        assertThat(bandwidthDispatcher.getSeedStatForTorrent(infoHash).getUploaded()).isEqualTo(2000_000L + 1750_000L);
+        assertThat(bandwidthDispatcher.getSeedStatForTorrent(infoHash2).getUploaded()).isEqualTo(1750_000L);
+
+        // Reading does not change anything
+        assertThat(bandwidthDispatcher.getSeedStatForTorrent(infoHash).getUploaded()).isEqualTo(3750_000L);
+    }
+
+    @Test
+    public void shouldOnlyNotifyUpdatedWeightsAlongWithTheScaleFactor() {
+        final RandomSpeedProvider speedProvider = Mockito.mock(RandomSpeedProvider.class);
+        Mockito.doReturn(1000_000L).when(speedProvider).getCurrentSpeed();
+
+        final InfoHash weighted = new InfoHash(new byte[]{12});
+        final InfoHash withoutLeechers = new InfoHash(new byte[]{13});
+        final InfoHash updated = new InfoHash(new byte[]{14});
+        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(speedProvider);
+        bandwidthDispatcher.registerTorrent(weighted);
+        bandwidthDispatcher.registerTorrent(withoutLeechers);
+        bandwidthDispatcher.registerTorrent(updated);
+        bandwidthDispatcher.updateTorrentPeers(weighted, 10, 10);
+        bandwidthDispatcher.updateTorrentPeers(withoutLeechers, 10, 0);
+
+        final List<Map<InfoHash, Double>> notifications = new ArrayList<>();
+        final List<Double> scaleFactors = new ArrayList<>();
+        bandwidthDispatcher.setSpeedListener((changedWeights, removedTorrents, bytesPerSecondPerWeight) -> {
+            notifications.add(changedWeights);
+            scaleFactors.add(bytesPerSecondPerWeight);
+        });
+
+        bandwidthDispatcher.updateTorrentPeers(updated, 10, 10);
+        // Same peers, so same weight and same scale factor
+        bandwidthDispatcher.updateTorrentPeers(updated, 10, 10);
+
+        assertThat(notifications).hasSize(2);
+        // The speed of weighted has changed as well, it is the scale factor that tells so
+        assertThat(notifications.get(0)).containsOnlyKeys(updated);
+        assertThat(notifications.get(1)).containsOnlyKeys(updated);
+        assertThat(scaleFactors.get(1)).isEqualTo(scaleFactors.get(0));
+        final double weight = notifications.get(0).get(updated);
+        assertThat(BandwidthDispatcher.speedOf(weight, scaleFactors.get(0))).isEqualTo(500_000L);
+        assertThat(bandwidthDispatcher.getSpeedMap().get(weighted).getBytesPerSecond()).isEqualTo(500_000L);
+        assertThat(bandwidthDispatcher.getSpeedMap().get(updated).getBytesPerSecond()).isEqualTo(500_000L);
+        assertThat(bandwidthDispatcher.getSpeedMap().get(withoutLeechers).getBytesPerSecond()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotifyRemovedTorrentsAndGiveTheirSpeedToTheOthers() {
+        final RandomSpeedProvider speedProvider = Mockito.mock(RandomSpeedProvider.class);
+        Mockito.doReturn(1000_000L).when(speedProvider).getCurrentSpeed();
+
+        final InfoHash kept = new InfoHash(new byte[]{12});
+        final InfoHash removed = new InfoHash(new byte[]{13});
+        final BandwidthDispatcher bandwidthDispatcher = new BandwidthDispatcher(speedProvider);
+        final Map<InfoHash, Double> weights = new HashMap<>();
+        final Set<InfoHash> removedTorrents = new HashSet<>();
+        final List<Double> scaleFactors = new ArrayList<>();
+        bandwidthDispatcher.setSpeedListener((changedWeights, removedSinceLastCall, bytesPerSecondPerWeight) -> {
+            weights.putAll(changedWeights);
+            removedTorrents.addAll(removedSinceLastCall);
+            scaleFactors.add(bytesPerSecondPerWeight);
+        });
+        bandwidthDispatcher.registerTorrent(kept);
+        bandwidthDispatcher.registerTorrent(removed);
+        bandwidthDispatcher.updateTorrentPeers(kept, 10, 10);
+        bandwidthDispatcher.updateTorrentPeers(removed, 10, 10);
+        scaleFactors.clear();
+
+        bandwidthDispatcher.unregisterTorrent(removed);
+
+        assertThat(removedTorrents).containsExactly(removed);
+        assertThat(scaleFactors).hasSize(1);
+        assertThat(BandwidthDispatcher.speedOf(weights.get(kept), scaleFactors.get(0))).isEqualTo(1000_000L);
+        assertThat(bandwidthDispatcher.getSpeedMap()).containsOnlyKeys(kept);
+        assertThat(bandwidthDispatcher.getSpeedMap().get(kept).getBytesPerSecond()).isEqualTo(1000_000L);
+    }
+
+    @Test
+    public void shouldUpdateOnlyRegisteredTorrentsFromScrapeAndRecomputeSpeedsOnce() {
+        final RandomSpeedProvider speedProvider = Mockito.mock(RandomSpeedProvider.class);
+        Mockito.doReturn(1000_000L).when(speedProvider).getCurrentSpeed();
+
+        final InfoHash seeding = new InfoHash(new byte[]{12});
+        final InfoHash seedingWithoutScrape = new InfoHash(new byte[]{13});
+        final InfoHash notSeeding = new InfoHash(new byte[]{14});
+        final BandwidthDispatcher bandwidthDispatcher = spy(new BandwidthDispatcher(speedProvider));
+        bandwidthDispatcher.registerTorrent(seeding);
+        bandwidthDispatcher.registerTorrent(seedingWithoutScrape);
+
+        final Map<InfoHash, Peers> scraped = new HashMap<>();
+        scraped.put(seeding, new Peers(2, 10));
+        scraped.put(notSeeding, new Peers(10, 10));
+        bandwidthDispatcher.updateTorrentsPeers(scraped);
+
+        Mockito.verify(bandwidthDispatcher, times(1)).recomputeSpeeds(any(int[].class), anySet());
+        assertThat(bandwidthDispatcher.getSpeedMap()).containsOnlyKeys(seeding, seedingWithoutScrape);
+        assertThat(bandwidthDispatcher.getSpeedMap().get(seeding).getBytesPerSecond()).isEqualTo(1000_000L);
+        assertThat(bandwidthDispatcher.getSpeedMap().get(seedingWithoutScrape).getBytesPerSecond()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotRecomputeSpeedsIfNoScrapedTorrentIsRegistered() {
+        final RandomSpeedProvider speedProvider = Mockito.mock(RandomSpeedProvider.class);
+        final BandwidthDispatcher bandwidthDispatcher = spy(new BandwidthDispatcher(speedProvider));
+
+        bandwidthDispatcher.updateTorrentsPeers(Collections.singletonMap(new InfoHash(new byte[]{12}), new Peers(10, 10)));
+
+        Mockito.verify(bandwidthDispatcher, times(0)).recomputeSpeeds(any(int[].class), anySet());
+    }
 }
@@ -0,0 +1,166 @@
+package org.araymond.joal.core.bandwith;
+
+import org.araymond.joal.core.events.speed.SeedingSpeedsHasChangedEvent;
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CoalescingSpeedChangedListenerTest {
+
+    private static final InfoHash FIRST = new InfoHash(new byte[]{1});
+    private static final InfoHash SECOND = new InfoHash(new byte[]{2});
+    private static final InfoHash THIRD = new InfoHash(new byte[]{3});
+
+    @Test
+    public void shouldNotBuildWithNegativeWindow() {
+        assertThatThrownBy(() -> new CoalescingSpeedChangedListener(event -> { }, -1, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldPublishKeyframeFirstThenOnlyWhatHasChangedSinceLastFlush() {
+        final RecordingPublisher publisher = new RecordingPublisher();
+        final AtomicLong clock = new AtomicLong();
+        final CoalescingSpeedChangedListener listener = new CoalescingSpeedChangedListener(publisher, 1000, 30_000, clock::get);
+
+        listener.speedsHasChanged(weights(FIRST, 10, SECOND, 20), Collections.emptySet(), 1.0);
+        assertThat(publisher.events).isEmpty();
+        listener.flush();
+        assertThat(publisher.events).hasSize(1);
+        assertThat(publisher.last().isKeyframe()).isTrue();
+        assertThat(publisher.last().getSpeeds()).containsOnlyKeys(FIRST, SECOND);
+
+        clock.addAndGet(MILLISECONDS.toNanos(1000));
+        listener.speedsHasChanged(weights(FIRST, 11), Collections.emptySet(), 1.0);
+        listener.speedsHasChanged(weights(FIRST, 12, THIRD, 30), Collections.emptySet(), 1.0);
+        listener.flush();
+        assertThat(publisher.events).hasSize(2);
+        assertThat(publisher.last().isKeyframe()).isFalse();
+        assertThat(publisher.last().getSpeeds()).containsOnlyKeys(FIRST, THIRD);
+        assertThat(publisher.last().getSpeeds().get(FIRST).getBytesPerSecond()).isEqualTo(12);
+        assertThat(publisher.last().getRemovedTorrents()).isEmpty();
+    }
+
+    @Test
+    public void shouldNotPublishAnythingForAWindowWithoutChange() {
+        final RecordingPublisher publisher = new RecordingPublisher();
+        final AtomicLong clock = new AtomicLong();
+        final CoalescingSpeedChangedListener listener = new CoalescingSpeedChangedListener(publisher, 1000, 30_000, clock::get);
+
+        listener.flush();
+        assertThat(publisher.events).isEmpty();
+
+        listener.speedsHasChanged(weights(FIRST, 10), Collections.emptySet(), 1.0);
+        listener.flush();
+        clock.addAndGet(MILLISECONDS.toNanos(1000));
+        listener.flush();
+        assertThat(publisher.events).hasSize(1);
+    }
+
+    @Test
+    public void shouldMergeRemovalsAndChangesOfTheSameWindow() {
+        final RecordingPublisher publisher = new RecordingPublisher();
+        final AtomicLong clock = new AtomicLong();
+        final CoalescingSpeedChangedListener listener = new CoalescingSpeedChangedListener(publisher, 1000, 30_000, clock::get);
+        listener.speedsHasChanged(weights(FIRST, 10, SECOND, 20), Collections.emptySet(), 1.0);
+        listener.flush();
+        clock.addAndGet(MILLISECONDS.toNanos(1000));
+
+        listener.speedsHasChanged(weights(SECOND, 25), Collections.singleton(FIRST), 1.0);
+        listener.speedsHasChanged(weights(FIRST, 5), Collections.singleton(SECOND), 1.0);
+        listener.flush();
+
+        assertThat(publisher.last().isKeyframe()).isFalse();
+        assertThat(publisher.last().getSpeeds()).containsOnlyKeys(FIRST);
+        assertThat(publisher.last().getRemovedTorrents()).containsOnly(SECOND);
+    }
+
+    @Test
+    public void shouldPublishKeyframeWithAllSpeedsOnceTheIntervalHasElapsed() {
+        final RecordingPublisher publisher = new RecordingPublisher();
+        final AtomicLong clock = new AtomicLong();
+        final CoalescingSpeedChangedListener listener = new CoalescingSpeedChangedListener(publisher, 1000, 30_000, clock::get);
+        listener.speedsHasChanged(weights(FIRST, 10, SECOND, 20), Collections.emptySet(), 1.0);
+        listener.flush();
+
+        clock.addAndGet(MILLISECONDS.toNanos(30_000));
+        listener.flush();
+
+        assertThat(publisher.events).hasSize(2);
+        assertThat(publisher.last().isKeyframe()).isTrue();
+        assertThat(publisher.last().getSpeeds()).containsOnlyKeys(FIRST, SECOND);
+    }
+
+    @Test
+    public void shouldRecomputeSpeedsOfWeightedTorrentsOncePerWindowWhenScaleFactorChanges() {
+        final RecordingPublisher publisher = new RecordingPublisher();
+        final AtomicLong clock = new AtomicLong();
+        final CoalescingSpeedChangedListener listener = new CoalescingSpeedChangedListener(publisher, 1000, 30_000, clock::get);
+        listener.speedsHasChanged(weights(FIRST, 10, SECOND, 20, THIRD, 0), Collections.emptySet(), 1.0);
+        listener.flush();
+        clock.addAndGet(MILLISECONDS.toNanos(1000));
+
+        // A peers update of FIRST changes the total weight, hence the scale factor
+        listener.speedsHasChanged(weights(FIRST, 30), Collections.emptySet(), 0.5);
+        listener.speedsHasChanged(Collections.emptyMap(), Collections.emptySet(), 2.0);
+        listener.flush();
+
+        assertThat(publisher.last().isKeyframe()).isFalse();
+        assertThat(publisher.last().getSpeeds()).containsOnlyKeys(FIRST, SECOND);
+        assertThat(publisher.last().getSpeeds().get(FIRST).getBytesPerSecond()).isEqualTo(60);
+        assertThat(publisher.last().getSpeeds().get(SECOND).getBytesPerSecond()).isEqualTo(40);
+
+        clock.addAndGet(MILLISECONDS.toNanos(29_000));
+        listener.flush();
+        assertThat(publisher.last().isKeyframe()).isTrue();
+        assertThat(publisher.last().getSpeeds()).containsOnlyKeys(FIRST, SECOND, THIRD);
+        assertThat(publisher.last().getSpeeds().get(THIRD).getBytesPerSecond()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldPublishRightAwayWithoutWindow() {
+        final RecordingPublisher publisher = new RecordingPublisher();
+        final CoalescingSpeedChangedListener listener = new CoalescingSpeedChangedListener(publisher, 0, 30_000, () -> 0L);
+
+        listener.speedsHasChanged(weights(FIRST, 10), Collections.emptySet(), 1.0);
+        listener.speedsHasChanged(weights(SECOND, 20), Collections.emptySet(), 1.0);
+
+        assertThat(publisher.events).hasSize(2);
+        assertThat(publisher.events.get(0).isKeyframe()).isTrue();
+        assertThat(publisher.last().isKeyframe()).isFalse();
+        assertThat(publisher.last().getSpeeds()).containsOnlyKeys(SECOND);
+    }
+
+    private static Map<InfoHash, Double> weights(final Object... infoHashesAndWeights) {
+        final Map<InfoHash, Double> weights = new HashMap<>();
+        for (int i = 0; i < infoHashesAndWeights.length; i += 2) {
+            weights.put((InfoHash) infoHashesAndWeights[i], ((Integer) infoHashesAndWeights[i + 1]).doubleValue());
+        }
+        return weights;
+    }
+
+    private static final class RecordingPublisher implements ApplicationEventPublisher {
+        private final List<SeedingSpeedsHasChangedEvent> events = new ArrayList<>();
+
+        @Override
+        public void publishEvent(final Object event) {
+            this.events.add((SeedingSpeedsHasChangedEvent) event);
+        }
+
+        private SeedingSpeedsHasChangedEvent last() {
+            return this.events.get(this.events.size() - 1);
+        }
+    }
+
+}
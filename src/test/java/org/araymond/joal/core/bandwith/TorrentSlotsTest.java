@@ -0,0 +1,53 @@
+package org.araymond.joal.core.bandwith;
+
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TorrentSlotsTest {
+
+    @Test
+    public void shouldGiveDenseSlotsAndKeepSlotOfAlreadyRegisteredTorrent() {
+        final TorrentSlots slots = new TorrentSlots();
+        final InfoHash first = new InfoHash(new byte[]{1});
+        final InfoHash second = new InfoHash(new byte[]{2});
+
+        assertThat(slots.register(first)).isEqualTo(0);
+        assertThat(slots.register(second)).isEqualTo(1);
+        assertThat(slots.register(first)).isEqualTo(0);
+        assertThat(slots.size()).isEqualTo(2);
+        assertThat(slots.capacity()).isEqualTo(2);
+        assertThat(slots.infoHashAt(1)).isEqualTo(second);
+    }
+
+    @Test
+    public void shouldRecycleSlotOfUnregisteredTorrent() {
+        final TorrentSlots slots = new TorrentSlots();
+        final InfoHash first = new InfoHash(new byte[]{1});
+        final InfoHash second = new InfoHash(new byte[]{2});
+        final InfoHash third = new InfoHash(new byte[]{3});
+        slots.register(first);
+        slots.register(second);
+
+        assertThat(slots.unregister(first)).isEqualTo(0);
+        assertThat(slots.slotOf(first)).isEqualTo(-1);
+        assertThat(slots.infoHashAt(0)).isNull();
+        assertThat(slots.unregister(first)).isEqualTo(-1);
+
+        assertThat(slots.register(third)).isEqualTo(0);
+        assertThat(slots.capacity()).isEqualTo(2);
+        assertThat(slots.infoHashAt(0)).isEqualTo(third);
+    }
+
+    @Test
+    public void shouldGrowBeyondInitialCapacity() {
+        final TorrentSlots slots = new TorrentSlots();
+        for (int i = 0; i < 100; ++i) {
+            assertThat(slots.register(new InfoHash(new byte[]{(byte) i}))).isEqualTo(i);
+        }
+        assertThat(slots.slotOf(new InfoHash(new byte[]{99}))).isEqualTo(99);
+        assertThat(slots.size()).isEqualTo(100);
+    }
+
+}
@@ -0,0 +1,40 @@
+package org.araymond.joal.core.bandwith.weight;
+
+import org.araymond.joal.core.bandwith.Peers;
+import org.araymond.joal.core.config.AppConfigurationIntegrityException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CappedWeightCalculatorTest {
+
+    @Test
+    public void shouldNotBuildWithoutPositiveMaxWeight() {
+        assertThatThrownBy(() -> new CappedWeightCalculator(null))
+                .isInstanceOf(AppConfigurationIntegrityException.class)
+                .hasMessageContaining("maxWeight");
+        assertThatThrownBy(() -> new CappedWeightCalculator(0.0))
+                .isInstanceOf(AppConfigurationIntegrityException.class)
+                .hasMessageContaining("maxWeight");
+    }
+
+    @Test
+    public void shouldUsePeersAwareWeightBelowTheCap() {
+        final CappedWeightCalculator calculator = new CappedWeightCalculator(1000.0);
+        final PeersAwareWeightCalculator peersAware = new PeersAwareWeightCalculator();
+
+        assertThat(calculator.calculate(new Peers(1, 1))).isEqualTo(peersAware.calculate(new Peers(1, 1)));
+        assertThat(calculator.calculate(new Peers(30, 1))).isEqualTo(peersAware.calculate(new Peers(30, 1)));
+        assertThat(calculator.calculate(new Peers(0, 100))).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNeverGoAboveTheCap() {
+        final CappedWeightCalculator calculator = new CappedWeightCalculator(1000.0);
+
+        assertThat(calculator.calculate(new Peers(2, 100))).isEqualTo(1000.0);
+        assertThat(calculator.calculate(new Peers(150, 2000))).isEqualTo(1000.0);
+    }
+
+}
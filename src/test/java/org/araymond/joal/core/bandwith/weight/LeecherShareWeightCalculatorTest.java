@@ -0,0 +1,28 @@
+package org.araymond.joal.core.bandwith.weight;
+
+import org.araymond.joal.core.bandwith.Peers;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LeecherShareWeightCalculatorTest {
+
+    @Test
+    public void shouldWeighTorrentsByTheirNumberOfLeechers() {
+        final LeecherShareWeightCalculator calculator = new LeecherShareWeightCalculator();
+
+        assertThat(calculator.calculate(new Peers(1, 10))).isEqualTo(10);
+        assertThat(calculator.calculate(new Peers(500, 10))).isEqualTo(10);
+        assertThat(calculator.calculate(new Peers(2, 150))).isEqualTo(150);
+    }
+
+    @Test
+    public void shouldGiveZeroWeightToTorrentWithoutSeedersOrLeechers() {
+        final LeecherShareWeightCalculator calculator = new LeecherShareWeightCalculator();
+
+        assertThat(calculator.calculate(new Peers(0, 0))).isEqualTo(0);
+        assertThat(calculator.calculate(new Peers(0, 10))).isEqualTo(0);
+        assertThat(calculator.calculate(new Peers(10, 0))).isEqualTo(0);
+    }
+
+}
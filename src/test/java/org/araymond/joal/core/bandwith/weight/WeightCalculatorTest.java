@@ -0,0 +1,75 @@
+package org.araymond.joal.core.bandwith.weight;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WeightCalculatorTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void shouldComputeSameWeightsInBatchAsOneByOne() {
+        final Random random = new Random(42);
+        final int length = 1_000;
+        final int[] seeders = new int[length + 3];
+        final int[] leechers = new int[length + 3];
+        for (int i = 0; i < seeders.length; ++i) {
+            seeders[i] = random.nextInt(4) == 0 ? 0 : random.nextInt(3000);
+            leechers[i] = random.nextInt(4) == 0 ? 0 : random.nextInt(3000);
+        }
+
+        final WeightCalculator[] calculators = {
+                new PeersAwareWeightCalculator(),
+                new LeecherShareWeightCalculator(),
+                new CappedWeightCalculator(5000.0)
+        };
+        for (final WeightCalculator calculator : calculators) {
+            final double[] weights = new double[length + 3];
+            calculator.calculateAll(seeders, leechers, weights, length);
+            for (int i = 0; i < length; ++i) {
+                assertThat(weights[i]).isEqualTo(calculator.calculate(seeders[i], leechers[i]));
+            }
+            // Elements after length are left untouched
+            assertThat(weights).endsWith(0.0, 0.0, 0.0);
+        }
+    }
+
+    @Test
+    public void shouldDeserializePeersAware() throws IOException {
+        assertThat(mapper.readValue("{\"type\":\"PEERS_AWARE\"}", WeightCalculator.class))
+                .isEqualTo(new PeersAwareWeightCalculator());
+    }
+
+    @Test
+    public void shouldDeserializeLeecherShare() throws IOException {
+        assertThat(mapper.readValue("{\"type\":\"LEECHER_SHARE\"}", WeightCalculator.class))
+                .isEqualTo(new LeecherShareWeightCalculator());
+    }
+
+    @Test
+    public void shouldSerializeAndDeserializeCapped() throws IOException {
+        final WeightCalculator calculator = mapper.readValue("{\"type\":\"CAPPED\",\"maxWeight\":250.5}", WeightCalculator.class);
+        assertThat(calculator).isEqualTo(new CappedWeightCalculator(250.5));
+        assertThat(mapper.readValue(mapper.writeValueAsString(calculator), WeightCalculator.class)).isEqualTo(calculator);
+    }
+
+    @Test
+    public void shouldFailToDeserializeUnknownType() {
+        assertThatThrownBy(() -> mapper.readValue("{\"type\":\"WHATEVER\"}", WeightCalculator.class))
+                .isInstanceOf(JsonMappingException.class);
+    }
+
+    @Test
+    public void shouldFailToDeserializeCappedWithoutMaxWeight() {
+        assertThatThrownBy(() -> mapper.readValue("{\"type\":\"CAPPED\"}", WeightCalculator.class))
+                .isInstanceOf(JsonMappingException.class);
+    }
+
+}
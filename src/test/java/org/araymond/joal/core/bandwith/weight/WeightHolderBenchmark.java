@@ -0,0 +1,91 @@
+package org.araymond.joal.core.bandwith.weight;
+
+import org.araymond.joal.core.bandwith.Peers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares updating the weights of many torrents one by one ({@link WeightHolder#addOrUpdate(int, Peers)}) with the
+ * batch path ({@link WeightHolder#addOrUpdateAll(int[], int[], int[], int)}), for each {@link WeightCalculator}.
+ * <p>
+ * Not a unit test, run it manually:
+ * <pre>
+ *     mvn test-compile
+ *     java -cp "target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *         org.araymond.joal.core.bandwith.weight.WeightHolderBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WeightHolderBenchmark {
+
+    @Param({"100000"})
+    public int torrentCount;
+
+    @Param({"PeersAware", "LeecherShare", "Capped"})
+    public String calculator;
+
+    private WeightHolder holder;
+    private int[] slots;
+    private int[] seeders;
+    private int[] leechers;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        this.slots = new int[this.torrentCount];
+        this.seeders = new int[this.torrentCount];
+        this.leechers = new int[this.torrentCount];
+        for (int i = 0; i < this.torrentCount; ++i) {
+            this.slots[i] = i;
+            this.seeders[i] = random.nextInt(2000);
+            this.leechers[i] = random.nextInt(10) == 0 ? random.nextInt(500) : 0;
+        }
+        this.holder = new WeightHolder(createCalculator(this.calculator));
+    }
+
+    private static WeightCalculator createCalculator(final String name) {
+        switch (name) {
+            case "PeersAware":
+                return new PeersAwareWeightCalculator();
+            case "LeecherShare":
+                return new LeecherShareWeightCalculator();
+            case "Capped":
+                return new CappedWeightCalculator(5000.0);
+            default:
+                throw new IllegalArgumentException("Unknown calculator " + name);
+        }
+    }
+
+    @Benchmark
+    public double addOrUpdateAll() {
+        this.holder.addOrUpdateAll(this.slots, this.seeders, this.leechers, this.slots.length);
+        return this.holder.getTotalWeight();
+    }
+
+    @Benchmark
+    public double addOrUpdate() {
+        for (int i = 0; i < this.slots.length; ++i) {
+            this.holder.addOrUpdate(this.slots[i], new Peers(this.seeders[i], this.leechers[i]));
+        }
+        return this.holder.getTotalWeight();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(WeightHolderBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -14,9 +14,9 @@ public class WeightHolderTest {
     public void shouldComputeWeight() {
         final PeersAwareWeightCalculator calculator = Mockito.spy(PeersAwareWeightCalculator.class);
 
-        final WeightHolder<String> weightHolder = new WeightHolder<>(calculator);
+        final WeightHolder weightHolder = new WeightHolder(calculator);
 
-        weightHolder.addOrUpdate("a", new Peers(5, 10));
+        weightHolder.addOrUpdate(0, new Peers(5, 10));
         Mockito.verify(calculator, Mockito.times(1)).calculate(eq(new Peers(5, 10)));
     }
 
@@ -27,10 +27,10 @@ public class WeightHolderTest {
                 .doReturn(22.0)
                 .when(calculator).calculate(any());
 
-        final WeightHolder<String> weightHolder = new WeightHolder<>(calculator);
+        final WeightHolder weightHolder = new WeightHolder(calculator);
 
-        weightHolder.addOrUpdate("a", new Peers(10, 10));
-        assertThat(weightHolder.getWeightFor("a")).isEqualTo(22.0);
+        weightHolder.addOrUpdate(0, new Peers(10, 10));
+        assertThat(weightHolder.getWeightFor(0)).isEqualTo(22.0);
     }
 
     @Test
@@ -42,15 +42,15 @@ public class WeightHolderTest {
                 .doReturn(90.0)
                 .when(calculator).calculate(any());
 
-        final WeightHolder<String> weightHolder = new WeightHolder<>(calculator);
+        final WeightHolder weightHolder = new WeightHolder(calculator);
 
-        weightHolder.addOrUpdate("a", new Peers(10, 10));
+        weightHolder.addOrUpdate(0, new Peers(10, 10));
         assertThat(weightHolder.getTotalWeight()).isEqualTo(22.0);
-        weightHolder.addOrUpdate("b", new Peers(10, 10));
+        weightHolder.addOrUpdate(1, new Peers(10, 10));
         assertThat(weightHolder.getTotalWeight()).isEqualTo(77.3);
-        weightHolder.addOrUpdate("b", new Peers(20, 20));
+        weightHolder.addOrUpdate(1, new Peers(20, 20));
         assertThat(weightHolder.getTotalWeight()).isEqualTo(112.0);
-        weightHolder.remove("a");
+        weightHolder.remove(0);
         assertThat(weightHolder.getTotalWeight()).isEqualTo(90.0);
     }
 
@@ -58,9 +58,30 @@ public class WeightHolderTest {
     public void shouldProvideZeroWeightForNonExistingTorrent() {
         final PeersAwareWeightCalculator calculator = Mockito.mock(PeersAwareWeightCalculator.class);
 
-        final WeightHolder<String> weightHolder = new WeightHolder<>(calculator);
+        final WeightHolder weightHolder = new WeightHolder(calculator);
 
-        assertThat(weightHolder.getWeightFor("q")).isEqualTo(0.0);
+        assertThat(weightHolder.getWeightFor(7)).isEqualTo(0.0);
+    }
+
+    @Test
+    public void shouldUpdateManyTorrentsAtOnceLikeOneByOne() {
+        final WeightHolder oneByOne = new WeightHolder(new PeersAwareWeightCalculator());
+        final WeightHolder batch = new WeightHolder(new PeersAwareWeightCalculator());
+        oneByOne.addOrUpdate(3, new Peers(1, 1));
+        batch.addOrUpdate(3, new Peers(1, 1));
+
+        final int[] slots = {40, 3, 0, 99};
+        final int[] seeders = {10, 2, 0, 30};
+        final int[] leechers = {10, 100, 5, 1};
+        for (int i = 0; i < slots.length; ++i) {
+            oneByOne.addOrUpdate(slots[i], new Peers(seeders[i], leechers[i]));
+        }
+        batch.addOrUpdateAll(slots, seeders, leechers, slots.length);
+
+        assertThat(batch.getTotalWeight()).isEqualTo(oneByOne.getTotalWeight());
+        for (final int slot : slots) {
+            assertThat(batch.getWeightFor(slot)).isEqualTo(oneByOne.getWeightFor(slot));
+        }
     }
 
 }
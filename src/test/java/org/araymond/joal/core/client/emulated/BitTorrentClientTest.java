@@ -30,8 +30,10 @@ import java.util.*;
 
 import static java.lang.System.getProperty;
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 
 /**
  * Created by raymo on 26/04/2017.
@@ -108,6 +110,21 @@ public class BitTorrentClientTest {
                 .isEqualToIgnoringCase("numwant=50");
     }
 
+    @Test
+    public void shouldCreateScrapeQueryWithAllInfoHashes() {
+        final BitTorrentClient client = new BitTorrentClient(
+                defaultPeerIdGenerator,
+                defaultKeyGenerator,
+                new UrlEncoder("[A-Za-z0-9]", Casing.LOWER),
+                "info_hash={infohash}",
+                Collections.emptyList(),
+                new NumwantProvider(10, 50)
+        );
+
+        assertThat(client.createScrapeQuery(Arrays.asList(new InfoHash(new byte[]{0x01, 'a'}), new InfoHash(new byte[]{(byte) 0xff}))))
+                .isEqualToIgnoringCase("info_hash=%01a&info_hash=%ff");
+    }
+
     @Test
     public void shouldReplaceIpv4AndIpv6() {
         final TorrentSeedStats stats = TorrentSeedStatsTest.createOne();
@@ -173,21 +190,17 @@ public class BitTorrentClientTest {
     }
 
     @Test
-    public void shouldFailIfPlaceHoldersRemainsInURL() {
-        final ConnectionHandler connectionHandler = ConnectionHandlerTest.createMockedIpv4(12345);
-        final TorrentSeedStats stats = TorrentSeedStatsTest.createOne();
-
-        final BitTorrentClient client = new BitTorrentClient(
+    public void shouldFailToBuildIfQueryContainsUnknownPlaceHolder() {
+        assertThatThrownBy(() -> new BitTorrentClient(
                 defaultPeerIdGenerator,
                 defaultKeyGenerator,
                 defaultUrlEncoder,
                 "nop={wtfIsThisPlaceHolder}",
                 Collections.emptyList(),
                 defaultNumwantProvider
-        );
-
-        assertThatThrownBy(() -> client.createRequestQuery(RequestEvent.STARTED, new InfoHash("a".getBytes()), stats, connectionHandler))
-                .isInstanceOf(UnrecognizedClientPlaceholder.class);
+        ))
+                .isInstanceOf(UnrecognizedClientPlaceholder.class)
+                .hasMessageContaining("{wtfIsThisPlaceHolder}");
     }
 
     @Test
@@ -306,14 +319,13 @@ public class BitTorrentClientTest {
     }
 
     @Test
-    public void shouldFailsIfHeadersContainsRemainingPlaceHolder() {
+    public void shouldFailToBuildIfHeadersContainsUnknownPlaceHolder() {
         final List<HttpHeader> headers = new ArrayList<>();
         headers.add(new HttpHeader("qmqm", "{aohdksdf}"));
 
-        final BitTorrentClient client = new BitTorrentClient(defaultPeerIdGenerator, defaultKeyGenerator, defaultUrlEncoder, "myqueryString", headers, defaultNumwantProvider);
-
-        assertThatThrownBy(client::createRequestHeaders)
-                .isInstanceOf(UnrecognizedClientPlaceholder.class);
+        assertThatThrownBy(() -> new BitTorrentClient(defaultPeerIdGenerator, defaultKeyGenerator, defaultUrlEncoder, "myqueryString", headers, defaultNumwantProvider))
+                .isInstanceOf(UnrecognizedClientPlaceholder.class)
+                .hasMessageContaining("{aohdksdf}");
     }
 
     @Test
@@ -419,6 +431,73 @@ public class BitTorrentClientTest {
                 });
     }
 
+    /**
+     * The former regex based rendering, kept to make sure the precompiled templates render the same queries.
+     */
+    private static String renderWithRegex(final String query, final RequestEvent event, final String infoHash, final String peerId, final String key, final TorrentSeedStats stats, final ConnectionHandler connectionHandler, final int numwant) {
+        String result = query
+                .replaceAll("\\{infohash}", infoHash)
+                .replaceAll("\\{uploaded}", String.valueOf(stats.getUploaded()))
+                .replaceAll("\\{downloaded}", String.valueOf(stats.getDownloaded()))
+                .replaceAll("\\{left}", String.valueOf(stats.getLeft()))
+                .replaceAll("\\{port}", String.valueOf(connectionHandler.getPort()))
+                .replaceAll("\\{numwant}", String.valueOf(numwant))
+                .replaceAll("\\{peerid}", peerId)
+                .replaceAll("\\{ip}", connectionHandler.getIpAddress().getHostAddress())
+                .replaceAll("[&]*[a-zA-Z0-9]+=\\{ipv6}", "")
+                .replaceAll("\\{key}", key);
+        result = event == RequestEvent.NONE
+                ? result.replaceAll("([&]*[a-zA-Z0-9]+=\\{event})", "")
+                : result.replaceAll("\\{event}", event.getEventName());
+        if (result.endsWith("&")) {
+            result = result.substring(0, result.length() - 1);
+        }
+        if (result.startsWith("&")) {
+            result = result.substring(1);
+        }
+        return result.replaceAll("&{2,}", "&");
+    }
+
+    @Test
+    public void shouldRenderSameQueriesAsRegexReplacementForAllClientFiles() {
+        final BitTorrentClientProvider provider = new BitTorrentClientProvider(mock(JoalConfigProvider.class), mock(ObjectMapper.class), mock(SeedManager.JoalFoldersPath.class));
+        final ConnectionHandler connHandler = ConnectionHandlerTest.createMockedIpv4(1111);
+        final TorrentSeedStats stats = TorrentSeedStatsTest.createOne();
+        final InfoHash infoHash = new InfoHash(new byte[]{0x01, (byte) 0xab, 'c', '&', '%', ' '});
+        FileUtils.listFiles(clientsPath.toFile(), TrueFileFilter.TRUE, null)
+                .forEach(file -> {
+                    try {
+                        final BitTorrentClientConfig clientConfig = mapper.readValue(file, BitTorrentClientConfig.class);
+                        // key and peer id may be refreshed on each call, pin them
+                        final BitTorrentClient client = spy(provider.createClient(clientConfig));
+                        final UrlEncoder urlEncoder = clientConfig.getUrlEncoder();
+                        final String peerId = client.getPeerId(infoHash, RequestEvent.STARTED);
+                        doReturn(peerId).when(client).getPeerId(any(), any());
+                        doReturn(Optional.of("k3Y ")).when(client).getKey(any(), any());
+                        final String key = clientConfig.getKeyGenerator() == null ? "" : urlEncoder.encode("k3Y ");
+
+                        for (final RequestEvent event : RequestEvent.values()) {
+                            final String expected = renderWithRegex(
+                                    clientConfig.getQuery(),
+                                    event,
+                                    urlEncoder.encode(infoHash.value()),
+                                    clientConfig.getPeerIdGenerator().isShouldUrlEncode() ? urlEncoder.encode(peerId) : peerId,
+                                    key,
+                                    stats,
+                                    connHandler,
+                                    client.getNumwant(event)
+                            );
+
+                            assertThat(client.createRequestQuery(event, infoHash, stats, connHandler))
+                                    .as("%s for %s", file.getName(), event)
+                                    .isEqualTo(expected);
+                        }
+                    } catch (final Exception e) {
+                        fail("Exception for client file [" + file.getName() + "]", e);
+                    }
+                });
+    }
+
     @Test
     public void shouldBeDeserializable() {
         BitTorrentClientProvider provider = new BitTorrentClientProvider(mock(JoalConfigProvider.class), mock(ObjectMapper.class), mock(SeedManager.JoalFoldersPath.class));
@@ -0,0 +1,102 @@
+package org.araymond.joal.core.client.emulated;
+
+import org.araymond.joal.core.exception.UnrecognizedClientPlaceholder;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+public class PlaceholderTemplateTest {
+
+    private enum Placeholder {
+        NAME, VALUE, OPTIONAL
+    }
+
+    private static PlaceholderTemplate<Placeholder> compile(final String template) {
+        return PlaceholderTemplate.compile(template, Placeholder.class, EnumSet.of(Placeholder.OPTIONAL), "test");
+    }
+
+    private static String render(final PlaceholderTemplate<Placeholder> template, final String optional) {
+        return template.render(placeholder -> {
+            switch (placeholder) {
+                case NAME: return "joal";
+                case VALUE: return "42";
+                default: return optional;
+            }
+        });
+    }
+
+    @Test
+    public void shouldRenderLiteralsAndPlaceholders() {
+        final PlaceholderTemplate<Placeholder> template = compile("a={name}&b={value}&c=3&d={name}");
+
+        assertThat(render(template, null)).isEqualTo("a=joal&b=42&c=3&d=joal");
+        assertThat(template.getPlaceholders()).containsOnly(Placeholder.NAME, Placeholder.VALUE);
+    }
+
+    @Test
+    public void shouldRenderTemplateWithoutPlaceholders() {
+        assertThat(render(compile("keep-alive"), null)).isEqualTo("keep-alive");
+        assertThat(render(compile(""), null)).isEqualTo("");
+    }
+
+    @Test
+    public void shouldResolveEachPlaceholderOnce() {
+        final Map<Placeholder, Integer> calls = new EnumMap<>(Placeholder.class);
+
+        compile("{name}{name}&x={value}&y={name}").render(placeholder -> {
+            calls.merge(placeholder, 1, Integer::sum);
+            return "v";
+        });
+
+        assertThat(calls).containsOnly(
+                entry(Placeholder.NAME, 1),
+                entry(Placeholder.VALUE, 1)
+        );
+    }
+
+    @Test
+    public void shouldLeaveOutParameterOfNullOmittablePlaceholder() {
+        assertThat(render(compile("a={name}&opt={optional}&b={value}"), null)).isEqualTo("a=joal&b=42");
+        assertThat(render(compile("a={name}&opt={optional}"), null)).isEqualTo("a=joal");
+        assertThat(render(compile("opt={optional}&a={name}"), null)).isEqualTo("a=joal");
+        assertThat(render(compile("opt={optional}&opt2={optional}&a={name}"), null)).isEqualTo("a=joal");
+        assertThat(render(compile("a={name}&opt={optional}"), "yes")).isEqualTo("a=joal&opt=yes");
+        assertThat(render(compile("opt={optional}&a={name}"), "yes")).isEqualTo("opt=yes&a=joal");
+    }
+
+    @Test
+    public void shouldFailToCompileWithUnknownPlaceholder() {
+        assertThatThrownBy(() -> compile("a={name}&b={nope}"))
+                .isInstanceOf(UnrecognizedClientPlaceholder.class)
+                .hasMessageContaining("{nope}");
+        assertThatThrownBy(() -> compile("a={NAME}"))
+                .isInstanceOf(UnrecognizedClientPlaceholder.class);
+        assertThatThrownBy(() -> compile("a={}"))
+                .isInstanceOf(UnrecognizedClientPlaceholder.class);
+    }
+
+    @Test
+    public void shouldIgnoreUnclosedBrace() {
+        assertThat(render(compile("a={name}&b={"), null)).isEqualTo("a=joal&b={");
+    }
+
+    @Test
+    public void shouldFailToCompileIfOmittablePlaceholderIsNotAParameterValue() {
+        assertThatThrownBy(() -> compile("a={name}{optional}"))
+                .isInstanceOf(TorrentClientConfigIntegrityException.class);
+        assertThatThrownBy(() -> compile("a={name}&={optional}"))
+                .isInstanceOf(TorrentClientConfigIntegrityException.class);
+    }
+
+    @Test
+    public void shouldFailToRenderIfMandatoryPlaceholderResolvesToNull() {
+        assertThatThrownBy(() -> compile("a={name}").render(placeholder -> null))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
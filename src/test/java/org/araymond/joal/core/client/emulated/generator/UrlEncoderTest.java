@@ -1,8 +1,17 @@
 package org.araymond.joal.core.client.emulated.generator;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.araymond.joal.core.client.emulated.BitTorrentClientConfig;
 import org.araymond.joal.core.client.emulated.utils.Casing;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.regex.Pattern;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class UrlEncoderTest {
@@ -76,4 +85,59 @@ public class UrlEncoderTest {
         assertThat(urlEncoder.encode(nonEncoded)).isEqualTo("%A2%11%F3");
     }
 
+    /**
+     * The former per char regex and String.format encoding, the table driven one must give the exact same output.
+     */
+    private static String encodeWithRegex(final UrlEncoder urlEncoder, final char character) {
+        if (Pattern.compile(urlEncoder.getEncodingExclusionPattern()).matcher(String.valueOf(character)).matches()) {
+            return String.valueOf(character);
+        }
+        final String hex = character == 0 ? "%00" : String.format("%%%02x", (int) character);
+        return urlEncoder.getEncodedHexCase().toCase(hex);
+    }
+
+    @Test
+    public void shouldEncodeAllByteValuesLikeRegexEncoderForAllClientFiles() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final Collection<File> clientFiles = FileUtils.listFiles(Paths.get("resources/clients").toFile(), new String[]{"client"}, false);
+        assertThat(clientFiles).isNotEmpty();
+
+        for (final File clientFile : clientFiles) {
+            final UrlEncoder urlEncoder = mapper.readValue(clientFile, BitTorrentClientConfig.class).getUrlEncoder();
+
+            final StringBuilder allChars = new StringBuilder();
+            final StringBuilder expected = new StringBuilder();
+            final byte[] allBytes = new byte[256];
+            for (int i = 0; i < 256; ++i) {
+                final char character = (char) i;
+                assertThat(urlEncoder.urlEncodeChar(character))
+                        .as("char 0x%02x for %s", i, clientFile.getName())
+                        .isEqualTo(encodeWithRegex(urlEncoder, character));
+                allChars.append(character);
+                expected.append(encodeWithRegex(urlEncoder, character));
+                allBytes[i] = (byte) i;
+            }
+
+            assertThat(urlEncoder.encode(allChars.toString())).as(clientFile.getName()).isEqualTo(expected.toString());
+            final StringBuilder fromBytes = new StringBuilder("prefix=");
+            urlEncoder.encodeTo(fromBytes, allBytes);
+            assertThat(fromBytes.toString()).as(clientFile.getName()).isEqualTo("prefix=" + expected);
+        }
+    }
+
+    @Test
+    public void shouldEncodeCharsAboveByteRangeLikeRegexEncoder() {
+        for (final UrlEncoder urlEncoder : new UrlEncoder[]{new UrlEncoder("[a-zA-Z0-9]", Casing.UPPER), new UrlEncoder(".*", Casing.LOWER)}) {
+            for (final char character : new char[]{(char) 0x100, (char) 0x2028, (char) 0xe9e9, (char) 0xffff}) {
+                assertThat(urlEncoder.urlEncodeChar(character)).isEqualTo(encodeWithRegex(urlEncoder, character));
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotSerializeLookupTables() throws IOException {
+        final String json = new ObjectMapper().writeValueAsString(new UrlEncoder("[a-zA-Z0-9]", Casing.LOWER));
+
+        assertThat(json).doesNotContain("excludedChars").doesNotContain("hexDigits");
+    }
 }
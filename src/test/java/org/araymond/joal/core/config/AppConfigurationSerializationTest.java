@@ -3,6 +3,8 @@ package org.araymond.joal.core.config;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.araymond.joal.core.bandwith.weight.CappedWeightCalculator;
+import org.araymond.joal.core.ttorrent.client.rampup.LinearRampUp;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
@@ -95,4 +97,33 @@ public class AppConfigurationSerializationTest {
         assertThat(config.getClient()).isEqualTo("azureus.client");
     }
 
+
+    @Test
+    public void shouldDeserializeWithAnnounceRampUp() throws IOException {
+        final AppConfiguration config = mapper.readValue(
+                "{\"minUploadRate\":180,\"maxUploadRate\":190,\"simultaneousSeed\":2,\"client\":\"azureus.client\",\"keepTorrentWithZeroLeechers\":false,\"announceRampUp\":{\"type\":\"LINEAR\",\"stepMs\":250}}",
+                AppConfiguration.class
+        );
+        assertThat(config.getAnnounceRampUp()).isInstanceOf(LinearRampUp.class);
+        assertThat(((LinearRampUp) config.getAnnounceRampUp()).getStepMs()).isEqualTo(250);
+    }
+
+    @Test
+    public void shouldSerializeAndDeserializeWithAnnounceRampUp() throws IOException {
+        final AppConfiguration config = mapper.readValue(
+                "{\"minUploadRate\":180,\"maxUploadRate\":190,\"simultaneousSeed\":2,\"client\":\"azureus.client\",\"keepTorrentWithZeroLeechers\":false,\"announceRampUp\":{\"type\":\"WINDOW\",\"windowSeconds\":60,\"jitterPercent\":20,\"maxRegularAnnouncesPerSecond\":5}}",
+                AppConfiguration.class
+        );
+        assertThat(mapper.readValue(mapper.writeValueAsString(config), AppConfiguration.class)).isEqualTo(config);
+    }
+
+    @Test
+    public void shouldSerializeAndDeserializeWithWeightCalculator() throws IOException {
+        final AppConfiguration config = mapper.readValue(
+                "{\"minUploadRate\":180,\"maxUploadRate\":190,\"simultaneousSeed\":2,\"client\":\"azureus.client\",\"keepTorrentWithZeroLeechers\":false,\"weightCalculator\":{\"type\":\"CAPPED\",\"maxWeight\":500.0}}",
+                AppConfiguration.class
+        );
+        assertThat(config.getWeightCalculator()).isEqualTo(new CappedWeightCalculator(500.0));
+        assertThat(mapper.readValue(mapper.writeValueAsString(config), AppConfiguration.class)).isEqualTo(config);
+    }
 }
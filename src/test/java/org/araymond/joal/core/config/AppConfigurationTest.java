@@ -93,6 +93,13 @@ public class AppConfigurationTest {
                 .hasMessageContaining("client is required, no file name given.");
     }
 
+    @Test
+    public void shouldNotBuildIfSpeedEventsWindowIsNegative() {
+        assertThatThrownBy(() -> new AppConfiguration(180L, 190L, 2, "azureus.client", false, null, null, -1))
+                .isInstanceOf(AppConfigurationIntegrityException.class)
+                .hasMessageContaining("speedEventsWindowMs must be at least 0.");
+    }
+
     @Test
     public void shouldBuild() {
         final AppConfiguration config = new AppConfiguration(180L, 190L, 2, "azureus.client", false);
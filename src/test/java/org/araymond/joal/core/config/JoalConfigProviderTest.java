@@ -3,7 +3,9 @@ package org.araymond.joal.core.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.araymond.joal.core.SeedManager;
+import org.araymond.joal.core.bandwith.weight.LeecherShareWeightCalculator;
 import org.araymond.joal.core.events.config.ConfigHasBeenLoadedEvent;
+import org.araymond.joal.core.ttorrent.client.rampup.AnnounceRampUp;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
@@ -13,6 +15,7 @@ import javax.inject.Provider;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Comparator;
@@ -117,4 +120,42 @@ public class JoalConfigProviderTest {
         }
     }
 
+    @Test
+    public void shouldKeepAnnounceRampUpWhenNewConfigurationDoesNotDefineOne() throws IOException {
+        final String json = "{\"minUploadRate\":180,\"maxUploadRate\":190,\"simultaneousSeed\":2,\"client\":\"azureus.client\",\"keepTorrentWithZeroLeechers\":false,\"announceRampUp\":{\"type\":\"LINEAR\",\"stepMs\":250}}";
+        Files.write(rewritableJoalFoldersPath.getConfPath().resolve("config.json"), json.getBytes(StandardCharsets.UTF_8));
+        try {
+            final JoalConfigProvider provider = new JoalConfigProvider(new ObjectMapper(), rewritableJoalFoldersPath, Mockito.mock(ApplicationEventPublisher.class));
+            provider.init();
+            final AnnounceRampUp rampUp = provider.get().getAnnounceRampUp();
+
+            provider.saveNewConf(new AppConfiguration(10L, 20L, 3, "azureus.client", true));
+
+            final AppConfiguration saved = provider.loadConfiguration();
+            assertThat(saved.getMinUploadRate()).isEqualTo(10L);
+            assertThat(saved.getAnnounceRampUp()).isNotNull().isEqualTo(rampUp);
+        } finally {
+            Files.deleteIfExists(rewritableJoalFoldersPath.getConfPath().resolve("config.json"));
+        }
+    }
+
+    @Test
+    public void shouldKeepWeightCalculatorWhenNewConfigurationDoesNotDefineOne() throws IOException {
+        final String json = "{\"minUploadRate\":180,\"maxUploadRate\":190,\"simultaneousSeed\":2,\"client\":\"azureus.client\",\"keepTorrentWithZeroLeechers\":false,\"weightCalculator\":{\"type\":\"LEECHER_SHARE\"}}";
+        Files.write(rewritableJoalFoldersPath.getConfPath().resolve("config.json"), json.getBytes(StandardCharsets.UTF_8));
+        try {
+            final JoalConfigProvider provider = new JoalConfigProvider(new ObjectMapper(), rewritableJoalFoldersPath, Mockito.mock(ApplicationEventPublisher.class));
+            provider.init();
+
+            provider.saveNewConf(new AppConfiguration(10L, 20L, 3, "azureus.client", true));
+
+            final AppConfiguration saved = provider.loadConfiguration();
+            assertThat(saved.getMinUploadRate()).isEqualTo(10L);
+            assertThat(saved.getAnnounceRampUp()).isNull();
+            assertThat(saved.getWeightCalculator()).isEqualTo(new LeecherShareWeightCalculator());
+        } finally {
+            Files.deleteIfExists(rewritableJoalFoldersPath.getConfPath().resolve("config.json"));
+        }
+    }
+
 }
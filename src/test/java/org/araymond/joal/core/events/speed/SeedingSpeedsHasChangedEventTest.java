@@ -4,6 +4,7 @@ import org.araymond.joal.core.bandwith.Speed;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -17,6 +18,22 @@ public class SeedingSpeedsHasChangedEventTest {
         final SeedingSpeedsHasChangedEvent event = new SeedingSpeedsHasChangedEvent(speeds);
 
         assertThat(event.getSpeeds()).isEqualTo(speeds);
+        assertThat(event.getRemovedTorrents()).isEmpty();
+        assertThat(event.isKeyframe()).isTrue();
+    }
+
+    @Test
+    public void shouldBuildDelta() {
+        final InfoHash changed = new InfoHash(new byte[]{1});
+        final InfoHash removed = new InfoHash(new byte[]{2});
+        final SeedingSpeedsHasChangedEvent event = new SeedingSpeedsHasChangedEvent(
+                Collections.singletonMap(changed, new Speed(10)),
+                Collections.singleton(removed)
+        );
+
+        assertThat(event.getSpeeds()).containsOnlyKeys(changed);
+        assertThat(event.getRemovedTorrents()).containsOnly(removed);
+        assertThat(event.isKeyframe()).isFalse();
     }
 
 }
@@ -0,0 +1,32 @@
+package org.araymond.joal.core.events.torrent.files;
+
+import com.google.common.collect.Lists;
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+public class TorrentFilesAddedEventTest {
+
+    @Test
+    public void shouldNotBuildWithNullList() {
+        assertThatThrownBy(() -> new TorrentFilesAddedEvent(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("List of MockedTorrent cannot be null.");
+    }
+
+    @Test
+    public void shouldBuildWithACopyOfTheList() {
+        final MockedTorrent torrent = mock(MockedTorrent.class);
+        final List<MockedTorrent> torrents = Lists.newArrayList(torrent);
+        final TorrentFilesAddedEvent event = new TorrentFilesAddedEvent(torrents);
+        torrents.add(mock(MockedTorrent.class));
+
+        assertThat(event.getTorrents()).containsExactly(torrent);
+    }
+
+}
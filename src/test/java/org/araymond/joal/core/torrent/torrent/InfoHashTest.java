@@ -1,5 +1,7 @@
 package org.araymond.joal.core.torrent.torrent;
 
+import org.araymond.joal.core.client.emulated.generator.UrlEncoder;
+import org.araymond.joal.core.client.emulated.utils.Casing;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -39,4 +41,52 @@ public class InfoHashTest {
         assertThat(infoHash.getHumanReadable()).isEqualTo("abcc");
     }
 
+    @Test
+    public void shouldNotBeAffectedByChangesOfSourceOrReturnedBytes() {
+        final byte[] bytes = "abcd".getBytes();
+        final InfoHash infoHash = new InfoHash(bytes);
+
+        bytes[0] = 'z';
+        infoHash.getBytes()[1] = 'z';
+
+        assertThat(infoHash.value()).isEqualTo("abcd");
+        assertThat(infoHash).isEqualTo(new InfoHash("abcd".getBytes()));
+    }
+
+    @Test
+    public void shouldProvideHexValue() {
+        final InfoHash infoHash = new InfoHash(new byte[]{0x00, (byte) 0xab, 0x10, (byte) 0xff});
+
+        assertThat(infoHash.getHex()).isEqualTo("00ab10ff");
+        assertThat(infoHash.toString()).contains("00ab10ff");
+    }
+
+    @Test
+    public void shouldKeepNonAsciiBytesInValue() {
+        final InfoHash infoHash = new InfoHash(new byte[]{'a', (byte) 0xe9, (byte) 0xff});
+
+        assertThat(infoHash.value()).isEqualTo("a\u00e9\u00ff");
+        assertThat(infoHash.getBytes()).containsExactly('a', (byte) 0xe9, (byte) 0xff);
+    }
+
+    @Test
+    public void shouldUrlEncodeWithGivenEncoder() {
+        final InfoHash infoHash = new InfoHash(new byte[]{'a', (byte) 0xe9});
+        final UrlEncoder lower = new UrlEncoder("[a-z]", Casing.LOWER);
+        final UrlEncoder upper = new UrlEncoder("[a-z]", Casing.UPPER);
+
+        assertThat(infoHash.getUrlEncoded(lower)).isEqualTo("a%e9");
+        assertThat(infoHash.getUrlEncoded(lower)).isSameAs(infoHash.getUrlEncoded(lower));
+        assertThat(infoHash.getUrlEncoded(upper)).isEqualTo("a%E9");
+        assertThat(infoHash.getUrlEncoded(lower)).isEqualTo(lower.encode(infoHash.value()));
+    }
+
+    @Test
+    public void shouldInternEqualInfoHashes() {
+        final InfoHash first = new InfoHash("interned".getBytes()).intern();
+        final InfoHash second = new InfoHash("interned".getBytes()).intern();
+
+        assertThat(second).isSameAs(first);
+        assertThat(new InfoHash("other".getBytes()).intern()).isNotSameAs(first);
+    }
 }
@@ -0,0 +1,109 @@
+package org.araymond.joal.core.torrent.torrent;
+
+import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
+import com.turn.ttorrent.bcodec.InvalidBEncodingException;
+import org.araymond.joal.core.utils.TorrentFileCreator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MetaInfoReaderTest {
+
+    private static final String PIECES = "6:pieces20:" + Strings.repeat("x", 20);
+
+    private static ByteBuffer buffer(final String value) {
+        return ByteBuffer.wrap(value.getBytes(MockedTorrent.BYTE_ENCODING));
+    }
+
+    @SuppressWarnings("deprecation")
+    private static byte[] sha1(final String value) {
+        return Hashing.sha1().hashBytes(value.getBytes(MockedTorrent.BYTE_ENCODING)).asBytes();
+    }
+
+    @Test
+    public void shouldHashInfoDictionaryAsWrittenInFile() throws IOException, NoSuchAlgorithmException {
+        // keys are not sorted: re-encoding the decoded dictionary would give another hash
+        final String info = "d4:name4:test6:lengthi16e12:piece lengthi16e" + PIECES + "e";
+
+        final MockedTorrent torrent = MetaInfoReader.read(buffer("d4:info" + info + "e"));
+
+        assertThat(torrent.getTorrentInfoHash()).isEqualTo(new InfoHash(sha1(info)));
+        assertThat(torrent.getName()).isEqualTo("test");
+        assertThat(torrent.getSize()).isEqualTo(16);
+    }
+
+    @Test
+    public void shouldSkipUnusedFieldsAtAnyDepth() throws IOException, NoSuchAlgorithmException {
+        final String info = "d5:filesld6:lengthi10e4:pathl1:aeed6:lengthi6e4:pathl1:b5:extraee"
+                + "e4:name4:test12:piece lengthi16e" + PIECES + "7:privatei1ee";
+
+        final MockedTorrent torrent = MetaInfoReader.read(buffer("d7:comment3:abc13:creation datei-12e4:info" + info
+                + "8:url-listl4:http5:httpse13:announce-listll16:http://localhost16:http://127.0.0.1eee"));
+
+        assertThat(torrent.getTorrentInfoHash()).isEqualTo(new InfoHash(sha1(info)));
+        assertThat(torrent.getSize()).isEqualTo(16);
+        assertThat(torrent.getAnnounceList()).containsExactly(
+                Arrays.asList(URI.create("http://localhost"), URI.create("http://127.0.0.1"))
+        );
+    }
+
+    @Test
+    public void shouldReadFromBufferPosition() throws IOException, NoSuchAlgorithmException {
+        final String info = "d6:lengthi16e4:name4:test12:piece lengthi16e" + PIECES + "e";
+        final ByteBuffer buffer = buffer("garbaged8:announce16:http://localhost4:info" + info + "e");
+        buffer.position("garbage".length());
+
+        final MockedTorrent torrent = MetaInfoReader.read(buffer);
+
+        assertThat(torrent.getTorrentInfoHash()).isEqualTo(new InfoHash(sha1(info)));
+        assertThat(torrent.getAnnounceList()).containsExactly(Collections.singletonList(URI.create("http://localhost")));
+    }
+
+    @Test
+    public void shouldFailToReadMalformedData() {
+        final String torrent = "d4:infod6:lengthi16e4:name4:test12:piece lengthi16e" + PIECES + "ee";
+        for (int length = 1; length < torrent.length(); ++length) {
+            final String truncated = torrent.substring(0, length);
+            assertThatThrownBy(() -> MetaInfoReader.read(buffer(truncated))).isInstanceOf(InvalidBEncodingException.class);
+        }
+        assertThatThrownBy(() -> MetaInfoReader.read(buffer("d4:infod6:lengthi1x6e4:name4:test12:piece lengthi16e" + PIECES + "ee")))
+                .isInstanceOf(InvalidBEncodingException.class);
+        assertThatThrownBy(() -> MetaInfoReader.read(buffer("d4:infod6:lengthi16e4:name4:test6:pieces99999:xee")))
+                .isInstanceOf(InvalidBEncodingException.class);
+        assertThatThrownBy(() -> MetaInfoReader.read(buffer("le")))
+                .isInstanceOf(InvalidBEncodingException.class);
+    }
+
+    @Test
+    public void shouldReadSameTorrentFromLargeFileAndReleaseIt(@TempDir final Path tempDir) throws IOException, NoSuchAlgorithmException {
+        final Path source = TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.UBUNTU);
+        final byte[] bytes = Files.readAllBytes(source);
+        // trailing data past the root dictionary is ignored
+        final byte[] padded = Arrays.copyOf(bytes, bytes.length + 512 * 1024);
+        final Path large = Files.write(tempDir.resolve("large.torrent"), padded);
+
+        final MockedTorrent expected = MockedTorrent.fromBytes(bytes);
+        final MockedTorrent read = MockedTorrent.fromFile(large.toFile());
+
+        assertThat(read.getTorrentInfoHash()).isSameAs(expected.getTorrentInfoHash());
+        assertThat(read.getName()).isEqualTo(expected.getName());
+        assertThat(read.getSize()).isEqualTo(expected.getSize());
+        assertThat(read.getAnnounceList()).isEqualTo(expected.getAnnounceList());
+        // Uploads are parsed from a temporary file, then renamed
+        Files.move(large, tempDir.resolve("renamed.torrent"), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
@@ -1,16 +1,21 @@
 package org.araymond.joal.core.torrent.torrent;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.turn.ttorrent.common.Torrent;
 import org.araymond.joal.core.utils.TorrentFileCreator;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 
@@ -24,16 +29,13 @@ public class MockedTorrentTest {
     public static MockedTorrent createOneMock(final String infoHash) {
         final MockedTorrent torrent = mock(MockedTorrent.class);
         doReturn(new InfoHash(infoHash.getBytes())).when(torrent).getTorrentInfoHash();
-        doReturn(infoHash.getBytes()).when(torrent).getInfoHash();
 
         final List<List<URI>> uris = Lists.newArrayList();
         uris.add(Lists.newArrayList(URI.create("http://localhost"), URI.create("https://localhost")));
         uris.add(Lists.newArrayList(URI.create("http://127.0.0.1"), URI.create("https://127.0.0.1")));
         doReturn(uris).when(torrent).getAnnounceList();
-        doReturn(Torrent.byteArrayToHexString(infoHash.getBytes())).when(torrent).getHexInfoHash();
         doReturn("generic torrent").when(torrent).getName();
         doReturn(1234567L).when(torrent).getSize();
-        doReturn(2).when(torrent).getTrackerCount();
 
         return torrent;
     }
@@ -53,4 +55,50 @@ public class MockedTorrentTest {
                 .isNotEqualTo(torrent3.hashCode());
     }
 
+    @Test
+    public void shouldReadSameDescriptorAsTtorrent() throws IOException, NoSuchAlgorithmException {
+        for (final TorrentFileCreator.TorrentType type : TorrentFileCreator.TorrentType.values()) {
+            final File file = TorrentFileCreator.getTorrentPath(type).toFile();
+            final Torrent ttorrent = Torrent.load(file);
+
+            final MockedTorrent torrent = MockedTorrent.fromFile(file);
+
+            assertThat(torrent.getTorrentInfoHash()).isEqualTo(new InfoHash(ttorrent.getInfoHash()));
+            assertThat(torrent.getName()).isEqualTo(ttorrent.getName());
+            assertThat(torrent.getSize()).isEqualTo(ttorrent.getSize());
+            assertThat(torrent.getAnnounceList()).isEqualTo(ttorrent.getAnnounceList());
+        }
+    }
+
+    @Test
+    public void shouldShareInfoHashInstanceBetweenLoads() throws IOException, NoSuchAlgorithmException {
+        final File file = TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.UBUNTU).toFile();
+
+        assertThat(MockedTorrent.fromFile(file).getTorrentInfoHash()).isSameAs(MockedTorrent.fromFile(file).getTorrentInfoHash());
+    }
+
+    @Test
+    public void shouldReadMultiFileTorrentAndSingleAnnounce() throws IOException, NoSuchAlgorithmException {
+        final byte[] bytes = ("d8:announce22:http://localhost/annce4:infod5:filesl"
+                + "d6:lengthi10e4:pathl1:aee"
+                + "d6:lengthi22e4:pathl1:b1:ceee"
+                + "4:name4:test12:piece lengthi16e6:pieces40:" + Strings.repeat("x", 40) + "ee").getBytes(MockedTorrent.BYTE_ENCODING);
+
+        final MockedTorrent torrent = MockedTorrent.fromBytes(bytes);
+
+        assertThat(torrent.getName()).isEqualTo("test");
+        assertThat(torrent.getSize()).isEqualTo(32);
+        assertThat(torrent.getAnnounceList()).containsExactly(Collections.singletonList(URI.create("http://localhost/annce")));
+        assertThatThrownBy(() -> torrent.getAnnounceList().add(new ArrayList<>())).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void shouldFailToReadInvalidTorrents() {
+        assertThatThrownBy(() -> MockedTorrent.fromBytes(new byte[0])).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> MockedTorrent.fromBytes("d8:announce5:aaaaae".getBytes(MockedTorrent.BYTE_ENCODING))).isInstanceOf(IOException.class);
+        // pieces are too few for the size
+        assertThatThrownBy(() -> MockedTorrent.fromBytes(("d4:infod6:lengthi1000e4:name4:test12:piece lengthi16e6:pieces20:" + Strings.repeat("x", 20) + "ee").getBytes(MockedTorrent.BYTE_ENCODING)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
 }
+
@@ -0,0 +1,128 @@
+package org.araymond.joal.core.torrent.torrent;
+
+import com.turn.ttorrent.common.Torrent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap retained per loaded torrent, comparing the former {@link MockedTorrent} that extended ttorrent's
+ * {@link Torrent} (and kept the whole decoded meta-info) with the slim descriptor.
+ * <p>
+ * A single shot loads {@code torrentCount} torrents and keeps them, the {@code retainedBytesPerTorrent} counter is the
+ * heap still used by them once collected. JMH sums counters over iterations, hence the single measurement iteration.
+ * <p>
+ * Not a unit test, run it manually:
+ * <pre>
+ *     mvn test-compile
+ *     java -cp "target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *         org.araymond.joal.core.torrent.torrent.TorrentMemoryBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Thread)
+public class TorrentMemoryBenchmark {
+
+    @Param({"10000", "100000"})
+    public int torrentCount;
+
+    @Param({"250"})
+    public int piecesCount;
+
+    @Param({"ttorrent", "MockedTorrent"})
+    public String model;
+
+    private byte[][] torrents;
+    private List<Object> retained;
+    private long heapBefore;
+
+    @Setup(Level.Trial)
+    public void createTorrents() {
+        final Random random = new Random(42);
+        this.torrents = new byte[this.torrentCount][];
+        for (int i = 0; i < this.torrentCount; ++i) {
+            this.torrents[i] = createTorrent(random, i, this.piecesCount);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void measureHeapBefore() throws InterruptedException {
+        this.retained = null;
+        this.heapBefore = usedHeap();
+    }
+
+    @Benchmark
+    public List<Object> load() throws Exception {
+        final List<Object> loaded = new ArrayList<>(this.torrentCount);
+        for (final byte[] bytes : this.torrents) {
+            loaded.add("ttorrent".equals(this.model) ? new Torrent(bytes, true) : MockedTorrent.fromBytes(bytes));
+        }
+        this.retained = loaded;
+        return loaded;
+    }
+
+    @TearDown(Level.Iteration)
+    public void measureHeapAfter(final RetainedHeap retainedHeap) throws InterruptedException {
+        retainedHeap.retainedBytesPerTorrent = (usedHeap() - this.heapBefore) / this.retained.size();
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; ++i) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static byte[] createTorrent(final Random random, final int index, final int piecesCount) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] pieces = new byte[piecesCount * Torrent.PIECE_HASH_SIZE];
+        random.nextBytes(pieces);
+        final String name = "benchmark-torrent-" + index + ".iso";
+        final long pieceLength = 1024 * 1024;
+        write(out, "d8:announce" + "http://tracker-0.example.com/announce".length() + ":http://tracker-0.example.com/announce");
+        write(out, "13:announce-listl");
+        for (int i = 0; i < 3; ++i) {
+            final String tracker = "http://tracker-" + i + ".example.com/announce";
+            write(out, "l" + tracker.length() + ":" + tracker + "e");
+        }
+        write(out, "e7:comment14:benchmark file10:created by4:joal13:creation datei1500000000e");
+        write(out, "4:infod6:lengthi" + (piecesCount * pieceLength) + "e4:name" + name.length() + ":" + name);
+        write(out, "12:piece lengthi" + pieceLength + "e6:pieces" + pieces.length + ":");
+        out.write(pieces, 0, pieces.length);
+        write(out, "ee");
+        return out.toByteArray();
+    }
+
+    private static void write(final ByteArrayOutputStream out, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class RetainedHeap {
+        public long retainedBytesPerTorrent;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(TorrentMemoryBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,157 @@
+package org.araymond.joal.core.torrent.watcher;
+
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TorrentCatalogTest {
+
+    private static MockedTorrent torrent(final String infoHash) {
+        return new MockedTorrent(new InfoHash(infoHash.getBytes()), infoHash, 1024, Collections.emptyList());
+    }
+
+    @Test
+    public void shouldIndexByFileAndInfoHash() {
+        final TorrentCatalog catalog = new TorrentCatalog();
+        final MockedTorrent torrent = torrent("abc");
+        final MockedTorrent other = torrent("def");
+
+        assertThat(catalog.add(new File("a.torrent"), torrent)).isEmpty();
+        assertThat(catalog.add(new File("b.torrent"), other)).isEmpty();
+
+        assertThat(catalog.getFileCount()).isEqualTo(2);
+        assertThat(catalog.getTorrents()).containsExactlyInAnyOrder(torrent, other);
+        assertThat(catalog.getFiles(torrent.getTorrentInfoHash())).containsExactly(new File("a.torrent"));
+        assertThat(catalog.getFiles(new InfoHash("nope".getBytes()))).isEmpty();
+    }
+
+    @Test
+    public void shouldReplaceTorrentOfSameFile() {
+        final TorrentCatalog catalog = new TorrentCatalog();
+        final MockedTorrent torrent = torrent("abc");
+        final MockedTorrent other = torrent("def");
+        catalog.add(new File("a.torrent"), torrent);
+
+        assertThat(catalog.add(new File("a.torrent"), other)).contains(torrent);
+
+        assertThat(catalog.getFileCount()).isEqualTo(1);
+        assertThat(catalog.getTorrents()).containsExactly(other);
+        assertThat(catalog.getFiles(torrent.getTorrentInfoHash())).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepCopiesOfATorrentAsASingleTorrent() {
+        final TorrentCatalog catalog = new TorrentCatalog();
+        final MockedTorrent torrent = torrent("abc");
+        catalog.add(new File("a.torrent"), torrent);
+        catalog.add(new File("copy.torrent"), torrent);
+
+        assertThat(catalog.getFileCount()).isEqualTo(2);
+        assertThat(catalog.getTorrents()).containsExactly(torrent);
+        assertThat(catalog.getFiles(torrent.getTorrentInfoHash())).containsExactly(new File("a.torrent"), new File("copy.torrent"));
+
+        assertThat(catalog.remove(new File("a.torrent"))).contains(torrent);
+        assertThat(catalog.getTorrents()).containsExactly(torrent);
+        assertThat(catalog.remove(new File("copy.torrent"))).contains(torrent);
+        assertThat(catalog.getTorrents()).isEmpty();
+        assertThat(catalog.remove(new File("copy.torrent"))).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepArrayDenseOnRemoval() {
+        final TorrentCatalog catalog = new TorrentCatalog();
+        final List<MockedTorrent> torrents = IntStream.range(0, 50)
+                .mapToObj(i -> torrent("torrent-" + i))
+                .collect(Collectors.toList());
+        for (int i = 0; i < torrents.size(); ++i) {
+            catalog.add(new File(i + ".torrent"), torrents.get(i));
+        }
+
+        for (int i = 0; i < torrents.size(); i += 3) {
+            catalog.remove(new File(i + ".torrent"));
+        }
+
+        final List<MockedTorrent> expected = IntStream.range(0, torrents.size())
+                .filter(i -> i % 3 != 0)
+                .mapToObj(torrents::get)
+                .collect(Collectors.toList());
+        assertThat(catalog.getTorrents()).containsExactlyInAnyOrderElementsOf(expected);
+        final Set<MockedTorrent> picked = new HashSet<>();
+        for (int i = 0; i < 2000; ++i) {
+            picked.add(catalog.pickRandomNotIn(Collections.emptySet()).orElseThrow(IllegalStateException::new));
+        }
+        assertThat(picked).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    public void shouldPickOnlyWantedTorrents() {
+        final TorrentCatalog catalog = new TorrentCatalog();
+        final List<MockedTorrent> torrents = IntStream.range(0, 100)
+                .mapToObj(i -> torrent("torrent-" + i))
+                .collect(Collectors.toList());
+        for (int i = 0; i < torrents.size(); ++i) {
+            catalog.add(new File(i + ".torrent"), torrents.get(i));
+        }
+        // all but one are unwanted, random picks are most likely to fail
+        final Set<InfoHash> unwanted = torrents.subList(1, torrents.size()).stream()
+                .map(MockedTorrent::getTorrentInfoHash)
+                .collect(Collectors.toSet());
+
+        for (int i = 0; i < 50; ++i) {
+            assertThat(catalog.pickRandomNotIn(unwanted)).contains(torrents.get(0));
+        }
+        unwanted.add(torrents.get(0).getTorrentInfoHash());
+        assertThat(catalog.pickRandomNotIn(unwanted)).isEmpty();
+        assertThat(new TorrentCatalog().pickRandomNotIn(Collections.emptySet())).isEmpty();
+    }
+
+    @Test
+    public void shouldSupportConcurrentModifications() throws Exception {
+        final TorrentCatalog catalog = new TorrentCatalog();
+        final int threads = 4;
+        final int perThread = 500;
+        final List<MockedTorrent> torrents = IntStream.range(0, threads * perThread)
+                .mapToObj(i -> torrent("torrent-" + i))
+                .collect(Collectors.toList());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; ++t) {
+                final int offset = t * perThread;
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int i = offset; i < offset + perThread; ++i) {
+                        catalog.add(new File(i + ".torrent"), torrents.get(i));
+                        catalog.pickRandomNotIn(Collections.emptySet());
+                        if (i % 2 == 0) {
+                            catalog.remove(new File(i + ".torrent"));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(catalog.getFileCount()).isEqualTo(threads * perThread / 2);
+        assertThat(catalog.getTorrents()).hasSize(threads * perThread / 2);
+    }
+
+}
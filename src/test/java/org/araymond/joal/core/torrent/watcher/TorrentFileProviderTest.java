@@ -12,13 +12,21 @@ import org.mockito.Mockito;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
 
 import static java.nio.file.Files.exists;
 import static org.assertj.core.api.Assertions.*;
@@ -38,6 +46,7 @@ public class TorrentFileProviderTest {
                     .forEach(File::delete);
         }
         Files.createDirectory(joalFoldersPath.getTorrentFilesPath());
+        Files.deleteIfExists(joalFoldersPath.getTorrentIndexPath());
     }
 
     @AfterEach
@@ -132,6 +141,25 @@ public class TorrentFileProviderTest {
         assertThat(joalFoldersPath.getTorrentArchivedPath().resolve("ubuntu.torrent")).exists();
     }
 
+    @Test
+    public void shouldMoveAllCopiesOfTorrentToArchivedFolderFromInfoHash() throws IOException {
+        final Path torrentFile = TorrentFileCreator.create(joalFoldersPath.getTorrentFilesPath().resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
+        final Path copy = TorrentFileCreator.create(joalFoldersPath.getTorrentFilesPath().resolve("ubuntu-copy.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
+
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        provider.init();
+        provider.onFileCreate(torrentFile.toFile());
+        provider.onFileCreate(copy.toFile());
+        assertThat(provider.getTorrentCount()).isEqualTo(2);
+        assertThat(provider.getTorrentFiles()).hasSize(1);
+
+        provider.moveToArchiveFolder(provider.getTorrentFiles().get(0).getTorrentInfoHash());
+
+        assertThat(provider.getTorrentCount()).isEqualTo(0);
+        assertThat(joalFoldersPath.getTorrentArchivedPath().resolve("ubuntu.torrent")).exists();
+        assertThat(joalFoldersPath.getTorrentArchivedPath().resolve("ubuntu-copy.torrent")).exists();
+    }
+
     @Test
     public void shouldMoveTorrentFileToArchivedFolder() throws IOException {
         final Path torrentFile = TorrentFileCreator.create(joalFoldersPath.getTorrentFilesPath().resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
@@ -219,25 +247,101 @@ public class TorrentFileProviderTest {
     }
 
     @Test
-    public void shouldNotifyListenerOnFileChanged() throws IOException {
+    public void shouldNotifyListenerOnFileChanged() throws IOException, NoSuchAlgorithmException {
         final Path torrentFile = TorrentFileCreator.create(joalFoldersPath.getTorrentFilesPath().resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
 
+        // The watcher is not started, it would notice the changes made below on its own
         final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
-        provider.start();
+        provider.init();
+        provider.onFileCreate(torrentFile.toFile());
 
         final CountDownLatch createLock = new CountDownLatch(1);
         final CountDownLatch deleteLock = new CountDownLatch(1);
         final TorrentFileChangeAware listener = new CountDownLatchListener(createLock, deleteLock);
         provider.registerListener(listener);
 
+        Files.copy(TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.AUDIO), torrentFile, StandardCopyOption.REPLACE_EXISTING);
         provider.onFileChange(torrentFile.toFile());
 
         assertThat(createLock.getCount()).isEqualTo(0);
         assertThat(deleteLock.getCount()).isEqualTo(0);
-        provider.stop();
+        assertThat(provider.getTorrentFiles()).extracting(MockedTorrent::getName)
+                .containsExactly(MockedTorrent.fromFile(TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.AUDIO).toFile()).getName());
         provider.unRegisterListener(listener);
     }
 
+    @Test
+    public void shouldNotNotifyListenerWhenFileIsRewrittenWithSameContent() throws IOException {
+        final Path torrentFile = TorrentFileCreator.create(joalFoldersPath.getTorrentFilesPath().resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
+
+        // The watcher is not started, it would notice the changes made below on its own
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        provider.init();
+        provider.onFileCreate(torrentFile.toFile());
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        provider.registerListener(new RecordingListener(events));
+
+        Files.copy(TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.UBUNTU), torrentFile, StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(torrentFile, FileTime.fromMillis(Files.getLastModifiedTime(torrentFile).toMillis() + 10_000));
+        provider.onFileChange(torrentFile.toFile());
+
+        assertThat(events).isEmpty();
+        assertThat(provider.getTorrentCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldSwapTorrentInPlaceWhenOnlyAnnounceListChanged() throws IOException, NoMoreTorrentsFileAvailableException {
+        final Path torrentFile = joalFoldersPath.getTorrentFilesPath().resolve("hello.torrent");
+        Files.write(torrentFile, handMadeTorrent("http://localhost/announce"));
+
+        // The watcher is not started, it would notice the changes made below on its own
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        provider.init();
+        provider.onFileCreate(torrentFile.toFile());
+        final MockedTorrent registered = provider.getTorrentNotIn(Collections.emptyList());
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        provider.registerListener(new RecordingListener(events));
+
+        Files.write(torrentFile, handMadeTorrent("http://tracker.example.org:8080/announce"));
+        provider.onFileChange(torrentFile.toFile());
+
+        assertThat(events).containsExactly("updated hello");
+        final MockedTorrent updated = provider.getTorrentNotIn(Collections.emptyList());
+        assertThat(updated).isEqualTo(registered);
+        assertThat(updated.getAnnounceList()).containsExactly(Collections.singletonList(URI.create("http://tracker.example.org:8080/announce")));
+        assertThat(provider.getTorrentCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldArchiveChangedFileThatIsNotATorrentAnymore() throws IOException {
+        final Path torrentFile = TorrentFileCreator.create(joalFoldersPath.getTorrentFilesPath().resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
+
+        // The watcher is not started, it would notice the changes made below on its own
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        provider.init();
+        provider.onFileCreate(torrentFile.toFile());
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        provider.registerListener(new RecordingListener(events));
+
+        Files.write(torrentFile, "not a torrent".getBytes(StandardCharsets.UTF_8));
+        provider.onFileChange(torrentFile.toFile());
+
+        assertThat(events).hasSize(1).allMatch(event -> event.startsWith("removed"));
+        assertThat(provider.getTorrentCount()).isZero();
+        assertThat(exists(torrentFile)).isFalse();
+        assertThat(exists(joalFoldersPath.getTorrentArchivedPath().resolve("ubuntu.torrent"))).isTrue();
+    }
+
+    /**
+     * A single file torrent named "hello", only its announce url differs from one call to another.
+     */
+    private static byte[] handMadeTorrent(final String announce) {
+        final String pieces = new String(new char[20]).replace('\0', 'p');
+        final String content = "d8:announce" + announce.length() + ":" + announce
+                + "4:infod6:lengthi10e4:name5:hello12:piece lengthi16384e6:pieces20:" + pieces + "ee";
+        return content.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
     @Test
     public void shouldUnRegisterListener() throws IOException {
         final Path torrentFile = TorrentFileCreator.create(joalFoldersPath.getTorrentFilesPath().resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
@@ -263,6 +367,213 @@ public class TorrentFileProviderTest {
     }
 
 
+    @Test
+    public void shouldSaveIndexAndReloadFromItOnRestart() throws IOException {
+        TorrentFileCreator.create(joalFoldersPath.getTorrentFilesPath().resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+
+        provider.start();
+        assertThat(provider.getTorrentCount()).isEqualTo(1);
+        assertThat(exists(joalFoldersPath.getTorrentIndexPath())).isTrue();
+        final MockedTorrent torrent = provider.getTorrentFiles().get(0);
+        provider.stop();
+
+        final TorrentFileProvider restarted = new TorrentFileProvider(joalFoldersPath);
+        restarted.start();
+        assertThat(restarted.getTorrentFiles()).containsExactly(torrent);
+        restarted.stop();
+    }
+
+    @Test
+    public void shouldRegisterFilesOfAPassInPathOrderAndArchiveFailures() throws IOException, NoSuchAlgorithmException {
+        final Path torrentsPath = joalFoldersPath.getTorrentFilesPath();
+        final File ubuntu = TorrentFileCreator.create(torrentsPath.resolve("c.torrent"), TorrentFileCreator.TorrentType.UBUNTU).toFile();
+        final File audio = TorrentFileCreator.create(torrentsPath.resolve("a.torrent"), TorrentFileCreator.TorrentType.AUDIO).toFile();
+        final File ninja = TorrentFileCreator.create(torrentsPath.resolve("d.torrent"), TorrentFileCreator.TorrentType.NINJA_HEAT).toFile();
+        final File invalid = Files.write(torrentsPath.resolve("b.torrent"), "not a torrent".getBytes()).toFile();
+
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        final List<String> added = Collections.synchronizedList(new ArrayList<>());
+        provider.registerListener(new TorrentFileChangeAware() {
+            @Override
+            public void onTorrentFileAdded(final MockedTorrent torrent) {
+                added.add(torrent.getName());
+            }
+
+            @Override
+            public void onTorrentFileRemoved(final MockedTorrent torrent) {
+            }
+        });
+        provider.start();
+
+        assertThat(provider.getTorrentCount()).isEqualTo(3);
+        assertThat(added).containsExactly(
+                MockedTorrent.fromFile(audio).getName(),
+                MockedTorrent.fromFile(ubuntu).getName(),
+                MockedTorrent.fromFile(ninja).getName()
+        );
+        assertThat(invalid).doesNotExist();
+        assertThat(joalFoldersPath.getTorrentArchivedPath().resolve("b.torrent")).exists();
+        provider.stop();
+    }
+
+    @Test
+    public void shouldDeferFilesCreatedDuringObserverPassUntilItEnds() throws IOException {
+        final Path torrentsPath = joalFoldersPath.getTorrentFilesPath();
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        provider.start();
+        final File ubuntu = TorrentFileCreator.create(torrentsPath.resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU).toFile();
+        final File audio = TorrentFileCreator.create(torrentsPath.resolve("audio.torrent"), TorrentFileCreator.TorrentType.AUDIO).toFile();
+
+        provider.onStart(null);
+        provider.onFileCreate(ubuntu);
+        provider.onFileCreate(audio);
+        assertThat(provider.getTorrentCount()).isEqualTo(0);
+
+        provider.onStop(null);
+        assertThat(provider.getTorrentCount()).isEqualTo(2);
+        provider.stop();
+    }
+
+    @Test
+    public void shouldNotifyListenersOnceForAllFilesOfAPass() throws IOException, NoSuchAlgorithmException {
+        final Path torrentsPath = joalFoldersPath.getTorrentFilesPath();
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        final List<List<MockedTorrent>> batches = Collections.synchronizedList(new ArrayList<>());
+        provider.registerListener(new TorrentFileChangeAware() {
+            @Override
+            public void onTorrentFileAdded(final MockedTorrent torrent) {
+                batches.add(Collections.singletonList(torrent));
+            }
+
+            @Override
+            public void onTorrentFilesAdded(final List<MockedTorrent> torrents) {
+                batches.add(torrents);
+            }
+
+            @Override
+            public void onTorrentFileRemoved(final MockedTorrent torrent) {
+            }
+        });
+        final File ubuntu = TorrentFileCreator.create(torrentsPath.resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU).toFile();
+        final File audio = TorrentFileCreator.create(torrentsPath.resolve("audio.torrent"), TorrentFileCreator.TorrentType.AUDIO).toFile();
+        final File ninja = TorrentFileCreator.create(torrentsPath.resolve("ninja.torrent"), TorrentFileCreator.TorrentType.NINJA_HEAT).toFile();
+
+        provider.onStart(null);
+        provider.onFileCreate(ubuntu);
+        provider.onFileCreate(audio);
+        provider.onStop(null);
+        provider.onFileCreate(ninja);
+
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).containsExactly(MockedTorrent.fromFile(audio), MockedTorrent.fromFile(ubuntu));
+        assertThat(batches.get(1)).containsExactly(MockedTorrent.fromFile(ninja));
+    }
+
+    @Test
+    public void shouldRegisterAddedTorrentFileAtOnceAndNotNotifyItAgainFromWatcher() throws IOException, NoSuchAlgorithmException, InterruptedException {
+        Files.createDirectories(joalFoldersPath.getTorrentArchivedPath());
+        final byte[] bytes = Files.readAllBytes(TorrentFileCreator.create(joalFoldersPath.getTorrentArchivedPath().resolve("source.torrent"), TorrentFileCreator.TorrentType.UBUNTU));
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        final List<MockedTorrent> added = Collections.synchronizedList(new ArrayList<>());
+        provider.registerListener(new TorrentFileChangeAware() {
+            @Override
+            public void onTorrentFileAdded(final MockedTorrent torrent) {
+                added.add(torrent);
+            }
+
+            @Override
+            public void onTorrentFileRemoved(final MockedTorrent torrent) {
+            }
+        });
+        provider.start();
+
+        final MockedTorrent torrent = provider.addTorrentFile("ubuntu.torrent", bytes);
+        assertThat(provider.getTorrentFiles()).containsExactly(torrent);
+        assertThat(added).containsExactly(torrent);
+        try (final Stream<Path> files = Files.list(joalFoldersPath.getTorrentFilesPath())) {
+            assertThat(files.filter(Files::isRegularFile).map(file -> file.getFileName().toString()))
+                    .containsExactly("ubuntu.torrent");
+        }
+
+        Thread.sleep(TorrentFileWatcher.DEFAULT_QUIET_PERIOD_MS * 3);
+        assertThat(added).containsExactly(torrent);
+        assertThat(provider.getTorrentCount()).isEqualTo(1);
+        provider.stop();
+    }
+
+    @Test
+    public void shouldNotNotifyRemovalWhenAddedTorrentFileReplacesTheSameTorrent() throws IOException, NoSuchAlgorithmException, NoMoreTorrentsFileAvailableException {
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        provider.start();
+        provider.addTorrentFile("hello.torrent", handMadeTorrent("http://localhost/announce"));
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        provider.registerListener(new RecordingListener(events));
+
+        provider.addTorrentFile("hello.torrent", handMadeTorrent("http://localhost/announce"));
+        assertThat(events).isEmpty();
+
+        provider.addTorrentFile("hello.torrent", handMadeTorrent("http://tracker.example.org:8080/announce"));
+        assertThat(events).containsExactly("updated hello");
+        assertThat(provider.getTorrentNotIn(Collections.emptyList()).getAnnounceList())
+                .containsExactly(Collections.singletonList(URI.create("http://tracker.example.org:8080/announce")));
+        assertThat(provider.getTorrentCount()).isEqualTo(1);
+        provider.stop();
+    }
+
+    @Test
+    public void shouldNotifyRemovalWhenAddedTorrentFileReplacesAnotherTorrent() throws IOException, NoSuchAlgorithmException {
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        provider.start();
+        provider.addTorrentFile("hello.torrent", handMadeTorrent("http://localhost/announce"));
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        provider.registerListener(new RecordingListener(events));
+
+        final byte[] ubuntu = Files.readAllBytes(TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.UBUNTU));
+        final MockedTorrent torrent = provider.addTorrentFile("hello.torrent", ubuntu);
+
+        assertThat(events).containsExactly("removed hello", "added " + torrent.getName());
+        assertThat(provider.getTorrentFiles()).containsExactly(torrent);
+        provider.stop();
+    }
+
+    @Test
+    public void shouldNotWriteInvalidTorrentFile() throws IOException {
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        provider.start();
+
+        assertThatThrownBy(() -> provider.addTorrentFile("invalid.torrent", "not a torrent".getBytes()))
+                .isInstanceOf(IOException.class);
+        assertThat(joalFoldersPath.getTorrentFilesPath().resolve("invalid.torrent")).doesNotExist();
+        assertThat(provider.getTorrentCount()).isEqualTo(0);
+        provider.stop();
+    }
+
+    private static final class RecordingListener implements TorrentFileChangeAware {
+
+        private final List<String> events;
+
+        private RecordingListener(final List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onTorrentFileAdded(final MockedTorrent torrent) {
+            events.add("added " + torrent.getName());
+        }
+
+        @Override
+        public void onTorrentFileRemoved(final MockedTorrent torrent) {
+            events.add("removed " + torrent.getName());
+        }
+
+        @Override
+        public void onTorrentFileUpdated(final MockedTorrent torrent) {
+            events.add("updated " + torrent.getName());
+        }
+
+    }
+
     private static final class CountDownLatchListener implements TorrentFileChangeAware {
 
         private final CountDownLatch createLock;
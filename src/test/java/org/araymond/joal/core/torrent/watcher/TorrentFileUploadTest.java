@@ -0,0 +1,182 @@
+package org.araymond.joal.core.torrent.watcher;
+
+import org.araymond.joal.core.SeedManager;
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
+import org.araymond.joal.core.utils.TorrentFileCreator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TorrentFileUploadTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SeedManager.JoalFoldersPath joalFoldersPath;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.joalFoldersPath = new SeedManager.JoalFoldersPath(this.tempDir);
+        Files.createDirectories(this.joalFoldersPath.getTorrentFilesPath());
+    }
+
+    private static InputStream torrent(final TorrentFileCreator.TorrentType type) throws IOException {
+        return Files.newInputStream(TorrentFileCreator.getTorrentPath(type));
+    }
+
+    private List<String> torrentFolderFileNames() throws IOException {
+        try (final Stream<Path> files = Files.list(this.joalFoldersPath.getTorrentFilesPath())) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> file.getFileName().toString())
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void shouldAddValidFilesAsASingleBatchAndReportEachFileInOrder() throws IOException, NoSuchAlgorithmException {
+        final TorrentFileProvider provider = new TorrentFileProvider(this.joalFoldersPath);
+        final List<List<MockedTorrent>> batches = Collections.synchronizedList(new ArrayList<>());
+        provider.registerListener(new TorrentFileChangeAware() {
+            @Override
+            public void onTorrentFileAdded(final MockedTorrent torrent) {
+                batches.add(Collections.singletonList(torrent));
+            }
+
+            @Override
+            public void onTorrentFilesAdded(final List<MockedTorrent> torrents) {
+                batches.add(torrents);
+            }
+
+            @Override
+            public void onTorrentFileRemoved(final MockedTorrent torrent) {
+            }
+        });
+        provider.start();
+
+        final List<TorrentFileUpload.Result> results;
+        try (final TorrentFileUpload upload = provider.newUpload()) {
+            upload.add("folder/ubuntu.torrent", torrent(TorrentFileCreator.TorrentType.UBUNTU));
+            upload.add("invalid.torrent", new ByteArrayInputStream("not a torrent".getBytes()));
+            upload.add("..", new ByteArrayInputStream(new byte[0]));
+            upload.add("audio", torrent(TorrentFileCreator.TorrentType.AUDIO));
+            results = upload.commit();
+        }
+
+        final MockedTorrent ubuntu = MockedTorrent.fromFile(TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.UBUNTU).toFile());
+        final MockedTorrent audio = MockedTorrent.fromFile(TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.AUDIO).toFile());
+        assertThat(results).extracting(TorrentFileUpload.Result::getFileName)
+                .containsExactly("ubuntu.torrent", "invalid.torrent", "..", "audio.torrent");
+        assertThat(results).extracting(TorrentFileUpload.Result::isAdded)
+                .containsExactly(true, false, false, true);
+        assertThat(results.get(0).getTorrent()).isEqualTo(ubuntu);
+        assertThat(results.get(1).getError()).isNotBlank();
+        assertThat(results.get(2).getError()).isEqualTo("Invalid file name");
+
+        assertThat(batches).containsExactly(Arrays.asList(ubuntu, audio));
+        assertThat(provider.getTorrentFiles()).containsExactlyInAnyOrder(ubuntu, audio);
+        // Invalid files and temporary files are gone
+        assertThat(this.torrentFolderFileNames()).containsExactly("audio.torrent", "ubuntu.torrent");
+        provider.stop();
+    }
+
+    @Test
+    public void shouldNumberFilesWhoseNameIsAlreadyUsedByTheUpload() throws IOException, NoSuchAlgorithmException {
+        final TorrentFileProvider provider = new TorrentFileProvider(this.joalFoldersPath);
+        final List<List<MockedTorrent>> batches = Collections.synchronizedList(new ArrayList<>());
+        provider.registerListener(new TorrentFileChangeAware() {
+            @Override
+            public void onTorrentFileAdded(final MockedTorrent torrent) {
+                batches.add(Collections.singletonList(torrent));
+            }
+
+            @Override
+            public void onTorrentFilesAdded(final List<MockedTorrent> torrents) {
+                batches.add(torrents);
+            }
+
+            @Override
+            public void onTorrentFileRemoved(final MockedTorrent torrent) {
+                batches.add(Collections.emptyList());
+            }
+        });
+        provider.start();
+
+        final List<TorrentFileUpload.Result> results;
+        try (final TorrentFileUpload upload = provider.newUpload()) {
+            upload.add("a/x.torrent", torrent(TorrentFileCreator.TorrentType.UBUNTU));
+            upload.add("b/x.torrent", torrent(TorrentFileCreator.TorrentType.AUDIO));
+            upload.add("c\\X", torrent(TorrentFileCreator.TorrentType.UBUNTU));
+            results = upload.commit();
+        }
+
+        final MockedTorrent ubuntu = MockedTorrent.fromFile(TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.UBUNTU).toFile());
+        final MockedTorrent audio = MockedTorrent.fromFile(TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.AUDIO).toFile());
+        assertThat(results).extracting(TorrentFileUpload.Result::getFileName)
+                .containsExactly("x.torrent", "x (2).torrent", "X (3).torrent");
+        assertThat(results).extracting(TorrentFileUpload.Result::getTorrent)
+                .containsExactly(ubuntu, audio, ubuntu);
+        // Nothing has been replaced, and the two copies of ubuntu are a single torrent
+        assertThat(batches).containsExactly(Arrays.asList(ubuntu, audio));
+        assertThat(this.torrentFolderFileNames()).containsExactly("X (3).torrent", "x (2).torrent", "x.torrent");
+        provider.stop();
+    }
+
+    @Test
+    public void shouldRejectFilesTooLargeToBeTorrentFiles() throws IOException {
+        final TorrentFileProvider provider = new TorrentFileProvider(this.joalFoldersPath);
+        try (final TorrentFileUpload upload = provider.newUpload()) {
+            upload.add("huge.torrent", new ByteArrayInputStream(new byte[(int) TorrentFileUpload.MAX_TORRENT_FILE_SIZE + 1]));
+
+            assertThat(upload.commit()).singleElement()
+                    .satisfies(result -> assertThat(result.getError()).startsWith("File is larger than"));
+        }
+        assertThat(this.torrentFolderFileNames()).isEmpty();
+    }
+
+    @Test
+    public void shouldDeleteTemporaryFilesOfAnUploadNotCommitted() throws IOException {
+        final TorrentFileProvider provider = new TorrentFileProvider(this.joalFoldersPath);
+        final TorrentFileUpload upload = provider.newUpload();
+        upload.add("ubuntu.torrent", torrent(TorrentFileCreator.TorrentType.UBUNTU));
+        assertThat(this.torrentFolderFileNames()).hasSize(1);
+
+        upload.close();
+
+        assertThat(this.torrentFolderFileNames()).isEmpty();
+    }
+
+    @Test
+    public void shouldOnlyWriteFilesWhenProviderIsNotStarted() throws IOException {
+        final TorrentFileProvider provider = new TorrentFileProvider(this.joalFoldersPath);
+        try (final TorrentFileUpload upload = provider.newUpload()) {
+            upload.add("ubuntu.torrent", torrent(TorrentFileCreator.TorrentType.UBUNTU));
+
+            assertThat(upload.commit()).singleElement().satisfies(result -> assertThat(result.isAdded()).isTrue());
+            assertThatThrownBy(upload::commit).isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(provider.getTorrentCount()).isZero();
+        assertThat(this.torrentFolderFileNames()).containsExactly("ubuntu.torrent");
+
+        provider.start();
+        assertThat(provider.getTorrentCount()).isEqualTo(1);
+        provider.stop();
+    }
+
+}
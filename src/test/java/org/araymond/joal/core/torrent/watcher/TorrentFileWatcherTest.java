@@ -1,6 +1,8 @@
 package org.araymond.joal.core.torrent.watcher;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.monitor.FileAlterationListenerAdaptor;
+import org.apache.commons.io.monitor.FileAlterationObserver;
 import org.araymond.joal.core.utils.TorrentFileCreator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,11 +10,15 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -201,32 +207,127 @@ public class TorrentFileWatcherTest {
     }
 
     @Test
-    public void shouldNotWatchSubFolders() throws IOException, InterruptedException {
+    public void shouldWatchSubFolders() throws IOException, InterruptedException {
         Files.createDirectory(torrentsPath.resolve("sub-folder"));
+        final CountDownLatch createLock = new CountDownLatch(2);
+        final CountDownLatch changeLock = new CountDownLatch(1);
+        final CountDownLatch deleteLock = new CountDownLatch(1);
         final TorrentFileWatcher watcher = new TorrentFileWatcher(
-                new FailOnTriggerListener(),
+                new CountDownLatchListener(createLock, changeLock, deleteLock),
                 torrentsPath,
                 5
         );
         watcher.start();
 
         TorrentFileCreator.create(torrentsPath.resolve("sub-folder").resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
-        Thread.sleep(15);
+        // created after start, must be watched as well
+        final Path newFolder = Files.createDirectories(torrentsPath.resolve("new-folder").resolve("nested"));
+        TorrentFileCreator.create(newFolder.resolve("ninja.torrent"), TorrentFileCreator.TorrentType.NINJA_HEAT);
+        assertThat(createLock.await(500, TimeUnit.MILLISECONDS)).isTrue();
 
+        FileUtils.deleteDirectory(torrentsPath.resolve("new-folder").toFile());
+        assertThat(deleteLock.await(500, TimeUnit.MILLISECONDS)).isTrue();
         watcher.stop();
+
+        assertThat(changeLock.getCount()).isEqualTo(1);
     }
 
     @Test
-    public void shouldNotDetectFilesInSubFolderOnStart() throws IOException {
+    public void shouldDetectFilesInSubFolderOnStart() throws IOException {
         Files.createDirectory(torrentsPath.resolve("sub-folder"));
         TorrentFileCreator.create(torrentsPath.resolve("sub-folder").resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
+        final CountDownLatch createLock = new CountDownLatch(1);
         final TorrentFileWatcher watcher = new TorrentFileWatcher(
-                new FailOnTriggerListener(),
+                new CountDownLatchListener(createLock, new CountDownLatch(1), new CountDownLatch(1)),
                 torrentsPath,
                 5
         );
         watcher.start();
         watcher.stop();
+
+        assertThat(createLock.getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotWatchExcludedFolders() throws IOException, InterruptedException {
+        final Path excluded = Files.createDirectory(torrentsPath.resolve("archived"));
+        TorrentFileCreator.create(excluded.resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
+        final TorrentFileWatcher watcher = new TorrentFileWatcher(
+                new FailOnTriggerListener(),
+                torrentsPath,
+                5,
+                Collections.singleton(excluded)
+        );
+        watcher.start();
+
+        TorrentFileCreator.create(excluded.resolve("ninja.torrent"), TorrentFileCreator.TorrentType.NINJA_HEAT);
+        Thread.sleep(50);
+
+        watcher.stop();
+    }
+
+    @Test
+    public void shouldWaitForFileToBeQuietBeforeNotifying() throws IOException, InterruptedException {
+        final List<File> created = Collections.synchronizedList(new ArrayList<>());
+        final List<Long> sizes = Collections.synchronizedList(new ArrayList<>());
+        final TorrentFileWatcher watcher = new TorrentFileWatcher(new FileAlterationListenerAdaptor() {
+            @Override
+            public void onFileCreate(final File file) {
+                created.add(file);
+                sizes.add(file.length());
+            }
+        }, torrentsPath, 200);
+        watcher.start();
+
+        final byte[] content = Files.readAllBytes(TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.UBUNTU));
+        final Path torrent = torrentsPath.resolve("ubuntu.torrent");
+        try (final OutputStream out = Files.newOutputStream(torrent)) {
+            for (int i = 0; i < 5; ++i) {
+                out.write(content, i * content.length / 5, content.length / 5);
+                out.flush();
+                Thread.sleep(50);
+            }
+            out.write(content, 5 * (content.length / 5), content.length % 5);
+        }
+        assertThat(created).isEmpty();
+
+        Thread.sleep(600);
+        watcher.stop();
+
+        assertThat(created).containsExactly(torrent.toFile());
+        assertThat(sizes).containsExactly((long) content.length);
+    }
+
+    @Test
+    public void shouldReportFilesOfARoundBetweenStartAndStop() throws IOException, InterruptedException {
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch roundLock = new CountDownLatch(2);
+        final TorrentFileWatcher watcher = new TorrentFileWatcher(new FileAlterationListenerAdaptor() {
+            @Override
+            public void onStart(final FileAlterationObserver observer) {
+                calls.add("start");
+            }
+
+            @Override
+            public void onFileCreate(final File file) {
+                calls.add(file.getName());
+            }
+
+            @Override
+            public void onStop(final FileAlterationObserver observer) {
+                calls.add("stop");
+                roundLock.countDown();
+            }
+        }, torrentsPath, 100);
+        watcher.start();
+
+        TorrentFileCreator.create(torrentsPath.resolve("ubuntu.torrent"), TorrentFileCreator.TorrentType.UBUNTU);
+        TorrentFileCreator.create(torrentsPath.resolve("audio.torrent"), TorrentFileCreator.TorrentType.AUDIO);
+        assertThat(roundLock.await(1, TimeUnit.SECONDS)).isTrue();
+        watcher.stop();
+
+        // first round is the initial scan of the empty folder
+        assertThat(calls).containsExactly("start", "stop", "start", "audio.torrent", "ubuntu.torrent", "stop");
     }
 
     @Test
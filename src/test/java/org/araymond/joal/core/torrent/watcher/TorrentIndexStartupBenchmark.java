@@ -0,0 +1,127 @@
+package org.araymond.joal.core.torrent.watcher;
+
+import com.turn.ttorrent.common.Torrent;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.araymond.joal.core.SeedManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures {@link TorrentFileProvider#start()} on a folder of many torrent files, without index (every file is
+ * parsed) and with the index written by a previous start.
+ * <p>
+ * Both runs hit the OS page cache, a real cold start without index also pays the disk reads of every file.
+ * <p>
+ * Not a unit test, run it manually:
+ * <pre>
+ *     mvn test-compile
+ *     java -cp "target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *         org.araymond.joal.core.torrent.watcher.TorrentIndexStartupBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TorrentIndexStartupBenchmark {
+
+    @Param({"50000"})
+    public int torrentCount;
+
+    @Param({"500"})
+    public int piecesCount;
+
+    @Param({"false", "true"})
+    public boolean withIndex;
+
+    private Path confFolder;
+    private SeedManager.JoalFoldersPath folders;
+    private TorrentFileProvider provider;
+
+    @Setup(Level.Trial)
+    public void writeTorrentFiles() throws IOException {
+        Configurator.setAllLevels("org.araymond", org.apache.logging.log4j.Level.WARN);
+        this.confFolder = Files.createTempDirectory("joal-index-benchmark");
+        this.folders = new SeedManager.JoalFoldersPath(this.confFolder);
+        Files.createDirectories(this.folders.getTorrentFilesPath());
+        for (int i = 0; i < this.torrentCount; ++i) {
+            Files.write(this.folders.getTorrentFilesPath().resolve("torrent-" + i + ".torrent"), createTorrent(i, this.piecesCount));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareIndex() throws IOException {
+        // Each start writes the index, it has to go for the runs without
+        if (!this.withIndex) {
+            Files.deleteIfExists(this.folders.getTorrentIndexPath());
+        } else if (!Files.exists(this.folders.getTorrentIndexPath())) {
+            final TorrentFileProvider indexing = new TorrentFileProvider(this.folders);
+            indexing.start();
+            indexing.stop();
+        }
+        this.provider = new TorrentFileProvider(this.folders);
+    }
+
+    @Benchmark
+    public int start() {
+        this.provider.start();
+        return this.provider.getTorrentCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopProvider() {
+        if (this.provider.getTorrentCount() != this.torrentCount) {
+            throw new IllegalStateException("Expected " + this.torrentCount + " torrents, got " + this.provider.getTorrentCount());
+        }
+        this.provider.stop();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTorrentFiles() throws IOException {
+        try (final Stream<Path> files = Files.walk(this.confFolder)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static byte[] createTorrent(final int index, final int piecesCount) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] pieces = new byte[piecesCount * Torrent.PIECE_HASH_SIZE];
+        ThreadLocalRandom.current().nextBytes(pieces);
+        final String name = "benchmark-torrent-" + index + ".iso";
+        final String tracker = "http://tracker.example.com/announce";
+        final long pieceLength = 1024 * 1024;
+        write(out, "d8:announce" + tracker.length() + ":" + tracker);
+        write(out, "4:infod6:lengthi" + (piecesCount * pieceLength) + "e4:name" + name.length() + ":" + name);
+        write(out, "12:piece lengthi" + pieceLength + "e6:pieces" + pieces.length + ":");
+        out.write(pieces, 0, pieces.length);
+        write(out, "ee");
+        return out.toByteArray();
+    }
+
+    private static void write(final ByteArrayOutputStream out, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(TorrentIndexStartupBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
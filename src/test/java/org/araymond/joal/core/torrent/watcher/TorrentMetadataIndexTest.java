@@ -0,0 +1,180 @@
+package org.araymond.joal.core.torrent.watcher;
+
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
+import org.araymond.joal.core.utils.TorrentFileCreator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TorrentMetadataIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File createTorrent(final String name, final TorrentFileCreator.TorrentType type) throws IOException {
+        return TorrentFileCreator.create(this.tempDir.resolve(name), type).toFile();
+    }
+
+    /**
+     * Replaces the content of the file without changing its size nor last modification time: only a file read from
+     * the index can still be loaded.
+     */
+    private static void scrambleKeepingAttributes(final File file) throws IOException {
+        final FileTime lastModified = Files.getLastModifiedTime(file.toPath());
+        final byte[] garbage = new byte[(int) file.length()];
+        Arrays.fill(garbage, (byte) 'x');
+        Files.write(file.toPath(), garbage);
+        Files.setLastModifiedTime(file.toPath(), lastModified);
+    }
+
+    private static void assertSameTorrent(final MockedTorrent actual, final MockedTorrent expected) {
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getName()).isEqualTo(expected.getName());
+        assertThat(actual.getSize()).isEqualTo(expected.getSize());
+        assertThat(actual.getAnnounceList()).isEqualTo(expected.getAnnounceList());
+    }
+
+    @Test
+    public void shouldLoadUnchangedFilesFromIndex() throws IOException, NoSuchAlgorithmException {
+        final Path indexFile = this.tempDir.resolve("torrents.index");
+        final File ubuntu = createTorrent("ubuntu.torrent", TorrentFileCreator.TorrentType.UBUNTU);
+        final File audio = createTorrent("audio.torrent", TorrentFileCreator.TorrentType.AUDIO);
+        final TorrentMetadataIndex index = new TorrentMetadataIndex(indexFile);
+        index.load();
+        final MockedTorrent ubuntuTorrent = index.read(ubuntu);
+        final MockedTorrent audioTorrent = index.read(audio);
+        index.save();
+        assertThat(indexFile).exists();
+
+        scrambleKeepingAttributes(ubuntu);
+        scrambleKeepingAttributes(audio);
+        final TorrentMetadataIndex reloaded = new TorrentMetadataIndex(indexFile);
+        reloaded.load();
+
+        assertSameTorrent(reloaded.read(ubuntu), ubuntuTorrent);
+        assertSameTorrent(reloaded.read(audio), audioTorrent);
+        assertThat(reloaded.read(ubuntu).getTorrentInfoHash()).isSameAs(ubuntuTorrent.getTorrentInfoHash());
+        assertThat(reloaded.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldParseFilesThatChangedSinceIndexed() throws IOException, NoSuchAlgorithmException {
+        final Path indexFile = this.tempDir.resolve("torrents.index");
+        final File torrent = createTorrent("torrent.torrent", TorrentFileCreator.TorrentType.UBUNTU);
+        final TorrentMetadataIndex index = new TorrentMetadataIndex(indexFile);
+        index.load();
+        index.read(torrent);
+        index.save();
+
+        Files.delete(torrent.toPath());
+        createTorrent("torrent.torrent", TorrentFileCreator.TorrentType.AUDIO);
+        final TorrentMetadataIndex reloaded = new TorrentMetadataIndex(indexFile);
+        reloaded.load();
+
+        assertSameTorrent(reloaded.read(torrent), MockedTorrent.fromFile(torrent));
+
+        scrambleKeepingAttributes(torrent);
+        Files.setLastModifiedTime(torrent.toPath(), FileTime.fromMillis(Files.getLastModifiedTime(torrent.toPath()).toMillis() + 10_000));
+        assertThatThrownBy(() -> reloaded.read(torrent)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void shouldPruneEntriesOfFilesNotLoadedAnymore() throws IOException, NoSuchAlgorithmException {
+        final Path indexFile = this.tempDir.resolve("torrents.index");
+        final File ubuntu = createTorrent("ubuntu.torrent", TorrentFileCreator.TorrentType.UBUNTU);
+        final File audio = createTorrent("audio.torrent", TorrentFileCreator.TorrentType.AUDIO);
+        final TorrentMetadataIndex index = new TorrentMetadataIndex(indexFile);
+        index.load();
+        index.read(ubuntu);
+        index.read(audio);
+        index.remove(audio);
+        index.save();
+
+        scrambleKeepingAttributes(ubuntu);
+        scrambleKeepingAttributes(audio);
+        final TorrentMetadataIndex reloaded = new TorrentMetadataIndex(indexFile);
+        reloaded.load();
+
+        assertThat(reloaded.read(ubuntu)).isNotNull();
+        assertThatThrownBy(() -> reloaded.read(audio)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void shouldDropCorruptedRecordsAndKeepOthers() throws IOException, NoSuchAlgorithmException {
+        final Path indexFile = this.tempDir.resolve("torrents.index");
+        final File ubuntu = createTorrent("ubuntu.torrent", TorrentFileCreator.TorrentType.UBUNTU);
+        final File audio = createTorrent("audio.torrent", TorrentFileCreator.TorrentType.AUDIO);
+        final TorrentMetadataIndex index = new TorrentMetadataIndex(indexFile);
+        index.load();
+        final MockedTorrent ubuntuTorrent = index.read(ubuntu);
+        index.read(audio);
+        index.save();
+
+        // flip a byte of the last record, which is either one of the torrents
+        final byte[] bytes = Files.readAllBytes(indexFile);
+        bytes[bytes.length - 30] ^= 0x5A;
+        Files.write(indexFile, bytes);
+        scrambleKeepingAttributes(ubuntu);
+        scrambleKeepingAttributes(audio);
+        final TorrentMetadataIndex reloaded = new TorrentMetadataIndex(indexFile);
+        reloaded.load();
+
+        int loaded = 0;
+        for (final File file : Arrays.asList(ubuntu, audio)) {
+            try {
+                final MockedTorrent torrent = reloaded.read(file);
+                if (file.equals(ubuntu)) {
+                    assertSameTorrent(torrent, ubuntuTorrent);
+                }
+                ++loaded;
+            } catch (final IOException | IllegalArgumentException ignored) {
+            }
+        }
+        assertThat(loaded).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRebuildUnreadableIndex() throws IOException, NoSuchAlgorithmException {
+        final Path indexFile = this.tempDir.resolve("torrents.index");
+        Files.write(indexFile, new byte[]{'J', 'O', 'A', 'L', 0, 0});
+        final File torrent = createTorrent("torrent.torrent", TorrentFileCreator.TorrentType.UBUNTU);
+
+        final TorrentMetadataIndex index = new TorrentMetadataIndex(indexFile);
+        index.load();
+        final MockedTorrent expected = index.read(torrent);
+        index.save();
+
+        scrambleKeepingAttributes(torrent);
+        final TorrentMetadataIndex reloaded = new TorrentMetadataIndex(indexFile);
+        reloaded.load();
+        assertSameTorrent(reloaded.read(torrent), expected);
+    }
+
+    @Test
+    public void shouldIgnoreMissingIndexAndNotWriteUnchangedOne() throws IOException, NoSuchAlgorithmException {
+        final Path indexFile = this.tempDir.resolve("torrents.index");
+        final TorrentMetadataIndex index = new TorrentMetadataIndex(indexFile);
+        index.load();
+        index.save();
+        assertThat(indexFile).doesNotExist();
+
+        index.read(createTorrent("torrent.torrent", TorrentFileCreator.TorrentType.UBUNTU));
+        index.save();
+        final FileTime saved = Files.getLastModifiedTime(indexFile);
+        Files.setLastModifiedTime(indexFile, FileTime.fromMillis(saved.toMillis() - 10_000));
+
+        index.save();
+        assertThat(Files.getLastModifiedTime(indexFile).toMillis()).isEqualTo(saved.toMillis() - 10_000);
+    }
+
+}
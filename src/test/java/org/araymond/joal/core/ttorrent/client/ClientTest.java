@@ -4,8 +4,10 @@ import com.google.common.collect.Lists;
 import com.turn.ttorrent.client.announce.AnnounceException;
 import com.turn.ttorrent.common.protocol.TrackerMessage.AnnounceRequestMessage.RequestEvent;
 import org.araymond.joal.core.bandwith.BandwidthDispatcher;
+import org.araymond.joal.core.bandwith.Peers;
 import org.araymond.joal.core.config.AppConfiguration;
 import org.araymond.joal.core.config.AppConfigurationTest;
+import org.araymond.joal.core.events.torrent.files.TorrentFilesAddedEvent;
 import org.araymond.joal.core.exception.NoMoreTorrentsFileAvailableException;
 import org.araymond.joal.core.torrent.torrent.InfoHash;
 import org.araymond.joal.core.torrent.torrent.InfoHashTest;
@@ -17,6 +19,7 @@ import org.araymond.joal.core.ttorrent.client.announcer.AnnouncerFactory;
 import org.araymond.joal.core.ttorrent.client.announcer.exceptions.TooMuchAnnouncesFailedInARawException;
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnounceRequest;
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnouncerExecutor;
+import org.araymond.joal.core.ttorrent.client.announcer.tracker.TrackerScraper;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
@@ -26,6 +29,12 @@ import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.temporal.TemporalUnit;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
@@ -55,6 +64,20 @@ public class ClientTest {
         return announcerFactory;
     }
 
+    @SuppressWarnings("unchecked")
+    private DelayQueue<AnnounceRequest> createMockedDelayQueue() {
+        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        try {
+            // Behave like an empty queue: park the orchestrator thread until it gets interrupted.
+            doAnswer(invocation -> {
+                Thread.sleep(Long.MAX_VALUE);
+                return Collections.emptyList();
+            }).when(delayQueue).awaitAvailables();
+        } catch (final InterruptedException ignore) {
+        }
+        return delayQueue;
+    }
+
     private TorrentFileProvider createMockedTorrentFileProviderWithTorrent(final Iterable<MockedTorrent> mockedTorrents) {
         final TorrentFileProvider torrentFileProvider = mock(TorrentFileProvider.class);
         Stubber stubber = null;
@@ -93,7 +116,7 @@ public class ClientTest {
                 .withAppConfiguration(appConfiguration)
                 .withTorrentFileProvider(torrentFileProvider)
                 .withEventPublisher(mock(ApplicationEventPublisher.class))
-                .withDelayQueue(mock(DelayQueue.class))
+                .withDelayQueue(createMockedDelayQueue())
                 .build();
 
         final InfoHash infoHash = InfoHashTest.createOne("abcd");
@@ -123,7 +146,7 @@ public class ClientTest {
                 MockedTorrentTest.createOneMock("mno")
         ));
 
-        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
         final AnnouncerFactory mockedAnnouncerFactory = createMockedAnnouncerFactory();
 
         final Client client = (Client) ClientBuilder.builder()
@@ -147,6 +170,91 @@ public class ClientTest {
         ).isEqualTo("abcdefghijklmno");
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldStartSeedingWithoutWaitingForTheFirstScrape() throws NoMoreTorrentsFileAvailableException, InterruptedException {
+        final AppConfiguration appConfiguration = this.createMockedConf();
+        doReturn(2).when(appConfiguration).getSimultaneousSeed();
+
+        final TorrentFileProvider torrentFileProvider = createMockedTorrentFileProviderWithTorrent(Lists.newArrayList(
+                MockedTorrentTest.createOneMock("abc"),
+                MockedTorrentTest.createOneMock("def"),
+                MockedTorrentTest.createOneMock("ghi")
+        ));
+        final CountDownLatch scraping = new CountDownLatch(1);
+        final TrackerScraper trackerScraper = mock(TrackerScraper.class);
+        doAnswer(invocation -> {
+            scraping.countDown();
+            return new CompletableFuture<>(); // never answers
+        }).when(trackerScraper).scrape(any());
+
+        final Client client = (Client) ClientBuilder.builder()
+                .withAnnouncerFactory(createMockedAnnouncerFactory())
+                .withBandwidthDispatcher(mock(BandwidthDispatcher.class))
+                .withAppConfiguration(appConfiguration)
+                .withTorrentFileProvider(torrentFileProvider)
+                .withEventPublisher(mock(ApplicationEventPublisher.class))
+                .withDelayQueue(createMockedDelayQueue())
+                .withTrackerScraper(trackerScraper)
+                .build();
+
+        client.start();
+
+        assertThat(client.getCurrentlySeedingAnnouncer()).hasSize(2);
+        assertThat(scraping.await(5, TimeUnit.SECONDS)).isTrue();
+        client.stop();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldNotPickTorrentsWithoutLeechersOnceScraped() throws NoMoreTorrentsFileAvailableException {
+        final AppConfiguration appConfiguration = this.createMockedConf();
+        doReturn(1).when(appConfiguration).getSimultaneousSeed();
+
+        final List<MockedTorrent> torrents = Lists.newArrayList(
+                MockedTorrentTest.createOneMock("abc"),
+                MockedTorrentTest.createOneMock("def"),
+                MockedTorrentTest.createOneMock("ghi")
+        );
+        final TorrentFileProvider torrentFileProvider = mock(TorrentFileProvider.class);
+        doReturn(torrents).when(torrentFileProvider).getTorrentFiles();
+        doAnswer(invocation -> torrents.stream()
+                .filter(torrent -> !((List<InfoHash>) invocation.getArgument(0)).contains(torrent.getTorrentInfoHash()))
+                .findFirst()
+                .orElseThrow(() -> new NoMoreTorrentsFileAvailableException("no more"))
+        ).when(torrentFileProvider).getTorrentNotIn(anyList());
+
+        final Map<InfoHash, Peers> scraped = new HashMap<>();
+        scraped.put(InfoHashTest.createOne("abc"), new Peers(10, 5));
+        scraped.put(InfoHashTest.createOne("def"), new Peers(10, 0));
+        final TrackerScraper trackerScraper = mock(TrackerScraper.class);
+        doReturn(CompletableFuture.completedFuture(scraped)).when(trackerScraper).scrape(any());
+        final BandwidthDispatcher bandwidthDispatcher = mock(BandwidthDispatcher.class);
+
+        final Client client = (Client) ClientBuilder.builder()
+                .withAnnouncerFactory(createMockedAnnouncerFactory())
+                .withBandwidthDispatcher(bandwidthDispatcher)
+                .withAppConfiguration(appConfiguration)
+                .withTorrentFileProvider(torrentFileProvider)
+                .withEventPublisher(mock(ApplicationEventPublisher.class))
+                .withDelayQueue(createMockedDelayQueue())
+                .withTrackerScraper(trackerScraper)
+                .build();
+
+        client.start();
+        final Announcer first = (Announcer) client.getCurrentlySeedingAnnouncer().get(0);
+        assertThat(first.getTorrentInfoHash().value()).isEqualTo("abc");
+        Mockito.verify(bandwidthDispatcher, timeout(5000)).updateTorrentsPeers(scraped);
+
+        client.onTorrentHasStopped(first);
+
+        // "def" has no leechers, "ghi" has not been scraped, it might have some
+        assertThat(client.getCurrentlySeedingAnnouncer())
+                .extracting(announcer -> announcer.getTorrentInfoHash().value())
+                .containsExactly("ghi");
+        client.stop();
+    }
+
     @SuppressWarnings({"unchecked", "ResultOfMethodCallIgnored"})
     @Test
     public void shouldNotFailToAddTorrentIfThereIsNoMoreTorrentFileAvailable() {
@@ -163,7 +271,7 @@ public class ClientTest {
                 .withAppConfiguration(appConfiguration)
                 .withTorrentFileProvider(torrentFileProvider)
                 .withEventPublisher(mock(ApplicationEventPublisher.class))
-                .withDelayQueue(mock(DelayQueue.class))
+                .withDelayQueue(createMockedDelayQueue())
                 .build();
 
         try {
@@ -183,7 +291,7 @@ public class ClientTest {
                 MockedTorrentTest.createOneMock("abc")
         ));
 
-        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
         doReturn(Lists.newArrayList(AnnounceRequest.createRegular(null))).when(delayQueue).drainAll();
         final AnnouncerFactory mockedAnnouncerFactory = mock(AnnouncerFactory.class);
 
@@ -222,7 +330,7 @@ public class ClientTest {
                 MockedTorrentTest.createOneMock("abc")
         ));
 
-        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
         final AnnouncerFactory mockedAnnouncerFactory = mock(AnnouncerFactory.class);
 
         final Client client = (Client) ClientBuilder.builder()
@@ -261,7 +369,7 @@ public class ClientTest {
                 MockedTorrentTest.createOneMock("abc")
         ));
 
-        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
         final AnnouncerFactory mockedAnnouncerFactory = mock(AnnouncerFactory.class);
 
         final Client client = (Client) ClientBuilder.builder()
@@ -282,6 +390,47 @@ public class ClientTest {
         verify(announcerExecutor, times(1)).awaitForRunningTasks();
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldExposeTheRateOfDispatchedAnnounces() throws InterruptedException {
+        final AppConfiguration appConfiguration = this.createMockedConf();
+        doReturn(0).when(appConfiguration).getSimultaneousSeed();
+
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
+        final List<AnnounceRequest> dueRequests = Lists.newArrayList(
+                AnnounceRequest.createRegular(mock(Announcer.class)),
+                AnnounceRequest.createRegular(mock(Announcer.class)),
+                AnnounceRequest.createRegular(mock(Announcer.class))
+        );
+        doReturn(dueRequests).doAnswer(invocation -> {
+            Thread.sleep(Long.MAX_VALUE);
+            return Collections.emptyList();
+        }).when(delayQueue).awaitAvailables();
+
+        final Client client = (Client) ClientBuilder.builder()
+                .withAnnouncerFactory(mock(AnnouncerFactory.class))
+                .withBandwidthDispatcher(mock(BandwidthDispatcher.class))
+                .withAppConfiguration(appConfiguration)
+                .withTorrentFileProvider(createMockedTorrentFileProviderWithTorrent(Lists.newArrayList()))
+                .withEventPublisher(mock(ApplicationEventPublisher.class))
+                .withDelayQueue(delayQueue)
+                .build();
+        client.setAnnouncerExecutor(mock(AnnouncerExecutor.class));
+        assertThat(client.getAnnounceRate().getLastTenSeconds()).isZero();
+
+        client.start();
+        try {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (client.getAnnounceRate().getLastTenSeconds() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            // 3 announces over a 10 seconds window, slightly decayed already
+            assertThat(client.getAnnounceRate().getLastTenSeconds()).isGreaterThan(0.2).isLessThanOrEqualTo(0.3);
+        } finally {
+            client.stop();
+        }
+    }
+
     @SuppressWarnings({"unchecked", "ResultOfMethodCallIgnored"})
     @Test
     public void shouldRemoveAnnouncerFromRunningListOnTooManyFailsAndEnqueueAnother() {
@@ -293,7 +442,7 @@ public class ClientTest {
                 MockedTorrentTest.createOneMock("def")
         ));
 
-        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
         final AnnouncerFactory mockedAnnouncerFactory = createMockedAnnouncerFactory();
 
         final Client client = (Client) ClientBuilder.builder()
@@ -336,7 +485,7 @@ public class ClientTest {
                 torrent2
         ));
 
-        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
         final AnnouncerFactory mockedAnnouncerFactory = createMockedAnnouncerFactory();
 
         final Client client = (Client) ClientBuilder.builder()
@@ -356,7 +505,7 @@ public class ClientTest {
         final ArgumentCaptor<AnnounceRequest> argumentCaptor = ArgumentCaptor.forClass(AnnounceRequest.class);
         verify(delayQueue, times(1)).addOrReplace(argumentCaptor.capture(), anyInt(), any(TemporalUnit.class));
 
-        Mockito.reset(delayQueue);
+        Mockito.clearInvocations(delayQueue);
         client.onTorrentHasStopped(argumentCaptor.getValue().getAnnouncer());
         verify(delayQueue, times(1)).addOrReplace(argumentCaptor.capture(), anyInt(), any(TemporalUnit.class));
 
@@ -376,7 +525,7 @@ public class ClientTest {
                 MockedTorrentTest.createOneMock("abc")
         ));
 
-        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
         final AnnouncerFactory mockedAnnouncerFactory = createMockedAnnouncerFactory();
 
         final Client client = (Client) ClientBuilder.builder()
@@ -397,7 +546,7 @@ public class ClientTest {
 
         final ArgumentCaptor<AnnounceRequest> argumentCaptor = ArgumentCaptor.forClass(AnnounceRequest.class);
 
-        Mockito.reset(delayQueue);
+        Mockito.clearInvocations(delayQueue);
         client.onTorrentFileAdded(torrent2);
         verify(delayQueue, times(1)).addOrReplace(argumentCaptor.capture(), anyInt(), any(TemporalUnit.class));
 
@@ -420,7 +569,7 @@ public class ClientTest {
                 MockedTorrentTest.createOneMock("def")
         ));
 
-        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
         final AnnouncerFactory mockedAnnouncerFactory = createMockedAnnouncerFactory();
 
         final Client client = (Client) ClientBuilder.builder()
@@ -438,7 +587,7 @@ public class ClientTest {
         client.start();
         assertThat(client.getCurrentlySeedingAnnouncer()).hasSize(1);
 
-        Mockito.reset(delayQueue);
+        Mockito.clearInvocations(delayQueue);
         client.onTorrentFileAdded(torrent3);
         verify(delayQueue, times(0)).addOrReplace(any(AnnounceRequest.class), anyInt(), any(TemporalUnit.class));
 
@@ -446,6 +595,51 @@ public class ClientTest {
     }
 
 
+    @SuppressWarnings({"unchecked", "ResultOfMethodCallIgnored"})
+    @Test
+    public void shouldOnlyStartAddedTorrentsThatFitInEmptySlotsAndPublishASingleEvent() {
+        final AppConfiguration appConfiguration = this.createMockedConf();
+        doReturn(3).when(appConfiguration).getSimultaneousSeed();
+
+        final MockedTorrent seeding = MockedTorrentTest.createOneMock("abc");
+        final TorrentFileProvider torrentFileProvider = createMockedTorrentFileProviderWithTorrent(Lists.newArrayList(seeding));
+
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
+        final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+        final Client client = (Client) ClientBuilder.builder()
+                .withAnnouncerFactory(createMockedAnnouncerFactory())
+                .withBandwidthDispatcher(mock(BandwidthDispatcher.class))
+                .withAppConfiguration(appConfiguration)
+                .withTorrentFileProvider(torrentFileProvider)
+                .withEventPublisher(eventPublisher)
+                .withDelayQueue(delayQueue)
+                .build();
+        client.setAnnouncerExecutor(mock(AnnouncerExecutor.class));
+
+        client.start();
+        assertThat(client.getCurrentlySeedingAnnouncer()).hasSize(1);
+
+        final MockedTorrent torrent2 = MockedTorrentTest.createOneMock("def");
+        final MockedTorrent torrent3 = MockedTorrentTest.createOneMock("ghi");
+        final MockedTorrent torrent4 = MockedTorrentTest.createOneMock("jkl");
+        final List<MockedTorrent> added = Lists.newArrayList(seeding, torrent2, torrent2, torrent3, torrent4);
+
+        Mockito.clearInvocations(delayQueue);
+        client.onTorrentFilesAdded(added);
+
+        final ArgumentCaptor<AnnounceRequest> argumentCaptor = ArgumentCaptor.forClass(AnnounceRequest.class);
+        verify(delayQueue, times(2)).addOrReplace(argumentCaptor.capture(), anyInt(), any(TemporalUnit.class));
+        assertThat(argumentCaptor.getAllValues())
+                .extracting(AnnounceRequest::getInfoHash)
+                .containsExactly(torrent2.getTorrentInfoHash(), torrent3.getTorrentInfoHash());
+        assertThat(client.getCurrentlySeedingAnnouncer()).hasSize(3);
+
+        final ArgumentCaptor<TorrentFilesAddedEvent> eventCaptor = ArgumentCaptor.forClass(TorrentFilesAddedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getTorrents()).isEqualTo(added);
+    }
+
     @SuppressWarnings({"unchecked", "ResultOfMethodCallIgnored"})
     @Test
     public void shouldTryToStopAnnouncerWhenTorrentFileIsDeleted() {
@@ -457,7 +651,7 @@ public class ClientTest {
                 torrent
         ));
 
-        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
         final AnnouncerFactory mockedAnnouncerFactory = createMockedAnnouncerFactory();
 
         final Client client = (Client) ClientBuilder.builder()
@@ -478,7 +672,7 @@ public class ClientTest {
 
         final ArgumentCaptor<AnnounceRequest> argumentCaptor = ArgumentCaptor.forClass(AnnounceRequest.class);
 
-        Mockito.reset(delayQueue);
+        Mockito.clearInvocations(delayQueue);
         client.onTorrentFileRemoved(torrent);
         verify(delayQueue, times(1)).addOrReplace(argumentCaptor.capture(), anyInt(), any(TemporalUnit.class));
 
@@ -497,7 +691,7 @@ public class ClientTest {
                 MockedTorrentTest.createOneMock("abc")
         ));
 
-        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
         final AnnouncerFactory mockedAnnouncerFactory = createMockedAnnouncerFactory();
 
         final Client client = (Client) ClientBuilder.builder()
@@ -524,6 +718,42 @@ public class ClientTest {
     }
 
 
+    @SuppressWarnings({"unchecked", "ResultOfMethodCallIgnored"})
+    @Test
+    public void shouldUpdateAnnouncerTorrentWhenTorrentFileIsUpdatedWithoutStoppingIt() {
+        final AppConfiguration appConfiguration = this.createMockedConf();
+        doReturn(1).when(appConfiguration).getSimultaneousSeed();
+
+        final MockedTorrent torrent = MockedTorrentTest.createOneMock("abc");
+        final TorrentFileProvider torrentFileProvider = createMockedTorrentFileProviderWithTorrent(Lists.newArrayList(
+                torrent
+        ));
+
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
+        final Client client = (Client) ClientBuilder.builder()
+                .withAnnouncerFactory(createMockedAnnouncerFactory())
+                .withBandwidthDispatcher(mock(BandwidthDispatcher.class))
+                .withAppConfiguration(appConfiguration)
+                .withTorrentFileProvider(torrentFileProvider)
+                .withEventPublisher(mock(ApplicationEventPublisher.class))
+                .withDelayQueue(delayQueue)
+                .build();
+        client.setAnnouncerExecutor(mock(AnnouncerExecutor.class));
+
+        client.start();
+        assertThat(client.getCurrentlySeedingAnnouncer()).hasSize(1);
+        final Announcer announcer = (Announcer) client.getCurrentlySeedingAnnouncer().get(0);
+
+        Mockito.clearInvocations(delayQueue);
+        final MockedTorrent updated = MockedTorrentTest.createOneMock("abc");
+        client.onTorrentFileUpdated(updated);
+        client.onTorrentFileUpdated(MockedTorrentTest.createOneMock("def"));
+
+        verify(announcer, times(1)).updateTorrent(updated);
+        verify(delayQueue, never()).addOrReplace(any(AnnounceRequest.class), anyInt(), any(TemporalUnit.class));
+        assertThat(client.getCurrentlySeedingAnnouncer()).containsExactly(announcer);
+    }
+
     @SuppressWarnings({"unchecked", "TypeMayBeWeakened", "ResultOfMethodCallIgnored", "ConstantConditions"})
     @Test
     public void shouldRegisterToTorrentFileProviderOnStartAndUnregisterOnStop() {
@@ -531,7 +761,7 @@ public class ClientTest {
 
         final TorrentFileProvider torrentFileProvider = createMockedTorrentFileProviderWithTorrent(Lists.newArrayList());
 
-        final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final DelayQueue<AnnounceRequest> delayQueue = createMockedDelayQueue();
         final AnnouncerFactory mockedAnnouncerFactory = createMockedAnnouncerFactory();
         final BandwidthDispatcher bandwidthDispatcher = mock(BandwidthDispatcher.class);
 
@@ -0,0 +1,90 @@
+package org.araymond.joal.core.ttorrent.client;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how late announces are dispatched by the orchestrator thread, comparing the former 1 second polling loop
+ * with the event-driven {@link DelayQueue#awaitAvailables()}.
+ * <p>
+ * Each shot dispatches torrents scheduled over {@code windowMillis}, the shot time beyond the window is how late the
+ * last one went out.
+ * <p>
+ * Not a unit test, run it manually:
+ * <pre>
+ *     mvn test-compile
+ *     java -cp "target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *         org.araymond.joal.core.ttorrent.client.DelayQueueDispatchLatenessBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class DelayQueueDispatchLatenessBenchmark {
+
+    @Param({"50000"})
+    public int torrentCount;
+
+    @Param({"3000"})
+    public int windowMillis;
+
+    @Param({"false", "true"})
+    public boolean eventDriven;
+
+    private DelayQueue<ScheduledTorrent> queue;
+
+    @Setup(Level.Iteration)
+    public void schedule() {
+        final Random random = new Random(42);
+        this.queue = new DelayQueue<>();
+        for (int i = 0; i < this.torrentCount; ++i) {
+            final int delayMs = random.nextInt(this.windowMillis);
+            this.queue.addOrReplace(new ScheduledTorrent(infoHashOf(i)), delayMs, ChronoUnit.MILLIS);
+        }
+    }
+
+    @Benchmark
+    public int dispatch() throws InterruptedException {
+        int dispatched = 0;
+        while (dispatched < this.torrentCount) {
+            final List<ScheduledTorrent> available = this.eventDriven ? this.queue.awaitAvailables() : this.queue.getAvailables();
+            dispatched += available.size();
+            if (!this.eventDriven && dispatched < this.torrentCount) {
+                Thread.sleep(1000);
+            }
+        }
+        return dispatched;
+    }
+
+    private static InfoHash infoHashOf(final int i) {
+        return new InfoHash(ByteBuffer.allocate(20).putInt(i).array());
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    private static final class ScheduledTorrent implements DelayQueue.InfoHashAble {
+        private final InfoHash infoHash;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(DelayQueueDispatchLatenessBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
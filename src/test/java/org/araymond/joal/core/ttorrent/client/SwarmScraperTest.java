@@ -0,0 +1,98 @@
+package org.araymond.joal.core.ttorrent.client;
+
+import org.araymond.joal.core.bandwith.BandwidthDispatcher;
+import org.araymond.joal.core.bandwith.Peers;
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.araymond.joal.core.torrent.torrent.InfoHashTest;
+import org.araymond.joal.core.torrent.watcher.TorrentFileProvider;
+import org.araymond.joal.core.ttorrent.client.announcer.tracker.TrackerScraper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+public class SwarmScraperTest {
+
+    private static TrackerScraper createTrackerScraper(final Map<InfoHash, Peers> result) {
+        final TrackerScraper trackerScraper = mock(TrackerScraper.class);
+        doReturn(CompletableFuture.completedFuture(result)).when(trackerScraper).scrape(any());
+        return trackerScraper;
+    }
+
+    @Test
+    public void shouldNotBuildWithInvalidArguments() {
+        assertThatThrownBy(() -> new SwarmScraper(null, mock(TorrentFileProvider.class), null, 1000))
+                .isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> new SwarmScraper(mock(TrackerScraper.class), mock(TorrentFileProvider.class), null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldPushScrapedPeersToBandwidthDispatcher() throws InterruptedException {
+        final Map<InfoHash, Peers> scraped = new HashMap<>();
+        scraped.put(InfoHashTest.createOne("a"), new Peers(10, 2));
+        final BandwidthDispatcher bandwidthDispatcher = mock(BandwidthDispatcher.class);
+        final SwarmScraper swarmScraper = new SwarmScraper(createTrackerScraper(scraped), mock(TorrentFileProvider.class), bandwidthDispatcher, 1000);
+
+        swarmScraper.scrapeNow();
+
+        verify(bandwidthDispatcher, times(1)).updateTorrentsPeers(scraped);
+    }
+
+    @Test
+    public void shouldListTorrentsWithoutLeechers() throws InterruptedException {
+        final Map<InfoHash, Peers> scraped = new HashMap<>();
+        scraped.put(InfoHashTest.createOne("a"), new Peers(10, 2));
+        scraped.put(InfoHashTest.createOne("b"), new Peers(10, 0));
+        scraped.put(InfoHashTest.createOne("c"), new Peers(0, 0));
+        final SwarmScraper swarmScraper = new SwarmScraper(createTrackerScraper(scraped), mock(TorrentFileProvider.class), null, 1000);
+        assertThat(swarmScraper.getTorrentsWithoutLeechers()).isEmpty();
+
+        swarmScraper.scrapeNow();
+
+        assertThat(swarmScraper.getTorrentsWithoutLeechers()).containsExactlyInAnyOrder(InfoHashTest.createOne("b"), InfoHashTest.createOne("c"));
+    }
+
+    @Test
+    public void shouldKeepPreviousResultIfScrapeFails() throws InterruptedException {
+        final Map<InfoHash, Peers> scraped = new HashMap<>();
+        scraped.put(InfoHashTest.createOne("b"), new Peers(10, 0));
+        final TrackerScraper trackerScraper = createTrackerScraper(scraped);
+        final BandwidthDispatcher bandwidthDispatcher = mock(BandwidthDispatcher.class);
+        final SwarmScraper swarmScraper = new SwarmScraper(trackerScraper, mock(TorrentFileProvider.class), bandwidthDispatcher, 1000);
+        swarmScraper.scrapeNow();
+
+        final CompletableFuture<Map<InfoHash, Peers>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("boom"));
+        doReturn(failed).when(trackerScraper).scrape(any());
+        swarmScraper.scrapeNow();
+
+        assertThat(swarmScraper.getTorrentsWithoutLeechers()).containsExactly(InfoHashTest.createOne("b"));
+        verify(bandwidthDispatcher, times(1)).updateTorrentsPeers(anyMap());
+    }
+
+    @Test
+    public void shouldScrapePeriodicallyAndNotifyUntilStopped() throws InterruptedException {
+        final TrackerScraper trackerScraper = createTrackerScraper(new HashMap<>());
+        final SwarmScraper swarmScraper = new SwarmScraper(trackerScraper, mock(TorrentFileProvider.class), null, 10);
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        swarmScraper.start(latch::countDown);
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        swarmScraper.stop();
+
+        verify(trackerScraper, atLeast(3)).scrape(any());
+        final int scrapeCount = mockingDetails(trackerScraper).getInvocations().size();
+        Thread.sleep(50);
+        assertThat(mockingDetails(trackerScraper).getInvocations()).hasSize(scrapeCount);
+    }
+}
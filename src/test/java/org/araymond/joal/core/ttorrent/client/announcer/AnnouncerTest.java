@@ -11,11 +11,14 @@ import org.araymond.joal.core.ttorrent.client.announcer.exceptions.TooMuchAnnoun
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnounceDataAccessor;
 import org.araymond.joal.core.ttorrent.client.announcer.request.SuccessAnnounceResponse;
 import org.araymond.joal.core.ttorrent.client.announcer.request.SuccessAnnounceResponseTest;
+import org.araymond.joal.core.ttorrent.client.announcer.tracker.AnnounceTransport;
 import org.araymond.joal.core.ttorrent.client.announcer.tracker.TrackerClient;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -190,6 +193,30 @@ public class AnnouncerTest {
         assertThat(announcer.getLastKnownLeechers()).contains(30);
     }
 
+    @Test
+    public void shouldSwapTorrentWithSameInfoHashAndKeepAnnounceState() throws AnnounceException, TooMuchAnnouncesFailedInARawException {
+        final MockedTorrent torrent = MockedTorrentTest.createOneMock("abcd");
+        final AnnounceDataAccessor dataAccessor = mock(AnnounceDataAccessor.class);
+        doReturn("dd=ff&qq=d").when(dataAccessor).getHttpRequestQueryForTorrent(any(InfoHash.class), any());
+        doReturn(Lists.newArrayList()).when(dataAccessor).getHttpHeadersForTorrent();
+        final TrackerClient trackerClient = mock(TrackerClient.class);
+        doReturn(new SuccessAnnounceResponse(900, 180, 30)).when(trackerClient).announce(anyString(), any());
+
+        final Announcer announcer = new Announcer(torrent, dataAccessor, Mockito.mock(HttpClient.class));
+        announcer.setTrackerClient(trackerClient);
+        announcer.announce(RequestEvent.STARTED);
+
+        final MockedTorrent updated = MockedTorrentTest.createOneMock("abcd");
+        announcer.updateTorrent(updated);
+
+        assertThat(announcer.getTorrent()).isSameAs(updated);
+        assertThat(announcer.getLastKnownInterval()).isEqualTo(900);
+        assertThat(announcer.getLastKnownSeeders()).contains(180);
+        assertThatThrownBy(() -> announcer.updateTorrent(MockedTorrentTest.createOneMock("efgh")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(announcer.getTorrent()).isSameAs(updated);
+    }
+
     @SuppressWarnings("ResultOfMethodCallIgnored")
     @Test
     public void shouldBeEqualsByInfoHash() {
@@ -216,4 +243,71 @@ public class AnnouncerTest {
         assertThat(announcer1).isNotEqualTo(announcer2);
     }
 
+    @Test
+    public void shouldCompleteWithTooManyFailsExceptionIfAsyncAnnounceFailsFiveTimesInARaw() {
+        final MockedTorrent torrent = MockedTorrentTest.createOneMock("abcd");
+
+        final AnnounceTransport trackerClient = mock(AnnounceTransport.class);
+        final CompletableFuture<SuccessAnnounceResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new AnnounceException("yeah ! :)"));
+        doReturn(failed).when(trackerClient).announceAsync(anyString(), any());
+        final AnnounceDataAccessor dataAccessor = mock(AnnounceDataAccessor.class);
+        doReturn("dd=ff&qq=d").when(dataAccessor).getHttpRequestQueryForTorrent(any(InfoHash.class), eq(RequestEvent.STARTED));
+        doReturn(Lists.newArrayList()).when(dataAccessor).getHttpHeadersForTorrent();
+
+        final Announcer announcer = new Announcer(torrent, dataAccessor, Mockito.mock(HttpClient.class));
+        announcer.setTrackerClient(trackerClient);
+
+        for (int i = 0; i < 4; ++i) {
+            assertThatThrownBy(() -> announcer.announceAsync(RequestEvent.STARTED).join())
+                    .isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(AnnounceException.class);
+        }
+        assertThatThrownBy(() -> announcer.announceAsync(RequestEvent.STARTED).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(TooMuchAnnouncesFailedInARawException.class);
+        assertThat(announcer.getConsecutiveFails()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldUpdateLastKnownInfoOnAsyncAnnounceSuccess() {
+        final MockedTorrent torrent = MockedTorrentTest.createOneMock("abcd");
+
+        final AnnounceTransport trackerClient = mock(AnnounceTransport.class);
+        doReturn(CompletableFuture.completedFuture(new SuccessAnnounceResponse(1800, 12, 7))).when(trackerClient).announceAsync(anyString(), any());
+        final AnnounceDataAccessor dataAccessor = mock(AnnounceDataAccessor.class);
+        doReturn("dd=ff&qq=d").when(dataAccessor).getHttpRequestQueryForTorrent(any(InfoHash.class), eq(RequestEvent.STARTED));
+        doReturn(Lists.newArrayList()).when(dataAccessor).getHttpHeadersForTorrent();
+
+        final Announcer announcer = new Announcer(torrent, dataAccessor, Mockito.mock(HttpClient.class));
+        announcer.setTrackerClient(trackerClient);
+
+        announcer.announceAsync(RequestEvent.STARTED).join();
+
+        assertThat(announcer.getLastKnownInterval()).isEqualTo(1800);
+        assertThat(announcer.getLastKnownSeeders()).contains(12);
+        assertThat(announcer.getLastKnownLeechers()).contains(7);
+        assertThat(announcer.getLastAnnouncedAt()).isPresent();
+    }
+
+    @Test
+    public void shouldCancelTrackerRequestWhenAsyncAnnounceIsCancelledWithoutCountingAFailure() {
+        final MockedTorrent torrent = MockedTorrentTest.createOneMock("abcd");
+
+        final AnnounceTransport trackerClient = mock(AnnounceTransport.class);
+        final CompletableFuture<SuccessAnnounceResponse> transport = new CompletableFuture<>();
+        doReturn(transport).when(trackerClient).announceAsync(anyString(), any());
+        final AnnounceDataAccessor dataAccessor = mock(AnnounceDataAccessor.class);
+        doReturn("dd=ff&qq=d").when(dataAccessor).getHttpRequestQueryForTorrent(any(InfoHash.class), eq(RequestEvent.STARTED));
+        doReturn(Lists.newArrayList()).when(dataAccessor).getHttpHeadersForTorrent();
+
+        final Announcer announcer = new Announcer(torrent, dataAccessor, Mockito.mock(HttpClient.class));
+        announcer.setTrackerClient(trackerClient);
+
+        announcer.announceAsync(RequestEvent.STARTED).cancel(true);
+
+        assertThat(transport.isCancelled()).isTrue();
+        assertThat(announcer.getConsecutiveFails()).isEqualTo(0);
+    }
+
 }
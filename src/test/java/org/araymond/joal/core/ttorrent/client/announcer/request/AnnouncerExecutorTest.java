@@ -12,6 +12,8 @@ import org.mockito.Mockito;
 
 import java.nio.ByteBuffer;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -230,6 +232,129 @@ public class AnnouncerExecutorTest {
     }
 
 
+    @Test
+    public void shouldNotHoldThreadsWhileWaitingForNonBlockingAnnounces() throws InterruptedException {
+        final CountDownLatch countDown = new CountDownLatch(1);
+        final AnnounceResponseCallback announceResponseCallback = new DefaultCallback() {
+            @Override
+            public void onAnnounceSuccess(final RequestEvent event, final Announcer announcer, final SuccessAnnounceResponse result) {
+                countDown.countDown();
+            }
+        };
+        final AnnouncerExecutor executor = new AnnouncerExecutor(announceResponseCallback);
+
+        for (int i = 0; i < 100; i++) {
+            final Announcer announcer = mock(Announcer.class);
+            Mockito.doReturn(new InfoHash(ByteBuffer.allocate(4).putInt(i).array())).when(announcer).getTorrentInfoHash();
+            Mockito.doReturn(true).when(announcer).supportsNonBlockingAnnounce();
+            // Never completes, as a tracker that never answers
+            Mockito.doReturn(new CompletableFuture<>()).when(announcer).announceAsync(Mockito.any());
+            executor.execute(AnnounceRequest.createRegular(announcer));
+        }
+
+        final Announcer announcer = mock(Announcer.class);
+        Mockito.doReturn(new InfoHash(ByteBuffer.allocate(4).putInt(100).array())).when(announcer).getTorrentInfoHash();
+        Mockito.doReturn(true).when(announcer).supportsNonBlockingAnnounce();
+        Mockito.doReturn(CompletableFuture.completedFuture(new SuccessAnnounceResponse(1800, 10, 10))).when(announcer).announceAsync(Mockito.any());
+        executor.execute(AnnounceRequest.createRegular(announcer));
+
+        assertThat(countDown.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.denyAll()).hasSize(100);
+    }
+
+    @Test
+    public void shouldCallTooManyFailsWhenNonBlockingAnnounceFailsWithTooManyFails() throws InterruptedException {
+        final CountDownLatch countDown = new CountDownLatch(1);
+        final AnnounceResponseCallback announceResponseCallback = new DefaultCallback() {
+            @Override
+            public void onTooManyAnnounceFailedInARaw(final RequestEvent event, final Announcer announcer, final TooMuchAnnouncesFailedInARawException e) {
+                countDown.countDown();
+            }
+        };
+        final AnnouncerExecutor executor = new AnnouncerExecutor(announceResponseCallback);
+
+        final Announcer announcer = mock(Announcer.class);
+        Mockito.doReturn(new InfoHash(ByteBuffer.allocate(4).putInt(1).array())).when(announcer).getTorrentInfoHash();
+        Mockito.doReturn(true).when(announcer).supportsNonBlockingAnnounce();
+        final CompletableFuture<SuccessAnnounceResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new CompletionException(new TooMuchAnnouncesFailedInARawException(mock(MockedTorrent.class))));
+        Mockito.doReturn(failed).when(announcer).announceAsync(Mockito.any());
+        executor.execute(AnnounceRequest.createRegular(announcer));
+
+        assertThat(countDown.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void shouldCancelTrackerRequestWhenDenyingNonBlockingAnnounce() throws InterruptedException {
+        final AnnouncerExecutor executor = new AnnouncerExecutor(new DefaultCallback());
+
+        final CountDownLatch announced = new CountDownLatch(2);
+        final Announcer first = mock(Announcer.class);
+        final Announcer second = mock(Announcer.class);
+        final CompletableFuture<SuccessAnnounceResponse> firstTransport = new CompletableFuture<>();
+        final CompletableFuture<SuccessAnnounceResponse> secondTransport = new CompletableFuture<>();
+        Mockito.doReturn(new InfoHash(ByteBuffer.allocate(4).putInt(1).array())).when(first).getTorrentInfoHash();
+        Mockito.doReturn(new InfoHash(ByteBuffer.allocate(4).putInt(2).array())).when(second).getTorrentInfoHash();
+        Mockito.doReturn(true).when(first).supportsNonBlockingAnnounce();
+        Mockito.doReturn(true).when(second).supportsNonBlockingAnnounce();
+        Mockito.doAnswer(invocation -> {
+            announced.countDown();
+            return firstTransport;
+        }).when(first).announceAsync(Mockito.any());
+        Mockito.doAnswer(invocation -> {
+            announced.countDown();
+            return secondTransport;
+        }).when(second).announceAsync(Mockito.any());
+        executor.execute(AnnounceRequest.createRegular(first));
+        executor.execute(AnnounceRequest.createRegular(second));
+        assertThat(announced.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(executor.deny(first.getTorrentInfoHash())).contains(first);
+        // The transport may be handed to the executor right after announceAsync returns, it is cancelled from there
+        assertThat(awaitCancelled(firstTransport)).isTrue();
+        assertThat(secondTransport.isCancelled()).isFalse();
+
+        assertThat(executor.denyAll()).containsExactly(second);
+        assertThat(awaitCancelled(secondTransport)).isTrue();
+    }
+
+    private static boolean awaitCancelled(final CompletableFuture<?> future) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!future.isCancelled() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        return future.isCancelled();
+    }
+
+    @Test
+    public void shouldAwaitNonBlockingAnnouncesBeforeReturningFromAwait() {
+        final AtomicInteger atomicInteger = new AtomicInteger(0);
+        final AnnounceResponseCallback announceResponseCallback = new DefaultCallback() {
+            @Override
+            public void onAnnounceSuccess(final RequestEvent event, final Announcer announcer, final SuccessAnnounceResponse result) {
+                atomicInteger.incrementAndGet();
+            }
+        };
+        final AnnouncerExecutor executor = new AnnouncerExecutor(announceResponseCallback);
+
+        for (int i = 0; i < 15; i++) {
+            final Announcer announcer = mock(Announcer.class);
+            Mockito.doReturn(new InfoHash(ByteBuffer.allocate(4).putInt(i).array())).when(announcer).getTorrentInfoHash();
+            Mockito.doReturn(true).when(announcer).supportsNonBlockingAnnounce();
+            Mockito.doAnswer(invocation -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    Thread.sleep(100);
+                } catch (final InterruptedException ignored) {
+                }
+                return new SuccessAnnounceResponse(1800, 10, 10);
+            })).when(announcer).announceAsync(Mockito.any());
+            executor.execute(AnnounceRequest.createRegular(announcer));
+        }
+
+        executor.awaitForRunningTasks();
+        assertThat(atomicInteger.get()).isEqualTo(15);
+    }
+
     private static class DefaultCallback implements AnnounceResponseCallback {
         @Override
         public void onAnnounceWillAnnounce(final RequestEvent event, final Announcer announcer) {
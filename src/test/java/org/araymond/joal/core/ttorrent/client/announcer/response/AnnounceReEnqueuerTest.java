@@ -8,6 +8,7 @@ import org.araymond.joal.core.ttorrent.client.announcer.Announcer;
 import org.araymond.joal.core.ttorrent.client.announcer.exceptions.TooMuchAnnouncesFailedInARawException;
 import org.araymond.joal.core.ttorrent.client.announcer.request.AnnounceRequest;
 import org.araymond.joal.core.ttorrent.client.announcer.request.SuccessAnnounceResponse;
+import org.araymond.joal.core.ttorrent.client.rampup.AnnounceRampUpScheduler;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
@@ -156,4 +157,21 @@ public class AnnounceReEnqueuerTest {
         Mockito.verifyNoMoreInteractions(delayQueue);
     }
 
+    @Test
+    public void shouldDelayRegularAnnounceWhenSchedulerAsksForIt() {
+        @SuppressWarnings("unchecked") final DelayQueue<AnnounceRequest> delayQueue = mock(DelayQueue.class);
+        final Announcer announcer = mock(Announcer.class);
+        Mockito.doReturn(new InfoHash("ddd".getBytes())).when(announcer).getTorrentInfoHash();
+        final AnnounceRampUpScheduler rampUpScheduler = mock(AnnounceRampUpScheduler.class);
+        doReturn(3).when(rampUpScheduler).regularAnnounceShiftInSeconds(150);
+
+        final AnnounceReEnqueuer announceReEnqueuer = new AnnounceReEnqueuer(delayQueue, rampUpScheduler);
+
+        final SuccessAnnounceResponse successAnnounceResponse = Mockito.mock(SuccessAnnounceResponse.class);
+        doReturn(150).when(successAnnounceResponse).getInterval();
+        announceReEnqueuer.onAnnounceRegularSuccess(announcer, successAnnounceResponse);
+
+        Mockito.verify(delayQueue, times(1)).addOrReplace(any(AnnounceRequest.class), eq(153), eq(ChronoUnit.SECONDS));
+    }
+
 }
@@ -0,0 +1,221 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.sun.net.httpserver.HttpServer;
+import com.turn.ttorrent.client.announce.AnnounceException;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.araymond.joal.core.ttorrent.client.announcer.request.SuccessAnnounceResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AsyncTrackerClientTest {
+
+    private static final String SUCCESS_RESPONSE = "d8:completei5e10:incompletei3e8:intervali1800e5:peers0:e";
+
+    private HttpServer server;
+    private CloseableHttpAsyncClient httpClient;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.start();
+        this.httpClient = HttpAsyncClients.custom()
+                .setDefaultIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(1).setSoTimeout(5_000).build())
+                .setMaxConnPerRoute(500)
+                .setMaxConnTotal(500)
+                .build();
+        this.httpClient.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        this.httpClient.close();
+        this.server.stop(0);
+    }
+
+    private void respondWith(final String body, final long delayMs) {
+        this.server.createContext("/announce", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (final InterruptedException ignored) {
+            }
+            final byte[] bytes = body.getBytes(StandardCharsets.ISO_8859_1);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (final OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+    }
+
+    private String announceUrl() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort() + "/announce";
+    }
+
+    private static Iterable<Map.Entry<String, String>> createHeaders() {
+        final List<Map.Entry<String, String>> entries = new ArrayList<>();
+        entries.add(new AbstractMap.SimpleEntry<>("User-Agent", "joal-test"));
+        return entries;
+    }
+
+    @Test
+    public void shouldBeNonBlocking() {
+        final AsyncTrackerClient trackerClient = new AsyncTrackerClient(TrackerClientUriProviderTest.createOne(this.announceUrl()), new TrackerResponseHandler(), this.httpClient);
+        assertThat(trackerClient.isNonBlocking()).isTrue();
+    }
+
+    @Test
+    public void shouldAnnounceAndParseResponse() throws Exception {
+        final AtomicReference<String> query = new AtomicReference<>();
+        final AtomicReference<String> userAgent = new AtomicReference<>();
+        this.server.createContext("/announce", exchange -> {
+            query.set(exchange.getRequestURI().getRawQuery());
+            userAgent.set(exchange.getRequestHeaders().getFirst("User-Agent"));
+            final byte[] bytes = SUCCESS_RESPONSE.getBytes(StandardCharsets.ISO_8859_1);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (final OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        final AsyncTrackerClient trackerClient = new AsyncTrackerClient(TrackerClientUriProviderTest.createOne(this.announceUrl()), new TrackerResponseHandler(), this.httpClient);
+
+        final SuccessAnnounceResponse response = trackerClient.announceAsync("param=val&dd=q", createHeaders()).get(10, TimeUnit.SECONDS);
+
+        assertThat(response.getInterval()).isEqualTo(1800);
+        assertThat(response.getSeeders()).isEqualTo(4);
+        assertThat(response.getLeechers()).isEqualTo(3);
+        assertThat(query.get()).isEqualTo("param=val&dd=q");
+        assertThat(userAgent.get()).isEqualTo("joal-test");
+    }
+
+    @Test
+    public void shouldFailAndMoveToNextTrackerOnErrorMessage() {
+        this.respondWith("d14:failure reason5:nope!e", 0);
+        final TrackerClientUriProvider uriProvider = TrackerClientUriProviderTest.createOne(this.announceUrl(), "http://127.0.0.2/announce");
+        final AsyncTrackerClient trackerClient = new AsyncTrackerClient(uriProvider, new TrackerResponseHandler(), this.httpClient);
+
+        assertThatThrownBy(() -> trackerClient.announceAsync("param=val", createHeaders()).get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(AnnounceException.class)
+                .hasMessageContaining("nope!");
+        assertThat(uriProvider.get().toString()).isEqualTo("http://127.0.0.2/announce");
+    }
+
+    @Test
+    public void shouldFailWhenTrackerIsUnreachable() throws IOException {
+        final int closedPort;
+        try (final ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        final AsyncTrackerClient trackerClient = new AsyncTrackerClient(
+                TrackerClientUriProviderTest.createOne("http://127.0.0.1:" + closedPort + "/announce"),
+                new TrackerResponseHandler(),
+                this.httpClient
+        );
+
+        assertThatThrownBy(() -> trackerClient.announce("param=val", createHeaders()))
+                .isInstanceOf(AnnounceException.class);
+    }
+
+    @Test
+    public void shouldFailIfNoHttpTrackerIsAvailable() {
+        final AsyncTrackerClient trackerClient = new AsyncTrackerClient(
+                TrackerClientUriProviderTest.createOne("udp://localhost:6969/announce"),
+                new TrackerResponseHandler(),
+                this.httpClient
+        );
+
+        assertThat(trackerClient.announceAsync("param=val", createHeaders())).isCompletedExceptionally();
+    }
+
+    @Test
+    public void shouldKeepManyAnnouncesInFlightConcurrently() throws Exception {
+        this.respondWith(SUCCESS_RESPONSE, 500);
+
+        final List<CompletableFuture<SuccessAnnounceResponse>> futures = new ArrayList<>();
+        final long start = System.nanoTime();
+        for (int i = 0; i < 100; ++i) {
+            final AsyncTrackerClient trackerClient = new AsyncTrackerClient(TrackerClientUriProviderTest.createOne(this.announceUrl()), new TrackerResponseHandler(), this.httpClient);
+            futures.add(trackerClient.announceAsync("i=" + i, createHeaders()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(20, TimeUnit.SECONDS);
+
+        // 100 sequential calls would take 50s, 3 blocking threads about 17s.
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(10_000);
+    }
+
+    @Test
+    public void shouldAbortRequestAndFreeItsConnectionWhenAnnounceIsCancelled() throws Exception {
+        this.respondWith(SUCCESS_RESPONSE, 0);
+        final CountDownLatch slowRequestReceived = new CountDownLatch(1);
+        this.server.createContext("/slow/announce", exchange -> {
+            slowRequestReceived.countDown();
+            try {
+                Thread.sleep(5_000);
+            } catch (final InterruptedException ignored) {
+            }
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        try (final CloseableHttpAsyncClient singleConnectionClient = HttpAsyncClients.custom().setMaxConnPerRoute(1).setMaxConnTotal(1).build()) {
+            singleConnectionClient.start();
+            final String slowUrl = "http://127.0.0.1:" + this.server.getAddress().getPort() + "/slow/announce";
+            final CompletableFuture<SuccessAnnounceResponse> slow = new AsyncTrackerClient(TrackerClientUriProviderTest.createOne(slowUrl), new TrackerResponseHandler(), singleConnectionClient)
+                    .announceAsync("param=val", createHeaders());
+            assertThat(slowRequestReceived.await(5, TimeUnit.SECONDS)).isTrue();
+
+            slow.cancel(true);
+
+            // The only connection would otherwise be held until the slow tracker answers
+            final SuccessAnnounceResponse response = new AsyncTrackerClient(TrackerClientUriProviderTest.createOne(this.announceUrl()), new TrackerResponseHandler(), singleConnectionClient)
+                    .announceAsync("param=val", createHeaders())
+                    .get(3, TimeUnit.SECONDS);
+            assertThat(response.getInterval()).isEqualTo(1800);
+        }
+    }
+
+    @Test
+    public void shouldAnnounceToUdpTrackers() throws Exception {
+        try (final UdpTrackerStandIn udpTracker = new UdpTrackerStandIn(); final UdpTrackerSocket udpSocket = new UdpTrackerSocket()) {
+            final AsyncTrackerClient trackerClient = new AsyncTrackerClient(TrackerClientUriProviderTest.createOne(udpTracker.getAnnounceUrl()), new TrackerResponseHandler(), this.httpClient, udpSocket);
+
+            final SuccessAnnounceResponse response = trackerClient.announceAsync(
+                    "info_hash=%0b%c8%c5%e1o%fd%cc%ea%8d%3c%8d%2b%e5%94%ee%05%a3%8ct%d9&peer_id=-qB4250-abcdefghijkl&port=51413&event=started",
+                    createHeaders()
+            ).get(10, TimeUnit.SECONDS);
+
+            assertThat(response.getInterval()).isEqualTo(1800);
+            assertThat(response.getLeechers()).isEqualTo(7);
+            assertThat(response.getSeeders()).isEqualTo(10);
+        }
+    }
+
+    @Test
+    public void shouldSkipUdpTrackersWithoutUdpSocket() throws Exception {
+        this.respondWith(SUCCESS_RESPONSE, 0);
+        final TrackerClientUriProvider uriProvider = TrackerClientUriProviderTest.createOne("udp://127.0.0.1:6969/announce", this.announceUrl());
+        final AsyncTrackerClient trackerClient = new AsyncTrackerClient(uriProvider, new TrackerResponseHandler(), this.httpClient);
+
+        trackerClient.announceAsync("param=val", createHeaders()).get(10, TimeUnit.SECONDS);
+
+        assertThat(uriProvider.get().getScheme()).isEqualTo("http");
+    }
+}
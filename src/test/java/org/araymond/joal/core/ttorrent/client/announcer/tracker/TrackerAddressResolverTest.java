@@ -0,0 +1,88 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.turn.ttorrent.client.announce.AnnounceException;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TrackerAddressResolverTest {
+
+    private static final InetAddress LOCALHOST = InetAddress.getLoopbackAddress();
+
+    @Test
+    public void shouldResolveOffTheCallingThread() throws Exception {
+        final CountDownLatch lookupMayReturn = new CountDownLatch(1);
+        final TrackerAddressResolver resolver = new TrackerAddressResolver(host -> {
+            try {
+                lookupMayReturn.await();
+            } catch (final InterruptedException e) {
+                throw new UnknownHostException(host);
+            }
+            return LOCALHOST;
+        }, Duration.ofMinutes(5), System::nanoTime);
+        try {
+            final CompletableFuture<InetSocketAddress> address = resolver.resolve("tracker.example", 6969);
+            assertThat(address).isNotDone();
+
+            lookupMayReturn.countDown();
+            assertThat(address.get(5, TimeUnit.SECONDS)).isEqualTo(new InetSocketAddress(LOCALHOST, 6969));
+        } finally {
+            resolver.close();
+        }
+    }
+
+    @Test
+    public void shouldReuseResolvedAddressUntilTtlHasElapsed() throws Exception {
+        final AtomicInteger lookups = new AtomicInteger();
+        final AtomicLong clock = new AtomicLong();
+        final TrackerAddressResolver resolver = new TrackerAddressResolver(host -> {
+            lookups.incrementAndGet();
+            return LOCALHOST;
+        }, Duration.ofMinutes(5), clock::get);
+        try {
+            resolver.resolve("tracker.example", 6969).get(5, TimeUnit.SECONDS);
+            assertThat(resolver.resolve("tracker.example", 1337).get(5, TimeUnit.SECONDS).getPort()).isEqualTo(1337);
+            assertThat(lookups).hasValue(1);
+
+            clock.addAndGet(Duration.ofMinutes(5).toNanos());
+            resolver.resolve("tracker.example", 6969).get(5, TimeUnit.SECONDS);
+            assertThat(lookups).hasValue(2);
+        } finally {
+            resolver.close();
+        }
+    }
+
+    @Test
+    public void shouldNotKeepFailedLookups() throws Exception {
+        final AtomicInteger lookups = new AtomicInteger();
+        final TrackerAddressResolver resolver = new TrackerAddressResolver(host -> {
+            if (lookups.incrementAndGet() == 1) {
+                throw new UnknownHostException(host);
+            }
+            return LOCALHOST;
+        }, Duration.ofMinutes(5), () -> 0L);
+        try {
+            assertThatThrownBy(() -> resolver.resolve("tracker.example", 6969).get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(AnnounceException.class);
+
+            assertThat(resolver.resolve("tracker.example", 6969).get(5, TimeUnit.SECONDS)).isEqualTo(new InetSocketAddress(LOCALHOST, 6969));
+            assertThat(lookups).hasValue(2);
+        } finally {
+            resolver.close();
+        }
+    }
+
+}
@@ -158,4 +158,21 @@ public class TrackerClientTest {
         assertThat(announceResponse.getInterval()).isEqualTo(expected.getInterval());
     }
 
+    @Test
+    public void shouldNotReAnnounceBeforeMinInterval() throws AnnounceException {
+        final TrackerClientUriProvider uriProvider = Mockito.spy(TrackerClientUriProviderTest.createOne("https://localhost"));
+
+        final TrackerClient trackerClient = Mockito.spy(new TrackerClient(uriProvider, mock(TrackerResponseHandler.class), Mockito.mock(HttpClient.class)));
+        Mockito.doReturn(
+                new TrackerResponseHandler.AnnounceResponse(60, 900, 10, 5)
+        ).when(trackerClient).makeCallAndGetResponseAsByteBuffer(any(URI.class), anyString(), any());
+
+        assertThat(trackerClient.announce("param=val&dd=q", this.createHeaders()).getInterval()).isEqualTo(900);
+
+        Mockito.doReturn(
+                new TrackerResponseHandler.AnnounceResponse(1800, 900, 10, 5)
+        ).when(trackerClient).makeCallAndGetResponseAsByteBuffer(any(URI.class), anyString(), any());
+
+        assertThat(trackerClient.announce("param=val&dd=q", this.createHeaders()).getInterval()).isEqualTo(1800);
+    }
 }
@@ -0,0 +1,167 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.turn.ttorrent.common.protocol.TrackerMessage;
+import com.turn.ttorrent.common.protocol.TrackerMessage.AnnounceResponseMessage;
+import com.turn.ttorrent.common.protocol.TrackerMessage.ErrorMessage;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TrackerResponseHandlerTest {
+
+    /**
+     * Bencoded announce response with the given number of compact IPv4 peers, plus as many IPv6 ones.
+     */
+    static byte[] createAnnounceResponse(final int peerCount) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] peers = new byte[peerCount * 6];
+        final byte[] peers6 = new byte[peerCount * 18];
+        for (int i = 0; i < peers.length; ++i) {
+            peers[i] = (byte) i;
+        }
+        write(out, "d8:completei35e10:incompletei12e8:intervali1800e12:min intervali900e");
+        write(out, "5:peers" + peers.length + ":");
+        out.write(peers, 0, peers.length);
+        write(out, "6:peers6" + peers6.length + ":");
+        out.write(peers6, 0, peers6.length);
+        write(out, "e");
+        return out.toByteArray();
+    }
+
+    private static void write(final ByteArrayOutputStream out, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static TrackerMessage parse(final String response) throws Exception {
+        return TrackerResponseHandler.parse(new ByteArrayInputStream(response.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    /**
+     * Hands out the data one byte at a time, to make sure values spanning multiple reads are handled.
+     */
+    private static InputStream oneByteAtATime(final byte[] data) {
+        return new FilterInputStream(new ByteArrayInputStream(data)) {
+            @Override
+            public int read(final byte[] b, final int off, final int len) throws IOException {
+                return super.read(b, off, Math.min(1, len));
+            }
+        };
+    }
+
+    @Test
+    public void shouldParseAnnounceResponse() throws Exception {
+        final TrackerMessage message = parse("d8:completei5e10:incompletei3e8:intervali1800e5:peers0:e");
+
+        assertThat(message).isInstanceOf(AnnounceResponseMessage.class);
+        final AnnounceResponseMessage response = (AnnounceResponseMessage) message;
+        assertThat(response.getInterval()).isEqualTo(1800);
+        assertThat(response.getComplete()).isEqualTo(5);
+        assertThat(response.getIncomplete()).isEqualTo(3);
+        assertThat(response.getPeers()).isEmpty();
+        assertThat(((TrackerResponseHandler.AnnounceResponse) message).getMinInterval()).isEqualTo(-1);
+    }
+
+    @Test
+    public void shouldParseAnnounceResponseWithLargePeerLists() throws Exception {
+        final TrackerResponseHandler.AnnounceResponse response = (TrackerResponseHandler.AnnounceResponse) TrackerResponseHandler.parse(new ByteArrayInputStream(createAnnounceResponse(5000)));
+
+        assertThat(response.getInterval()).isEqualTo(1800);
+        assertThat(response.getMinInterval()).isEqualTo(900);
+        assertThat(response.getComplete()).isEqualTo(35);
+        assertThat(response.getIncomplete()).isEqualTo(12);
+    }
+
+    @Test
+    public void shouldParseResponseSplitAcrossManyReads() throws Exception {
+        final TrackerResponseHandler.AnnounceResponse response = (TrackerResponseHandler.AnnounceResponse) TrackerResponseHandler.parse(oneByteAtATime(createAnnounceResponse(50)));
+
+        assertThat(response.getInterval()).isEqualTo(1800);
+        assertThat(response.getComplete()).isEqualTo(35);
+        assertThat(response.getIncomplete()).isEqualTo(12);
+    }
+
+    @Test
+    public void shouldSkipNonCompactPeersAndUnknownKeys() throws Exception {
+        final TrackerMessage message = parse("d8:completei5e10:tracker id3:abc15:warning message4:warn8:intervali60e"
+                + "5:peersld2:ip9:127.0.0.17:peer id20:-qB4250-abcdefghijkl4:porti6881eed2:ip3:::14:porti1eee"
+                + "10:incompletei3e9:somethingd1:ali1ei-2ed1:xi0eeeee");
+
+        final AnnounceResponseMessage response = (AnnounceResponseMessage) message;
+        assertThat(response.getInterval()).isEqualTo(60);
+        assertThat(response.getComplete()).isEqualTo(5);
+        assertThat(response.getIncomplete()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldDefaultPeersCountToZero() throws Exception {
+        final AnnounceResponseMessage response = (AnnounceResponseMessage) parse("d8:intervali60ee");
+
+        assertThat(response.getComplete()).isEqualTo(0);
+        assertThat(response.getIncomplete()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldParseFailureReasonEvenWithInterval() throws Exception {
+        final TrackerMessage message = parse("d14:failure reason12:unregistered8:intervali60ee");
+
+        assertThat(message).isInstanceOf(ErrorMessage.class);
+        assertThat(((ErrorMessage) message).getReason()).isEqualTo("unregistered");
+    }
+
+    @Test
+    public void shouldFailIfNoIntervalNorFailureReason() {
+        assertThatThrownBy(() -> parse("d8:completei5ee"))
+                .isInstanceOf(TrackerMessage.MessageValidationException.class);
+    }
+
+    @Test
+    public void shouldFailOnMalformedResponses() {
+        assertThatThrownBy(() -> parse("<html>Not found</html>")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parse("d8:intervali60e5:peers10:abc")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parse("d8:intervali6x0ee")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parse("d8:intervalie")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parse("")).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void shouldWrapErrorsFromHandleResponse() {
+        final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(new ByteArrayEntity("d8:completei5ee".getBytes(StandardCharsets.ISO_8859_1)));
+
+        assertThatThrownBy(() -> new TrackerResponseHandler().handleResponse(response))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Tracker message violates expected protocol");
+    }
+
+    @Test
+    public void shouldFailIfNoEntity() {
+        final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+
+        assertThatThrownBy(() -> new TrackerResponseHandler().handleResponse(response))
+                .isInstanceOf(IOException.class)
+                .hasMessage("No response from tracker");
+    }
+
+    @Test
+    public void shouldHandleResponse() throws IOException {
+        final HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(new ByteArrayEntity(createAnnounceResponse(200)));
+
+        final AnnounceResponseMessage message = (AnnounceResponseMessage) new TrackerResponseHandler().handleResponse(response);
+
+        assertThat(message.getInterval()).isEqualTo(1800);
+    }
+}
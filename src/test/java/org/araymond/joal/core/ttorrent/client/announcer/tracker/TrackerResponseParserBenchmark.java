@@ -0,0 +1,74 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.turn.ttorrent.common.protocol.TrackerMessage;
+import com.turn.ttorrent.common.protocol.http.HTTPTrackerMessage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former way of handling tracker responses, buffering the whole body then decoding it entirely with
+ * ttorrent, with the streaming {@link TrackerResponseHandler#parse(InputStream)}.
+ * <p>
+ * Not a unit test, run it manually:
+ * <pre>
+ *     mvn test-compile
+ *     java -cp "target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *         org.araymond.joal.core.ttorrent.client.announcer.tracker.TrackerResponseParserBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrackerResponseParserBenchmark {
+
+    /**
+     * The response holds as many IPv4 as IPv6 compact peers.
+     */
+    @Param({"50", "200", "1000"})
+    public int peerCount;
+
+    private byte[] response;
+
+    @Setup
+    public void setUp() {
+        this.response = TrackerResponseHandlerTest.createAnnounceResponse(this.peerCount);
+    }
+
+    @Benchmark
+    public TrackerMessage bufferedTtorrentParser() throws IOException, TrackerMessage.MessageValidationException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(1024);
+        final InputStream in = new ByteArrayInputStream(this.response);
+        final byte[] chunk = new byte[4096];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            outputStream.write(chunk, 0, read);
+        }
+        return HTTPTrackerMessage.parse(ByteBuffer.wrap(outputStream.toByteArray()));
+    }
+
+    @Benchmark
+    public TrackerMessage streamingParser() throws IOException, TrackerMessage.MessageValidationException {
+        return TrackerResponseHandler.parse(new ByteArrayInputStream(this.response));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(TrackerResponseParserBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
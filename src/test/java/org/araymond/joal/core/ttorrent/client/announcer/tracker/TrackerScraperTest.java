@@ -0,0 +1,216 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.google.common.collect.Lists;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.araymond.joal.core.bandwith.Peers;
+import org.araymond.joal.core.client.emulated.generator.UrlEncoder;
+import org.araymond.joal.core.client.emulated.utils.Casing;
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
+import org.araymond.joal.core.ttorrent.client.announcer.request.AnnounceDataAccessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class TrackerScraperTest {
+
+    private HttpServer server;
+    private CloseableHttpAsyncClient httpClient;
+    private final List<List<InfoHash>> scrapedBatches = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // Answers with the index of each requested torrent as leechers count
+        this.server.createContext("/scrape", exchange -> {
+            final List<InfoHash> infoHashes = Arrays.stream(exchange.getRequestURI().getRawQuery().split("&"))
+                    .map(param -> param.substring("info_hash=".length()))
+                    .map(value -> new InfoHash(percentDecode(value)))
+                    .collect(Collectors.toList());
+            this.scrapedBatches.add(infoHashes);
+
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            body.write("d5:filesd".getBytes(StandardCharsets.ISO_8859_1));
+            for (final InfoHash infoHash : infoHashes) {
+                final byte[] raw = infoHash.value().getBytes(StandardCharsets.ISO_8859_1);
+                body.write((raw.length + ":").getBytes(StandardCharsets.ISO_8859_1));
+                body.write(raw);
+                body.write(("d8:completei5e10:downloadedi50e10:incompletei" + raw[0] + "ee").getBytes(StandardCharsets.ISO_8859_1));
+            }
+            body.write("ee".getBytes(StandardCharsets.ISO_8859_1));
+            exchange.sendResponseHeaders(200, body.size());
+            try (final OutputStream os = exchange.getResponseBody()) {
+                os.write(body.toByteArray());
+            }
+        });
+        this.server.start();
+        this.httpClient = HttpAsyncClients.createDefault();
+        this.httpClient.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        this.httpClient.close();
+        this.server.stop(0);
+    }
+
+    private static byte[] percentDecode(final String value) {
+        try {
+            return URLDecoder.decode(value, "ISO-8859-1").getBytes(StandardCharsets.ISO_8859_1);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static AnnounceDataAccessor createAnnounceDataAccessor() {
+        final UrlEncoder urlEncoder = new UrlEncoder("[A-Za-z0-9]", Casing.LOWER);
+        final AnnounceDataAccessor announceDataAccessor = mock(AnnounceDataAccessor.class);
+        doAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).stream()
+                .map(infoHash -> "info_hash=" + urlEncoder.encode(((InfoHash) infoHash).value()))
+                .collect(Collectors.joining("&"))
+        ).when(announceDataAccessor).getHttpScrapeQueryForTorrents(anyCollection());
+        doReturn(new ArrayList<>()).when(announceDataAccessor).getHttpHeadersForTorrent();
+        return announceDataAccessor;
+    }
+
+    /**
+     * The first byte of the info hash is used as leechers count by the trackers of these tests.
+     */
+    private static MockedTorrent createTorrent(final int leechers, final String... trackers) {
+        final MockedTorrent torrent = mock(MockedTorrent.class);
+        final byte[] infoHash = new byte[20];
+        infoHash[0] = (byte) leechers;
+        infoHash[1] = (byte) 0xe9;
+        doReturn(new InfoHash(infoHash)).when(torrent).getTorrentInfoHash();
+        final List<List<URI>> announceList = new ArrayList<>();
+        announceList.add(Arrays.stream(trackers).map(URI::create).collect(Collectors.toList()));
+        doReturn(announceList).when(torrent).getAnnounceList();
+        return torrent;
+    }
+
+    private String announceUrl() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort() + "/announce";
+    }
+
+    @Test
+    public void shouldDeriveScrapeUriFromAnnounceUri() {
+        assertThat(TrackerScraper.toScrapeUri(URI.create("http://example.com/announce"))).contains(URI.create("http://example.com/scrape"));
+        assertThat(TrackerScraper.toScrapeUri(URI.create("https://example.com:8080/x/announce.php?passkey=abc"))).contains(URI.create("https://example.com:8080/x/scrape.php?passkey=abc"));
+        assertThat(TrackerScraper.toScrapeUri(URI.create("http://example.com/a/announce"))).contains(URI.create("http://example.com/a/scrape"));
+        assertThat(TrackerScraper.toScrapeUri(URI.create("udp://example.com:6969/announce"))).contains(URI.create("udp://example.com:6969/announce"));
+    }
+
+    @Test
+    public void shouldNotDeriveScrapeUriIfNotSupported() {
+        assertThat(TrackerScraper.toScrapeUri(URI.create("http://example.com/a"))).isEmpty();
+        assertThat(TrackerScraper.toScrapeUri(URI.create("http://example.com/announce/x"))).isEmpty();
+        assertThat(TrackerScraper.toScrapeUri(URI.create("udp://example.com/announce"))).isEmpty();
+        assertThat(TrackerScraper.toScrapeUri(URI.create("wss://example.com/announce"))).isEmpty();
+    }
+
+    @Test
+    public void shouldParseHttpScrapeResponse() throws IOException {
+        final InfoHash first = new InfoHash(new byte[]{'a', (byte) 0xff, 0x00});
+        final InfoHash second = new InfoHash(new byte[]{'b'});
+        final byte[] body = ("d5:filesd"
+                + "3:a\u00ff\u0000d8:completei5e10:downloadedi50e10:incompletei10ee"
+                + "1:bd8:completei0e10:incompletei0e4:name3:fooe"
+                + "1:cd8:completei1e10:incompletei1ee" // not requested
+                + "ee").getBytes(StandardCharsets.ISO_8859_1);
+
+        final Map<InfoHash, Peers> peers = TrackerScraper.parseHttpScrapeResponse(new ByteArrayInputStream(body), Lists.newArrayList(first, second));
+
+        assertThat(peers).containsOnlyKeys(first, second);
+        assertThat(peers.get(first)).isEqualTo(new Peers(5, 10));
+        assertThat(peers.get(second)).isEqualTo(new Peers(0, 0));
+    }
+
+    @Test
+    public void shouldFailToParseFailureOrMalformedResponse() {
+        assertThatThrownBy(() -> TrackerScraper.parseHttpScrapeResponse(new ByteArrayInputStream("d14:failure reason5:nope!e".getBytes(StandardCharsets.ISO_8859_1)), new ArrayList<>()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("nope!");
+        assertThatThrownBy(() -> TrackerScraper.parseHttpScrapeResponse(new ByteArrayInputStream("d5:filesd1:ad8:completei".getBytes(StandardCharsets.ISO_8859_1)), new ArrayList<>()))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> TrackerScraper.parseHttpScrapeResponse(new ByteArrayInputStream("<html></html>".getBytes(StandardCharsets.ISO_8859_1)), new ArrayList<>()))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void shouldScrapeManyTorrentsPerHttpRequest() throws Exception {
+        final TrackerScraper scraper = new TrackerScraper(createAnnounceDataAccessor(), this.httpClient, null);
+        final List<MockedTorrent> torrents = IntStream.range(0, TrackerScraper.MAX_HTTP_BATCH_SIZE + 10)
+                .mapToObj(i -> createTorrent(i, this.announceUrl()))
+                .collect(Collectors.toList());
+
+        final Map<InfoHash, Peers> peers = scraper.scrape(torrents).get(10, TimeUnit.SECONDS);
+
+        assertThat(this.scrapedBatches).hasSize(2);
+        assertThat(this.scrapedBatches.stream().mapToInt(List::size).sorted().toArray()).containsExactly(10, TrackerScraper.MAX_HTTP_BATCH_SIZE);
+        assertThat(peers).hasSize(torrents.size());
+        for (int i = 0; i < torrents.size(); ++i) {
+            assertThat(peers.get(torrents.get(i).getTorrentInfoHash())).isEqualTo(new Peers(5, i));
+        }
+    }
+
+    @Test
+    public void shouldScrapeFirstScrapableTrackerOfEachTorrent() throws Exception {
+        final TrackerScraper scraper = new TrackerScraper(createAnnounceDataAccessor(), this.httpClient, null);
+        final MockedTorrent torrent = createTorrent(3, "udp://127.0.0.1:1/announce", "http://127.0.0.1:1/not-scrapable", this.announceUrl());
+
+        final Map<InfoHash, Peers> peers = scraper.scrape(Collections.singletonList(torrent)).get(10, TimeUnit.SECONDS);
+
+        assertThat(peers).containsEntry(torrent.getTorrentInfoHash(), new Peers(5, 3));
+    }
+
+    @Test
+    public void shouldScrapeUdpTrackers() throws Exception {
+        try (final UdpTrackerStandIn udpTracker = new UdpTrackerStandIn(); final UdpTrackerSocket udpSocket = new UdpTrackerSocket()) {
+            final TrackerScraper scraper = new TrackerScraper(createAnnounceDataAccessor(), this.httpClient, udpSocket);
+            final List<MockedTorrent> torrents = IntStream.range(0, UdpTrackerSocket.MAX_SCRAPE_BATCH_SIZE + 1)
+                    .mapToObj(i -> createTorrent(i, udpTracker.getAnnounceUrl()))
+                    .collect(Collectors.toList());
+
+            final Map<InfoHash, Peers> peers = scraper.scrape(torrents).get(10, TimeUnit.SECONDS);
+
+            assertThat(udpTracker.scrapeCount.get()).isEqualTo(2);
+            assertThat(udpTracker.connectCount.get()).isEqualTo(1);
+            assertThat(peers).hasSize(torrents.size());
+            for (int i = 0; i < torrents.size(); ++i) {
+                assertThat(peers.get(torrents.get(i).getTorrentInfoHash())).isEqualTo(new Peers(11, i));
+            }
+        }
+    }
+
+    @Test
+    public void shouldOmitTorrentsOfFailingTrackers() throws Exception {
+        final TrackerScraper scraper = new TrackerScraper(createAnnounceDataAccessor(), this.httpClient, null);
+        final MockedTorrent reachable = createTorrent(1, this.announceUrl());
+        final MockedTorrent unreachable = createTorrent(2, "http://127.0.0.1:" + this.server.getAddress().getPort() + "/x/announce");
+
+        final Map<InfoHash, Peers> peers = scraper.scrape(Lists.newArrayList(reachable, unreachable)).get(10, TimeUnit.SECONDS);
+
+        assertThat(peers).containsOnlyKeys(reachable.getTorrentInfoHash());
+    }
+}
@@ -0,0 +1,63 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UdpAnnounceRequestTest {
+
+    private static final String INFO_HASH = "%0b%c8%c5%e1o%fd%cc%ea%8d%3c%8d%2b%e5%94%ee%05%a3%8ct%d9";
+
+    @Test
+    public void shouldBuildFromHttpQuery() {
+        final UdpAnnounceRequest request = UdpAnnounceRequest.fromHttpQuery(
+                "info_hash=" + INFO_HASH + "&peer_id=-qB4250-abc%2adefghijk&port=51413&uploaded=1024&downloaded=12&left=3&corrupt=0&key=1A2B3C4D&event=started&numwant=200&compact=1"
+        );
+
+        assertThat(request.getInfoHash()).hasSize(20);
+        assertThat(request.getInfoHash()[0]).isEqualTo((byte) 0x0b);
+        assertThat(request.getInfoHash()[4]).isEqualTo((byte) 'o');
+        assertThat(new String(request.getPeerId(), StandardCharsets.ISO_8859_1)).isEqualTo("-qB4250-abc*defghijk");
+        assertThat(request.getPort()).isEqualTo(51413);
+        assertThat(request.getUploaded()).isEqualTo(1024);
+        assertThat(request.getDownloaded()).isEqualTo(12);
+        assertThat(request.getLeft()).isEqualTo(3);
+        assertThat(request.getKey()).isEqualTo(0x1A2B3C4D);
+        assertThat(request.getEvent()).isEqualTo(2);
+        assertThat(request.getNumWant()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldUseDefaultsForMissingOptionalParams() {
+        final UdpAnnounceRequest request = UdpAnnounceRequest.fromHttpQuery("info_hash=" + INFO_HASH + "&peer_id=-qB4250-abcdefghijkl&port=51413");
+
+        assertThat(request.getEvent()).isEqualTo(0);
+        assertThat(request.getNumWant()).isEqualTo(-1);
+        assertThat(request.getKey()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldMapEvents() {
+        final String base = "info_hash=" + INFO_HASH + "&peer_id=-qB4250-abcdefghijkl&port=51413&event=";
+        assertThat(UdpAnnounceRequest.fromHttpQuery(base + "completed").getEvent()).isEqualTo(1);
+        assertThat(UdpAnnounceRequest.fromHttpQuery(base + "started").getEvent()).isEqualTo(2);
+        assertThat(UdpAnnounceRequest.fromHttpQuery(base + "stopped").getEvent()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldHashNonHexKeys() {
+        final UdpAnnounceRequest request = UdpAnnounceRequest.fromHttpQuery("info_hash=" + INFO_HASH + "&peer_id=-qB4250-abcdefghijkl&port=51413&key=notHexadecimal");
+        assertThat(request.getKey()).isEqualTo("notHexadecimal".hashCode());
+    }
+
+    @Test
+    public void shouldFailIfInfoHashIsMissingOrInvalid() {
+        assertThatThrownBy(() -> UdpAnnounceRequest.fromHttpQuery("peer_id=-qB4250-abcdefghijkl&port=51413"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UdpAnnounceRequest.fromHttpQuery("info_hash=abc&peer_id=-qB4250-abcdefghijkl&port=51413"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
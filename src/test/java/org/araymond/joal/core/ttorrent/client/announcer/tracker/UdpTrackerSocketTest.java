@@ -0,0 +1,196 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import com.turn.ttorrent.client.announce.AnnounceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UdpTrackerSocketTest {
+
+    private UdpTrackerStandIn tracker;
+    private UdpTrackerSocket socket;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.tracker = new UdpTrackerStandIn();
+        this.socket = new UdpTrackerSocket(Duration.ofMillis(200), 2, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        this.socket.close();
+        this.tracker.close();
+    }
+
+    static UdpAnnounceRequest createRequest(final int i) {
+        final byte[] infoHash = ByteBuffer.allocate(20).putInt(i).array();
+        final byte[] peerId = "-qB4250-abcdefghijkl".getBytes();
+        return new UdpAnnounceRequest(infoHash, peerId, 0, 0, 1000L * i, 2, 0x1234, 200, 51413);
+    }
+
+    @Test
+    public void shouldConnectThenAnnounce() throws Exception {
+        final UdpTrackerSocket.AnnounceResponse response = this.socket.announce(this.tracker.getAddress(), createRequest(1)).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getInterval()).isEqualTo(1800);
+        assertThat(response.getLeechers()).isEqualTo(7);
+        assertThat(response.getSeeders()).isEqualTo(11);
+        assertThat(this.tracker.connectCount.get()).isEqualTo(1);
+        assertThat(this.tracker.announceCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldSendAnnouncePacketAsDefinedInTheSpec() throws Exception {
+        final UdpAnnounceRequest request = createRequest(3);
+        this.socket.announce(this.tracker.getAddress(), request).get(5, TimeUnit.SECONDS);
+
+        final ByteBuffer packet = this.tracker.announces.get(0);
+        assertThat(packet.remaining()).isEqualTo(98);
+        final byte[] infoHash = new byte[20];
+        ((ByteBuffer) packet.duplicate().position(16)).get(infoHash);
+        assertThat(infoHash).isEqualTo(request.getInfoHash());
+        assertThat(packet.getLong(72)).isEqualTo(3000L); // uploaded
+        assertThat(packet.getInt(80)).isEqualTo(2); // started
+        assertThat(packet.getInt(88)).isEqualTo(0x1234); // key
+        assertThat(packet.getInt(92)).isEqualTo(200); // num_want
+        assertThat(packet.getShort(96) & 0xFFFF).isEqualTo(51413); // port
+    }
+
+    @Test
+    public void shouldReuseConnectionIdWhileItIsValid() throws Exception {
+        this.socket.announce(this.tracker.getAddress(), createRequest(1)).get(5, TimeUnit.SECONDS);
+        this.socket.announce(this.tracker.getAddress(), createRequest(2)).get(5, TimeUnit.SECONDS);
+        this.socket.announce(this.tracker.getAddress(), createRequest(3)).get(5, TimeUnit.SECONDS);
+
+        assertThat(this.tracker.connectCount.get()).isEqualTo(1);
+        assertThat(this.tracker.announceCount.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldReconnectOnceConnectionIdHasExpired() throws Exception {
+        this.socket.close();
+        this.socket = new UdpTrackerSocket(Duration.ofMillis(200), 2, Duration.ofMillis(50));
+
+        this.socket.announce(this.tracker.getAddress(), createRequest(1)).get(5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        this.socket.announce(this.tracker.getAddress(), createRequest(2)).get(5, TimeUnit.SECONDS);
+
+        assertThat(this.tracker.connectCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldShareConnectBetweenConcurrentAnnounces() throws Exception {
+        final List<CompletableFuture<UdpTrackerSocket.AnnounceResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            futures.add(this.socket.announce(this.tracker.getAddress(), createRequest(i)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertThat(this.tracker.connectCount.get()).isEqualTo(1);
+        assertThat(this.tracker.announceCount.get()).isEqualTo(500);
+    }
+
+    @Test
+    public void shouldMultiplexManyTrackersOverOneSocket() throws Exception {
+        try (final UdpTrackerStandIn otherTracker = new UdpTrackerStandIn()) {
+            final CompletableFuture<?> first = this.socket.announce(this.tracker.getAddress(), createRequest(1));
+            final CompletableFuture<?> second = this.socket.announce(otherTracker.getAddress(), createRequest(2));
+            CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+            assertThat(this.tracker.announceCount.get()).isEqualTo(1);
+            assertThat(otherTracker.announceCount.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void shouldRetransmitUnansweredRequests() throws Exception {
+        this.tracker.packetsToDrop.set(2);
+
+        final UdpTrackerSocket.AnnounceResponse response = this.socket.announce(this.tracker.getAddress(), createRequest(1)).get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getInterval()).isEqualTo(1800);
+    }
+
+    @Test
+    public void shouldFailAfterMaxRetransmissions() throws IOException {
+        try (final DatagramSocket silentTracker = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            final InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), silentTracker.getLocalPort());
+            final long start = System.nanoTime();
+
+            // 200ms, then 400ms, then 800ms
+            assertThatThrownBy(() -> this.socket.announce(address, createRequest(1)).get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseInstanceOf(AnnounceException.class)
+                    .hasMessageContaining("did not answer");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(1400);
+        }
+    }
+
+    @Test
+    public void shouldFailWithTrackerErrorMessageAndForgetConnectionId() throws Exception {
+        this.socket.announce(this.tracker.getAddress(), createRequest(1)).get(5, TimeUnit.SECONDS);
+        this.tracker.forgetConnectionIds();
+
+        assertThatThrownBy(() -> this.socket.announce(this.tracker.getAddress(), createRequest(1)).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("bad connection id");
+
+        this.socket.announce(this.tracker.getAddress(), createRequest(1)).get(5, TimeUnit.SECONDS);
+        assertThat(this.tracker.connectCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldFailPendingRequestsOnClose() throws IOException {
+        try (final DatagramSocket silentTracker = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            final InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), silentTracker.getLocalPort());
+            final CompletableFuture<?> future = this.socket.announce(address, createRequest(1));
+            this.socket.close();
+
+            assertThat(future).isCompletedExceptionally();
+            assertThat(Arrays.asList(this.socket.announce(address, createRequest(1)))).allMatch(CompletableFuture::isCompletedExceptionally);
+        }
+    }
+
+    @Test
+    public void shouldScrapeManyTorrentsInOnePacket() throws Exception {
+        final List<byte[]> infoHashes = new ArrayList<>();
+        for (int i = 0; i < UdpTrackerSocket.MAX_SCRAPE_BATCH_SIZE; ++i) {
+            infoHashes.add(createRequest(i).getInfoHash());
+        }
+
+        final List<UdpTrackerSocket.ScrapeResponse> responses = this.socket.scrape(this.tracker.getAddress(), infoHashes).get(5, TimeUnit.SECONDS);
+
+        assertThat(this.tracker.scrapeCount.get()).isEqualTo(1);
+        assertThat(responses).hasSize(UdpTrackerSocket.MAX_SCRAPE_BATCH_SIZE);
+        assertThat(responses.get(0).getSeeders()).isEqualTo(11);
+        assertThat(responses.get(0).getCompleted()).isEqualTo(3);
+        assertThat(responses.get(0).getLeechers()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRefuseTooBigScrape() {
+        final List<byte[]> infoHashes = new ArrayList<>();
+        for (int i = 0; i <= UdpTrackerSocket.MAX_SCRAPE_BATCH_SIZE; ++i) {
+            infoHashes.add(createRequest(i).getInfoHash());
+        }
+
+        assertThatThrownBy(() -> this.socket.scrape(this.tracker.getAddress(), infoHashes))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package org.araymond.joal.core.ttorrent.client.announcer.tracker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal UDP tracker (BEP 15) listening on localhost, for tests.
+ */
+class UdpTrackerStandIn implements Closeable {
+    private final DatagramSocket socket;
+    private final Thread thread;
+    private final Set<Long> connectionIds = ConcurrentHashMap.newKeySet();
+    final AtomicInteger connectCount = new AtomicInteger();
+    final AtomicInteger announceCount = new AtomicInteger();
+    final AtomicInteger scrapeCount = new AtomicInteger();
+    final AtomicInteger packetsToDrop = new AtomicInteger();
+    final List<ByteBuffer> announces = new CopyOnWriteArrayList<>();
+    volatile String errorMessage = null;
+
+    UdpTrackerStandIn() throws SocketException {
+        this.socket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        this.thread = new Thread(this::run, "udp-tracker-stand-in");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    InetSocketAddress getAddress() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), this.socket.getLocalPort());
+    }
+
+    String getAnnounceUrl() {
+        return "udp://127.0.0.1:" + this.socket.getLocalPort() + "/announce";
+    }
+
+    void forgetConnectionIds() {
+        this.connectionIds.clear();
+    }
+
+    private void run() {
+        final byte[] buffer = new byte[2048];
+        while (!this.socket.isClosed()) {
+            final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                this.socket.receive(packet);
+            } catch (final IOException e) {
+                return;
+            }
+            if (this.packetsToDrop.getAndUpdate(i -> Math.max(0, i - 1)) > 0) {
+                continue;
+            }
+            final ByteBuffer request = ByteBuffer.wrap(packet.getData(), 0, packet.getLength());
+            final ByteBuffer response = this.handle(request);
+            try {
+                this.socket.send(new DatagramPacket(response.array(), response.position(), packet.getSocketAddress()));
+            } catch (final IOException e) {
+                return;
+            }
+        }
+    }
+
+    private ByteBuffer handle(final ByteBuffer request) {
+        final long connectionId = request.getLong(0);
+        final int action = request.getInt(8);
+        final int transactionId = request.getInt(12);
+
+        if (this.errorMessage != null) {
+            final byte[] message = this.errorMessage.getBytes(StandardCharsets.UTF_8);
+            return ByteBuffer.allocate(8 + message.length).putInt(UdpTrackerSocket.ACTION_ERROR).putInt(transactionId).put(message);
+        }
+        if (action == UdpTrackerSocket.ACTION_CONNECT && connectionId == UdpTrackerSocket.PROTOCOL_ID) {
+            this.connectCount.incrementAndGet();
+            final long newConnectionId = ThreadLocalRandom.current().nextLong();
+            this.connectionIds.add(newConnectionId);
+            return ByteBuffer.allocate(16).putInt(UdpTrackerSocket.ACTION_CONNECT).putInt(transactionId).putLong(newConnectionId);
+        }
+        if (action == UdpTrackerSocket.ACTION_ANNOUNCE && this.connectionIds.contains(connectionId)) {
+            this.announceCount.incrementAndGet();
+            final ByteBuffer copy = ByteBuffer.allocate(request.remaining());
+            copy.put(request.duplicate()).flip();
+            this.announces.add(copy);
+            // interval, leechers, seeders, then one peer
+            return ByteBuffer.allocate(26).putInt(UdpTrackerSocket.ACTION_ANNOUNCE).putInt(transactionId)
+                    .putInt(1800).putInt(7).putInt(11)
+                    .put(new byte[]{127, 0, 0, 1}).putShort((short) 6881);
+        }
+        if (action == UdpTrackerSocket.ACTION_SCRAPE && this.connectionIds.contains(connectionId)) {
+            this.scrapeCount.incrementAndGet();
+            final int torrentCount = (request.remaining() - 16) / 20;
+            final ByteBuffer response = ByteBuffer.allocate(8 + 12 * torrentCount).putInt(UdpTrackerSocket.ACTION_SCRAPE).putInt(transactionId);
+            for (int i = 0; i < torrentCount; ++i) {
+                // seeders, completed, then use the first byte of the info hash as leechers count
+                response.putInt(11).putInt(3).putInt(request.get(16 + 20 * i));
+            }
+            return response;
+        }
+        final byte[] message = "bad connection id".getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(8 + message.length).putInt(UdpTrackerSocket.ACTION_ERROR).putInt(transactionId).put(message);
+    }
+
+    @Override
+    public void close() {
+        this.socket.close();
+    }
+}
@@ -0,0 +1,77 @@
+package org.araymond.joal.core.ttorrent.client.rampup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AnnounceRampUpSchedulerTest {
+
+    @Test
+    public void shouldSpaceStartedAnnouncesOfABurst() {
+        final AtomicLong now = new AtomicLong(0);
+        final AnnounceRampUpScheduler scheduler = new AnnounceRampUpScheduler(new LinearRampUp(100, null), 5, now::get);
+
+        assertThat(scheduler.nextStartDelayMs()).isEqualTo(0);
+        assertThat(scheduler.nextStartDelayMs()).isEqualTo(100);
+        now.set(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(scheduler.nextStartDelayMs()).isEqualTo(150);
+    }
+
+    @Test
+    public void shouldStartANewBurstOnceThePreviousOneIsDue() {
+        final AtomicLong now = new AtomicLong(0);
+        final AnnounceRampUpScheduler scheduler = new AnnounceRampUpScheduler(new LinearRampUp(100, null), 5, now::get);
+
+        scheduler.nextStartDelayMs();
+        scheduler.nextStartDelayMs();
+        now.set(TimeUnit.MILLISECONDS.toNanos(101));
+
+        assertThat(scheduler.nextStartDelayMs()).isEqualTo(0);
+        assertThat(scheduler.nextStartDelayMs()).isEqualTo(100);
+    }
+
+    @Test
+    public void shouldNeverShiftRegularAnnouncesWithoutLimit() {
+        final AnnounceRampUpScheduler scheduler = new AnnounceRampUpScheduler(new LinearRampUp(100, null), 5, () -> 0L);
+        for (int i = 0; i < 100; ++i) {
+            assertThat(scheduler.regularAnnounceShiftInSeconds(1800)).isEqualTo(0);
+        }
+        assertThat(scheduler.getRegularAnnouncesPerSecond()).isEmpty();
+    }
+
+    @Test
+    public void shouldShiftCollidingRegularAnnounces() {
+        final AnnounceRampUpScheduler scheduler = new AnnounceRampUpScheduler(new NoRampUp(2), 5, () -> 0L);
+
+        assertThat(scheduler.regularAnnounceShiftInSeconds(1800)).isEqualTo(0);
+        assertThat(scheduler.regularAnnounceShiftInSeconds(1800)).isEqualTo(0);
+        assertThat(scheduler.regularAnnounceShiftInSeconds(1800)).isEqualTo(1);
+        assertThat(scheduler.regularAnnounceShiftInSeconds(1800)).isEqualTo(1);
+        assertThat(scheduler.regularAnnounceShiftInSeconds(1799)).isEqualTo(0);
+        assertThat(scheduler.regularAnnounceShiftInSeconds(1800)).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotShiftRegularAnnouncesByMoreThanATenthOfTheInterval() {
+        final AnnounceRampUpScheduler scheduler = new AnnounceRampUpScheduler(new NoRampUp(1), 5, () -> 0L);
+        for (int i = 0; i < 20; ++i) {
+            assertThat(scheduler.regularAnnounceShiftInSeconds(30)).isLessThanOrEqualTo(3);
+        }
+    }
+
+    @Test
+    public void shouldForgetSecondsThatAreOver() {
+        final AtomicLong now = new AtomicLong(0);
+        final AnnounceRampUpScheduler scheduler = new AnnounceRampUpScheduler(new NoRampUp(1), 5, now::get);
+        scheduler.regularAnnounceShiftInSeconds(10);
+        scheduler.regularAnnounceShiftInSeconds(20);
+
+        now.set(TimeUnit.SECONDS.toNanos(15));
+        scheduler.regularAnnounceShiftInSeconds(100);
+
+        assertThat(scheduler.getRegularAnnouncesPerSecond()).containsOnlyKeys(20L, 115L);
+    }
+}
@@ -0,0 +1,66 @@
+package org.araymond.joal.core.ttorrent.client.rampup;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AnnounceRampUpSerializationTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void shouldDeserializeNone() throws IOException {
+        final AnnounceRampUp rampUp = mapper.readValue("{\"type\":\"NONE\"}", AnnounceRampUp.class);
+        assertThat(rampUp).isInstanceOf(NoRampUp.class);
+        assertThat(rampUp.getMaxRegularAnnouncesPerSecond()).isNull();
+    }
+
+    @Test
+    public void shouldDeserializeLinear() throws IOException {
+        final AnnounceRampUp rampUp = mapper.readValue("{\"type\":\"LINEAR\",\"stepMs\":200,\"maxRegularAnnouncesPerSecond\":3}", AnnounceRampUp.class);
+        assertThat(rampUp).isInstanceOf(LinearRampUp.class);
+        assertThat(((LinearRampUp) rampUp).getStepMs()).isEqualTo(200);
+        assertThat(rampUp.getMaxRegularAnnouncesPerSecond()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldDeserializeExponential() throws IOException {
+        final AnnounceRampUp rampUp = mapper.readValue("{\"type\":\"EXPONENTIAL\",\"stepMs\":1000,\"initialBatchSize\":2,\"growthFactor\":2.0}", AnnounceRampUp.class);
+        assertThat(rampUp).isInstanceOf(ExponentialRampUp.class);
+    }
+
+    @Test
+    public void shouldDeserializeWindow() throws IOException {
+        final AnnounceRampUp rampUp = mapper.readValue("{\"type\":\"WINDOW\",\"windowSeconds\":60,\"jitterPercent\":50}", AnnounceRampUp.class);
+        assertThat(rampUp).isInstanceOf(WindowRampUp.class);
+    }
+
+    @Test
+    public void shouldFailToDeserializeUnknownType() {
+        assertThatThrownBy(() -> mapper.readValue("{\"type\":\"WHATEVER\"}", AnnounceRampUp.class))
+                .isInstanceOf(JsonMappingException.class);
+    }
+
+    @Test
+    public void shouldFailToDeserializeIfRequiredPropertyIsMissing() {
+        assertThatThrownBy(() -> mapper.readValue("{\"type\":\"LINEAR\"}", AnnounceRampUp.class))
+                .isInstanceOf(JsonMappingException.class)
+                .hasMessageContaining("Missing required creator property 'stepMs'");
+    }
+
+    @Test
+    public void shouldSerializeAndDeserialize() throws IOException {
+        final AnnounceRampUp rampUp = new ExponentialRampUp(500, 4, 1.5, 10);
+        assertThat(mapper.readValue(mapper.writeValueAsString(rampUp), AnnounceRampUp.class)).isEqualTo(rampUp);
+    }
+
+    @Test
+    public void shouldNotSerializeMaxRegularAnnouncesPerSecondIfNull() throws IOException {
+        assertThat(mapper.writeValueAsString(new LinearRampUp(100, null))).isEqualTo("{\"type\":\"LINEAR\",\"stepMs\":100}");
+    }
+}
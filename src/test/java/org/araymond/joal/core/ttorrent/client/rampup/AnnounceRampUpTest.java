@@ -0,0 +1,57 @@
+package org.araymond.joal.core.ttorrent.client.rampup;
+
+import org.araymond.joal.core.config.AppConfigurationIntegrityException;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AnnounceRampUpTest {
+
+    @Test
+    public void shouldNotDelayWithNoRampUp() {
+        assertThat(IntStream.range(0, 50).mapToLong(i -> new NoRampUp().getStartDelayMs(i, 10)).toArray()).containsOnly(0L);
+    }
+
+    @Test
+    public void shouldSpaceLinearly() {
+        final LinearRampUp rampUp = new LinearRampUp(200, null);
+        assertThat(rampUp.getStartDelayMs(0, 10)).isEqualTo(0);
+        assertThat(rampUp.getStartDelayMs(1, 10)).isEqualTo(200);
+        assertThat(rampUp.getStartDelayMs(7, 10)).isEqualTo(1400);
+    }
+
+    @Test
+    public void shouldGrowBatchesExponentially() {
+        final ExponentialRampUp rampUp = new ExponentialRampUp(1000, 2, 2.0, null);
+        // batches: [0, 1] [2..5] [6..13] [14..29]
+        assertThat(IntStream.range(0, 16).mapToLong(i -> rampUp.getStartDelayMs(i, 30)).toArray())
+                .containsExactly(0, 0, 1000, 1000, 1000, 1000, 2000, 2000, 2000, 2000, 2000, 2000, 2000, 2000, 3000, 3000);
+    }
+
+    @Test
+    public void shouldSpreadOverWindowWithoutJitter() {
+        final WindowRampUp rampUp = new WindowRampUp(10, 0, null);
+        assertThat(IntStream.range(0, 5).mapToLong(i -> rampUp.getStartDelayMs(i, 5)).toArray())
+                .containsExactly(0, 2000, 4000, 6000, 8000);
+    }
+
+    @Test
+    public void shouldKeepJitteredAnnouncesInTheirSlot() {
+        final WindowRampUp rampUp = new WindowRampUp(10, 100, null);
+        for (int i = 0; i < 5; ++i) {
+            assertThat(rampUp.getStartDelayMs(i, 5)).isBetween(i * 2000L, (i + 1) * 2000L);
+        }
+    }
+
+    @Test
+    public void shouldFailWithInvalidValues() {
+        assertThatThrownBy(() -> new LinearRampUp(-1, null)).isInstanceOf(AppConfigurationIntegrityException.class);
+        assertThatThrownBy(() -> new ExponentialRampUp(100, 0, 2.0, null)).isInstanceOf(AppConfigurationIntegrityException.class);
+        assertThatThrownBy(() -> new ExponentialRampUp(100, 1, 0.5, null)).isInstanceOf(AppConfigurationIntegrityException.class);
+        assertThatThrownBy(() -> new WindowRampUp(10, 101, null)).isInstanceOf(AppConfigurationIntegrityException.class);
+        assertThatThrownBy(() -> new NoRampUp(0)).isInstanceOf(AppConfigurationIntegrityException.class);
+    }
+}
@@ -0,0 +1,47 @@
+package org.araymond.joal.core.ttorrent.client.rampup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class AnnounceRateMeterTest {
+
+    @Test
+    public void shouldBeZeroWhenNothingWasRecorded() {
+        assertThat(new AnnounceRateMeter().getRate()).isEqualTo(new AnnounceRateMeter.AnnounceRate(0, 0, 0));
+    }
+
+    @Test
+    public void shouldConvergeToTheSteadyRate() {
+        final AtomicLong now = new AtomicLong(0);
+        final AnnounceRateMeter meter = new AnnounceRateMeter(now::get);
+        for (int second = 1; second <= 3000; ++second) {
+            now.set(TimeUnit.SECONDS.toNanos(second));
+            meter.record(4);
+        }
+
+        final AnnounceRateMeter.AnnounceRate rate = meter.getRate();
+        assertThat(rate.getLastTenSeconds()).isCloseTo(4, within(0.3));
+        assertThat(rate.getLastMinute()).isCloseTo(4, within(0.1));
+        assertThat(rate.getLastFiveMinutes()).isCloseTo(4, within(0.1));
+    }
+
+    @Test
+    public void shouldDecayWhenNoMoreAnnouncesAreSent() {
+        final AtomicLong now = new AtomicLong(0);
+        final AnnounceRateMeter meter = new AnnounceRateMeter(now::get);
+        meter.record(100);
+        final AnnounceRateMeter.AnnounceRate before = meter.getRate();
+
+        now.set(TimeUnit.SECONDS.toNanos(60));
+        final AnnounceRateMeter.AnnounceRate after = meter.getRate();
+
+        assertThat(after.getLastTenSeconds()).isLessThan(before.getLastTenSeconds() / 100);
+        assertThat(after.getLastMinute()).isCloseTo(before.getLastMinute() / Math.E, within(0.001));
+        assertThat(after.getLastFiveMinutes()).isLessThan(before.getLastFiveMinutes());
+    }
+}
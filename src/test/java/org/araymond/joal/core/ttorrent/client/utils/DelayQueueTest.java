@@ -5,11 +5,15 @@ import org.araymond.joal.core.ttorrent.client.DelayQueue;
 import org.junit.jupiter.api.Test;
 
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -65,6 +69,96 @@ public class DelayQueueTest {
                 .containsExactly("one", "three");
     }
 
+    @Test
+    public void shouldReplaceItemWithSameInfoHash() {
+        final DelayQueue<DelayQueue.InfoHashAble> queue = new DelayQueue<>();
+
+        queue.addOrReplace(createInfoHashAble("one"), 10, ChronoUnit.SECONDS);
+        queue.addOrReplace(createInfoHashAble("two"), 20, ChronoUnit.SECONDS);
+        queue.addOrReplace(createInfoHashAble("one"), 30, ChronoUnit.SECONDS);
+
+        final List<String> announcers = queue.drainAll().stream().map(i -> i.getInfoHash().value()).collect(Collectors.toList());
+        assertThat(announcers).containsExactly("two", "one");
+    }
+
+    @Test
+    public void shouldNotFailToRemoveAnItemThatIsNotInQueue() {
+        final DelayQueue<DelayQueue.InfoHashAble> queue = new DelayQueue<>();
+        queue.addOrReplace(createInfoHashAble("one"), 10, ChronoUnit.SECONDS);
+
+        queue.remove(createInfoHashAble("two"));
+
+        assertThat(queue.drainAll()).hasSize(1);
+    }
+
+    @Test
+    public void shouldKeepOrderWhenManyItemsAreReplacedAndRemoved() {
+        final DelayQueue<DelayQueue.InfoHashAble> queue = new DelayQueue<>();
+        final Random random = new Random(42);
+        final Map<String, Integer> expectedDelays = new HashMap<>();
+
+        for (int i = 0; i < 5000; ++i) {
+            final String key = String.valueOf(random.nextInt(1000));
+            if (random.nextInt(5) == 0) {
+                queue.remove(createInfoHashAble(key));
+                expectedDelays.remove(key);
+            } else {
+                final int delay = random.nextInt(100_000);
+                queue.addOrReplace(createInfoHashAble(key), delay, ChronoUnit.MINUTES);
+                expectedDelays.put(key, delay);
+            }
+        }
+
+        final List<Integer> delays = queue.drainAll().stream()
+                .map(i -> expectedDelays.get(i.getInfoHash().value()))
+                .collect(Collectors.toList());
+        assertThat(delays).hasSize(expectedDelays.size()).isSorted();
+    }
+
+    @Test
+    public void shouldAwaitUntilFirstItemIsAvailable() throws InterruptedException {
+        final DelayQueue<DelayQueue.InfoHashAble> queue = new DelayQueue<>();
+        final long start = System.nanoTime();
+        queue.addOrReplace(createInfoHashAble("one"), 100, ChronoUnit.MILLIS);
+        queue.addOrReplace(createInfoHashAble("two"), 30, ChronoUnit.MINUTES);
+
+        final List<String> announcers = queue.awaitAvailables().stream().map(i -> i.getInfoHash().value()).collect(Collectors.toList());
+
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(announcers).containsExactly("one");
+    }
+
+    @Test
+    public void shouldWakeUpAwaitingThreadWhenAnEarlierItemIsAdded() throws Exception {
+        final DelayQueue<DelayQueue.InfoHashAble> queue = new DelayQueue<>();
+        queue.addOrReplace(createInfoHashAble("late"), 30, ChronoUnit.MINUTES);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<List<DelayQueue.InfoHashAble>> future = executor.submit(queue::awaitAvailables);
+            Thread.sleep(50);
+            queue.addOrReplace(createInfoHashAble("early"), 0, ChronoUnit.MILLIS);
+
+            final List<String> announcers = future.get(5, TimeUnit.SECONDS).stream().map(i -> i.getInfoHash().value()).collect(Collectors.toList());
+            assertThat(announcers).containsExactly("early");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldStopAwaitingWhenInterrupted() throws Exception {
+        final DelayQueue<DelayQueue.InfoHashAble> queue = new DelayQueue<>();
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Future<List<DelayQueue.InfoHashAble>> future = executor.submit(queue::awaitAvailables);
+        Thread.sleep(50);
+        executor.shutdownNow();
+
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(future.isDone()).isTrue();
+    }
+
     @Test
     public void shouldBeThreadSafe() throws InterruptedException {
         final int announcerCount = 100;
@@ -7,13 +7,23 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.inject.Inject;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.Part;
+import java.io.IOException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -50,6 +60,15 @@ public class EndpointObfuscatorConfigurationWebAppTest {
         public String hello() {
             return "hello again";
         }
+
+        @RequestMapping(path = "/parts", method = RequestMethod.POST)
+        public String parts(final HttpServletRequest request) throws IOException, ServletException {
+            final StringBuilder names = new StringBuilder();
+            for (final Part part : request.getParts()) {
+                names.append(part.getSubmittedFileName()).append(':').append(part.getSize()).append(';');
+            }
+            return names.toString();
+        }
     }
 
     @Test
@@ -73,7 +92,27 @@ public class EndpointObfuscatorConfigurationWebAppTest {
         assertThat(response.getStatusCodeValue()).isEqualTo(404);
     }
 
-}
+    @Test
+    public void shouldAcceptMultipartRequestsLargerThanSpringDefaultLimits() {
+        final byte[] content = new byte[3 * 1024 * 1024];
+        final MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return "a.torrent";
+            }
+        });
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
 
+        final ResponseEntity<String> response = this.restTemplate.postForEntity(
+                "http://localhost:" + port + "/" + TestConstant.UI_PATH_PREFIX + "/parts",
+                new HttpEntity<>(body, headers),
+                String.class
+        );
 
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody()).isEqualTo("a.torrent:" + content.length + ";");
+    }
 
+}
@@ -1,12 +1,15 @@
 package org.araymond.joal.web.config.security;
 
 import org.araymond.joal.TestConstant;
+import org.araymond.joal.web.config.security.websocket.services.WebSocketAuthenticatorService;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.messaging.simp.stomp.StompSession;
 import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -29,6 +32,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 @SpringBootTest(
         classes = {
                 WebSecurityConfig.class,
+                WebSocketAuthenticatorService.class,
                 org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration.class,
                 org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration.class,
                 org.springframework.boot.autoconfigure.context.MessageSourceAutoConfiguration.class,
@@ -63,6 +67,11 @@ public class WebSecurityConfigWebAppTest {
         public String mockedCtrl() {
             return "";
         }
+
+        @RequestMapping(path = TestConstant.UI_PATH_PREFIX + "/api/test", method = RequestMethod.POST)
+        public String mockedApi() {
+            return "ok";
+        }
     }
 
     @TestConfiguration
@@ -99,6 +108,31 @@ public class WebSecurityConfigWebAppTest {
         ).getStatusCodeValue()).isEqualTo(200);
     }
 
-}
+    private int postToApi(final String username, final String token) {
+        final HttpHeaders headers = new HttpHeaders();
+        if (username != null) {
+            headers.add(HttpTokenAuthenticationFilter.USERNAME_HEADER, username);
+        }
+        if (token != null) {
+            headers.add(HttpTokenAuthenticationFilter.TOKEN_HEADER, token);
+        }
+        return this.restTemplate.postForEntity(
+                "http://localhost:" + port + "/" + TestConstant.UI_PATH_PREFIX + "/api/test",
+                new HttpEntity<>("", headers),
+                String.class
+        ).getStatusCodeValue();
+    }
 
+    @Test
+    public void shouldForbidApiWithoutValidCredentials() {
+        assertThat(this.postToApi(null, null)).isEqualTo(403);
+        assertThat(this.postToApi("john", null)).isEqualTo(403);
+        assertThat(this.postToApi("john", "wrong-token")).isEqualTo(403);
+    }
+
+    @Test
+    public void shouldPermitApiWithValidCredentials() {
+        assertThat(this.postToApi("john", TestConstant.UI_SECRET_TOKEN)).isEqualTo(200);
+    }
 
+}
@@ -0,0 +1,83 @@
+package org.araymond.joal.web.resources;
+
+import org.araymond.joal.core.SeedManager;
+import org.araymond.joal.core.torrent.torrent.MockedTorrent;
+import org.araymond.joal.core.torrent.watcher.TorrentFileProvider;
+import org.araymond.joal.core.utils.TorrentFileCreator;
+import org.araymond.joal.web.messages.outgoing.impl.files.UploadedTorrentFileResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockPart;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class TorrentUploadControllerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SeedManager seedManager;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        final SeedManager.JoalFoldersPath joalFoldersPath = new SeedManager.JoalFoldersPath(this.tempDir);
+        Files.createDirectories(joalFoldersPath.getTorrentFilesPath());
+        final TorrentFileProvider provider = new TorrentFileProvider(joalFoldersPath);
+        this.seedManager = mock(SeedManager.class);
+        doAnswer(invocation -> provider.newUpload()).when(this.seedManager).newTorrentFileUpload();
+    }
+
+    private static byte[] torrentBytes(final TorrentFileCreator.TorrentType type) throws IOException {
+        return Files.readAllBytes(TorrentFileCreator.getTorrentPath(type));
+    }
+
+    @Test
+    public void shouldAddEveryFileOfMultipartRequest() throws IOException, ServletException, NoSuchAlgorithmException {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/torrents/upload");
+        request.setContentType(MediaType.MULTIPART_FORM_DATA_VALUE + "; boundary=xyz");
+        request.addPart(new MockPart("comment", "not a file".getBytes()));
+        request.addPart(new MockPart("files", "ubuntu.torrent", torrentBytes(TorrentFileCreator.TorrentType.UBUNTU)));
+        request.addPart(new MockPart("files", "invalid.torrent", "not a torrent".getBytes()));
+
+        final List<UploadedTorrentFileResult> results = new TorrentUploadController(this.seedManager).upload(request, null);
+
+        final MockedTorrent ubuntu = MockedTorrent.fromFile(TorrentFileCreator.getTorrentPath(TorrentFileCreator.TorrentType.UBUNTU).toFile());
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getFileName()).isEqualTo("ubuntu.torrent");
+        assertThat(results.get(0).isAdded()).isTrue();
+        assertThat(results.get(0).getInfoHash()).isEqualTo(ubuntu.getTorrentInfoHash());
+        assertThat(results.get(0).getName()).isEqualTo(ubuntu.getName());
+        assertThat(results.get(0).getSize()).isEqualTo(ubuntu.getSize());
+        assertThat(results.get(0).getError()).isNull();
+        assertThat(results.get(1).getFileName()).isEqualTo("invalid.torrent");
+        assertThat(results.get(1).isAdded()).isFalse();
+        assertThat(results.get(1).getInfoHash()).isNull();
+        assertThat(results.get(1).getError()).isNotBlank();
+    }
+
+    @Test
+    public void shouldAddFileSentAsRequestBody() throws IOException, ServletException {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/torrents/upload");
+        request.setContentType("application/x-bittorrent");
+        request.setContent(torrentBytes(TorrentFileCreator.TorrentType.AUDIO));
+
+        final List<UploadedTorrentFileResult> results = new TorrentUploadController(this.seedManager).upload(request, "audio");
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getFileName()).isEqualTo("audio.torrent");
+        assertThat(results.get(0).isAdded()).isTrue();
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.araymond.joal.web.services.corelistener;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import org.araymond.joal.core.bandwith.Speed;
+import org.araymond.joal.core.events.speed.SeedingSpeedsHasChangedEvent;
+import org.araymond.joal.core.torrent.torrent.InfoHash;
+import org.araymond.joal.core.torrent.torrent.InfoHashTest;
+import org.araymond.joal.web.messages.outgoing.MessagePayload;
+import org.araymond.joal.web.messages.outgoing.impl.speed.SeedingSpeedHasChangedPayload;
+import org.araymond.joal.web.services.JoalMessageSendingTemplate;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class WebSpeedEventListenerTest {
+
+    @Test
+    public void shouldForwardKeyframe() {
+        final JoalMessageSendingTemplate messagingTemplate = mock(JoalMessageSendingTemplate.class);
+        final WebSpeedEventListener listener = new WebSpeedEventListener(messagingTemplate);
+        final InfoHash infoHash = InfoHashTest.createOne("abc");
+
+        listener.seedingSpeedsHasChanged(new SeedingSpeedsHasChangedEvent(ImmutableMap.of(infoHash, new Speed(1000L))));
+
+        final SeedingSpeedHasChangedPayload payload = captureSentPayload(messagingTemplate);
+        assertThat(payload.isKeyframe()).isTrue();
+        assertThat(payload.getSpeeds())
+                .extracting(SeedingSpeedHasChangedPayload.SpeedPayload::getInfoHash, SeedingSpeedHasChangedPayload.SpeedPayload::getBytesPerSecond)
+                .containsExactly(tuple(infoHash, 1000L));
+        assertThat(payload.getRemovedTorrents()).isEmpty();
+    }
+
+    @Test
+    public void shouldForwardDeltaWithoutTheUnchangedSpeeds() {
+        final JoalMessageSendingTemplate messagingTemplate = mock(JoalMessageSendingTemplate.class);
+        final WebSpeedEventListener listener = new WebSpeedEventListener(messagingTemplate);
+        final InfoHash unchanged = InfoHashTest.createOne("abc");
+        final InfoHash changed = InfoHashTest.createOne("def");
+        final InfoHash removed = InfoHashTest.createOne("ghi");
+        listener.seedingSpeedsHasChanged(new SeedingSpeedsHasChangedEvent(ImmutableMap.of(
+                unchanged, new Speed(1000L), changed, new Speed(2000L), removed, new Speed(3000L)
+        )));
+        reset(messagingTemplate);
+
+        listener.seedingSpeedsHasChanged(new SeedingSpeedsHasChangedEvent(ImmutableMap.of(changed, new Speed(500L)), Sets.newHashSet(removed)));
+
+        final SeedingSpeedHasChangedPayload payload = captureSentPayload(messagingTemplate);
+        assertThat(payload.isKeyframe()).isFalse();
+        assertThat(payload.getSpeeds())
+                .extracting(SeedingSpeedHasChangedPayload.SpeedPayload::getInfoHash, SeedingSpeedHasChangedPayload.SpeedPayload::getBytesPerSecond)
+                .containsExactly(tuple(changed, 500L));
+        assertThat(payload.getRemovedTorrents()).containsExactly(removed);
+    }
+
+    private static SeedingSpeedHasChangedPayload captureSentPayload(final JoalMessageSendingTemplate messagingTemplate) {
+        final ArgumentCaptor<MessagePayload> captor = ArgumentCaptor.forClass(MessagePayload.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/speed"), captor.capture());
+        assertThat(captor.getValue()).isInstanceOf(SeedingSpeedHasChangedPayload.class);
+        return (SeedingSpeedHasChangedPayload) captor.getValue();
+    }
+
+}
@@ -0,0 +1,160 @@
+package org.araymond.joal.web.services.upload;
+
+import com.google.common.io.ByteStreams;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TarReaderTest {
+
+    /**
+     * Writes a ustar entry, padded to a whole number of blocks.
+     */
+    static void writeEntry(final ByteArrayOutputStream out, final String name, final char type, final byte[] content) {
+        final byte[] header = new byte[512];
+        final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+        writeOctal(header, 100, 8, 0644);
+        writeOctal(header, 108, 8, 0);
+        writeOctal(header, 116, 8, 0);
+        writeOctal(header, 124, 12, content.length);
+        writeOctal(header, 136, 12, 0);
+        header[156] = (byte) type;
+        System.arraycopy("ustar\0".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 6);
+        header[263] = '0';
+        header[264] = '0';
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        long sum = 0;
+        for (final byte b : header) {
+            sum += b & 0xFF;
+        }
+        writeOctal(header, 148, 7, sum);
+        out.write(header, 0, header.length);
+        out.write(content, 0, content.length);
+        final int padding = (512 - content.length % 512) % 512;
+        out.write(new byte[padding], 0, padding);
+    }
+
+    static void writeEnd(final ByteArrayOutputStream out) {
+        out.write(new byte[1024], 0, 1024);
+    }
+
+    private static void writeOctal(final byte[] header, final int offset, final int length, final long value) {
+        final String octal = String.format("%0" + (length - 1) + "o", value);
+        System.arraycopy(octal.getBytes(StandardCharsets.US_ASCII), 0, header, offset, length - 1);
+    }
+
+    private static Map<String, String> readAll(final byte[] tar) throws IOException {
+        final TarReader reader = new TarReader(new ByteArrayInputStream(tar));
+        final Map<String, String> files = new LinkedHashMap<>();
+        String name;
+        while ((name = reader.nextFile()) != null) {
+            files.put(name, new String(ByteStreams.toByteArray(reader.entryStream()), StandardCharsets.UTF_8));
+        }
+        return files;
+    }
+
+    private static String paxRecord(final String key, final String value) {
+        final String record = " " + key + "=" + value + "\n";
+        final int recordLength = record.getBytes(StandardCharsets.UTF_8).length;
+        int length = recordLength + String.valueOf(recordLength).length();
+        // the length may gain a digit by counting itself
+        length = recordLength + String.valueOf(length).length();
+        return length + record;
+    }
+
+    @Test
+    public void shouldReadRegularFilesAndSkipOtherEntries() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeEntry(out, "folder/", '5', new byte[0]);
+        writeEntry(out, "folder/a.torrent", '0', "first".getBytes(StandardCharsets.UTF_8));
+        writeEntry(out, "link", '2', new byte[0]);
+        final byte[] large = new byte[1500];
+        Arrays.fill(large, (byte) 'x');
+        writeEntry(out, "b.torrent", '0', large);
+        writeEnd(out);
+
+        final Map<String, String> files = readAll(out.toByteArray());
+
+        assertThat(files).containsOnlyKeys("folder/a.torrent", "b.torrent");
+        assertThat(files.get("folder/a.torrent")).isEqualTo("first");
+        assertThat(files.get("b.torrent")).hasSize(1500);
+    }
+
+    @Test
+    public void shouldSkipUnreadContentOfFiles() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeEntry(out, "a.torrent", '0', new byte[700]);
+        writeEntry(out, "b.torrent", '0', "second".getBytes(StandardCharsets.UTF_8));
+        writeEnd(out);
+
+        final TarReader reader = new TarReader(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(reader.nextFile()).isEqualTo("a.torrent");
+        assertThat(reader.entryStream().read()).isEqualTo(0);
+        assertThat(reader.nextFile()).isEqualTo("b.torrent");
+        assertThat(ByteStreams.toByteArray(reader.entryStream())).isEqualTo("second".getBytes(StandardCharsets.UTF_8));
+        assertThat(reader.nextFile()).isNull();
+    }
+
+    @Test
+    public void shouldUseGnuLongNamesAndPaxPaths() throws IOException {
+        final String longName = String.join("/", Collections.nCopies(30, "folder")) + "/long.torrent";
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeEntry(out, "././@LongLink", 'L', (longName + "\0").getBytes(StandardCharsets.UTF_8));
+        writeEntry(out, "truncated", '0', "gnu".getBytes(StandardCharsets.UTF_8));
+        writeEntry(out, "PaxHeaders/x", 'x', (paxRecord("mtime", "1") + paxRecord("path", "pax/é.torrent")).getBytes(StandardCharsets.UTF_8));
+        writeEntry(out, "truncated", '0', "pax".getBytes(StandardCharsets.UTF_8));
+        writeEntry(out, "plain.torrent", '0', "plain".getBytes(StandardCharsets.UTF_8));
+        writeEnd(out);
+
+        final Map<String, String> files = readAll(out.toByteArray());
+
+        assertThat(files).containsExactly(
+                entry(longName, "gnu"),
+                entry("pax/é.torrent", "pax"),
+                entry("plain.torrent", "plain")
+        );
+    }
+
+    @Test
+    public void shouldEndOnEndOfStreamWithoutEndBlocks() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeEntry(out, "a.torrent", '0', "first".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(readAll(out.toByteArray())).containsOnlyKeys("a.torrent");
+    }
+
+    @Test
+    public void shouldFailOnTruncatedArchive() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeEntry(out, "a.torrent", '0', new byte[1000]);
+        final byte[] truncated = Arrays.copyOf(out.toByteArray(), 700);
+
+        assertThatThrownBy(() -> readAll(truncated)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void shouldFailOnNonTarContent() {
+        final byte[] garbage = new byte[2048];
+        Arrays.fill(garbage, (byte) 'z');
+
+        assertThatThrownBy(() -> readAll(garbage))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static Map.Entry<String, String> entry(final String key, final String value) {
+        return new AbstractMap.SimpleEntry<>(key, value);
+    }
+
+}
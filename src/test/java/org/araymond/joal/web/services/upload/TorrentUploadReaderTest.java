@@ -0,0 +1,118 @@
+package org.araymond.joal.web.services.upload;
+
+import org.araymond.joal.core.SeedManager;
+import org.araymond.joal.core.torrent.watcher.TorrentFileProvider;
+import org.araymond.joal.core.torrent.watcher.TorrentFileUpload;
+import org.araymond.joal.core.utils.TorrentFileCreator;
+import org.araymond.joal.web.services.upload.TorrentUploadReader.Format;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TorrentUploadReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TorrentFileProvider provider;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        final SeedManager.JoalFoldersPath joalFoldersPath = new SeedManager.JoalFoldersPath(this.tempDir);
+        Files.createDirectories(joalFoldersPath.getTorrentFilesPath());
+        this.provider = new TorrentFileProvider(joalFoldersPath);
+    }
+
+    private static byte[] torrentBytes(final TorrentFileCreator.TorrentType type) throws IOException {
+        return Files.readAllBytes(TorrentFileCreator.getTorrentPath(type));
+    }
+
+    private List<TorrentFileUpload.Result> upload(final String fileName, final String contentType, final byte[] bytes) throws IOException {
+        try (final TorrentFileUpload upload = this.provider.newUpload()) {
+            TorrentUploadReader.read(fileName, contentType, new ByteArrayInputStream(bytes), upload);
+            return upload.commit();
+        }
+    }
+
+    @Test
+    public void shouldTellFormatApartFromNameOrContentType() {
+        assertThat(TorrentUploadReader.formatOf("a.torrent", "application/x-bittorrent")).isEqualTo(Format.TORRENT);
+        assertThat(TorrentUploadReader.formatOf(null, null)).isEqualTo(Format.TORRENT);
+        assertThat(TorrentUploadReader.formatOf("A.ZIP", null)).isEqualTo(Format.ZIP);
+        assertThat(TorrentUploadReader.formatOf(null, "application/zip")).isEqualTo(Format.ZIP);
+        assertThat(TorrentUploadReader.formatOf("a.tar", "application/octet-stream")).isEqualTo(Format.TAR);
+        assertThat(TorrentUploadReader.formatOf(null, "application/x-tar")).isEqualTo(Format.TAR);
+        assertThat(TorrentUploadReader.formatOf("a.tar.gz", null)).isEqualTo(Format.TAR_GZIP);
+        assertThat(TorrentUploadReader.formatOf("a.tgz", null)).isEqualTo(Format.TAR_GZIP);
+        assertThat(TorrentUploadReader.formatOf(null, "application/gzip")).isEqualTo(Format.TAR_GZIP);
+    }
+
+    @Test
+    public void shouldReadSingleTorrentFile() throws IOException {
+        final List<TorrentFileUpload.Result> results = upload("ubuntu.torrent", "application/x-bittorrent", torrentBytes(TorrentFileCreator.TorrentType.UBUNTU));
+
+        assertThat(results).extracting(TorrentFileUpload.Result::getFileName).containsExactly("ubuntu.torrent");
+        assertThat(results).extracting(TorrentFileUpload.Result::isAdded).containsExactly(true);
+    }
+
+    @Test
+    public void shouldReadTorrentFilesOfZipArchive() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("folder/"));
+            zip.putNextEntry(new ZipEntry("folder/ubuntu.torrent"));
+            zip.write(torrentBytes(TorrentFileCreator.TorrentType.UBUNTU));
+            zip.putNextEntry(new ZipEntry("readme.txt"));
+            zip.write("not a torrent".getBytes());
+            zip.putNextEntry(new ZipEntry("audio.TORRENT"));
+            zip.write(torrentBytes(TorrentFileCreator.TorrentType.AUDIO));
+            zip.putNextEntry(new ZipEntry("broken.torrent"));
+            zip.write("not a torrent".getBytes());
+        }
+
+        final List<TorrentFileUpload.Result> results = upload("torrents.zip", "application/octet-stream", bytes.toByteArray());
+
+        assertThat(results).extracting(TorrentFileUpload.Result::getFileName)
+                .containsExactly("ubuntu.torrent", "audio.TORRENT.torrent", "broken.torrent");
+        assertThat(results).extracting(TorrentFileUpload.Result::isAdded).containsExactly(true, true, false);
+    }
+
+    @Test
+    public void shouldReadTorrentFilesOfGzippedTarArchive() throws IOException {
+        final ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        TarReaderTest.writeEntry(tar, "folder/", '5', new byte[0]);
+        TarReaderTest.writeEntry(tar, "folder/ubuntu.torrent", '0', torrentBytes(TorrentFileCreator.TorrentType.UBUNTU));
+        TarReaderTest.writeEntry(tar, "readme.txt", '0', "not a torrent".getBytes());
+        TarReaderTest.writeEntry(tar, "ninja.torrent", '0', torrentBytes(TorrentFileCreator.TorrentType.NINJA_HEAT));
+        TarReaderTest.writeEnd(tar);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(tar.toByteArray());
+        }
+
+        final List<TorrentFileUpload.Result> results = upload(null, "application/gzip", bytes.toByteArray());
+
+        assertThat(results).extracting(TorrentFileUpload.Result::getFileName).containsExactly("ubuntu.torrent", "ninja.torrent");
+        assertThat(results).extracting(TorrentFileUpload.Result::isAdded).containsExactly(true, true);
+    }
+
+    @Test
+    public void shouldFailOnCorruptedArchive() {
+        assertThatThrownBy(() -> upload("torrents.tar.gz", null, "not gzip".getBytes()))
+                .isInstanceOf(IOException.class);
+    }
+
+}